@@ -0,0 +1,123 @@
+package benchmark;
+
+import server.PentagoServer;
+import server.ServerMode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class that measures how much memory and how many threads the idle connections of the server take,
+ * when every connection has its own thread, when the connections are served by the event loops and when
+ * every connection has its own virtual thread.
+ * Every client says hello to the server, waits for the answer and then stays connected without sending
+ * anything else. The clients run in the same process as the server, so their sockets are measured too,
+ * but they take the same memory in every mode. Each mode is measured in its own process.
+ * <p>
+ * Usage: ConnectionBenchmark [connections] [blocking | selector | virtual | all]
+ *
+ * @author Aliaksei Kouzel
+ */
+public class ConnectionBenchmark {
+    private static final String HELLO = "HELLO~Load client\n";
+    private static final double GIGABYTE = 1024 * 1024 * 1024;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        String mode = args.length > 1 ? args[1] : "all";
+        if (!mode.equals("all")) {
+            run(ServerMode.valueOf(mode.toUpperCase()), connections);
+            return;
+        }
+        for (ServerMode serverMode : ServerMode.values()) {
+            String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            String classPath = System.getProperty("java.class.path");
+            new ProcessBuilder(java, "-cp", classPath, ConnectionBenchmark.class.getName(),
+                    String.valueOf(connections), serverMode.name()).inheritIO().start().waitFor();
+        }
+    }
+
+    /**
+     * Open the idle connections to a server in the given mode and print the memory and the threads they take.
+     *
+     * @param mode        server mode
+     * @param connections number of the connections
+     */
+    private static void run(ServerMode mode, int connections) throws IOException {
+        var server = new PentagoServer("Load test server", mode);
+        PrintStream console = System.out;
+        // the server prints every message it handles
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        List<SocketChannel> clients = new ArrayList<>();
+        try {
+            server.start(0);
+            long memoryBefore = getUsedMemory();
+            int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < connections; i++) {
+                SocketChannel client = SocketChannel.open(new InetSocketAddress("localhost", server.getPort()));
+                client.write(ByteBuffer.wrap(HELLO.getBytes(StandardCharsets.UTF_8)));
+                readLine(client);
+                clients.add(client);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long memory = getUsedMemory() - memoryBefore;
+            int threads = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+            console.printf("%s: %d connections in %.2f s, %d threads, %.1f KB per connection, "
+                            + "%.0f connections per GB%n", mode, connections, seconds, threads,
+                    memory / 1024.0 / connections, connections / (memory / GIGABYTE));
+        } finally {
+            for (SocketChannel client : clients) client.close();
+            server.stop();
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * Wait for a line sent by the server.
+     *
+     * @param client channel of the client
+     */
+    private static void readLine(SocketChannel client) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        while (client.read(buffer) != -1) {
+            for (int i = 0; i < buffer.position(); i++) {
+                if (buffer.get(i) == '\n') return;
+            }
+            if (!buffer.hasRemaining()) buffer.clear();
+        }
+        throw new IOException("Server has closed the connection");
+    }
+
+    /**
+     * Get the resident memory of the process, which includes the thread stacks and the socket buffers.
+     * If it is unknown, e.g. outside of Linux, the used heap is returned instead.
+     *
+     * @return used memory in bytes
+     */
+    private static long getUsedMemory() {
+        System.gc();
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
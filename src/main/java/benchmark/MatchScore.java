@@ -0,0 +1,139 @@
+package benchmark;
+
+/**
+ * Score of a player in the games against an opponent, together with the Elo difference that it implies.
+ * The confidence interval of the difference comes from the variance of the game results,
+ * so the draws narrow it down.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class MatchScore {
+    private static final double Z_95 = 1.959964;
+    private int wins;
+    private int draws;
+    private int losses;
+
+    /**
+     * Add the result of a game.
+     *
+     * @param points 1 for a win, 0.5 for a draw and 0 for a loss
+     */
+    public void add(double points) {
+        if (points > 0.5) {
+            wins++;
+        } else if (points < 0.5) {
+            losses++;
+        } else {
+            draws++;
+        }
+    }
+
+    /**
+     * Add the games of another score.
+     *
+     * @param other score of the same player against another opponent
+     */
+    public void add(MatchScore other) {
+        wins += other.wins;
+        draws += other.draws;
+        losses += other.losses;
+    }
+
+    /**
+     * Get the score of the opponent, i.e. the same games from the other side.
+     *
+     * @return reversed score
+     */
+    public MatchScore reverse() {
+        var reversed = new MatchScore();
+        reversed.wins = losses;
+        reversed.draws = draws;
+        reversed.losses = wins;
+        return reversed;
+    }
+
+    /**
+     * Get the share of the points that the player has scored.
+     *
+     * @return score from 0 to 1, 0.5 if no games have been played
+     */
+    public double getScore() {
+        int games = getGames();
+        return games == 0 ? 0.5 : (wins + draws / 2.0) / games;
+    }
+
+    /**
+     * Get the Elo difference of the player and the opponent.
+     *
+     * @return Elo difference, infinite if the player has won or lost every game
+     */
+    public double getElo() {
+        return toElo(getScore());
+    }
+
+    /**
+     * Get the lower bound of the 95% confidence interval of the Elo difference.
+     *
+     * @return lower bound of the Elo difference
+     */
+    public double getEloLower() {
+        return toElo(getScore() - Z_95 * getStandardError());
+    }
+
+    /**
+     * Get the upper bound of the 95% confidence interval of the Elo difference.
+     *
+     * @return upper bound of the Elo difference
+     */
+    public double getEloUpper() {
+        return toElo(getScore() + Z_95 * getStandardError());
+    }
+
+    /**
+     * Get the standard error of the score, based on the variance of the game results.
+     *
+     * @return standard error of the score
+     */
+    private double getStandardError() {
+        int games = getGames();
+        if (games == 0) return 0;
+        double score = getScore();
+        double variance = (wins * Math.pow(1 - score, 2) + draws * Math.pow(0.5 - score, 2)
+                + losses * Math.pow(score, 2)) / games;
+        return Math.sqrt(variance / games);
+    }
+
+    /**
+     * Convert the expected score to the Elo difference.
+     *
+     * @param score expected score from 0 to 1
+     * @return Elo difference
+     */
+    public static double toElo(double score) {
+        if (score <= 0) return Double.NEGATIVE_INFINITY;
+        if (score >= 1) return Double.POSITIVE_INFINITY;
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getGames() {
+        return wins + draws + losses;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("+%d =%d -%d, score %.1f%%, Elo %+.0f [%+.0f, %+.0f]", wins, draws, losses,
+                getScore() * 100, getElo(), getEloLower(), getEloUpper());
+    }
+}
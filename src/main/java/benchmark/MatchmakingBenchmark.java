@@ -0,0 +1,80 @@
+package benchmark;
+
+import server.matchmaking.FifoPolicy;
+import server.matchmaking.Matchmaker;
+import server.matchmaking.PairingPolicy;
+import server.matchmaking.RatingWindowPolicy;
+
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class that measures how long the clients wait in the matchmaking queue with every pairing policy.
+ * The given number of clients joins the queue at once, after which the other clients keep arriving at
+ * the given rate. The ratings of the clients are normally distributed around the default rating.
+ * <p>
+ * Usage: MatchmakingBenchmark [queued clients] [arriving clients] [arrivals per second]
+ *
+ * @author Aliaksei Kouzel
+ */
+public class MatchmakingBenchmark {
+    private static final double RATING_DEVIATION = 300;
+    private static final long IDLE_MILLIS = 2000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int queued = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int arriving = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int rate = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        run("fifo", new FifoPolicy(), queued, arriving, rate);
+        run("rating-window", new RatingWindowPolicy(), queued, arriving, rate);
+    }
+
+    /**
+     * Join the clients into the queue and print the waiting times once they have been paired.
+     *
+     * @param name     name of the policy
+     * @param policy   pairing policy
+     * @param queued   number of the clients joining at once
+     * @param arriving number of the clients arriving later
+     * @param rate     arrivals per second
+     */
+    private static void run(String name, PairingPolicy policy, int queued, int arriving, int rate)
+            throws InterruptedException {
+        var random = new Random(1);
+        int[] ratings = new int[queued + arriving];
+        for (int i = 0; i < ratings.length; i++) {
+            ratings[i] = (int) Math.round(Matchmaker.DEFAULT_RATING + random.nextGaussian() * RATING_DEVIATION);
+        }
+        var ratingDifference = new LongAdder();
+        var matchmaker = new Matchmaker<Integer>(policy,
+                (first, second) -> ratingDifference.add(Math.abs(ratings[first] - ratings[second])));
+        matchmaker.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < queued; i++) matchmaker.join(i, ratings[i]);
+        for (int i = 0; i < arriving; i++) {
+            // the clients arrive in batches of a millisecond
+            long due = start + (long) (i * 1e9 / rate);
+            long delay = due - System.nanoTime();
+            if (delay > 1_000_000) Thread.sleep(delay / 1_000_000);
+            matchmaker.join(queued + i, ratings[queued + i]);
+        }
+
+        // wait until everybody has been paired, or nobody has been paired for a while
+        long matches = matchmaker.getMatches();
+        long lastMatch = System.nanoTime();
+        while (matches * 2 < ratings.length - 1 && System.nanoTime() - lastMatch < IDLE_MILLIS * 1_000_000) {
+            Thread.sleep(1);
+            if (matchmaker.getMatches() != matches) {
+                matches = matchmaker.getMatches();
+                lastMatch = System.nanoTime();
+            }
+        }
+        double seconds = (lastMatch - start) / 1e9;
+        matchmaker.close();
+
+        System.out.printf("%s: %d clients in %.1f s, %d unpaired, average rating difference %.1f%n  %s%n", name,
+                ratings.length, seconds, ratings.length - matchmaker.getMatches() * 2,
+                ratingDifference.sum() / (double) Math.max(1, matchmaker.getMatches()), matchmaker.getWaitTimes());
+    }
+}
@@ -0,0 +1,258 @@
+package benchmark;
+
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.board.Symmetry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Class that counts the positions reachable from a position in the given number of moves (perft), to verify
+ * the bit board against the regular board and to measure how fast it plays the moves. The games that are over
+ * before the last move are not continued.
+ * <p>
+ * The move sequences are counted with every move of the regular board, i.e. every empty field with every
+ * rotation, so the count of the bit board has to match the count of {@link Board#playMove}. The distinct
+ * positions are counted level by level, either by their keys or by their canonical forms under the symmetries
+ * of the board, which also covers the moves that the bit board skips as duplicates.
+ * <p>
+ * Usage: Perft [depth] [moves | positions | symmetry | verify] [threads] [fields] [turn]
+ *
+ * @author Aliaksei Kouzel
+ */
+public class Perft {
+    private static final int SEQUENTIAL_DEPTH = 2;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a perft counter.
+     *
+     * @param pool pool that counts the subtrees in parallel
+     * @requires pool != null
+     */
+    public Perft(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        String mode = args.length > 1 ? args[1] : "moves";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        BitBoard root = args.length > 4 ? SuitePosition.parseBoard(args[3], args[4]) : new BitBoard();
+
+        var perft = new Perft(new ForkJoinPool(threads));
+        for (int ply = 1; ply <= depth; ply++) {
+            long start = System.nanoTime();
+            String result;
+            long positions;
+            switch (mode) {
+                case "positions":
+                case "symmetry":
+                    long[] counts = perft.countDistinct(root, ply, mode.equals("symmetry"));
+                    positions = counts[ply];
+                    result = String.valueOf(positions);
+                    break;
+                case "verify":
+                    positions = countReference(root.toBoard(), root.getTurn(), ply);
+                    long count = perft.count(root, ply);
+                    BitBoard mismatch = perft.findMismatch(root, ply);
+                    result = String.format("%d reference, %d bit board, %s", positions, count,
+                            mismatch == null && count == positions ? "ok" : "MISMATCH at\n" + mismatch);
+                    break;
+                default:
+                    positions = perft.count(root, ply);
+                    result = String.valueOf(positions);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("depth %d: %s (%.2f s, %.0f positions/s)%n", ply, result, seconds, positions / seconds);
+        }
+    }
+
+    /**
+     * Count the move sequences of the given length with the bit board, splitting the subtrees among the threads.
+     *
+     * @param root  position to start from
+     * @param depth number of moves
+     * @return number of the reached positions, counted once per move sequence
+     * @requires root != null && depth >= 0
+     */
+    public long count(BitBoard root, int depth) {
+        return pool.invoke(new CountTask(root, depth));
+    }
+
+    /**
+     * Count the move sequences of the given length with the regular board, which is the reference
+     * implementation of the rules.
+     *
+     * @param board position to start from
+     * @param turn  player to move
+     * @param depth number of moves
+     * @return number of the reached positions, counted once per move sequence
+     * @requires board != null && turn != null && depth >= 0
+     */
+    public static long countReference(Board board, Marble turn, int depth) {
+        if (depth == 0) return 1;
+        if (board.isGameOver()) return 0;
+        long count = 0;
+        for (int position = 0; position < BitBoard.FIELDS; position++) {
+            if (board.getField(position) != Marble.EMPTY) continue;
+            for (int rotation = 0; rotation < BitBoard.ROTATIONS; rotation++) {
+                Board child = board.deepCopy();
+                child.playMove(new Move(position, rotation, turn));
+                count += countReference(child, turn.reverse(), depth - 1);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count the distinct positions after every number of moves up to the depth.
+     *
+     * @param root        position to start from
+     * @param depth       maximal number of moves
+     * @param bySymmetry  true if the positions that are symmetric to each other are counted once
+     * @return numbers of the distinct positions, indexed by the number of moves
+     * @requires root != null && depth >= 0
+     */
+    public long[] countDistinct(BitBoard root, int depth, boolean bySymmetry) {
+        long[] counts = new long[depth + 1];
+        List<BitBoard> level = List.of(root);
+        counts[0] = 1;
+        for (int ply = 1; ply <= depth; ply++) {
+            Map<Long, BitBoard> next = new ConcurrentHashMap<>();
+            List<BitBoard> parents = level;
+            try {
+                pool.submit(() -> parents.parallelStream().filter(board -> !board.isGameOver()).forEach(board -> {
+                    for (BitBoard child : getChildren(board)) {
+                        BitBoard key = bySymmetry ? Symmetry.apply(child, Symmetry.getCanonical(child)) : child;
+                        next.putIfAbsent(key.getKey(), child);
+                    }
+                })).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Perft has been interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Perft has failed", e.getCause());
+            }
+            counts[ply] = next.size();
+            level = new ArrayList<>(next.values());
+        }
+        return counts;
+    }
+
+    /**
+     * Compare the children of every position up to the depth, as played by the bit board with its own move
+     * generation and as played by the regular board with every move, as well as the ends of the games.
+     * The bit board skips some of the moves that lead to the same positions, so the children are compared as sets.
+     *
+     * @param root  position to start from
+     * @param depth number of moves
+     * @return the first position whose children differ, null if there is none
+     * @requires root != null && depth >= 0
+     */
+    public BitBoard findMismatch(BitBoard root, int depth) {
+        Board board = root.toBoard();
+        if (board.isGameOver() != root.isGameOver()) return root;
+        if (depth == 0 || root.isGameOver()) return null;
+        Set<BitBoard> expected = new HashSet<>();
+        for (int position = 0; position < BitBoard.FIELDS; position++) {
+            if (board.getField(position) != Marble.EMPTY) continue;
+            for (int rotation = 0; rotation < BitBoard.ROTATIONS; rotation++) {
+                Board child = board.deepCopy();
+                child.playMove(new Move(position, rotation, root.getTurn()));
+                BitBoard played = BitBoard.of(child);
+                expected.add(new BitBoard(played.getBlack(), played.getWhite(), root.getTurn().reverse()));
+            }
+        }
+
+        int[] moves = new int[BitBoard.MOVES];
+        int count = root.getMoves(moves);
+        Set<BitBoard> actual = new HashSet<>();
+        for (int i = 0; i < count; i++) actual.add(root.play(moves[i]));
+        if (!expected.equals(actual)) return root;
+
+        for (BitBoard child : actual) {
+            BitBoard mismatch = findMismatch(child, depth - 1);
+            if (mismatch != null) return mismatch;
+        }
+        return null;
+    }
+
+    /**
+     * Play every move of the regular board, i.e. every empty field with every rotation.
+     *
+     * @param board position before the move
+     * @return positions after the moves
+     */
+    private static List<BitBoard> getChildren(BitBoard board) {
+        List<BitBoard> children = new ArrayList<>();
+        long empty = board.getEmpty();
+        while (empty != 0) {
+            int position = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            for (int rotation = 0; rotation < BitBoard.ROTATIONS; rotation++) {
+                children.add(board.play(position, rotation));
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Count the move sequences from the position sequentially.
+     *
+     * @param board position to start from
+     * @param depth number of moves
+     * @return number of the reached positions
+     */
+    private static long countSequentially(BitBoard board, int depth) {
+        if (depth == 0) return 1;
+        if (board.isGameOver()) return 0;
+        long count = 0;
+        long empty = board.getEmpty();
+        while (empty != 0) {
+            int position = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            for (int rotation = 0; rotation < BitBoard.ROTATIONS; rotation++) {
+                BitBoard child = board.play(position, rotation);
+                // the positions before the last move only need to be played, not continued
+                count += depth == 1 ? 1 : countSequentially(child, depth - 1);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Task that counts the move sequences of a subtree, forking a task for every child
+     * until the subtrees are small enough to be counted sequentially.
+     */
+    private static class CountTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+        private final BitBoard board;
+        private final int depth;
+
+        private CountTask(BitBoard board, int depth) {
+            this.board = board;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SEQUENTIAL_DEPTH || board.isGameOver()) return countSequentially(board, depth);
+            List<CountTask> tasks = new ArrayList<>();
+            for (BitBoard child : getChildren(board)) tasks.add(new CountTask(child, depth - 1));
+            long count = 0;
+            for (CountTask task : invokeAll(tasks)) count += task.join();
+            return count;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package benchmark;
+
+import entity.board.BitBoard;
+import entity.strategy.search.ProofNumberSearch;
+import entity.strategy.search.ProofResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class that measures the proof time of the proof-number search over a corpus of middlegame positions.
+ * The corpus is made of random games, so the same seed always gives the same positions.
+ * <p>
+ * Usage: ProofBenchmark [positions] [node budget] [seed]
+ *
+ * @author Aliaksei Kouzel
+ */
+public class ProofBenchmark {
+    private static final int MIN_PLY = 10;
+    private static final int MAX_PLY = 24;
+
+    public static void main(String[] args) {
+        int positions = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int nodeBudget = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        List<BitBoard> corpus = createCorpus(positions, seed);
+        var search = new ProofNumberSearch(nodeBudget, 1 << 20);
+        int[] counts = new int[ProofResult.values().length];
+        long[] times = new long[corpus.size()];
+        long totalNodes = 0;
+
+        // warm up the compiler on the same kind of work
+        for (int i = 0; i < Math.min(10, corpus.size()); i++) {
+            search.prove(corpus.get(i));
+        }
+
+        for (int i = 0; i < corpus.size(); i++) {
+            search.clear();
+            long start = System.nanoTime();
+            ProofResult result = search.prove(corpus.get(i));
+            times[i] = System.nanoTime() - start;
+            counts[result.ordinal()]++;
+            totalNodes += search.getNodes();
+        }
+
+        Arrays.sort(times);
+        System.out.printf("Positions: %d, node budget: %d%n", corpus.size(), nodeBudget);
+        for (ProofResult result : ProofResult.values()) {
+            System.out.printf("%-10s %d%n", result, counts[result.ordinal()]);
+        }
+        System.out.printf("Proof time (ms): median %.2f, p90 %.2f, max %.2f, total %.2f%n",
+                toMillis(times[times.length / 2]), toMillis(times[times.length * 9 / 10]),
+                toMillis(times[times.length - 1]), toMillis(Arrays.stream(times).sum()));
+        System.out.printf("Expanded positions: %d (%.0f per second)%n",
+                totalNodes, totalNodes / (Arrays.stream(times).sum() / 1e9));
+    }
+
+    /**
+     * Create the corpus of positions by playing random moves from the empty board.
+     *
+     * @param positions number of positions
+     * @param seed      random seed
+     * @return positions that are not yet decided
+     */
+    static List<BitBoard> createCorpus(int positions, long seed) {
+        var random = new Random(seed);
+        int[] moves = new int[BitBoard.MOVES];
+        List<BitBoard> corpus = new ArrayList<>();
+        while (corpus.size() < positions) {
+            int plies = MIN_PLY + random.nextInt(MAX_PLY - MIN_PLY + 1);
+            BitBoard board = new BitBoard();
+            for (int ply = 0; ply < plies && !board.isGameOver(); ply++) {
+                int count = board.getMoves(moves);
+                board = board.play(moves[random.nextInt(count)]);
+            }
+            if (!board.isGameOver()) corpus.add(board);
+        }
+        return corpus;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+}
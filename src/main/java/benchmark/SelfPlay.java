@@ -0,0 +1,73 @@
+package benchmark;
+
+import entity.board.BitBoard;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.strategy.Strategy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Class that plays the games between the strategies on the calling thread, without the sessions,
+ * the players and the sockets, so that many of them can be played at once.
+ *
+ * @author Aliaksei Kouzel
+ */
+public final class SelfPlay {
+
+    private SelfPlay() {
+    }
+
+    /**
+     * Create the openings by playing random moves from the empty board. The strategies are mostly deterministic,
+     * so the games of the same pairing only differ by their openings.
+     *
+     * @param count number of the openings
+     * @param plies number of random moves of each opening
+     * @param seed  random seed
+     * @return distinct positions that are not yet decided
+     * @requires count > 0 && plies >= 0
+     */
+    public static List<BitBoard> createOpenings(int count, int plies, long seed) {
+        var random = new Random(seed);
+        int[] moves = new int[BitBoard.MOVES];
+        Set<BitBoard> openings = new HashSet<>();
+        List<BitBoard> result = new ArrayList<>();
+        while (result.size() < count) {
+            BitBoard board = new BitBoard();
+            for (int ply = 0; ply < plies && !board.isGameOver(); ply++) {
+                board = board.play(moves[random.nextInt(board.getMoves(moves))]);
+            }
+            if (!board.isGameOver() && openings.add(board)) result.add(board);
+        }
+        return result;
+    }
+
+    /**
+     * Play the game from the opening until it is over. A strategy that fails to give a valid move loses the game.
+     *
+     * @param black   strategy of the black player
+     * @param white   strategy of the white player
+     * @param opening position to start from
+     * @return winner marble, or EMPTY if the game has ended with a draw
+     * @requires black != null && white != null && opening != null
+     */
+    public static Marble play(Strategy black, Strategy white, BitBoard opening) {
+        BitBoard board = opening;
+        while (!board.isGameOver()) {
+            Marble turn = board.getTurn();
+            Move move = (turn == Marble.BLACK ? black : white).decideMove(board.toBoard());
+            if (move == null || move.getRotation() < 0 || move.getRotation() >= BitBoard.ROTATIONS
+                    || move.getPosition() < 0 || move.getPosition() >= BitBoard.FIELDS
+                    || board.getField(move.getPosition()) != Marble.EMPTY) {
+                return turn.reverse();
+            }
+            board = board.play(move.getPosition(), move.getRotation());
+        }
+        return board.getWinner();
+    }
+}
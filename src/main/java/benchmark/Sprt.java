@@ -0,0 +1,83 @@
+package benchmark;
+
+/**
+ * Sequential probability ratio test that decides between two hypotheses about the Elo difference
+ * of a candidate and a baseline: H0, that the difference is elo0, and H1, that it is elo1. After every game,
+ * the log-likelihood ratio of the hypotheses is compared to the bounds given by the error rates, so the test
+ * stops as soon as the games are conclusive. The ratio is approximated from the mean and the variance
+ * of the game results, which fits the games with draws as well.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class Sprt {
+    private final double score0;
+    private final double score1;
+    private final double lowerBound;
+    private final double upperBound;
+
+    /**
+     * Create a test.
+     *
+     * @param elo0  Elo difference of the null hypothesis
+     * @param elo1  Elo difference of the alternative hypothesis
+     * @param alpha probability of accepting H1 when H0 is true
+     * @param beta  probability of accepting H0 when H1 is true
+     * @requires elo0 < elo1 && alpha > 0 && alpha < 1 && beta > 0 && beta < 1
+     */
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        score0 = toScore(elo0);
+        score1 = toScore(elo1);
+        lowerBound = Math.log(beta / (1 - alpha));
+        upperBound = Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * Test the score of the candidate against the baseline.
+     *
+     * @param score score of the candidate
+     * @return PASSED if H1 is accepted, FAILED if H0 is accepted, INCONCLUSIVE if more games are needed
+     */
+    public SprtResult test(MatchScore score) {
+        double ratio = getLogLikelihoodRatio(score);
+        if (ratio >= upperBound) return SprtResult.PASSED;
+        if (ratio <= lowerBound) return SprtResult.FAILED;
+        return SprtResult.INCONCLUSIVE;
+    }
+
+    /**
+     * Get the log-likelihood ratio of H1 to H0. The results that have not occurred yet count as half a game,
+     * so the first few games, e.g. all won, do not decide the test on their own.
+     *
+     * @param score score of the candidate
+     * @return log-likelihood ratio, 0 if no games have been played
+     */
+    public double getLogLikelihoodRatio(MatchScore score) {
+        if (score.getGames() == 0) return 0;
+        double wins = Math.max(0.5, score.getWins());
+        double draws = Math.max(0.5, score.getDraws());
+        double losses = Math.max(0.5, score.getLosses());
+        double games = wins + draws + losses;
+        double mean = (wins + draws / 2) / games;
+        double variance = (wins * Math.pow(1 - mean, 2) + draws * Math.pow(0.5 - mean, 2)
+                + losses * Math.pow(mean, 2)) / games;
+        return games * (score1 - score0) * (2 * mean - score0 - score1) / (2 * variance);
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Convert the Elo difference to the expected score.
+     *
+     * @param elo Elo difference
+     * @return expected score from 0 to 1
+     */
+    private static double toScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+}
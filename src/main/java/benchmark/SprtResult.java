@@ -0,0 +1,23 @@
+package benchmark;
+
+/**
+ * Class that contains possible results of the sequential probability ratio test.
+ *
+ * @author Aliaksei Kouzel
+ */
+public enum SprtResult {
+    /**
+     * When the candidate is stronger than the baseline by at least the expected Elo gain.
+     */
+    PASSED,
+
+    /**
+     * When the candidate is not stronger than the baseline by more than the tolerated Elo difference.
+     */
+    FAILED,
+
+    /**
+     * When the games have run out before either of the hypotheses has been accepted.
+     */
+    INCONCLUSIVE
+}
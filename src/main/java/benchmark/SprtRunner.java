@@ -0,0 +1,152 @@
+package benchmark;
+
+import entity.board.BitBoard;
+import entity.board.Marble;
+import entity.strategy.Strategy;
+import entity.strategy.StrategyRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class that plays the candidate strategy against the baseline until the sequential probability ratio test
+ * is conclusive, e.g. to check that a change of the strategy has not made it weaker. The games are played
+ * in parallel, a few of them ahead of the test, but their results are counted in the order in which they have
+ * been started, so the games that end sooner do not bias the test. Each opening is played with both colours.
+ * <p>
+ * Usage: SprtRunner [baseline] [candidate] [elo0] [elo1] [maximal games] [threads]
+ * <p>
+ * The exit code is 0 if the test has passed, 1 if it has failed and 2 if it is inconclusive.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SprtRunner {
+    public static final double DEFAULT_ALPHA = 0.05;
+    public static final double DEFAULT_BETA = 0.05;
+    private static final int GAMES_AHEAD = 2;
+    private final String baseline;
+    private final String candidate;
+    private final Sprt sprt;
+    private final int maxGames;
+    private final int threads;
+    private final long seed;
+    private final MatchScore score = new MatchScore();
+
+    /**
+     * Create a runner of the test.
+     *
+     * @param baseline  name of the registered baseline strategy
+     * @param candidate name of the registered candidate strategy
+     * @param sprt      test of the candidate's score
+     * @param maxGames  maximal number of the games
+     * @param threads   number of the games played at once
+     * @param seed      random seed of the openings
+     * @requires baseline != null && candidate != null && sprt != null && maxGames > 0 && threads > 0
+     */
+    public SprtRunner(String baseline, String candidate, Sprt sprt, int maxGames, int threads, long seed) {
+        this.baseline = baseline;
+        this.candidate = candidate;
+        this.sprt = sprt;
+        this.maxGames = maxGames;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseline = args.length > 0 ? args[0] : "search-1";
+        String candidate = args.length > 1 ? args[1] : "search-2";
+        double elo0 = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        double elo1 = args.length > 3 ? Double.parseDouble(args[3]) : 10;
+        int maxGames = args.length > 4 ? Integer.parseInt(args[4]) : 20_000;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        StrategyRegistry.getFactory(baseline);
+        StrategyRegistry.getFactory(candidate);
+
+        var sprt = new Sprt(elo0, elo1, DEFAULT_ALPHA, DEFAULT_BETA);
+        var runner = new SprtRunner(baseline, candidate, sprt, maxGames, threads, System.nanoTime());
+        long start = System.nanoTime();
+        SprtResult result = runner.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%s vs %s, H0: %+.1f Elo, H1: %+.1f Elo%n", candidate, baseline, elo0, elo1);
+        System.out.printf("%d games in %.1f s, %s, LLR %.2f [%.2f, %.2f]%n", runner.getScore().getGames(), seconds,
+                runner.getScore(), sprt.getLogLikelihoodRatio(runner.getScore()), sprt.getLowerBound(),
+                sprt.getUpperBound());
+        System.out.println(result);
+        System.exit(result == SprtResult.PASSED ? 0 : result == SprtResult.FAILED ? 1 : 2);
+    }
+
+    /**
+     * Play the games until the test is conclusive or the games run out.
+     *
+     * @return result of the test
+     * @throws InterruptedException if the thread has been interrupted while waiting for the games
+     */
+    public SprtResult run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "sprt-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ThreadLocal<Map<String, Strategy>> strategies = ThreadLocal.withInitial(HashMap::new);
+        List<BitBoard> openings = SelfPlay.createOpenings((maxGames + 1) / 2, Tournament.OPENING_PLIES, seed);
+        Deque<Future<Marble>> pending = new ArrayDeque<>();
+        int started = 0;
+        try {
+            while (score.getGames() < maxGames) {
+                while (started < maxGames && pending.size() < threads * GAMES_AHEAD) {
+                    pending.add(executor.submit(createGame(strategies, openings.get(started / 2), started % 2 == 0)));
+                    started++;
+                }
+                boolean isCandidateBlack = score.getGames() % 2 == 0;
+                Marble winner = pending.poll().get();
+                Marble candidateMarble = isCandidateBlack ? Marble.BLACK : Marble.WHITE;
+                score.add(winner == Marble.EMPTY ? 0.5 : winner == candidateMarble ? 1 : 0);
+
+                SprtResult result = sprt.test(score);
+                if (result != SprtResult.INCONCLUSIVE) return result;
+            }
+            return SprtResult.INCONCLUSIVE;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Strategy has failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Create the game of the candidate against the baseline.
+     *
+     * @param strategies       strategies of the threads
+     * @param opening          position to start from
+     * @param isCandidateBlack true if the candidate plays black
+     * @return game that returns the winner marble
+     */
+    private Callable<Marble> createGame(ThreadLocal<Map<String, Strategy>> strategies,
+                                        BitBoard opening, boolean isCandidateBlack) {
+        return () -> {
+            Map<String, Strategy> local = strategies.get();
+            Strategy candidateStrategy = local.computeIfAbsent(candidate, StrategyRegistry::create);
+            Strategy baselineStrategy = local.computeIfAbsent(baseline, StrategyRegistry::create);
+            return isCandidateBlack ? SelfPlay.play(candidateStrategy, baselineStrategy, opening)
+                    : SelfPlay.play(baselineStrategy, candidateStrategy, opening);
+        };
+    }
+
+    /**
+     * Get the score of the candidate in the counted games.
+     *
+     * @return score of the candidate
+     */
+    public MatchScore getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,113 @@
+package benchmark;
+
+import entity.board.BitBoard;
+import entity.board.Marble;
+import entity.board.Move;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Position of the tactical suite together with all of its best moves. Since a rotation may give the same
+ * position as another one, e.g. rotating an empty quadrant, a move solves the position if it gives the same
+ * position as one of the best moves.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SuitePosition {
+    private static final String DELIMITER = ";";
+    private final String id;
+    private final BitBoard board;
+    private final Set<Integer> solutions;
+    private final Set<Long> solutionKeys = new HashSet<>();
+
+    /**
+     * Create a suite position.
+     *
+     * @param id        position identifier
+     * @param board     state of the board
+     * @param solutions encoded best moves
+     * @requires id != null && board != null && solutions != null
+     */
+    public SuitePosition(String id, BitBoard board, Set<Integer> solutions) {
+        this.id = id;
+        this.board = board;
+        this.solutions = Set.copyOf(solutions);
+        for (int move : solutions) {
+            solutionKeys.add(board.play(move).getKey());
+        }
+    }
+
+    /**
+     * Parse the position from a line of the suite file, e.g. "win-1-03; ..b.w ... bw.; b; 35/7".
+     *
+     * @param line line of the suite file
+     * @return parsed position
+     * @throws IllegalArgumentException if the line is not a valid position
+     */
+    public static SuitePosition parse(String line) {
+        String[] parts = line.split(DELIMITER);
+        if (parts.length != 4) throw new IllegalArgumentException("Invalid suite position: " + line);
+
+        BitBoard board = parseBoard(parts[1].trim(), parts[2].trim());
+        Set<Integer> solutions = new HashSet<>();
+        for (String move : parts[3].trim().split(" ")) {
+            String[] values = move.split("/");
+            int position = Integer.parseInt(values[0]);
+            int rotation = Integer.parseInt(values[1]);
+            if (board.getField(position) != Marble.EMPTY || rotation < 0 || rotation >= BitBoard.ROTATIONS) {
+                throw new IllegalArgumentException("Invalid solution: " + move);
+            }
+            solutions.add(BitBoard.encode(position, rotation));
+        }
+        return new SuitePosition(parts[0].trim(), board, solutions);
+    }
+
+    /**
+     * Parse the board from its fields written row by row, e.g. "bb..w ... ..".
+     *
+     * @param fields fields of the board (b - black, w - white, . - empty)
+     * @param turn   player to move (b - black, w - white)
+     * @return parsed board
+     * @throws IllegalArgumentException if the fields are not valid
+     */
+    public static BitBoard parseBoard(String fields, String turn) {
+        if (fields.length() != BitBoard.FIELDS) throw new IllegalArgumentException("Invalid fields: " + fields);
+        long black = 0;
+        long white = 0;
+        for (int i = 0; i < BitBoard.FIELDS; i++) {
+            char field = fields.charAt(i);
+            if (field == 'b') {
+                black |= 1L << i;
+            } else if (field == 'w') {
+                white |= 1L << i;
+            } else if (field != '.') {
+                throw new IllegalArgumentException("Invalid field: " + field);
+            }
+        }
+        return new BitBoard(black, white, turn.equals("b") ? Marble.BLACK : Marble.WHITE);
+    }
+
+    /**
+     * Determine if the move gives the same position as one of the best moves of the position.
+     *
+     * @param move played move
+     * @return true if the move solves the position
+     */
+    public boolean isSolution(Move move) {
+        if (move == null || board.getField(move.getPosition()) != Marble.EMPTY) return false;
+        return solutionKeys.contains(board.play(move.getPosition(), move.getRotation()).getKey());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public BitBoard getBoard() {
+        return board;
+    }
+
+    public Set<Integer> getSolutions() {
+        return solutions;
+    }
+}
@@ -0,0 +1,92 @@
+package benchmark;
+
+import entity.board.Move;
+
+import java.util.Locale;
+
+/**
+ * Result of a strategy on a single position of the tactical suite. The time and the visited positions
+ * to the solution are counted until the iteration from which on the strategy has kept a best move.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SuiteResult {
+    private final SuitePosition position;
+    private final Move move;
+    private final boolean isSolved;
+    private final long nanosToSolution;
+    private final long nodesToSolution;
+    private final long elapsedNanos;
+    private final long nodes;
+    private final int depth;
+
+    /**
+     * Create a suite result.
+     *
+     * @param position        suite position
+     * @param move            decided move, or null if the decision has failed
+     * @param isSolved        true if the decided move is one of the best moves
+     * @param nanosToSolution time until the solution has been found, -1 if it has not
+     * @param nodesToSolution visited positions until the solution has been found, -1 if it has not
+     * @param elapsedNanos    time of the whole decision
+     * @param nodes           visited positions of the whole decision
+     * @param depth           depth of the decision
+     */
+    public SuiteResult(SuitePosition position, Move move, boolean isSolved, long nanosToSolution,
+                       long nodesToSolution, long elapsedNanos, long nodes, int depth) {
+        this.position = position;
+        this.move = move;
+        this.isSolved = isSolved;
+        this.nanosToSolution = nanosToSolution;
+        this.nodesToSolution = nodesToSolution;
+        this.elapsedNanos = elapsedNanos;
+        this.nodes = nodes;
+        this.depth = depth;
+    }
+
+    /**
+     * Write the result as a JSON object.
+     *
+     * @return JSON object on a single line
+     */
+    public String toJson() {
+        String played = move == null ? "null" : "\"" + move.getPosition() + "/" + move.getRotation() + "\"";
+        String millis = isSolved ? String.format(Locale.ROOT, "%.3f", nanosToSolution / 1e6) : "null";
+        String solutionNodes = isSolved ? String.valueOf(nodesToSolution) : "null";
+        return String.format(Locale.ROOT, "{\"id\": \"%s\", \"solved\": %b, \"move\": %s, \"msToSolution\": %s, "
+                        + "\"nodesToSolution\": %s, \"ms\": %.3f, \"nodes\": %d, \"depth\": %d}",
+                position.getId(), isSolved, played, millis, solutionNodes, elapsedNanos / 1e6, nodes, depth);
+    }
+
+    public SuitePosition getPosition() {
+        return position;
+    }
+
+    public Move getMove() {
+        return move;
+    }
+
+    public boolean isSolved() {
+        return isSolved;
+    }
+
+    public long getNanosToSolution() {
+        return nanosToSolution;
+    }
+
+    public long getNodesToSolution() {
+        return nodesToSolution;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+}
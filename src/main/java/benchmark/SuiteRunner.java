@@ -0,0 +1,221 @@
+package benchmark;
+
+import entity.board.Move;
+import entity.strategy.SearchLimits;
+import entity.strategy.SearchStatistics;
+import entity.strategy.SearchStrategy;
+import entity.strategy.Strategy;
+import entity.strategy.StrategyRegistry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Class that runs a strategy against the tactical suite, i.e. positions with known best moves, and measures
+ * how many of them it solves and how fast. The positions are decided in parallel, each thread with its own
+ * strategy, and the strategy is told about every iteration of its search, so the time and the visited positions
+ * to the solution are measured even if the search goes on afterwards. The results are written as JSON,
+ * so the runs of different versions of the engine can be compared by other tools.
+ * <p>
+ * Usage: SuiteRunner [strategy] [time limit] [depth] [threads] [JSON file] [suite file]
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SuiteRunner {
+    public static final String DEFAULT_SUITE = "/suite/tactics.txt";
+    private final Supplier<Strategy> factory;
+    private final SearchLimits limits;
+    private final int threads;
+
+    /**
+     * Create a suite runner.
+     *
+     * @param factory factory of the strategy, which is called once per thread
+     * @param limits  limits of every decision, which replace the limits of the strategy
+     * @param threads number of the positions decided at once
+     * @requires factory != null && limits != null && threads > 0
+     */
+    public SuiteRunner(Supplier<Strategy> factory, SearchLimits limits, int threads) {
+        this.factory = factory;
+        this.limits = limits;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String name = args.length > 0 ? args[0] : "search-3";
+        long timeLimit = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : SearchStrategy.MAX_DEPTH;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        List<SuitePosition> suite = args.length > 5 ? load(Path.of(args[5])) : loadDefault();
+
+        var limits = new SearchLimits(depth, timeLimit, SearchLimits.NO_NODE_LIMIT);
+        var runner = new SuiteRunner(StrategyRegistry.getFactory(name), limits, threads);
+        List<SuiteResult> results = runner.run(suite);
+        for (SuiteResult result : results) {
+            System.out.printf("%-12s %-8s %10s ms %12s nodes%n", result.getPosition().getId(),
+                    result.isSolved() ? "solved" : "failed",
+                    result.isSolved() ? String.format("%.2f", result.getNanosToSolution() / 1e6) : "-",
+                    result.isSolved() ? String.valueOf(result.getNodesToSolution()) : "-");
+        }
+        long solved = results.stream().filter(SuiteResult::isSolved).count();
+        System.out.printf("%s solved %d of %d positions with %s%n", name, solved, results.size(), limits);
+
+        String json = toJson(name, limits, results);
+        if (args.length > 4) {
+            Files.writeString(Path.of(args[4]), json);
+        } else {
+            System.out.println(json);
+        }
+    }
+
+    /**
+     * Load the suite that comes with the application.
+     *
+     * @return suite positions
+     * @throws IOException if the suite cannot be read
+     */
+    public static List<SuitePosition> loadDefault() throws IOException {
+        InputStream stream = SuiteRunner.class.getResourceAsStream(DEFAULT_SUITE);
+        if (stream == null) throw new IOException("Suite not found: " + DEFAULT_SUITE);
+        try (var reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Load the suite from the file.
+     *
+     * @param file suite file
+     * @return suite positions
+     * @throws IOException if the suite cannot be read
+     */
+    public static List<SuitePosition> load(Path file) throws IOException {
+        try (var reader = Files.newBufferedReader(file)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Load the suite, skipping the empty lines and the comments that start with '#'.
+     *
+     * @param reader reader of the suite
+     * @return suite positions
+     * @throws IOException if the suite cannot be read
+     */
+    private static List<SuitePosition> load(Reader reader) throws IOException {
+        List<SuitePosition> suite = new ArrayList<>();
+        var lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) suite.add(SuitePosition.parse(line));
+        }
+        return suite;
+    }
+
+    /**
+     * Decide all positions of the suite.
+     *
+     * @param suite suite positions
+     * @return results in the order of the positions
+     * @throws InterruptedException if the thread has been interrupted while waiting for the results
+     */
+    public List<SuiteResult> run(List<SuitePosition> suite) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "suite-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ThreadLocal<Strategy> strategies = ThreadLocal.withInitial(factory);
+        try {
+            List<Future<SuiteResult>> futures = new ArrayList<>();
+            for (SuitePosition position : suite) {
+                futures.add(executor.submit(() -> solve(strategies.get(), position)));
+            }
+            List<SuiteResult> results = new ArrayList<>();
+            for (Future<SuiteResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Strategy has failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Decide the position, watching the iterations of the search for the best moves.
+     *
+     * @param strategy strategy that decides the position
+     * @param position suite position
+     * @return result of the strategy
+     */
+    private SuiteResult solve(Strategy strategy, SuitePosition position) {
+        var statistics = new SearchStatistics();
+        // time and nodes of the iteration from which on the best move has been a solution
+        long[] solution = {-1, -1};
+        long start = System.nanoTime();
+        Move move = strategy.decideMove(position.getBoard().toBoard(), limits, statistics,
+                (bestMove, score, depth) -> {
+                    if (!position.isSolution(bestMove)) {
+                        solution[0] = -1;
+                    } else if (solution[0] == -1) {
+                        solution[0] = System.nanoTime() - start;
+                        solution[1] = statistics.getNodes();
+                    }
+                });
+        long elapsed = System.nanoTime() - start;
+        boolean isSolved = position.isSolution(move);
+        if (isSolved && solution[0] == -1) {
+            solution[0] = elapsed;
+            solution[1] = statistics.getNodes();
+        }
+        return new SuiteResult(position, move, isSolved, isSolved ? solution[0] : -1,
+                isSolved ? solution[1] : -1, elapsed, statistics.getNodes(), statistics.getDepth());
+    }
+
+    /**
+     * Write the results of the run as a JSON document.
+     *
+     * @param strategy name of the strategy
+     * @param limits   limits of the decisions
+     * @param results  results of the positions
+     * @return JSON document
+     */
+    public static String toJson(String strategy, SearchLimits limits, List<SuiteResult> results) {
+        long solved = 0;
+        long nanosToSolution = 0;
+        long nodesToSolution = 0;
+        for (SuiteResult result : results) {
+            if (!result.isSolved()) continue;
+            solved++;
+            nanosToSolution += result.getNanosToSolution();
+            nodesToSolution += result.getNodesToSolution();
+        }
+
+        var json = new StringBuilder();
+        json.append(String.format(Locale.ROOT, "{\n  \"strategy\": \"%s\",\n  \"depth\": %d,\n  \"timeLimit\": %d,\n"
+                        + "  \"positions\": %d,\n  \"solved\": %d,\n  \"msToSolution\": %.3f,\n"
+                        + "  \"nodesToSolution\": %d,\n  \"results\": [", strategy, limits.getDepth(),
+                limits.getTimeLimit(), results.size(), solved, nanosToSolution / 1e6, nodesToSolution));
+        for (int i = 0; i < results.size(); i++) {
+            json.append(i == 0 ? "\n    " : ",\n    ").append(results.get(i).toJson());
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+}
@@ -0,0 +1,185 @@
+package benchmark;
+
+import entity.board.BitBoard;
+import entity.board.Marble;
+import entity.strategy.Strategy;
+import entity.strategy.StrategyRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class that plays a tournament among the registered strategies and estimates their Elo differences.
+ * In a round robin every strategy plays every other one, and in a gauntlet the first strategy plays the rest.
+ * Each opening is played twice by every pairing, once with each colour, so neither strategy gains from
+ * the first move. The games are played in-process on a fixed pool of threads, each thread with its own
+ * strategies.
+ * <p>
+ * Usage: Tournament [round-robin | gauntlet] [openings] [threads] [strategy...]
+ *
+ * @author Aliaksei Kouzel
+ */
+public class Tournament {
+    public static final int OPENING_PLIES = 4;
+    private final List<String> participants;
+    private final boolean isGauntlet;
+    private final List<BitBoard> openings;
+    private final int threads;
+    private final MatchScore[][] scores;
+    private long games;
+    private long elapsedNanos;
+
+    /**
+     * Create a tournament.
+     *
+     * @param participants names of the registered strategies
+     * @param isGauntlet   true if only the first strategy plays the rest, false for a round robin
+     * @param openings     positions that every pairing starts from
+     * @param threads      number of the games played at once
+     * @requires participants.size() > 1 && !openings.isEmpty() && threads > 0
+     */
+    public Tournament(List<String> participants, boolean isGauntlet, List<BitBoard> openings, int threads) {
+        this.participants = List.copyOf(participants);
+        this.isGauntlet = isGauntlet;
+        this.openings = List.copyOf(openings);
+        this.threads = threads;
+        scores = new MatchScore[participants.size()][participants.size()];
+        for (MatchScore[] row : scores) {
+            for (int i = 0; i < row.length; i++) row[i] = new MatchScore();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        boolean isGauntlet = args.length > 0 && args[0].equals("gauntlet");
+        int openings = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        List<String> participants = args.length > 3 ? Arrays.asList(args).subList(3, args.length)
+                : List.of("naive", "expert", "search-1", "search-2");
+        for (String name : participants) StrategyRegistry.getFactory(name);
+
+        var tournament = new Tournament(participants, isGauntlet,
+                SelfPlay.createOpenings(openings, OPENING_PLIES, 1), threads);
+        tournament.run();
+        System.out.println(tournament);
+    }
+
+    /**
+     * Play all games of the tournament.
+     *
+     * @throws InterruptedException if the thread has been interrupted while waiting for the games
+     */
+    public void run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "tournament");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ThreadLocal<Map<String, Strategy>> strategies = ThreadLocal.withInitial(HashMap::new);
+        long start = System.nanoTime();
+        try {
+            List<int[]> pairings = new ArrayList<>();
+            List<Future<Marble>> futures = new ArrayList<>();
+            for (int player = 0; player < participants.size(); player++) {
+                for (int opponent = player + 1; opponent < participants.size(); opponent++) {
+                    if (isGauntlet && player > 0) continue;
+                    for (BitBoard opening : openings) {
+                        for (int colour = 0; colour < 2; colour++) {
+                            String black = participants.get(colour == 0 ? player : opponent);
+                            String white = participants.get(colour == 0 ? opponent : player);
+                            pairings.add(new int[]{player, opponent, colour});
+                            futures.add(executor.submit(() -> {
+                                Map<String, Strategy> local = strategies.get();
+                                return SelfPlay.play(local.computeIfAbsent(black, StrategyRegistry::create),
+                                        local.computeIfAbsent(white, StrategyRegistry::create), opening);
+                            }));
+                        }
+                    }
+                }
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                int[] pairing = pairings.get(i);
+                Marble winner = futures.get(i).get();
+                Marble playerMarble = pairing[2] == 0 ? Marble.BLACK : Marble.WHITE;
+                double points = winner == Marble.EMPTY ? 0.5 : winner == playerMarble ? 1 : 0;
+                scores[pairing[0]][pairing[1]].add(points);
+                scores[pairing[1]][pairing[0]].add(1 - points);
+                games++;
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Strategy has failed", e.getCause());
+        } finally {
+            elapsedNanos += System.nanoTime() - start;
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the score of the strategy in the games against the opponent.
+     *
+     * @param player   name of the strategy
+     * @param opponent name of the opponent strategy
+     * @return score of the strategy
+     */
+    public MatchScore getScore(String player, String opponent) {
+        return scores[participants.indexOf(player)][participants.indexOf(opponent)];
+    }
+
+    /**
+     * Get the score of the strategy in all of its games, which gives its Elo difference to the average opponent.
+     *
+     * @param player name of the strategy
+     * @return total score of the strategy
+     */
+    public MatchScore getTotalScore(String player) {
+        var total = new MatchScore();
+        for (MatchScore score : scores[participants.indexOf(player)]) total.add(score);
+        return total;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Get the number of games played per second of the tournament.
+     *
+     * @return games per second, 0 if no games have been played
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Get the report with the total score of every strategy, from the best to the worst,
+     * followed by the scores of the pairings.
+     *
+     * @return textual report
+     */
+    @Override
+    public String toString() {
+        var report = new StringBuilder(String.format("%s of %d strategies, %d games, %.1f games/s%n",
+                isGauntlet ? "Gauntlet" : "Round robin", participants.size(), games, getGamesPerSecond()));
+        List<String> ranking = new ArrayList<>(participants);
+        ranking.sort((a, b) -> Double.compare(getTotalScore(b).getScore(), getTotalScore(a).getScore()));
+        for (String player : ranking) {
+            report.append(String.format("%-14s %s%n", player, getTotalScore(player)));
+        }
+        for (int player = 0; player < participants.size(); player++) {
+            for (int opponent = player + 1; opponent < participants.size(); opponent++) {
+                MatchScore score = scores[player][opponent];
+                if (score.getGames() == 0) continue;
+                report.append(String.format("%s vs %s: %s%n", participants.get(player),
+                        participants.get(opponent), score));
+            }
+        }
+        return report.toString().trim();
+    }
+}
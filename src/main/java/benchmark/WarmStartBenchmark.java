@@ -0,0 +1,96 @@
+package benchmark;
+
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.strategy.SearchStatistics;
+import entity.strategy.SearchStrategy;
+import entity.strategy.evaluator.NetworkEvaluator;
+import entity.strategy.search.TableSnapshot;
+import entity.strategy.search.TranspositionTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class that compares the decision latency of the search strategy after a cold start, with an empty
+ * transposition table, to the latency after a warm start, with the table loaded from a snapshot.
+ * The cold run fills the table and saves it, then a new table loads the snapshot and the same positions
+ * are decided again. Positions that have not been searched before are compared as well, since the snapshot
+ * only helps them through the transpositions they share with the saved positions.
+ * <p>
+ * Usage: WarmStartBenchmark [positions] [depth] [snapshot file] [seed]
+ *
+ * @author Aliaksei Kouzel
+ */
+public class WarmStartBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int positions = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        Path file = args.length > 2 ? Path.of(args[2]) : Files.createTempFile("pentago-table", ".snapshot");
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        List<BitBoard> corpus = ProofBenchmark.createCorpus(positions, seed);
+        // warm up the compiler on other positions, so both runs are measured with compiled code
+        decideAll(ProofBenchmark.createCorpus(20, seed + 1), depth, new TranspositionTable(1 << 16));
+
+        var coldTable = new TranspositionTable(TranspositionTable.DEFAULT_CAPACITY);
+        long[] cold = decideAll(corpus, depth, coldTable);
+
+        long start = System.nanoTime();
+        int saved = coldTable.save(file, TableSnapshot.MIN_DEPTH);
+        double saveMillis = (System.nanoTime() - start) / 1e6;
+
+        var warmTable = new TranspositionTable(TranspositionTable.DEFAULT_CAPACITY);
+        start = System.nanoTime();
+        warmTable.load(file);
+        double loadMillis = (System.nanoTime() - start) / 1e6;
+        long[] warm = decideAll(corpus, depth, warmTable);
+
+        List<BitBoard> unseen = ProofBenchmark.createCorpus(positions, seed + 2);
+        long[] unseenCold = decideAll(unseen, depth, new TranspositionTable(TranspositionTable.DEFAULT_CAPACITY));
+        warmTable = new TranspositionTable(TranspositionTable.DEFAULT_CAPACITY);
+        warmTable.load(file);
+        long[] unseenWarm = decideAll(unseen, depth, warmTable);
+
+        System.out.printf("Positions: %d, depth: %d%n", corpus.size(), depth);
+        System.out.printf("Snapshot: %d entries, %d KB, saved in %.1f ms, loaded in %.1f ms%n",
+                saved, Files.size(file) / 1024, saveMillis, loadMillis);
+        print("Cold start", cold);
+        print("Warm start", warm);
+        print("Cold start, unseen positions", unseenCold);
+        print("Warm start, unseen positions", unseenWarm);
+        if (args.length <= 2) Files.delete(file);
+    }
+
+    /**
+     * Decide the positions with a search strategy that uses the given table.
+     *
+     * @param corpus positions to decide
+     * @param depth  search depth
+     * @param table  transposition table of the strategy
+     * @return decision times in nanoseconds
+     */
+    private static long[] decideAll(List<BitBoard> corpus, int depth, TranspositionTable table) {
+        var strategy = new SearchStrategy(new NetworkEvaluator(), depth, 60_000, null, null, table);
+        long[] times = new long[corpus.size()];
+        for (int i = 0; i < corpus.size(); i++) {
+            Board board = corpus.get(i).toBoard();
+            var statistics = new SearchStatistics();
+            strategy.decideMove(board, statistics);
+            times[i] = statistics.getElapsedNanos();
+        }
+        return times;
+    }
+
+    private static void print(String name, long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%s (ms): median %.2f, p90 %.2f, max %.2f, total %.1f%n", name,
+                sorted[sorted.length / 2] / 1e6, sorted[sorted.length * 9 / 10] / 1e6,
+                sorted[sorted.length - 1] / 1e6, Arrays.stream(sorted).sum() / 1e6);
+    }
+}
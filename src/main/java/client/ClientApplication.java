@@ -1,14 +1,20 @@
 package client;
 
 import entity.board.Move;
+import entity.strategy.Difficulty;
 import entity.strategy.ExpertStrategy;
+import entity.strategy.MoveAnalysis;
 import entity.strategy.NaiveStrategy;
+import entity.strategy.SearchStrategy;
+import entity.strategy.StatisticsAggregator;
+import entity.strategy.search.TableSnapshot;
 import server.ServerProxy;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.util.List;
 
 /**
  * Class that starts and connects the client to the pentago server by the provided host address and the port.
@@ -21,6 +27,7 @@ public class ClientApplication {
 
     public static void main(String[] args) {
         client = new PentagoClient("Local client");
+        TableSnapshot.restore();
         var in = new BufferedReader(new InputStreamReader(System.in));
 
         try {
@@ -57,10 +64,13 @@ public class ClientApplication {
                         "list                           List currently online users on the server\n" +
                         "ping                           Check the connection to the server\n" +
                         "quit                           Disconnect from the server\n" +
-                        "hint                           Get a hint during the game\n" +
+                        "hint {count}                   Get a hint (optionally, several ranked ones) during the game\n" +
+                        "analyze {count}                Ask the server for the ranked moves during the game\n" +
+                        "think {seconds}                Watch the hint improve in the background, 'think stop' to stop it\n" +
+                        "stats                          Show the statistics of the AI decisions\n" +
                         "move {position} {rotation}     Make a move during the game\n" +
                         "play {difficulty level}        Play a pentago game. If you want an AI to play instead of you,\n" +
-                        "                               enter one of the following difficulty levels as a parameter: 1, 2\n\n" +
+                        "                               enter one of the following difficulty levels as a parameter: 1, 2, 3\n\n" +
                         "Use 'help' for available options";
                 System.out.println(hint);
             }
@@ -69,12 +79,44 @@ public class ClientApplication {
         HINT("hint") {
             @Override
             void execute(String[] args) {
-                Move possibleMove = client.getMoveHint();
+                if (args.length > 2) throw new IllegalArgumentException("Illegal args");
+                int count = args.length == 2 ? Integer.parseInt(args[1]) : 1;
+                if (count < 1) throw new IllegalArgumentException("Illegal move count");
+                List<MoveAnalysis> hints = client.getMoveHints(count);
+                Move possibleMove = hints.get(0).getMove();
                 System.out.printf("To play a move, use 'move {position} {rotation}' operation where:\n" +
                                 "position (0-35) - is the field index of the next marble position\n" +
                                 "rotation (0-7) - is the subboard rotation index\n\n" +
                                 "Possible move: 'move %d %d'\n",
                         possibleMove.getPosition(), possibleMove.getRotation());
+                if (hints.size() > 1) {
+                    System.out.println("Ranked moves:");
+                    for (int i = 0; i < hints.size(); i++) System.out.printf("%d. %s\n", i + 1, hints.get(i));
+                }
+            }
+        },
+
+        THINK("think") {
+            @Override
+            void execute(String[] args) {
+                if (args.length > 2) throw new IllegalArgumentException("Illegal args");
+                if (args.length == 2 && args[1].equals("stop")) {
+                    client.stopMoveHint();
+                    return;
+                }
+                long seconds = args.length == 2 ? Long.parseLong(args[1]) : 10;
+                if (seconds < 1) throw new IllegalArgumentException("Illegal time");
+                client.startMoveHint(seconds * 1000, (move, score, depth) ->
+                        System.out.printf("Depth %d: 'move %d %d' (score %d)\n",
+                                depth, move.getPosition(), move.getRotation(), score));
+            }
+        },
+
+        ANALYZE("analyze") {
+            @Override
+            void execute(String[] args) {
+                if (args.length > 2) throw new IllegalArgumentException("Illegal args");
+                client.requestAnalysis(args.length == 2 ? Integer.parseInt(args[1]) : 3);
             }
         },
 
@@ -86,10 +128,13 @@ public class ClientApplication {
                 } else if (args.length == 2) {
                     switch (args[1]) {
                         case "1":
-                            client.play(new NaiveStrategy());
+                            client.play(new NaiveStrategy(), Difficulty.EASY);
                             break;
                         case "2":
-                            client.play(new ExpertStrategy());
+                            client.play(new ExpertStrategy(), Difficulty.MEDIUM);
+                            break;
+                        case "3":
+                            client.play(new SearchStrategy(), Difficulty.HARD);
                             break;
                         default:
                             throw new IllegalArgumentException("Illegal difficulty level");
@@ -117,6 +162,13 @@ public class ClientApplication {
             }
         },
 
+        STATS("stats") {
+            @Override
+            void execute(String[] args) {
+                System.out.println(StatisticsAggregator.getShared());
+            }
+        },
+
         PING("ping") {
             @Override
             void execute(String[] args) {
@@ -128,6 +180,7 @@ public class ClientApplication {
             @Override
             void execute(String[] args) {
                 client.close();
+                TableSnapshot.persist();
             }
         };
 
@@ -2,11 +2,16 @@ package client;
 
 import entity.ClientState;
 import entity.board.Move;
+import entity.strategy.Difficulty;
+import entity.strategy.MoveAnalysis;
+import entity.strategy.SearchListener;
+import entity.strategy.SearchTask;
 import entity.strategy.Strategy;
 import exception.InvalidMoveException;
 import entity.MessageType;
 
 import java.net.InetAddress;
+import java.util.List;
 
 /**
  * Class that represents a game client that is used to communicate with the network server.
@@ -70,9 +75,10 @@ public interface GameClient extends Runnable {
     /**
      * Join or leave the queue on the server to play a game as an AI player using a provided strategy.
      *
-     * @param strategy strategy that the future AI player will utilize
+     * @param strategy   strategy that the future AI player will utilize
+     * @param difficulty difficulty tier whose limits the AI player decides within
      */
-    void play(Strategy strategy);
+    void play(Strategy strategy, Difficulty difficulty);
 
     /**
      * Decide a move during the game session.
@@ -85,12 +91,42 @@ public interface GameClient extends Runnable {
 
     /**
      * Return a hint containing the information on how to make a move,
-     * along with a random possible move on the board.
+     * along with the best move on the board found by the AI.
      *
      * @return hint on possible moves
      */
     Move getMoveHint();
 
+    /**
+     * Analyse the board locally and return the best moves, ranked from the best to the worst.
+     *
+     * @param count maximal number of the ranked moves
+     * @return ranked moves with their scores and principal variations
+     */
+    List<MoveAnalysis> getMoveHints(int count);
+
+    /**
+     * Ask the server to analyse the board and send back the best moves.
+     *
+     * @param count maximal number of the ranked moves
+     */
+    void requestAnalysis(int count);
+
+    /**
+     * Start searching the board for a hint in the background. The listener gets a better hint every time
+     * the search gets deeper. The previous hint search is cancelled.
+     *
+     * @param timeLimit time limit of the search in milliseconds
+     * @param listener  listener of the hints, which is called in the search thread
+     * @return started search
+     */
+    SearchTask startMoveHint(long timeLimit, SearchListener listener);
+
+    /**
+     * Cancel the current hint search if there is one.
+     */
+    void stopMoveHint();
+
     /**
      * Send a message to the server.
      *
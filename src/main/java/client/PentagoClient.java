@@ -4,7 +4,16 @@ import entity.board.Board;
 import entity.board.observer.BoardObserver;
 import entity.player.AIPlayer;
 import entity.player.Player;
+import entity.strategy.ComputeGovernor;
+import entity.strategy.Difficulty;
+import entity.strategy.MoveAnalysis;
+import entity.strategy.SearchLimits;
+import entity.strategy.SearchListener;
+import entity.strategy.SearchStrategy;
+import entity.strategy.SearchTask;
+import entity.strategy.StatisticsAggregator;
 import entity.strategy.Strategy;
+import entity.strategy.evaluator.NetworkEvaluator;
 import exception.InvalidMoveException;
 import exception.WrongStateException;
 import entity.ClientState;
@@ -14,6 +23,9 @@ import entity.board.Move;
 import entity.board.observer.ClientBoardObserver;
 import exception.InvalidMessageException;
 import entity.MessageType;
+import logging.Level;
+import logging.Log;
+import logging.Logger;
 import server.PentagoProtocol;
 import server.ServerProtocol;
 
@@ -31,6 +43,7 @@ import java.util.*;
  * @author Aliaksei Kouzel
  */
 public class PentagoClient implements GameClient {
+    private static final Logger TRAFFIC = Log.getLogger("traffic");
     private static final Expansion[] CLIENT_EXPANSIONS = new Expansion[]{};
     private final ServerProtocol protocol = new PentagoProtocol();
     private final String description;
@@ -45,6 +58,9 @@ public class PentagoClient implements GameClient {
     private Socket client;
     private Long pingSent;
     private Player player;
+    private Strategy analyst;
+    private Strategy hintStrategy;
+    private SearchTask hintTask;
 
     private boolean inQueue;
     private boolean isWaitingMessage;
@@ -101,7 +117,7 @@ public class PentagoClient implements GameClient {
             try {
                 String message;
                 while ((message = in.readLine()) != null) {
-                    System.out.printf("[INCOMING] '%s'\n", message); // for testing
+                    TRAFFIC.log(Level.DEBUG, "in '{}'", message);
                     if (message.equals("")) continue;
                     handleMessage(message);
                 }
@@ -181,11 +197,16 @@ public class PentagoClient implements GameClient {
 
     /**
      * {@inheritDoc}
+     * The decisions are made on the threads of the shared compute governor, ahead of the bot games,
+     * since the user watches them.
      */
     @Override
-    public synchronized void play(Strategy strategy) {
+    public synchronized void play(Strategy strategy, Difficulty difficulty) {
         if (state != ClientState.IN_GAME) {
-            player = new AIPlayer(strategy);
+            var aiPlayer = new AIPlayer(strategy, StatisticsAggregator.getShared(), difficulty,
+                    ComputeGovernor.getShared());
+            aiPlayer.setHumanWatching(true);
+            player = aiPlayer;
             play();
         } else {
             System.out.println("Client is already playing...");
@@ -208,8 +229,58 @@ public class PentagoClient implements GameClient {
      */
     @Override
     public Move getMoveHint() {
+        return getMoveHints(1).get(0).getMove();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The board is analysed within the medium difficulty limits.
+     */
+    @Override
+    public synchronized List<MoveAnalysis> getMoveHints(int count) {
+        if (state != ClientState.IN_GAME) throw new WrongStateException("Client is not playing...");
+        if (analyst == null) {
+            SearchLimits limits = Difficulty.MEDIUM.getLimits();
+            analyst = new SearchStrategy(new NetworkEvaluator(), limits.getDepth(), limits.getTimeLimit());
+        }
+        return analyst.analyze(observer.getBoardCopy().deepCopy(), count);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The searches share the same strategy, so the new search waits until the cancelled one has stopped.
+     */
+    @Override
+    public synchronized SearchTask startMoveHint(long timeLimit, SearchListener listener) {
+        if (state != ClientState.IN_GAME) throw new WrongStateException("Client is not playing...");
+        Board board = observer.getBoardCopy();
+        if (board.isGameOver()) throw new WrongStateException("Game is over...");
+        if (hintTask != null) {
+            hintTask.cancel();
+            hintTask.getResult().handle((move, e) -> move).join();
+        }
+        if (hintStrategy == null) hintStrategy = new SearchStrategy();
+
+        var limits = new SearchLimits(SearchStrategy.MAX_DEPTH, timeLimit, SearchLimits.NO_NODE_LIMIT);
+        hintTask = SearchTask.start(hintStrategy, board, limits, listener);
+        return hintTask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void stopMoveHint() {
+        if (hintTask != null) hintTask.cancel();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void requestAnalysis(int count) {
         if (state != ClientState.IN_GAME) throw new WrongStateException("Client is not playing...");
-        return observer.getBoardCopy().getPossibleMove();
+        sendMessage(MessageType.ANALYSIS, String.valueOf(count));
     }
 
     /**
@@ -236,11 +307,11 @@ public class PentagoClient implements GameClient {
     public void sendMessage(MessageType type, String... args) {
         try {
             String message = protocol.convert(type, args);
-            System.out.printf("[OUTGOING] '%s'\n", message);
+            TRAFFIC.log(Level.DEBUG, "out '{}'", message);
             out.println(message);
             out.flush();
         } catch (InvalidMessageException e) {
-            System.out.printf("Invalid message of type %s...", type);
+            TRAFFIC.log(Level.WARN, "Invalid message of type {}", type);
         }
     }
 
@@ -271,6 +342,9 @@ public class PentagoClient implements GameClient {
                 case NEW_GAME:
                     onNewGame(data);
                     break;
+                case ANALYSIS:
+                    onAnalysis(data);
+                    break;
                 case GAME_OVER:
                     onGameOver(data);
                     break;
@@ -284,6 +358,7 @@ public class PentagoClient implements GameClient {
                     close();
                     break;
                 case ERROR:
+                    System.out.printf("Server error: %s\n", data.get("description"));
                     break;
                 default:
                     throw new InvalidMessageException();
@@ -364,6 +439,9 @@ public class PentagoClient implements GameClient {
         int position = (int) data.get("position");
         int rotation = (int) data.get("rotation");
 
+        // the hint is outdated after the move
+        stopMoveHint();
+
         // display move on the board
         Board boardCopy = observer.getBoardCopy();
         var nextMove = new Move(position, rotation, boardCopy.getTurn());
@@ -377,6 +455,21 @@ public class PentagoClient implements GameClient {
         }
     }
 
+    /**
+     * Respond to an 'analysis' message sent by the server.
+     *
+     * @param data message data
+     */
+    private void onAnalysis(Map<String, Object> data) {
+        int[] positions = (int[]) data.get("positions");
+        int[] rotations = (int[]) data.get("rotations");
+        int[] scores = (int[]) data.get("scores");
+        System.out.println("Best moves according to the server:");
+        for (int i = 0; i < positions.length; i++) {
+            System.out.printf("%d. 'move %d %d' (score %d)\n", i + 1, positions[i], rotations[i], scores[i]);
+        }
+    }
+
     /**
      * Respond to a 'new game' message sent by the server.
      *
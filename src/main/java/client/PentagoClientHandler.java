@@ -1,5 +1,6 @@
 package client;
 
+import entity.board.Board;
 import entity.board.Move;
 import exception.WrongStateException;
 import exception.UnavailableUsernameException;
@@ -11,12 +12,22 @@ import entity.player.Player;
 import exception.InvalidMessageException;
 import entity.MessageType;
 import entity.session.GameSession;
+import logging.Level;
+import logging.Log;
+import logging.Logger;
+import server.Connection;
 import server.PentagoServer;
 import server.ServerProtocol;
+import server.SocketConnection;
+import server.admission.RateLimiter;
 
-import java.io.*;
+import java.io.IOException;
 import java.net.Socket;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Class that represents a client handler that communicates with a pentago server client.
@@ -24,27 +35,32 @@ import java.util.*;
  * @author Aliaksei Kouzel
  */
 public class PentagoClientHandler implements ClientHandler {
+    private static final Logger TRAFFIC = Log.getLogger("traffic");
     private final String serverDescription;
     private final ServerProtocol protocol;
     private final PentagoServer server;
-    private final BufferedReader in;
-    private final PrintWriter out;
-    private final Socket client;
+    private final Connection connection;
+    private final Lock lock = new ReentrantLock();
+    private final RateLimiter rateLimiter;
+    private final AtomicBoolean isAdmitted = new AtomicBoolean();
     private String clientDescription;
     private Set<Expansion> expansions;
     private ClientState clientState;
     private BufferedPlayer player;
     private GameSession session;
+    private ServerBoardObserver observer;
     private String username;
-    private Long pingSent;
 
     public PentagoClientHandler(Socket client, PentagoServer server) throws IOException {
-        in = new BufferedReader(new InputStreamReader(client.getInputStream()));
-        out = new PrintWriter(client.getOutputStream(), true);
+        this(new SocketConnection(client), server);
+    }
+
+    public PentagoClientHandler(Connection connection, PentagoServer server) {
         serverDescription = server.getDescription();
         protocol = server.getProtocol();
         this.server = server;
-        this.client = client;
+        this.connection = connection;
+        rateLimiter = new RateLimiter(server.getRateLimits());
         clientState = ClientState.CONNECTING;
     }
 
@@ -52,72 +68,110 @@ public class PentagoClientHandler implements ClientHandler {
      * {@inheritDoc}
      */
     @Override
-    public synchronized boolean joinSession(GameSession session) {
-        player = new BufferedPlayer(username);
-        if (!session.join(player)) {
-            sendMessage(MessageType.ERROR, "Failed to join session...");
-            return false;
-        }
+    public boolean joinSession(GameSession session) {
+        lock.lock();
+        try {
+            player = new BufferedPlayer(username);
+            if (!session.join(player)) {
+                sendMessage(MessageType.ERROR, "Failed to join session...");
+                return false;
+            }
 
-        // observer the game board
-        var observer = new ServerBoardObserver(this);
-        session.addObserver(observer);
+            // observer the game board
+            observer = new ServerBoardObserver(this);
+            session.addObserver(observer);
 
-        clientState = ClientState.IN_GAME;
-        this.session = session;
-        return true;
+            clientState = ClientState.IN_GAME;
+            this.session = session;
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized void leaveSession() {
-        clientState = ClientState.LOGGED_IN;
+    public void leaveSession() {
+        lock.lock();
+        try {
+            clientState = ClientState.LOGGED_IN;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized void ping() {
-        if (pingSent != null) {
+    public void ping() {
+        if (!server.getHeartbeats().ping(this)) {
             System.out.println("Ping is already sent...");
-        } else {
-            pingSent = System.nanoTime();
-            sendMessage(MessageType.PING);
         }
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The messages are only read by this thread if the connection is blocking, otherwise they are
+     * passed to {@link #receive(String)} by the transport of the server.
      */
     @Override
     public void run() {
+        if (!(connection instanceof SocketConnection)) return;
         try {
             String message;
-            while ((message = in.readLine()) != null) {
-                System.out.printf("[INCOMING] '%s'\n", message); // for testing
-                if (message.equals("")) continue;
-                handleMessage(message);
+            while ((message = ((SocketConnection) connection).readLine()) != null) {
+                receive(message);
             }
         } catch (IOException ignored) {
         } finally {
 //            if (session != null) leaveSession();
-            server.leave(this);
+            onDisconnect();
         }
     }
 
+    /**
+     * Receive a line sent by the client, skipping the empty ones. The messages above the rate limit
+     * of their type are answered with an error before taking any lock.
+     *
+     * @param message line sent by the client
+     */
+    public void receive(String message) {
+        TRAFFIC.log(Level.DEBUG, "in '{}'", message);
+        if (message.equals("")) return;
+        if (!rateLimiter.tryAcquire(protocol.typeOf(message))) {
+            sendMessage(MessageType.ERROR, "Too many requests");
+            return;
+        }
+        handleMessage(message);
+    }
+
+    /**
+     * Count the connection against the cap of the server as soon as it has been accepted, so that the silent
+     * connections count too. A connection above the cap is still served until it says hello, so that it is
+     * told that the server is full.
+     */
+    public void admit() {
+        isAdmitted.set(server.getAdmission().tryAdmit());
+    }
+
+    /**
+     * Handle the client disconnecting from the server.
+     */
+    public void onDisconnect() {
+        if (isAdmitted.compareAndSet(true, false)) server.getAdmission().release();
+        server.leave(this);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void close() {
-        try {
-            client.close();
-        } catch (IOException e) {
-            /* Should not be thrown */
-        }
+        connection.close();
     }
 
     /**
@@ -130,9 +184,26 @@ public class PentagoClientHandler implements ClientHandler {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The messages are handled one at a time under a lock rather than the monitor, so that the virtual threads
+     * do not hold on to their carriers while handling them (e.g. while waiting for the lock of the server).
      */
     @Override
-    public synchronized void handleMessage(String message) {
+    public void handleMessage(String message) {
+        lock.lock();
+        try {
+            processMessage(message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Respond to a message sent by the client according to its type.
+     *
+     * @param message message sent by the client
+     */
+    private void processMessage(String message) {
         try {
             Map<String, Object> data = protocol.process(message, true);
             MessageType type = (MessageType) data.get("type");
@@ -152,6 +223,9 @@ public class PentagoClientHandler implements ClientHandler {
                 case MAKE_MOVE:
                     onMove(data);
                     break;
+                case ANALYSIS:
+                    onAnalysis(data);
+                    break;
                 case PING:
                     sendMessage(MessageType.PONG);
                     break;
@@ -179,6 +253,13 @@ public class PentagoClientHandler implements ClientHandler {
     private void onInit(Map<String, Object> data) {
         if (clientState != ClientState.CONNECTING) throw new WrongStateException("Client is already initialized");
 
+        // turn the client away if the server was full when it connected, rather than slowing down everybody else
+        if (!isAdmitted.get()) {
+            sendMessage(MessageType.ERROR, "Server is full, try again later");
+            connection.shutdown();
+            return;
+        }
+
         // store client description
         this.clientDescription = (String) data.get("description");
 
@@ -217,10 +298,8 @@ public class PentagoClientHandler implements ClientHandler {
             if (username.contains(protocol.getDelimiter())) {
                 throw new UnavailableUsernameException("Username contradicts server protocol");
             }
-            for (String user : server.getOnlineUsers()) {
-                if (user.equals(username)) {
-                    throw new UnavailableUsernameException("This username is not available...");
-                }
+            if (!server.claimUsername(username, this)) {
+                throw new UnavailableUsernameException("This username is not available...");
             }
             this.username = username;
             clientState = ClientState.LOGGED_IN;
@@ -277,16 +356,44 @@ public class PentagoClientHandler implements ClientHandler {
     }
 
     /**
-     * Respond to a 'pong' message sent by the client.
+     * Respond to an 'analysis' message sent by the client. The analysis is made by the server without holding
+     * the lock of the handler, so the other messages of the client are handled meanwhile.
+     *
+     * @param data message data
+     */
+    private void onAnalysis(Map<String, Object> data) {
+        if (session == null || !session.isRunning()) throw new WrongStateException("Client is not playing...");
+        Board board = observer.getBoardCopy();
+        if (board.isGameOver()) throw new WrongStateException("Game is over...");
+
+        server.analyze(board, (int) data.get("count")).whenComplete((analyses, e) -> {
+            if (e != null) {
+                sendMessage(MessageType.ERROR, e instanceof RejectedExecutionException
+                        ? "Analysis is busy, try again later" : "Analysis has failed");
+                return;
+            }
+            var args = new String[analyses.size() * 3];
+            for (int i = 0; i < analyses.size(); i++) {
+                Move move = analyses.get(i).getMove();
+                args[3 * i] = String.valueOf(move.getPosition());
+                args[3 * i + 1] = String.valueOf(move.getRotation());
+                args[3 * i + 2] = String.valueOf(analyses.get(i).getScore());
+            }
+            sendMessage(MessageType.ANALYSIS, args);
+        });
+    }
+
+    /**
+     * Respond to a 'pong' message sent by the client. The elapsed time is only printed for the pings
+     * requested by the operator, not for the automatic heartbeats.
      *
      * @param data message data
      */
     private void onPong(Map<String, Object> data) {
-        if (pingSent != null) {
-            long pongReceived = System.nanoTime();
-            double elapsedTime = (double) (pongReceived - pingSent) / 1_000_000;
+        long elapsed = server.getHeartbeats().onPong(this);
+        if (elapsed >= 0) {
+            double elapsedTime = (double) elapsed / 1_000_000;
             System.out.printf("Elapsed time for '%s' is %.2f ms\n", clientDescription, elapsedTime);
-            pingSent = null;
         }
     }
 
@@ -294,14 +401,13 @@ public class PentagoClientHandler implements ClientHandler {
      * {@inheritDoc}
      */
     @Override
-    public synchronized void sendMessage(MessageType type, String... args) {
+    public void sendMessage(MessageType type, String... args) {
         try {
             String message = protocol.convert(type, args);
-            System.out.printf("[OUTGOING] '%s'\n", message);
-            out.println(message);
-            out.flush();
+            TRAFFIC.log(Level.DEBUG, "out '{}'", message);
+            connection.send(message);
         } catch (InvalidMessageException e) {
-            System.out.printf("Invalid message of type %s...", type);
+            TRAFFIC.log(Level.WARN, "Invalid message of type {}", type);
         }
     }
 
@@ -65,6 +65,15 @@ public enum MessageType {
      */
     MAKE_MOVE,
 
+    /**
+     * (client) Sent by the client to ask for the best moves of its current game, ranked from the best
+     * to the worst. The maximal number of the moves is provided. Only allowed during the game.
+     * <p>
+     * (server) Sent as a reply to an "analysis" message by the client. Provides the field position,
+     * the subboard rotation and the score of each ranked move.
+     */
+    ANALYSIS,
+
     /**
      * Sent by client or server. The other party must immediately return a 'pong' message.
      */
@@ -0,0 +1,445 @@
+package entity.board;
+
+import java.util.Objects;
+
+import static entity.board.Board.DIM;
+import static entity.board.Board.SUB_DIM;
+import static entity.board.Board.WINNING_STREAK;
+
+/**
+ * Compact and immutable representation of the board that is used by the search strategies. The marbles of
+ * each player are stored as a 36-bit mask, where the bit index is equal to the field index on the board.
+ * Subboard rotations and win checks are done with precomputed tables instead of copying the fields.
+ *
+ * @author Aliaksei Kouzel
+ */
+public final class BitBoard {
+    public static final int FIELDS = DIM * DIM;
+    public static final int ROTATIONS = 8;
+    public static final int MOVES = FIELDS * ROTATIONS;
+    public static final long FULL = (1L << FIELDS) - 1;
+    public static final long[] LINES = buildLines();
+    public static final long[] QUADRANTS = buildQuadrants();
+    private static final long[][][] ROTATION_TABLE = buildRotationTable();
+    private static final long[] TERNARY = buildTernaryTable();
+    private static final int TERNARY_CHUNK = 12;
+    private static final long TERNARY_BASE = 531441; // 3^12
+    private final long black;
+    private final long white;
+    private final Marble turn;
+
+    public BitBoard() {
+        this(0, 0, Marble.BLACK);
+    }
+
+    public BitBoard(long black, long white, Marble turn) {
+        this.black = black;
+        this.white = white;
+        this.turn = turn;
+    }
+
+    /**
+     * Create a bit board with the same fields and turn as the given board.
+     *
+     * @param board state of the board
+     * @return bit board representation of the board
+     * @requires board != null
+     */
+    public static BitBoard of(Board board) {
+        long black = 0;
+        long white = 0;
+        Marble[] fields = board.getFields();
+        for (int i = 0; i < FIELDS; i++) {
+            if (fields[i] == Marble.BLACK) black |= 1L << i;
+            if (fields[i] == Marble.WHITE) white |= 1L << i;
+        }
+        return new BitBoard(black, white, board.getTurn());
+    }
+
+    /**
+     * Convert the bit board back to the regular board.
+     *
+     * @return board with the same fields and turn
+     */
+    public Board toBoard() {
+        Board board = new Board();
+        for (int i = 0; i < FIELDS; i++) {
+            board.setField(getField(i), i);
+        }
+        board.setTurn(turn);
+        return board;
+    }
+
+    /**
+     * Play a move by placing the marble of the current turn and rotating one of the subboards.
+     * After that, the turn goes to the next player.
+     *
+     * @param position field position
+     * @param rotation rotation index
+     * @return board after the move
+     * @requires (getEmpty() & (1L << position)) != 0 && rotation >= 0 && rotation <= 7
+     */
+    public BitBoard play(int position, int rotation) {
+        long bit = 1L << position;
+        long nextBlack = turn == Marble.BLACK ? black | bit : black;
+        long nextWhite = turn == Marble.WHITE ? white | bit : white;
+        return new BitBoard(rotate(nextBlack, rotation), rotate(nextWhite, rotation), turn.reverse());
+    }
+
+    /**
+     * Play a move encoded by {@link #encode(int, int)}.
+     *
+     * @param move encoded move
+     * @return board after the move
+     */
+    public BitBoard play(int move) {
+        return play(getPosition(move), getRotation(move));
+    }
+
+    /**
+     * Rotate the marbles of the mask by the rotation index.
+     *
+     * @param mask     marbles mask
+     * @param rotation rotation index
+     * @return rotated marbles mask
+     * @requires rotation >= 0 && rotation <= 7
+     */
+    public static long rotate(long mask, int rotation) {
+        int quadrant = rotation / 2;
+        int offset = getQuadrantOffset(quadrant);
+        long[][] table = ROTATION_TABLE[rotation];
+        return (mask & ~QUADRANTS[quadrant])
+                | table[0][(int) (mask >>> offset) & 7]
+                | table[1][(int) (mask >>> (offset + DIM)) & 7]
+                | table[2][(int) (mask >>> (offset + 2 * DIM)) & 7];
+    }
+
+    /**
+     * Determine if the mask contains a streak of 5 marbles.
+     *
+     * @param mask marbles mask
+     * @return true if there is a winning streak
+     * @pure
+     */
+    public static boolean hasStreak(long mask) {
+        for (long line : LINES) {
+            if ((mask & line) == line) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the winner on the board. Like in the pentago session, a full board is a draw even if a player
+     * has a streak, and black wins if both players have a streak.
+     *
+     * @return winner marble, or EMPTY if there is none
+     * @pure
+     */
+    public Marble getWinner() {
+        if (isFull()) return Marble.EMPTY;
+        if (hasStreak(black)) return Marble.BLACK;
+        if (hasStreak(white)) return Marble.WHITE;
+        return Marble.EMPTY;
+    }
+
+    /**
+     * Determine if the game can no longer continue.
+     *
+     * @return true if the game is over
+     * @pure
+     */
+    public boolean isGameOver() {
+        return isFull() || getWinner() != Marble.EMPTY;
+    }
+
+    /**
+     * Determine if there are no longer empty fields on the board.
+     *
+     * @return true if the board is full
+     * @pure
+     */
+    public boolean isFull() {
+        return (black | white) == FULL;
+    }
+
+    /**
+     * Get a unique key of the position. The fields are written as a base-3 number, which fits 36 fields
+     * into 58 bits, and the last bit is used for the turn. Thus, different positions never share a key.
+     *
+     * @return position key
+     * @pure
+     */
+    public long getKey() {
+        long key = 0;
+        long scale = 1;
+        for (int shift = 0; shift < FIELDS; shift += TERNARY_CHUNK) {
+            int blackChunk = (int) (black >>> shift) & 0xFFF;
+            int whiteChunk = (int) (white >>> shift) & 0xFFF;
+            key += (TERNARY[blackChunk] + 2 * TERNARY[whiteChunk]) * scale;
+            scale *= TERNARY_BASE;
+        }
+        return key << 1 | (turn == Marble.WHITE ? 1 : 0);
+    }
+
+    /**
+     * Get the marble on the field.
+     *
+     * @param index field index
+     * @return field marble
+     * @requires index >= 0 && index < FIELDS
+     */
+    public Marble getField(int index) {
+        if ((black >>> index & 1) != 0) return Marble.BLACK;
+        if ((white >>> index & 1) != 0) return Marble.WHITE;
+        return Marble.EMPTY;
+    }
+
+    public long getBlack() {
+        return black;
+    }
+
+    public long getWhite() {
+        return white;
+    }
+
+    public Marble getTurn() {
+        return turn;
+    }
+
+    /**
+     * Get the marbles of the player whose turn it is.
+     *
+     * @return marbles mask of the current player
+     */
+    public long getPlayer() {
+        return turn == Marble.BLACK ? black : white;
+    }
+
+    /**
+     * Get the marbles of the player who waits for the turn.
+     *
+     * @return marbles mask of the opponent
+     */
+    public long getOpponent() {
+        return turn == Marble.BLACK ? white : black;
+    }
+
+    /**
+     * Get the mask of empty fields.
+     *
+     * @return empty fields mask
+     */
+    public long getEmpty() {
+        return ~(black | white) & FULL;
+    }
+
+    /**
+     * Write the moves of the current player into the array. If a subboard looks the same after a half turn,
+     * rotating it clockwise and counterclockwise leads to the same position, so only the counterclockwise
+     * rotation of such a subboard is written.
+     *
+     * @param moves array of at least {@link #MOVES} elements
+     * @return number of written moves
+     */
+    public int getMoves(int[] moves) {
+        int symmetric = 0;
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            if (isSymmetric(black, white, quadrant)) symmetric |= 1 << quadrant;
+        }
+
+        int count = 0;
+        long empty = getEmpty();
+        while (empty != 0) {
+            int position = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+
+            // only the subboard of the placed marble can change its symmetry
+            int quadrant = getQuadrant(position);
+            long bit = 1L << position;
+            boolean placedBlack = turn == Marble.BLACK;
+            int flags = symmetric & ~(1 << quadrant);
+            if (isSymmetric(placedBlack ? black | bit : black, placedBlack ? white : white | bit, quadrant)) {
+                flags |= 1 << quadrant;
+            }
+
+            for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+                boolean clockwise = rotation % 2 == 1;
+                if (clockwise && (flags >>> (rotation / 2) & 1) != 0) continue;
+                moves[count++] = encode(position, rotation);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Determine if the subboard looks the same after a half turn.
+     *
+     * @param black    black marbles
+     * @param white    white marbles
+     * @param quadrant subboard index
+     * @return true if the subboard is symmetric
+     */
+    private static boolean isSymmetric(long black, long white, int quadrant) {
+        int clockwise = quadrant * 2 + 1;
+        return rotate(rotate(black, clockwise), clockwise) == black
+                && rotate(rotate(white, clockwise), clockwise) == white;
+    }
+
+    /**
+     * Get the subboard that contains the field.
+     *
+     * @param position field index
+     * @return subboard index (0 - top left, 1 - top right, 2 - bottom left, 3 - bottom right)
+     */
+    public static int getQuadrant(int position) {
+        int row = position / DIM;
+        int col = position % DIM;
+        return (row / SUB_DIM) * 2 + col / SUB_DIM;
+    }
+
+    /**
+     * Encode a move into a single number from 0 to 287.
+     *
+     * @param position field position
+     * @param rotation rotation index
+     * @return encoded move
+     */
+    public static int encode(int position, int rotation) {
+        return position * ROTATIONS + rotation;
+    }
+
+    public static int getPosition(int move) {
+        return move / ROTATIONS;
+    }
+
+    public static int getRotation(int move) {
+        return move % ROTATIONS;
+    }
+
+    /**
+     * Convert an encoded move to the move that can be played on the regular board.
+     *
+     * @param move encoded move
+     * @return move of the current player
+     */
+    public Move toMove(int move) {
+        return new Move(getPosition(move), getRotation(move), turn);
+    }
+
+    /**
+     * Get the index of the first field of the quadrant.
+     *
+     * @param quadrant quadrant index (0 - top left, 1 - top right, 2 - bottom left, 3 - bottom right)
+     * @return field index of the top left corner of the quadrant
+     */
+    private static int getQuadrantOffset(int quadrant) {
+        return (quadrant / 2) * SUB_DIM * DIM + (quadrant % 2) * SUB_DIM;
+    }
+
+    /**
+     * Build the masks of all 32 possible winning streaks: 12 in rows, 12 in columns and 8 in diagonals.
+     *
+     * @return winning streak masks
+     */
+    private static long[] buildLines() {
+        long[] lines = new long[32];
+        int count = 0;
+        int[][] directions = new int[][]{{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        for (int[] direction : directions) {
+            for (int row = 0; row < DIM; row++) {
+                for (int col = 0; col < DIM; col++) {
+                    int endRow = row + direction[0] * (WINNING_STREAK - 1);
+                    int endCol = col + direction[1] * (WINNING_STREAK - 1);
+                    if (endRow < 0 || endRow >= DIM || endCol < 0 || endCol >= DIM) continue;
+
+                    long line = 0;
+                    for (int i = 0; i < WINNING_STREAK; i++) {
+                        line |= 1L << ((row + direction[0] * i) * DIM + col + direction[1] * i);
+                    }
+                    lines[count++] = line;
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Build the field masks of the 4 subboards.
+     *
+     * @return subboard masks
+     */
+    private static long[] buildQuadrants() {
+        long[] quadrants = new long[4];
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            int offset = getQuadrantOffset(quadrant);
+            for (int row = 0; row < SUB_DIM; row++) {
+                quadrants[quadrant] |= 7L << (offset + row * DIM);
+            }
+        }
+        return quadrants;
+    }
+
+    /**
+     * Build the table that maps every 3-field row pattern of a subboard to its place after the rotation.
+     * The same mapping as in {@link Board#rotate(int, int, int, boolean)} is used.
+     *
+     * @return rotation table indexed by rotation, subboard row and row pattern
+     */
+    private static long[][][] buildRotationTable() {
+        long[][][] table = new long[ROTATIONS][SUB_DIM][1 << SUB_DIM];
+        for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+            int offset = getQuadrantOffset(rotation / 2);
+            boolean clockwise = rotation % 2 == 1;
+            for (int row = 0; row < SUB_DIM; row++) {
+                for (int pattern = 0; pattern < 1 << SUB_DIM; pattern++) {
+                    long result = 0;
+                    for (int col = 0; col < SUB_DIM; col++) {
+                        if ((pattern >>> col & 1) == 0) continue;
+                        int nextRow = clockwise ? col : SUB_DIM - 1 - col;
+                        int nextCol = clockwise ? SUB_DIM - 1 - row : row;
+                        result |= 1L << (offset + nextRow * DIM + nextCol);
+                    }
+                    table[rotation][row][pattern] = result;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Build the table that reads a 12-bit pattern as a base-3 number.
+     *
+     * @return ternary values of the bit patterns
+     */
+    private static long[] buildTernaryTable() {
+        long[] table = new long[1 << 12];
+        for (int pattern = 0; pattern < table.length; pattern++) {
+            long value = 0;
+            long power = 1;
+            for (int bit = 0; bit < 12; bit++) {
+                if ((pattern >>> bit & 1) != 0) value += power;
+                power *= 3;
+            }
+            table[pattern] = value;
+        }
+        return table;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BitBoard)) return false;
+        BitBoard other = (BitBoard) o;
+        return black == other.black && white == other.white && turn == other.turn;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(black, white, turn);
+    }
+
+    @Override
+    public String toString() {
+        return toBoard().toString();
+    }
+}
@@ -23,13 +23,14 @@ public class Board {
     }
 
     /**
-     * Make a deep copy of the board.
+     * Make a deep copy of the board, including the player who moves next.
      *
      * @return board copy
      */
     public Board deepCopy() {
         Board copiedBoard = new Board();
         copiedBoard.fields = Arrays.copyOf(fields, fields.length);
+        copiedBoard.turn = turn;
         return copiedBoard;
     }
 
@@ -37,6 +38,15 @@ public class Board {
         return turn;
     }
 
+    /**
+     * Set the player who moves next.
+     *
+     * @param turn marble of the next player
+     */
+    void setTurn(Marble turn) {
+        this.turn = turn;
+    }
+
     /**
      * Rotate one of the 4 subboards either clockwise or counterclockwise.
      *
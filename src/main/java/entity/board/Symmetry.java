@@ -0,0 +1,198 @@
+package entity.board;
+
+import static entity.board.Board.DIM;
+import static entity.board.Board.SUB_DIM;
+
+/**
+ * Class that maps positions onto each other by the 8 symmetries of the whole board: 4 turns and 4 reflections.
+ * Such positions have the same value, so a single canonical position can represent
+ * all of them. A subboard rotation stays a subboard rotation after the mapping, but a reflection swaps
+ * its direction.
+ *
+ * @author Aliaksei Kouzel
+ */
+public final class Symmetry {
+    public static final int COUNT = 8;
+    public static final int IDENTITY = 0;
+    private static final int[][] FIELD_MAP = buildFieldMap();
+    private static final int[] INVERSE = buildInverse();
+    private static final long[][][] ROW_TABLE = buildRowTable();
+    private static final int[][] MOVE_MAP = buildMoveMap();
+
+    private Symmetry() {
+    }
+
+    /**
+     * Map the position by the symmetry.
+     *
+     * @param board    state of the board
+     * @param symmetry symmetry index from 0 to 7
+     * @return mapped position with the same turn
+     * @requires board != null
+     */
+    public static BitBoard apply(BitBoard board, int symmetry) {
+        if (symmetry == IDENTITY) return board;
+        return new BitBoard(apply(board.getBlack(), symmetry), apply(board.getWhite(), symmetry), board.getTurn());
+    }
+
+    /**
+     * Map the field mask by the symmetry, one row at a time.
+     *
+     * @param mask     field mask
+     * @param symmetry symmetry index from 0 to 7
+     * @return mapped field mask
+     */
+    public static long apply(long mask, int symmetry) {
+        long[][] rows = ROW_TABLE[symmetry];
+        long result = 0;
+        for (int row = 0; row < DIM; row++) {
+            result |= rows[row][(int) (mask >>> (row * DIM)) & ((1 << DIM) - 1)];
+        }
+        return result;
+    }
+
+    /**
+     * Map the encoded move by the symmetry.
+     *
+     * @param move     encoded move
+     * @param symmetry symmetry index from 0 to 7
+     * @return encoded move on the mapped position
+     */
+    public static int applyToMove(int move, int symmetry) {
+        return MOVE_MAP[symmetry][move];
+    }
+
+    /**
+     * Get the symmetry that undoes the given one.
+     *
+     * @param symmetry symmetry index from 0 to 7
+     * @return inverse symmetry index
+     */
+    public static int inverse(int symmetry) {
+        return INVERSE[symmetry];
+    }
+
+    /**
+     * Find the symmetry that maps the position to its canonical form, i.e. the one with the smallest
+     * black marbles mask and then the smallest white marbles mask.
+     *
+     * @param board state of the board
+     * @return symmetry index from 0 to 7
+     * @requires board != null
+     */
+    public static int getCanonical(BitBoard board) {
+        int best = IDENTITY;
+        long bestBlack = board.getBlack();
+        long bestWhite = board.getWhite();
+        for (int symmetry = 1; symmetry < COUNT; symmetry++) {
+            long black = apply(board.getBlack(), symmetry);
+            if (black > bestBlack) continue;
+
+            long white = apply(board.getWhite(), symmetry);
+            if (black < bestBlack || white < bestWhite) {
+                bestBlack = black;
+                bestWhite = white;
+                best = symmetry;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Determine if the symmetry swaps the direction of the rotations.
+     *
+     * @param symmetry symmetry index from 0 to 7
+     * @return true if the symmetry is a reflection
+     */
+    public static boolean isReflection(int symmetry) {
+        return Integer.bitCount(symmetry) % 2 == 1;
+    }
+
+    /**
+     * Map a single field by the symmetry. The bits of the index mean: 1 - transpose,
+     * 2 - flip the rows upside down, 4 - flip the columns left to right.
+     *
+     * @param field    field index
+     * @param symmetry symmetry index from 0 to 7
+     * @return mapped field index
+     */
+    private static int mapField(int field, int symmetry) {
+        int row = field / DIM;
+        int col = field % DIM;
+        if ((symmetry & 1) != 0) {
+            int temp = row;
+            row = col;
+            col = temp;
+        }
+        if ((symmetry & 2) != 0) row = DIM - 1 - row;
+        if ((symmetry & 4) != 0) col = DIM - 1 - col;
+        return row * DIM + col;
+    }
+
+    private static int[][] buildFieldMap() {
+        int[][] map = new int[COUNT][DIM * DIM];
+        for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+            for (int field = 0; field < DIM * DIM; field++) {
+                map[symmetry][field] = mapField(field, symmetry);
+            }
+        }
+        return map;
+    }
+
+    private static int[] buildInverse() {
+        int[] inverse = new int[COUNT];
+        for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+            for (int other = 0; other < COUNT; other++) {
+                boolean identity = true;
+                for (int field = 0; field < DIM * DIM; field++) {
+                    if (FIELD_MAP[other][FIELD_MAP[symmetry][field]] != field) identity = false;
+                }
+                if (identity) inverse[symmetry] = other;
+            }
+        }
+        return inverse;
+    }
+
+    /**
+     * Build the table that maps every row pattern to its fields after the symmetry.
+     *
+     * @return row table indexed by symmetry, row and row pattern
+     */
+    private static long[][][] buildRowTable() {
+        long[][][] table = new long[COUNT][DIM][1 << DIM];
+        for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+            for (int row = 0; row < DIM; row++) {
+                for (int pattern = 0; pattern < 1 << DIM; pattern++) {
+                    long result = 0;
+                    for (int col = 0; col < DIM; col++) {
+                        if ((pattern >>> col & 1) != 0) result |= 1L << FIELD_MAP[symmetry][row * DIM + col];
+                    }
+                    table[symmetry][row][pattern] = result;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Build the table that maps every encoded move. The subboard of a rotation follows its center field.
+     *
+     * @return move table indexed by symmetry and encoded move
+     */
+    private static int[][] buildMoveMap() {
+        int[][] map = new int[COUNT][BitBoard.MOVES];
+        int center = SUB_DIM / 2 * DIM + SUB_DIM / 2;
+        for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+            for (int move = 0; move < BitBoard.MOVES; move++) {
+                int rotation = BitBoard.getRotation(move);
+                int quadrant = rotation / 2;
+                int quadrantCenter = (quadrant / 2) * SUB_DIM * DIM + (quadrant % 2) * SUB_DIM + center;
+                int nextQuadrant = BitBoard.getQuadrant(FIELD_MAP[symmetry][quadrantCenter]);
+                int direction = (rotation % 2) ^ (isReflection(symmetry) ? 1 : 0);
+                int position = FIELD_MAP[symmetry][BitBoard.getPosition(move)];
+                map[symmetry][move] = BitBoard.encode(position, nextQuadrant * 2 + direction);
+            }
+        }
+        return map;
+    }
+}
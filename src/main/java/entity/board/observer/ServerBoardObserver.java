@@ -14,12 +14,14 @@ import java.io.*;
 /**
  * Class that represents a board observer, which handles board changes on the server side. It contains a protocol,
  * as the board updates are automatically transmitted to the client using a provided protocol.
+ * It also keeps a copy of the board, so the server can analyse the game on the client's request.
  *
  * @author Aliaksei Kouzel
  */
 public class ServerBoardObserver implements BoardObserver {
     private final ServerProtocol protocol;
     private final ClientHandler client;
+    private final Board boardCopy = new Board();
 
     public ServerBoardObserver(ClientHandler client) {
         this.protocol = client.getProtocol();
@@ -31,6 +33,9 @@ public class ServerBoardObserver implements BoardObserver {
      */
     @Override
     public void onStart(String... players) {
+        synchronized (boardCopy) {
+            boardCopy.reset();
+        }
         client.sendMessage(MessageType.NEW_GAME, players[0], players[1]);
     }
 
@@ -39,6 +44,9 @@ public class ServerBoardObserver implements BoardObserver {
      */
     @Override
     public void onMove(Move move) {
+        synchronized (boardCopy) {
+            boardCopy.playMove(move);
+        }
         String position = String.valueOf(move.getPosition());
         String rotation = String.valueOf(move.getRotation());
         client.sendMessage(MessageType.MAKE_MOVE, position, rotation);
@@ -80,12 +88,14 @@ public class ServerBoardObserver implements BoardObserver {
     }
 
     /**
-     * Returns nothing as the server does not keep the copy of the board.
+     * Returns a copy of the board, which is not changed by the following moves.
      *
-     * @return null
+     * @return copy of the board
      */
     @Override
     public Board getBoardCopy() {
-        return null;
+        synchronized (boardCopy) {
+            return boardCopy.deepCopy();
+        }
     }
 }
@@ -2,31 +2,132 @@ package entity.player;
 
 import entity.board.Board;
 import entity.board.Move;
+import entity.strategy.ComputeGovernor;
+import entity.strategy.Difficulty;
+import entity.strategy.SearchStatistics;
+import entity.strategy.StatisticsAggregator;
 import entity.strategy.Strategy;
 
 /**
  * Player that uses a provided strategy for deciding the next moves on the board.
  * Also, the AI player takes its name from the strategy that is being assigned to it.
+ * The statistics of every decision are kept until the next one and added to the aggregator.
+ * <p>
+ * A player with a difficulty tier makes its decisions within the limits of the tier on the threads of
+ * the compute governor, which puts it ahead of the bots that play against other bots if a human is waiting.
  *
  * @author Aliaksei Kouzel
  */
 public class AIPlayer extends Player {
     private final Strategy strategy;
+    private final StatisticsAggregator aggregator;
+    private final Difficulty difficulty;
+    private final ComputeGovernor governor;
+    private volatile SearchStatistics lastStatistics;
+    private volatile boolean isHumanWatching;
 
     public AIPlayer(Strategy strategy) {
+        this(strategy, StatisticsAggregator.getShared());
+    }
+
+    /**
+     * Create an AI player that makes its decisions on the calling thread.
+     *
+     * @param strategy   strategy that decides the moves
+     * @param aggregator aggregator of the decision statistics, or null
+     * @requires strategy != null
+     */
+    public AIPlayer(Strategy strategy, StatisticsAggregator aggregator) {
+        this(strategy, aggregator, null, null);
+    }
+
+    /**
+     * Create an AI player that makes its decisions within the limits of the difficulty tier.
+     *
+     * @param strategy   strategy that decides the moves
+     * @param aggregator aggregator of the decision statistics, or null
+     * @param difficulty difficulty tier, or null to use the strategy's own limits
+     * @param governor   governor that makes the decisions on its threads, or null to make them on the calling thread
+     * @requires strategy != null
+     */
+    public AIPlayer(Strategy strategy, StatisticsAggregator aggregator, Difficulty difficulty,
+                    ComputeGovernor governor) {
         super(strategy.getName());
         this.strategy = strategy;
+        this.aggregator = aggregator;
+        this.difficulty = difficulty;
+        this.governor = governor;
     }
 
     /**
      * Decide the next move on the board using a provided strategy.
      *
      * @param board state of the board
-     * @return next move decided using a provided strategy
+     * @return next move decided using a provided strategy, null if the decision has been interrupted
      * @requires board != null && strategy != null
      */
     @Override
     public Move decideMove(Board board) {
-        return strategy.decideMove(board);
+        var statistics = new SearchStatistics();
+        Move move;
+        if (governor != null) {
+            Difficulty tier = difficulty != null ? difficulty : Difficulty.HARD;
+            try {
+                move = governor.decide(strategy, board, tier.getLimits(), isHumanWaiting(), statistics);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        } else if (difficulty != null) {
+            move = strategy.decideMove(board, difficulty.getLimits(), statistics);
+        } else {
+            move = strategy.decideMove(board, statistics);
+        }
+
+        lastStatistics = statistics;
+        if (aggregator != null) aggregator.record(strategy.getName(), statistics);
+        return move;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isHuman() {
+        return false;
+    }
+
+    /**
+     * Check if a human waits for the decisions of the player. Only the sessions set the opponent,
+     * so the callers that play outside of a session tell it by themselves.
+     *
+     * @return true if the opponent is a human or a human watches the player
+     */
+    public boolean isHumanWaiting() {
+        Player opponent = getOpponent();
+        return isHumanWatching || opponent != null && opponent.isHuman();
+    }
+
+    /**
+     * Set if a human watches the player, e.g. the user of a client whose game the player plays,
+     * so that its decisions are made before the decisions of the bot games.
+     *
+     * @param isHumanWatching true if a human watches the player
+     */
+    public void setHumanWatching(boolean isHumanWatching) {
+        this.isHumanWatching = isHumanWatching;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Get the statistics of the last decision.
+     *
+     * @return decision statistics, null if no move has been decided yet
+     */
+    public SearchStatistics getLastStatistics() {
+        return lastStatistics;
     }
-}
\ No newline at end of file
+}
@@ -3,13 +3,21 @@ package entity.player;
 import entity.board.Board;
 import entity.board.Move;
 
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
 /**
  * Player that stores its next moves into the buffer.
  *
  * @author Aliaksei Kouzel
  */
 public class BufferedPlayer extends Player {
+    private final Lock lock = new ReentrantLock();
+    private final Condition isMoveStored = lock.newCondition();
     private Move bufferedMove;
+    private Consumer<Move> moveCallback;
 
     public BufferedPlayer(String username) {
         super(username);
@@ -17,29 +25,67 @@ public class BufferedPlayer extends Player {
 
     /**
      * Decide the next move by taking one from the buffer. If there is none, wait until there is.
+     * It waits on a condition rather than on the monitor, so that a waiting virtual thread releases its carrier.
      *
      * @param board state of the board
      * @return the next move from the buffer
      */
     @Override
-    public synchronized Move decideMove(Board board) {
+    public Move decideMove(Board board) {
+        lock.lock();
         try {
-            while (bufferedMove == null) wait();
+            while (bufferedMove == null) isMoveStored.await();
             return bufferedMove;
         } catch (InterruptedException e) {
             return null;
         } finally {
             bufferedMove = null;
+            lock.unlock();
         }
     }
 
     /**
-     * Store the next move that will be played into the buffer.
+     * Ask for the next move without waiting for it. The callback is called once, either right away if
+     * there is a move in the buffer or by the thread that stores the next move.
+     *
+     * @param callback consumer of the next move
+     * @requires callback != null
+     */
+    public void requestMove(Consumer<Move> callback) {
+        Move move;
+        lock.lock();
+        try {
+            if (bufferedMove == null) {
+                moveCallback = callback;
+                return;
+            }
+            move = bufferedMove;
+            bufferedMove = null;
+        } finally {
+            lock.unlock();
+        }
+        callback.accept(move);
+    }
+
+    /**
+     * Store the next move that will be played into the buffer, or pass it to the callback if the move
+     * has been requested.
      *
      * @param nextMove next move decided by the player
      */
-    public synchronized void storeMove(Move nextMove) {
-        bufferedMove = nextMove;
-        notifyAll();
+    public void storeMove(Move nextMove) {
+        Consumer<Move> callback;
+        lock.lock();
+        try {
+            callback = moveCallback;
+            moveCallback = null;
+            if (callback == null) {
+                bufferedMove = nextMove;
+                isMoveStored.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (callback != null) callback.accept(nextMove);
     }
 }
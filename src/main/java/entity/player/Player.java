@@ -12,6 +12,7 @@ import entity.board.Move;
 public abstract class Player {
     private final String username;
     private Marble turn;
+    private Player opponent;
 
     public Player(String username) {
         this.username = username;
@@ -52,4 +53,32 @@ public abstract class Player {
     public void setTurn(Marble turn) {
         this.turn = turn;
     }
+
+    /**
+     * Check if the moves of the player are decided by a human. Unless told otherwise, the player is
+     * considered to be a human (e.g. a remote client), so it is never kept waiting for the bots.
+     *
+     * @return true if the player is a human
+     */
+    public boolean isHuman() {
+        return true;
+    }
+
+    /**
+     * Get the player on the other side of the board.
+     *
+     * @return opponent, null if the player is not in a session
+     */
+    public Player getOpponent() {
+        return opponent;
+    }
+
+    /**
+     * Set the player on the other side of the board.
+     *
+     * @param opponent opponent
+     */
+    public void setOpponent(Player opponent) {
+        this.opponent = opponent;
+    }
 }
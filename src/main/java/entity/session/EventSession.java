@@ -0,0 +1,281 @@
+package entity.session;
+
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.board.observer.BoardObserver;
+import entity.player.BufferedPlayer;
+import entity.player.Player;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pentago session that has no thread of its own. Instead of waiting for the moves, it asks the players for them
+ * and plays each received move as an event, on the threads of an executor shared by many sessions. The events of
+ * a session are handled one at a time, in the order in which they have been received.
+ * <p>
+ * The moves of the buffered players are played by the threads that store them (e.g. upon a 'move' message),
+ * while the other players (e.g. AI players) decide their moves on the shared executor.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class EventSession implements GameSession {
+    private final Marble[] marbles = new Marble[]{Marble.BLACK, Marble.WHITE};
+    private final List<BoardObserver> observers = new CopyOnWriteArrayList<>();
+    private final Map<Marble, Player> players = new HashMap<>();
+    private final Board board = new Board();
+    private final AtomicBoolean isRunning = new AtomicBoolean(true);
+    private final CompletableFuture<Void> closed = new CompletableFuture<>();
+    private final Executor executor;
+    private final SerialExecutor events;
+
+    /**
+     * Create a session.
+     *
+     * @param executor executor shared by the sessions
+     * @param players  players joining the session
+     * @requires executor != null
+     */
+    public EventSession(Executor executor, Player... players) {
+        this.executor = executor;
+        events = new SerialExecutor(executor);
+        for (Player player : players) {
+            join(player);
+        }
+    }
+
+    /**
+     * Run the session in the calling thread until it is closed.
+     */
+    @Override
+    public void run() {
+        start();
+        closed.join();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return null, since the session has no thread of its own
+     */
+    @Override
+    public Thread start() {
+        events.execute(() -> {
+            if (!greetPlayers()) {
+                // a player has disconnected during greeting
+                isRunning.set(false);
+                onClose();
+            } else {
+                requestMove();
+            }
+        });
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean join(Player player) {
+        int freeTurn = getFreeTurn();
+        return join(player, freeTurn);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean join(Player player, int turn) {
+        if (player.getUsername() == null) return false;
+        if (turn == -1 || players.containsKey(marbles[turn])) return false;
+
+        Marble freeMarble = marbles[turn];
+        player.setTurn(freeMarble);
+        players.put(freeMarble, player);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void disconnect(Player player) {
+        if (!isRunning.compareAndSet(true, false)) return;
+        events.execute(() -> {
+            for (BoardObserver observer : observers) {
+                observer.onDisconnect(player.getUsername());
+            }
+            onClose();
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        if (isRunning.compareAndSet(true, false)) events.execute(this::onClose);
+    }
+
+    /**
+     * Ask the current player for the next move, which is then played as an event.
+     */
+    private void requestMove() {
+        Player currentPlayer = players.get(board.getTurn());
+        if (currentPlayer instanceof BufferedPlayer) {
+            ((BufferedPlayer) currentPlayer).requestMove(move -> events.execute(() -> handleMove(currentPlayer, move)));
+        } else {
+            // no other move is played meanwhile, so the player can decide on the board itself
+            executor.execute(() -> {
+                Move move = currentPlayer.decideMove(board);
+                events.execute(() -> handleMove(currentPlayer, move));
+            });
+        }
+    }
+
+    /**
+     * Handle the move decided by the player and ask for the next one.
+     *
+     * @param player player that has decided the move
+     * @param move   decided move, null if the player has disconnected
+     */
+    private void handleMove(Player player, Move move) {
+        if (!isRunning.get()) return;
+        if (move == null) {
+            disconnect(player);
+            return;
+        }
+        if (player.getTurn() == board.getTurn() && isValidMove(move)) playMove(move);
+        if (isRunning.get()) requestMove();
+    }
+
+    /**
+     * Play the next move. After that, check if the game is over and if so stop the session.
+     *
+     * @param move the next move that is being played
+     */
+    private void playMove(Move move) {
+        board.playMove(move);
+        for (BoardObserver observer : observers) {
+            observer.onMove(move);
+        }
+
+        // check if the game is over
+        if (board.isGameOver() && isRunning.compareAndSet(true, false)) {
+            announceResults();
+            onClose();
+        }
+    }
+
+    /**
+     * Returns the next available turn.
+     *
+     * @return free turn or -1 if there is none
+     */
+    private int getFreeTurn() {
+        for (int i = 0; i < marbles.length; i++) {
+            if (!players.containsKey(marbles[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Greet players that are being joined into the session.
+     *
+     * @return false if one of the players is missing
+     */
+    private synchronized boolean greetPlayers() {
+        Player black = players.get(Marble.BLACK);
+        Player white = players.get(Marble.WHITE);
+        if (black == null || white == null) return false;
+        black.setOpponent(white);
+        white.setOpponent(black);
+        for (BoardObserver observer : observers) {
+            observer.onStart(black.getUsername(), white.getUsername());
+        }
+        return true;
+    }
+
+    /**
+     * Announce the game results if there is a draw or the victory by one of the players.
+     */
+    private void announceResults() {
+        if (board.isFull()) {
+            for (BoardObserver observer : observers) {
+                observer.onDraw();
+            }
+        } else {
+            Marble winningMarble = board.isWinner(Marble.BLACK) ? Marble.BLACK : Marble.WHITE;
+            for (BoardObserver observer : observers) {
+                observer.onWinner(players.get(winningMarble).getUsername());
+            }
+        }
+    }
+
+    /**
+     * Notify the observers that the session has been closed.
+     */
+    private void onClose() {
+        for (BoardObserver observer : observers) {
+            observer.onClose();
+        }
+        closed.complete(null);
+    }
+
+    /**
+     * Get the future that is completed once the session has been closed, e.g. to wait for the end of the game.
+     *
+     * @return future of the session closing
+     */
+    public CompletableFuture<Void> getClosed() {
+        return closed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addObserver(BoardObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isValidMove(Move move) {
+        return board.isValidMove(move);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasPlayer(Player player) {
+        return players.containsValue(player);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return isRunning.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Marble getTurn() {
+        return board.getTurn();
+    }
+}
@@ -7,6 +7,7 @@ import entity.board.Move;
 import entity.player.Player;
 
 import java.util.*;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Class that is used to play a pentago session simultaneously with other sessions.
@@ -18,10 +19,16 @@ public class PentagoSession implements GameSession {
     private final List<BoardObserver> observers = new ArrayList<>();
     private final Map<Marble, Player> players = new HashMap<>();
     private final Board board = new Board();
-    private boolean isRunning = true;
+    private final ThreadFactory threadFactory;
+    private volatile boolean isRunning = true;
     private Thread session;
 
     public PentagoSession(Player... players) {
+        this(Thread::new, players);
+    }
+
+    public PentagoSession(ThreadFactory threadFactory, Player... players) {
+        this.threadFactory = threadFactory;
         for (Player player : players) {
             join(player);
         }
@@ -45,7 +52,7 @@ public class PentagoSession implements GameSession {
      */
     @Override
     public Thread start() {
-        session = new Thread(this);
+        session = threadFactory.newThread(this);
         session.start();
         return session;
     }
@@ -90,6 +97,8 @@ public class PentagoSession implements GameSession {
     @Override
     public void close() {
         isRunning = false;
+        // wake up the session if it waits for a move, so that it can close its observers
+        if (session != null && session != Thread.currentThread()) session.interrupt();
     }
 
     /**
@@ -98,6 +107,7 @@ public class PentagoSession implements GameSession {
     private void handleMove() {
         Player currentPlayer = players.get(board.getTurn());
         Move nextMove = currentPlayer.decideMove(board);
+        if (!isRunning) return;
 
         // null means that the player has disconnected
         if (nextMove == null) {
@@ -154,6 +164,8 @@ public class PentagoSession implements GameSession {
      * Greet players that are being joined into the session.
      */
     private void greetPlayers() {
+        players.get(Marble.BLACK).setOpponent(players.get(Marble.WHITE));
+        players.get(Marble.WHITE).setOpponent(players.get(Marble.BLACK));
         for (BoardObserver observer : observers) {
             String p1 = players.get(Marble.BLACK).getUsername();
             String p2 = players.get(Marble.WHITE).getUsername();
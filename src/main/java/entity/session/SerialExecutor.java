@@ -0,0 +1,52 @@
+package entity.session;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Executor that runs its tasks one at a time in the order of submission, on the threads of a shared executor.
+ * It only takes a thread of the shared executor while it has tasks to run.
+ *
+ * @author Aliaksei Kouzel
+ */
+class SerialExecutor implements Executor {
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean isScheduled = new AtomicBoolean();
+    private final Executor executor;
+
+    SerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    /**
+     * Schedule running the tasks on the shared executor, unless it is already scheduled.
+     */
+    private void schedule() {
+        if (isScheduled.compareAndSet(false, true)) executor.execute(this::runTasks);
+    }
+
+    /**
+     * Run the submitted tasks until there are none left.
+     */
+    private void runTasks() {
+        try {
+            Runnable task;
+            while ((task = tasks.poll()) != null) task.run();
+        } finally {
+            isScheduled.set(false);
+            // a task may have been submitted after the queue has been emptied
+            if (!tasks.isEmpty()) schedule();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package entity.strategy;
+
+import entity.board.Board;
+import entity.board.Move;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Governor that runs the decisions of the AI players on a bounded pool of threads, so the bot games cannot take
+ * the CPU away from the rest of the server. The decisions of the sessions in which a human waits for the bot
+ * go first, the rest are taken in the order of their submission.
+ * <p>
+ * When more decisions wait than the pool has threads, the pool is saturated and the decisions are made
+ * shallower: the depth is reduced by one move for every full round of waiting decisions.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class ComputeGovernor {
+    private static ComputeGovernor shared;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder reducedDecisions = new LongAdder();
+    private final int threads;
+
+    /**
+     * Create a governor with its own pool of daemon threads.
+     *
+     * @param threads number of the threads that make the decisions
+     * @requires threads > 0
+     */
+    public ComputeGovernor(int threads) {
+        this.threads = threads;
+        var count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+            var thread = new Thread(runnable, "compute-governor-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the governor that is shared by all AI players of the JVM. It keeps half of the processors
+     * for the rest of the server.
+     *
+     * @return shared governor
+     */
+    public static synchronized ComputeGovernor getShared() {
+        if (shared == null) shared = new ComputeGovernor(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        return shared;
+    }
+
+    /**
+     * Submit the decision to the pool.
+     *
+     * @param strategy       strategy that decides the move
+     * @param board          state of the board, which must not change until the decision is made
+     * @param limits         limits of the decision before the load is shed
+     * @param isHumanWaiting true if a human waits for the decision
+     * @param statistics     statistics of the decision to be filled in
+     * @return future move
+     * @requires strategy != null && board != null && limits != null && statistics != null
+     */
+    public FutureTask<Move> submit(Strategy strategy, Board board, SearchLimits limits, boolean isHumanWaiting,
+                                   SearchStatistics statistics) {
+        var task = new Decision(strategy, board, limits, isHumanWaiting, statistics, sequence.getAndIncrement());
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) { // the governor has been shut down
+            task.cancel(false);
+        }
+        return task;
+    }
+
+    /**
+     * Make the decision in the pool and wait for it.
+     *
+     * @param strategy       strategy that decides the move
+     * @param board          state of the board
+     * @param limits         limits of the decision before the load is shed
+     * @param isHumanWaiting true if a human waits for the decision
+     * @param statistics     statistics of the decision to be filled in
+     * @return decided move, null if the governor has been shut down
+     * @throws InterruptedException if the waiting thread has been interrupted, the decision is then cancelled
+     *                              and its search is interrupted, so that it frees its thread
+     * @requires strategy != null && board != null && limits != null && statistics != null
+     */
+    public Move decide(Strategy strategy, Board board, SearchLimits limits, boolean isHumanWaiting,
+                       SearchStatistics statistics) throws InterruptedException {
+        FutureTask<Move> task = submit(strategy, board, limits, isHumanWaiting, statistics);
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Decision has failed", e.getCause());
+        } catch (CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stop the threads of the pool. The decisions that have not been started are cancelled.
+     */
+    public void shutdown() {
+        for (Runnable task : executor.shutdownNow()) ((Decision) task).cancel(false);
+    }
+
+    /**
+     * Get the number of the decisions that wait for a thread.
+     *
+     * @return number of waiting decisions
+     */
+    public int getWaiting() {
+        return executor.getQueue().size();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getDecisions() {
+        return decisions.sum();
+    }
+
+    public long getReducedDecisions() {
+        return reducedDecisions.sum();
+    }
+
+    /**
+     * Decision that waits in the pool. The decisions with a human waiting are taken first,
+     * the rest by their sequence number.
+     */
+    private class Decision extends FutureTask<Move> implements Comparable<Decision> {
+        private final boolean isHumanWaiting;
+        private final long number;
+
+        private Decision(Strategy strategy, Board board, SearchLimits limits, boolean isHumanWaiting,
+                         SearchStatistics statistics, long number) {
+            this(strategy, board, limits, statistics, isHumanWaiting, number, System.nanoTime());
+        }
+
+        private Decision(Strategy strategy, Board board, SearchLimits limits, SearchStatistics statistics,
+                         boolean isHumanWaiting, long number, long submitted) {
+            super(() -> decideMove(strategy, board, limits, statistics, submitted));
+            this.isHumanWaiting = isHumanWaiting;
+            this.number = number;
+        }
+
+        @Override
+        public int compareTo(Decision other) {
+            if (isHumanWaiting != other.isHumanWaiting) return isHumanWaiting ? -1 : 1;
+            return Long.compare(number, other.number);
+        }
+    }
+
+    /**
+     * Make the decision within the limits that are reduced by the load of the pool.
+     *
+     * @param strategy   strategy that decides the move
+     * @param board      state of the board
+     * @param limits     limits of the decision before the load is shed
+     * @param statistics statistics of the decision to be filled in
+     * @param submitted  time of the submission in nanoseconds
+     * @return decided move
+     */
+    private Move decideMove(Strategy strategy, Board board, SearchLimits limits, SearchStatistics statistics,
+                            long submitted) {
+        long start = System.nanoTime();
+        int reduction = getWaiting() / threads;
+        if (reduction > 0) reducedDecisions.increment();
+        decisions.increment();
+
+        Move move = strategy.decideMove(board, limits.reduceDepth(reduction), statistics);
+        statistics.addPhaseTime(SearchPhase.QUEUE, start - submitted);
+        statistics.setElapsedNanos(System.nanoTime() - submitted);
+        return move;
+    }
+}
@@ -0,0 +1,32 @@
+package entity.strategy;
+
+/**
+ * Difficulty tiers of the AI players. Each tier sets the limits of a single decision,
+ * so stronger bots get more of the CPU.
+ *
+ * @author Aliaksei Kouzel
+ */
+public enum Difficulty {
+    /**
+     * Looks a single move ahead and answers at once.
+     */
+    EASY(new SearchLimits(1, 50, 5_000)),
+    /**
+     * Looks two moves ahead.
+     */
+    MEDIUM(new SearchLimits(2, 250, 100_000)),
+    /**
+     * Looks three moves ahead and may think for up to a second.
+     */
+    HARD(new SearchLimits(3, 1000, 2_000_000));
+
+    private final SearchLimits limits;
+
+    Difficulty(SearchLimits limits) {
+        this.limits = limits;
+    }
+
+    public SearchLimits getLimits() {
+        return limits;
+    }
+}
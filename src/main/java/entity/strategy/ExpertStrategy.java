@@ -1,8 +1,10 @@
 package entity.strategy;
 
+import entity.board.BitBoard;
 import entity.board.Board;
 import entity.board.Marble;
 import entity.board.Move;
+import entity.strategy.search.WinDetector;
 
 /**
  * This pentago strategy thinks one move ahead. It understands if the next move is winning or loosing
@@ -25,49 +27,35 @@ public class ExpertStrategy implements Strategy {
      */
     @Override
     public Move decideMove(Board board) {
+        BitBoard bitBoard = BitBoard.of(board);
         Marble turn = board.getTurn();
 
         // looks for the winning move
-        Move winningMove = getWinningMove(board, turn);
-        if (winningMove != null) return winningMove;
+        int winningMove = WinDetector.findWinningMove(bitBoard, turn);
+        if (winningMove != -1) return bitBoard.toMove(winningMove);
 
         // looks for the loosing move
-        Move loosingMove = getWinningMove(board, turn.reverse());
-        if (loosingMove != null) return loosingMove;
+        int loosingMove = getBlockingMove(bitBoard, turn.reverse());
+        if (loosingMove != -1) return bitBoard.toMove(loosingMove);
 
         // returns a random possible move
         return board.getPossibleMove();
     }
 
     /**
-     * Return the next winning move given the state of the board (if exists).
+     * Return the move that takes the field of the opponent's winning move (if exists). The move itself
+     * must not complete the streak of the opponent with its rotation.
      *
-     * @param board state of the board
-     * @param turn  turn of the player
-     * @return the next winning move, null if there is none
+     * @param board    state of the board
+     * @param opponent color of the opponent
+     * @return encoded blocking move, -1 if the opponent cannot win with the next move
      */
-    private Move getWinningMove(Board board, Marble turn) {
-        for (int position : board.getIndexesOfEmptyFields()) {
-            for (int rotation = 0; rotation < 8; rotation++) {
-                Move nextMove = new Move(position, rotation, turn);
-                if (isWinningMove(board, nextMove)) {
-                    return nextMove;
-                }
-            }
+    private int getBlockingMove(BitBoard board, Marble opponent) {
+        int[] moves = new int[BitBoard.MOVES];
+        int count = WinDetector.getWinningMoves(board, opponent, moves);
+        for (int i = 0; i < count; i++) {
+            if (board.play(moves[i]).getWinner() != opponent) return moves[i];
         }
-        return null;
-    }
-
-    /**
-     * Decide if the provided move is winning given the state of the board.
-     *
-     * @param board state of the board
-     * @param move  move that is being checked
-     * @return true if the provided move is winning
-     */
-    private boolean isWinningMove(Board board, Move move) {
-        Board boardCopy = board.deepCopy();
-        boardCopy.playMove(move);
-        return boardCopy.isWinner(board.getTurn());
+        return count > 0 ? moves[0] : -1;
     }
 }
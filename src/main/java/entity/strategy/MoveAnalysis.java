@@ -0,0 +1,53 @@
+package entity.strategy;
+
+import entity.board.Move;
+
+import java.util.List;
+
+/**
+ * Result of analysing a single move: the score of the move for the player to move and
+ * the principal variation, i.e. the moves that both players are expected to play starting with this move.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class MoveAnalysis {
+    private final Move move;
+    private final int score;
+    private final List<Move> variation;
+
+    /**
+     * Create the analysis of a move.
+     *
+     * @param move      analysed move
+     * @param score     score of the move for the player to move
+     * @param variation expected moves starting with the analysed move
+     * @requires move != null && variation != null && !variation.isEmpty()
+     */
+    public MoveAnalysis(Move move, int score, List<Move> variation) {
+        this.move = move;
+        this.score = score;
+        this.variation = List.copyOf(variation);
+    }
+
+    public Move getMove() {
+        return move;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public List<Move> getVariation() {
+        return variation;
+    }
+
+    @Override
+    public String toString() {
+        var result = new StringBuilder(String.format("'move %d %d' (score %d):", move.getPosition(),
+                move.getRotation(), score));
+        for (Move next : variation) {
+            result.append(' ').append(next.getPosition()).append('/').append(next.getRotation());
+        }
+        return result.toString();
+    }
+}
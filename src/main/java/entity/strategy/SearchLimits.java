@@ -0,0 +1,57 @@
+package entity.strategy;
+
+/**
+ * Limits of a single decision: how deep the strategy may search, how long it may think
+ * and how many positions it may visit. The decision stops at whichever limit is reached first.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SearchLimits {
+    public static final long NO_NODE_LIMIT = Long.MAX_VALUE;
+    private final int depth;
+    private final long timeLimit;
+    private final long nodeLimit;
+
+    /**
+     * Create the limits of a decision.
+     *
+     * @param depth     maximal search depth in moves
+     * @param timeLimit time limit in milliseconds
+     * @param nodeLimit maximal number of visited positions, NO_NODE_LIMIT if there is none
+     * @requires depth > 0 && timeLimit > 0 && nodeLimit > 0
+     */
+    public SearchLimits(int depth, long timeLimit, long nodeLimit) {
+        this.depth = depth;
+        this.timeLimit = timeLimit;
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Get the same limits with a shallower search.
+     *
+     * @param reduction number of moves to take from the depth, which stays at least 1
+     * @return reduced limits
+     */
+    public SearchLimits reduceDepth(int reduction) {
+        int reducedDepth = Math.max(1, depth - reduction);
+        return reducedDepth == depth ? this : new SearchLimits(reducedDepth, timeLimit, nodeLimit);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d, %d ms, %s nodes", depth, timeLimit,
+                nodeLimit == NO_NODE_LIMIT ? "unlimited" : String.valueOf(nodeLimit));
+    }
+}
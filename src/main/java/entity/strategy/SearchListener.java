@@ -0,0 +1,19 @@
+package entity.strategy;
+
+import entity.board.Move;
+
+/**
+ * Listener of an anytime search, which is told about the best move every time the search gets deeper.
+ *
+ * @author Aliaksei Kouzel
+ */
+public interface SearchListener {
+    /**
+     * Handle the result of a finished search iteration.
+     *
+     * @param bestMove best move found so far
+     * @param score    score of the move for the player to move
+     * @param depth    depth of the finished iteration in moves
+     */
+    void onIteration(Move bestMove, int score, int depth);
+}
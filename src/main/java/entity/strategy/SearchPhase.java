@@ -0,0 +1,28 @@
+package entity.strategy;
+
+/**
+ * Class that contains the phases of a single decision made by a strategy.
+ *
+ * @author Aliaksei Kouzel
+ */
+public enum SearchPhase {
+    /**
+     * When the strategy looks up the move cache that is shared with other strategies.
+     */
+    CACHE,
+
+    /**
+     * When the strategy tries to prove a forced win.
+     */
+    PROOF,
+
+    /**
+     * When the strategy searches the moves.
+     */
+    SEARCH,
+
+    /**
+     * When the decision waits in the queue of the compute governor.
+     */
+    QUEUE
+}
@@ -0,0 +1,167 @@
+package entity.strategy;
+
+/**
+ * Statistics of a single decision made by a strategy, e.g. how many positions have been visited, how deep
+ * the search went and how long each phase took. Strategies fill in only what applies to them.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SearchStatistics {
+    private final long[] phaseNanos = new long[SearchPhase.values().length];
+    private long nodes;
+    private long expandedNodes;
+    private long searchedChildren;
+    private int depth;
+    private long tableProbes;
+    private long tableHits;
+    private long cacheProbes;
+    private long cacheHits;
+    private long elapsedNanos;
+
+    /**
+     * Add the visited positions.
+     *
+     * @param nodes number of visited positions
+     */
+    public void addNodes(long nodes) {
+        this.nodes += nodes;
+    }
+
+    /**
+     * Add the positions whose moves have been searched, which gives the branching factor.
+     *
+     * @param expandedNodes    number of positions whose moves have been searched
+     * @param searchedChildren number of searched moves of these positions
+     */
+    public void addExpansions(long expandedNodes, long searchedChildren) {
+        this.expandedNodes += expandedNodes;
+        this.searchedChildren += searchedChildren;
+    }
+
+    /**
+     * Add the lookups of the transposition table.
+     *
+     * @param probes number of lookups
+     * @param hits   number of lookups that have found an entry
+     */
+    public void addTableProbes(long probes, long hits) {
+        tableProbes += probes;
+        tableHits += hits;
+    }
+
+    /**
+     * Add a lookup of the shared move cache.
+     *
+     * @param hit true if the lookup has found an entry
+     */
+    public void addCacheProbe(boolean hit) {
+        cacheProbes++;
+        if (hit) cacheHits++;
+    }
+
+    /**
+     * Add the time spent in the phase.
+     *
+     * @param phase decision phase
+     * @param nanos time in nanoseconds
+     */
+    public void addPhaseTime(SearchPhase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getPhaseNanos(SearchPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    public long getSearchedChildren() {
+        return searchedChildren;
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    public long getCacheProbes() {
+        return cacheProbes;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Get the number of visited positions per second of the decision.
+     *
+     * @return nodes per second, 0 if no time has elapsed
+     */
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Get the average number of moves searched in a position. Cut-offs make it lower than the number of moves.
+     *
+     * @return branching factor, 0 if no position has been expanded
+     */
+    public double getBranchingFactor() {
+        return expandedNodes == 0 ? 0 : (double) searchedChildren / expandedNodes;
+    }
+
+    /**
+     * Get the share of the transposition table lookups that have found an entry.
+     *
+     * @return hit rate from 0 to 1, 0 if there were no lookups
+     */
+    public double getTableHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    /**
+     * Get the share of the move cache lookups that have found an entry.
+     *
+     * @return hit rate from 0 to 1, 0 if there were no lookups
+     */
+    public double getCacheHitRate() {
+        return cacheProbes == 0 ? 0 : (double) cacheHits / cacheProbes;
+    }
+
+    @Override
+    public String toString() {
+        var result = new StringBuilder(String.format("%.2f ms, %d nodes (%.0f/s), depth %d, branching %.1f, "
+                        + "table hits %.0f%%, cache hits %.0f%%", elapsedNanos / 1e6, nodes, getNodesPerSecond(),
+                depth, getBranchingFactor(), getTableHitRate() * 100, getCacheHitRate() * 100));
+        for (SearchPhase phase : SearchPhase.values()) {
+            long nanos = getPhaseNanos(phase);
+            if (nanos > 0) result.append(String.format(", %s %.2f ms", phase.name().toLowerCase(), nanos / 1e6));
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,576 @@
+package entity.strategy;
+
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.strategy.evaluator.Evaluator;
+import entity.strategy.evaluator.NetworkEvaluator;
+import entity.strategy.search.MoveCache;
+import entity.strategy.search.ProofNumberSearch;
+import entity.strategy.search.ProofResult;
+import entity.strategy.search.TranspositionTable;
+import entity.strategy.search.WinDetector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This pentago strategy searches several moves ahead using the alpha-beta search with iterative deepening.
+ * Positions at the end of the search are scored by the provided evaluator. Optionally, the strategy first asks
+ * the proof-number search whether there is a forced win, which the regular search might be too shallow to see.
+ * Decisions may also be shared with other strategies through the move cache, so the same position is not
+ * searched again unless the cached result is shallower than the strategy's own search.
+ * <p>
+ * The search can also run as an anytime search: a listener is told about the best move after every iteration,
+ * and interrupting the deciding thread stops the search with the best move found so far.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SearchStrategy implements Strategy {
+    public static final int WIN_SCORE = 100_000;
+    public static final int MAX_DEPTH = BitBoard.FIELDS;
+    private static final int INFINITY = WIN_SCORE + 1;
+    public static final int ORACLE_BUDGET = 2000;
+    // a proof of the budget fits into a few slots per node, so every strategy can afford its own table
+    public static final int ORACLE_CAPACITY = 4 * ORACLE_BUDGET;
+    private static final int ORACLE_MIN_MARBLES = 3;
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final ProofNumberSearch oracle;
+    private final MoveCache cache;
+    private final int[][] moves = new int[MAX_DEPTH][BitBoard.MOVES];
+    private final SearchLimits limits;
+    private long deadline;
+    private long nodeLimit;
+    private boolean aborted;
+    private long nodes;
+    private long expandedNodes;
+    private long searchedChildren;
+    private long tableProbes;
+    private long tableHits;
+    private int rootMove;
+
+    public SearchStrategy() {
+        this(new NetworkEvaluator(), 3, 1000, new ProofNumberSearch(ORACLE_BUDGET, ORACLE_CAPACITY),
+                MoveCache.getShared(), TranspositionTable.getShared());
+    }
+
+    /**
+     * Create a search strategy without the proof-number search and the move cache.
+     *
+     * @param evaluator evaluator of the positions at the end of the search
+     * @param depth     maximal search depth in moves
+     * @param timeLimit time limit of a single decision in milliseconds
+     * @requires evaluator != null && depth > 0 && timeLimit > 0
+     */
+    public SearchStrategy(Evaluator evaluator, int depth, long timeLimit) {
+        this(evaluator, depth, timeLimit, null, null);
+    }
+
+    /**
+     * Create a search strategy.
+     *
+     * @param evaluator evaluator of the positions at the end of the search
+     * @param depth     maximal search depth in moves
+     * @param timeLimit time limit of a single decision in milliseconds
+     * @param oracle    proof-number search that looks for forced wins before the regular search, or null
+     * @param cache     cache of the decisions that may be shared with other strategies, or null
+     * @requires evaluator != null && depth > 0 && timeLimit > 0
+     */
+    public SearchStrategy(Evaluator evaluator, int depth, long timeLimit, ProofNumberSearch oracle, MoveCache cache) {
+        this(evaluator, depth, timeLimit, oracle, cache, new TranspositionTable(TranspositionTable.DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Create a search strategy with the provided transposition table, which may be shared with other strategies
+     * (e.g. the shared table that is loaded from a snapshot after a restart).
+     *
+     * @param evaluator evaluator of the positions at the end of the search
+     * @param depth     maximal search depth in moves
+     * @param timeLimit time limit of a single decision in milliseconds
+     * @param oracle    proof-number search that looks for forced wins before the regular search, or null
+     * @param cache     cache of the decisions that may be shared with other strategies, or null
+     * @param table     transposition table of the search
+     * @requires evaluator != null && depth > 0 && timeLimit > 0 && table != null
+     */
+    public SearchStrategy(Evaluator evaluator, int depth, long timeLimit, ProofNumberSearch oracle, MoveCache cache,
+                          TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.limits = new SearchLimits(depth, timeLimit, SearchLimits.NO_NODE_LIMIT);
+        this.oracle = oracle;
+        this.cache = cache;
+        this.table = table;
+    }
+
+    @Override
+    public String getName() {
+        return "search-strategy";
+    }
+
+    /**
+     * Decide the next move by searching deeper and deeper until either the maximal depth or
+     * the time limit is reached. The move of the last finished search is played.
+     *
+     * @param board state of the board
+     * @return the next move made by the AI player
+     * @requires board != null && !board.isGameOver()
+     */
+    @Override
+    public Move decideMove(Board board) {
+        return decideMove(board, new SearchStatistics());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The statistics tell apart the time spent in the move cache, the proof-number search and the regular search.
+     */
+    @Override
+    public Move decideMove(Board board, SearchStatistics statistics) {
+        return decideMove(board, limits, statistics);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The limits replace the depth and the time limit of the strategy for this decision.
+     */
+    @Override
+    public Move decideMove(Board board, SearchLimits limits, SearchStatistics statistics) {
+        long start = System.nanoTime();
+        try {
+            return decideMove(BitBoard.of(board), board, limits, statistics, null);
+        } finally {
+            statistics.setElapsedNanos(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The listener is told about the move from the cache or the proof-number search as a single final result.
+     * By the time the listener is told about an iteration, the statistics already hold its visited positions.
+     */
+    @Override
+    public Move decideMove(Board board, SearchLimits limits, SearchStatistics statistics,
+                           SearchListener listener) {
+        long start = System.nanoTime();
+        try {
+            return decideMove(BitBoard.of(board), board, limits, statistics, listener);
+        } finally {
+            statistics.setElapsedNanos(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Decide the next move by probing the move cache, then the proof-number search and then the regular search,
+     * until one of them gives the move.
+     *
+     * @param root       state of the board
+     * @param board      the same state of the board
+     * @param limits     limits of the decision
+     * @param statistics statistics of the decision to be filled in
+     * @param listener   listener of the search iterations, or null
+     * @return the next move made by the AI player
+     */
+    private Move decideMove(BitBoard root, Board board, SearchLimits limits, SearchStatistics statistics,
+                            SearchListener listener) {
+        int depth = prepare(limits);
+
+        if (cache != null) {
+            long phaseStart = System.nanoTime();
+            long entry = cache.probe(root);
+            boolean isHit = entry != 0 && MoveCache.getDepth(entry) >= depth;
+            statistics.addCacheProbe(isHit);
+            statistics.addPhaseTime(SearchPhase.CACHE, System.nanoTime() - phaseStart);
+            if (isHit) {
+                statistics.setDepth(MoveCache.getDepth(entry));
+                Move move = root.toMove(MoveCache.getMove(entry));
+                if (listener != null) listener.onIteration(move, MoveCache.getScore(entry), MoveCache.getDepth(entry));
+                return move;
+            }
+        }
+
+        // a forced win needs at least a few marbles on the board
+        if (oracle != null && Long.bitCount(root.getPlayer()) >= ORACLE_MIN_MARBLES) {
+            long phaseStart = System.nanoTime();
+            // the proof takes its nodes and time from the limits of the decision
+            ProofResult result = oracle.prove(root, nodeLimit, deadline);
+            nodes += oracle.getNodes();
+            statistics.addNodes(oracle.getNodes());
+            statistics.addPhaseTime(SearchPhase.PROOF, System.nanoTime() - phaseStart);
+            if (result == ProofResult.PROVEN) {
+                int move = oracle.getWinningMove(root);
+                if (cache != null) cache.store(root, move, WIN_SCORE - 1, MAX_DEPTH);
+                statistics.setDepth(MAX_DEPTH);
+                if (listener != null) listener.onIteration(root.toMove(move), WIN_SCORE - 1, MAX_DEPTH);
+                return root.toMove(move);
+            }
+        }
+
+        long phaseStart = System.nanoTime();
+        int bestMove = -1;
+        int bestScore = 0;
+        int bestDepth = 0;
+        long reportedNodes = nodes;
+        for (int currentDepth = 1; currentDepth <= depth; currentDepth++) {
+            evaluator.reset(root);
+            rootMove = -1;
+            int score = search(root, currentDepth, -INFINITY, INFINITY, 0);
+            if (aborted) break;
+
+            bestMove = rootMove;
+            bestScore = score;
+            bestDepth = currentDepth;
+            // the listener may read the nodes of the iterations so far
+            statistics.addNodes(nodes - reportedNodes);
+            reportedNodes = nodes;
+            if (listener != null) listener.onIteration(root.toMove(bestMove), bestScore, bestDepth);
+            // the result of a decided game does not depend on the depth
+            if (Math.abs(score) >= WIN_SCORE - MAX_DEPTH) {
+                bestDepth = MAX_DEPTH;
+                break;
+            }
+        }
+
+        statistics.addPhaseTime(SearchPhase.SEARCH, System.nanoTime() - phaseStart);
+        statistics.addNodes(nodes - reportedNodes);
+        statistics.addExpansions(expandedNodes, searchedChildren);
+        statistics.addTableProbes(tableProbes, tableHits);
+        statistics.setDepth(bestDepth);
+
+        // the first iteration has been interrupted
+        if (bestMove == -1) return board.getPossibleMove();
+        if (cache != null) cache.store(root, bestMove, bestScore, bestDepth);
+        return root.toMove(bestMove);
+    }
+
+    /**
+     * {@inheritDoc}
+     * All moves are searched together with iterative deepening. Each move only has to beat the last of
+     * the best moves found so far, so the moves that cannot enter the ranking are refuted as cheaply as in
+     * the regular search, and the transposition table is shared between the moves and the iterations.
+     */
+    @Override
+    public List<MoveAnalysis> analyze(Board board, int count) {
+        return analyze(board, count, limits, new SearchStatistics());
+    }
+
+    /**
+     * Rank the best moves within the limits, which replace the depth and the time limit of the strategy,
+     * and fill in the statistics of the analysis. If even the first iteration is stopped by the limits or
+     * by interrupting the thread, the moves it has searched are ranked first, followed by the other legal
+     * moves in the order of their generation.
+     *
+     * @param board      state of the board
+     * @param count      maximal number of the ranked moves
+     * @param limits     limits of the analysis
+     * @param statistics statistics of the analysis to be filled in
+     * @return ranked moves with their scores and principal variations
+     * @requires board != null && !board.isGameOver() && count > 0 && limits != null && statistics != null
+     */
+    public List<MoveAnalysis> analyze(Board board, int count, SearchLimits limits, SearchStatistics statistics) {
+        long start = System.nanoTime();
+        BitBoard root = BitBoard.of(board);
+        int depth = prepare(limits);
+        Marble turn = root.getTurn();
+        int[] rootMoves = new int[BitBoard.MOVES];
+        int moveCount = root.getMoves(rootMoves);
+        count = Math.min(count, moveCount);
+        int[] scores = new int[moveCount];
+        boolean[] exact = new boolean[moveCount];
+        int[] best = new int[count];
+        int[] rankedMoves = Arrays.copyOf(rootMoves, count);
+        int[] rankedScores = new int[count];
+        int rankedDepth = 0;
+
+        for (int currentDepth = 1; currentDepth <= depth && !aborted; currentDepth++) {
+            evaluator.reset(root);
+            int found = 0;
+            int searched = 0;
+            for (; searched < moveCount; searched++) {
+                // the root moves are few, so the limits are checked before each of them
+                if (isLimitReached()) aborted = true;
+                if (aborted) break;
+
+                // the move has to beat the last of the best moves to be ranked
+                int threshold = found < count ? -INFINITY : best[count - 1];
+                BitBoard child = root.play(rootMoves[searched]);
+                Marble winner = child.getWinner();
+                int score;
+                if (winner != Marble.EMPTY) {
+                    score = winner == turn ? WIN_SCORE - 1 : -(WIN_SCORE - 1);
+                } else if (child.isFull()) {
+                    score = 0;
+                } else {
+                    evaluator.push(child);
+                    score = -search(child, currentDepth - 1, -INFINITY, -threshold, 1);
+                    evaluator.pop();
+                }
+                if (aborted) break;
+
+                scores[searched] = score;
+                exact[searched] = score > threshold;
+                if (exact[searched]) found = insertScore(best, Math.min(found, count - 1), score);
+            }
+            // an aborted iteration is only used if there is no finished one
+            if (aborted && rankedDepth > 0) break;
+
+            sortMoves(rootMoves, scores, exact, searched);
+            System.arraycopy(rootMoves, 0, rankedMoves, 0, count);
+            System.arraycopy(scores, 0, rankedScores, 0, count);
+            rankedDepth = currentDepth;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        statistics.addPhaseTime(SearchPhase.SEARCH, elapsed);
+        statistics.addNodes(nodes);
+        statistics.addExpansions(expandedNodes, searchedChildren);
+        statistics.addTableProbes(tableProbes, tableHits);
+        statistics.setDepth(rankedDepth);
+        statistics.setElapsedNanos(elapsed);
+
+        List<MoveAnalysis> analyses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<Move> variation = getVariation(root, rankedMoves[i], rankedDepth);
+            analyses.add(new MoveAnalysis(variation.get(0), rankedScores[i], variation));
+        }
+        return analyses;
+    }
+
+    /**
+     * Prepare the search state for a new decision.
+     *
+     * @param limits limits of the decision
+     * @return maximal search depth
+     */
+    private int prepare(SearchLimits limits) {
+        deadline = System.currentTimeMillis() + limits.getTimeLimit();
+        nodeLimit = limits.getNodeLimit();
+        aborted = false;
+        nodes = 0;
+        expandedNodes = 0;
+        searchedChildren = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        return Math.min(limits.getDepth(), MAX_DEPTH);
+    }
+
+    /**
+     * Check if the decision has to stop, i.e. if it has used up its nodes or time
+     * or if the deciding thread has been interrupted.
+     *
+     * @return true if the decision has to stop
+     */
+    private boolean isLimitReached() {
+        return nodes >= nodeLimit || System.currentTimeMillis() > deadline || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Insert the score into the descending scores, dropping the last score if the array is full.
+     *
+     * @param best  descending scores
+     * @param last  index of the last score that may be moved
+     * @param score inserted score
+     * @return number of the scores after the insertion
+     */
+    private static int insertScore(int[] best, int last, int score) {
+        int i = last;
+        while (i > 0 && best[i - 1] < score) {
+            best[i] = best[i - 1];
+            i--;
+        }
+        best[i] = score;
+        return last + 1;
+    }
+
+    /**
+     * Sort the moves by their scores, putting the moves with the exact scores first. The sort is stable,
+     * so the moves with equal scores keep the order from the previous iteration.
+     *
+     * @param moves  moves to sort
+     * @param scores scores of the moves
+     * @param exact  true for the moves whose scores are exact rather than upper bounds
+     * @param count  number of the moves
+     */
+    private static void sortMoves(int[] moves, int[] scores, boolean[] exact, int count) {
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int score = scores[i];
+            boolean isExact = exact[i];
+            int j = i;
+            while (j > 0 && (isExact && !exact[j - 1] || isExact == exact[j - 1] && score > scores[j - 1])) {
+                moves[j] = moves[j - 1];
+                scores[j] = scores[j - 1];
+                exact[j] = exact[j - 1];
+                j--;
+            }
+            moves[j] = move;
+            scores[j] = score;
+            exact[j] = isExact;
+        }
+    }
+
+    /**
+     * Get the principal variation of the move by following the best moves from the transposition table.
+     * The variation ends early if the table has lost the position.
+     *
+     * @param root   position before the move
+     * @param move   first move of the variation
+     * @param length maximal number of the moves
+     * @return moves of the variation
+     */
+    private List<Move> getVariation(BitBoard root, int move, int length) {
+        List<Move> variation = new ArrayList<>();
+        BitBoard board = root;
+        while (move != -1) {
+            variation.add(board.toMove(move));
+            board = board.play(move);
+            if (variation.size() >= length || board.isGameOver()) break;
+
+            // an immediate win is not stored in the table
+            long entry = table.probe(board.getKey());
+            move = entry != 0 ? TranspositionTable.getMove(entry)
+                    : WinDetector.findWinningMove(board, board.getTurn());
+        }
+        return variation;
+    }
+
+    /**
+     * Search the position using the negamax form of the alpha-beta search.
+     *
+     * @param board state of the board
+     * @param depth remaining depth
+     * @param alpha lower bound of the score
+     * @param beta  upper bound of the score
+     * @param ply   distance from the root position
+     * @return score of the position for the current player
+     */
+    private int search(BitBoard board, int depth, int alpha, int beta, int ply) {
+        if ((++nodes & 1023) == 0 && isLimitReached()) aborted = true;
+        if (aborted) return 0;
+
+        long key = board.getKey();
+        long entry = table.probe(key);
+        int tableMove = -1;
+        tableProbes++;
+        if (entry != 0) {
+            tableHits++;
+            tableMove = TranspositionTable.getMove(entry);
+            if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.getScore(entry), ply);
+                int bound = TranspositionTable.getBound(entry);
+                if (bound == TranspositionTable.EXACT) return score;
+                if (bound == TranspositionTable.LOWER_BOUND && score >= beta) return score;
+                if (bound == TranspositionTable.UPPER_BOUND && score <= alpha) return score;
+            }
+        }
+
+        if (depth == 0) return evaluator.evaluate(board);
+
+        // an immediate win needs no search
+        Marble turn = board.getTurn();
+        int winningMove = WinDetector.findWinningMove(board, turn);
+        if (winningMove != -1) {
+            if (ply == 0) rootMove = winningMove;
+            return WIN_SCORE - ply - 1;
+        }
+
+        int[] plyMoves = moves[ply];
+        int count = board.getMoves(plyMoves);
+        orderMoves(plyMoves, count, tableMove);
+
+        expandedNodes++;
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            int move = plyMoves[i];
+            BitBoard child = board.play(move);
+            searchedChildren++;
+
+            int score;
+            Marble winner = child.getWinner();
+            if (winner != Marble.EMPTY) {
+                score = winner == turn ? WIN_SCORE - ply - 1 : -(WIN_SCORE - ply - 1);
+            } else if (child.isFull()) {
+                score = 0;
+            } else {
+                evaluator.push(child);
+                score = -search(child, depth - 1, -beta, -alpha, ply + 1);
+                evaluator.pop();
+            }
+            if (aborted) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) rootMove = move;
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;
+        }
+
+        int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : TranspositionTable.EXACT;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Put the best move from the transposition table in front of the other moves.
+     *
+     * @param moves     generated moves
+     * @param count     number of the generated moves
+     * @param tableMove best move from the table, -1 if there is none
+     */
+    private void orderMoves(int[] moves, int count, int tableMove) {
+        if (tableMove == -1) return;
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == tableMove) {
+                moves[i] = moves[0];
+                moves[0] = tableMove;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Convert a winning score to be relative to the stored position rather than to the root.
+     *
+     * @param score search score
+     * @param ply   distance from the root position
+     * @return score that is stored in the table
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_DEPTH) return score + ply;
+        if (score <= -WIN_SCORE + MAX_DEPTH) return score - ply;
+        return score;
+    }
+
+    /**
+     * Convert a winning score from the table to be relative to the root.
+     *
+     * @param score stored score
+     * @param ply   distance from the root position
+     * @return search score
+     */
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_DEPTH) return score - ply;
+        if (score <= -WIN_SCORE + MAX_DEPTH) return score + ply;
+        return score;
+    }
+
+    /**
+     * Get the number of positions visited during the last decision.
+     *
+     * @return number of visited positions
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+}
@@ -0,0 +1,100 @@
+package entity.strategy;
+
+import entity.board.Board;
+import entity.board.Move;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Anytime search that runs in its own daemon thread. The listener gets the best move every time the search
+ * gets deeper, so the caller has a result almost at once, and a better one the longer it waits.
+ * The search may be cancelled at any point, after which the listener is not told anything anymore and
+ * the result is the best move found so far.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SearchTask implements SearchListener {
+    private final CompletableFuture<Move> result = new CompletableFuture<>();
+    private final SearchStatistics statistics = new SearchStatistics();
+    private final SearchListener listener;
+    private volatile boolean isCancelled;
+    private Thread thread;
+
+    private SearchTask(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Start searching the board in a separate daemon thread.
+     *
+     * @param strategy strategy that searches the board, which must not be used by others until the search is done
+     * @param board    state of the board, which is copied before returning
+     * @param limits   limits of the whole search
+     * @param listener listener of the search iterations, which is called in the search thread
+     * @return started search
+     * @requires strategy != null && board != null && !board.isGameOver() && limits != null && listener != null
+     */
+    public static SearchTask start(Strategy strategy, Board board, SearchLimits limits, SearchListener listener) {
+        var task = new SearchTask(listener);
+        Board copy = board.deepCopy();
+        task.thread = new Thread(() -> {
+            try {
+                task.result.complete(strategy.decideMove(copy, limits, task.statistics, task));
+            } catch (RuntimeException e) {
+                task.result.completeExceptionally(e);
+            }
+        }, "anytime-search");
+        task.thread.setDaemon(true);
+        task.thread.start();
+        return task;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onIteration(Move bestMove, int score, int depth) {
+        if (!isCancelled) listener.onIteration(bestMove, score, depth);
+    }
+
+    /**
+     * Stop the search as soon as possible. The listener is not told about the following iterations.
+     */
+    public void cancel() {
+        isCancelled = true;
+        thread.interrupt();
+    }
+
+    /**
+     * Wait until the search is done.
+     *
+     * @return best move found by the search
+     * @throws InterruptedException if the waiting thread has been interrupted
+     * @throws ExecutionException   if the search has failed
+     */
+    public Move get() throws InterruptedException, ExecutionException {
+        return result.get();
+    }
+
+    public CompletableFuture<Move> getResult() {
+        return result;
+    }
+
+    /**
+     * Get the statistics of the search. They are complete only after the search is done.
+     *
+     * @return search statistics
+     */
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+}
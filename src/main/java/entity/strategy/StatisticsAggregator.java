@@ -0,0 +1,135 @@
+package entity.strategy;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class that sums up the statistics of the decisions made by the AI players of the JVM, separately for each
+ * strategy. Many sessions record their decisions at once, so the sums are kept in striped counters.
+ * On the server, which hosts no AI players, it sums up the analyses requested by the clients.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class StatisticsAggregator {
+    private static final StatisticsAggregator SHARED = new StatisticsAggregator();
+    private final Map<String, Summary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Get the aggregator that is shared by all AI players of the JVM.
+     *
+     * @return shared aggregator
+     */
+    public static StatisticsAggregator getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Add the statistics of a decision.
+     *
+     * @param strategy   name of the strategy that has made the decision
+     * @param statistics statistics of the decision
+     * @requires strategy != null && statistics != null
+     */
+    public void record(String strategy, SearchStatistics statistics) {
+        summaries.computeIfAbsent(strategy, name -> new Summary()).add(statistics);
+    }
+
+    /**
+     * Get the number of recorded decisions of the strategy.
+     *
+     * @param strategy strategy name
+     * @return number of decisions
+     */
+    public long getDecisions(String strategy) {
+        Summary summary = summaries.get(strategy);
+        return summary == null ? 0 : summary.decisions.sum();
+    }
+
+    /**
+     * Remove all recorded statistics.
+     */
+    public void clear() {
+        summaries.clear();
+    }
+
+    /**
+     * Get the report with a line for every strategy, sorted by the strategy name.
+     *
+     * @return textual report
+     */
+    @Override
+    public String toString() {
+        if (summaries.isEmpty()) return "No decisions have been made yet";
+        var report = new StringBuilder();
+        for (Map.Entry<String, Summary> entry : new TreeMap<>(summaries).entrySet()) {
+            if (report.length() > 0) report.append('\n');
+            report.append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return report.toString();
+    }
+
+    /**
+     * Sums of the statistics of a single strategy.
+     */
+    private static class Summary {
+        private final LongAdder decisions = new LongAdder();
+        private final LongAdder nodes = new LongAdder();
+        private final LongAdder depth = new LongAdder();
+        private final LongAdder expandedNodes = new LongAdder();
+        private final LongAdder searchedChildren = new LongAdder();
+        private final LongAdder tableProbes = new LongAdder();
+        private final LongAdder tableHits = new LongAdder();
+        private final LongAdder cacheProbes = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder elapsedNanos = new LongAdder();
+        private final LongAccumulator maxElapsedNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] phaseNanos = new LongAdder[SearchPhase.values().length];
+
+        private Summary() {
+            for (int i = 0; i < phaseNanos.length; i++) phaseNanos[i] = new LongAdder();
+        }
+
+        private void add(SearchStatistics statistics) {
+            decisions.increment();
+            nodes.add(statistics.getNodes());
+            depth.add(statistics.getDepth());
+            expandedNodes.add(statistics.getExpandedNodes());
+            searchedChildren.add(statistics.getSearchedChildren());
+            tableProbes.add(statistics.getTableProbes());
+            tableHits.add(statistics.getTableHits());
+            cacheProbes.add(statistics.getCacheProbes());
+            cacheHits.add(statistics.getCacheHits());
+            elapsedNanos.add(statistics.getElapsedNanos());
+            maxElapsedNanos.accumulate(statistics.getElapsedNanos());
+            for (SearchPhase phase : SearchPhase.values()) {
+                phaseNanos[phase.ordinal()].add(statistics.getPhaseNanos(phase));
+            }
+        }
+
+        @Override
+        public String toString() {
+            long count = Math.max(1, decisions.sum());
+            long elapsed = elapsedNanos.sum();
+            var result = new StringBuilder(String.format("%d decisions, avg %.2f ms, max %.2f ms, avg %d nodes "
+                            + "(%.0f/s), avg depth %.1f, branching %.1f, table hits %.0f%%, cache hits %.0f%%",
+                    decisions.sum(), elapsed / 1e6 / count, maxElapsedNanos.get() / 1e6, nodes.sum() / count,
+                    elapsed == 0 ? 0 : nodes.sum() * 1e9 / elapsed, (double) depth.sum() / count,
+                    getRate(searchedChildren, expandedNodes), getRate(tableHits, tableProbes) * 100,
+                    getRate(cacheHits, cacheProbes) * 100));
+            for (SearchPhase phase : SearchPhase.values()) {
+                long nanos = phaseNanos[phase.ordinal()].sum();
+                if (nanos > 0) result.append(String.format(", %s %.0f%%", phase.name().toLowerCase(),
+                        elapsed == 0 ? 0 : nanos * 100.0 / elapsed));
+            }
+            return result.toString();
+        }
+
+        private static double getRate(LongAdder part, LongAdder total) {
+            long sum = total.sum();
+            return sum == 0 ? 0 : (double) part.sum() / sum;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import entity.board.Board;
 import entity.board.Marble;
 import entity.board.Move;
 
+import java.util.List;
+
 /**
  * Strategy is used by the AI to decide the next moves in the game.
  *
@@ -24,4 +26,69 @@ public interface Strategy {
      * @return the next move played by the AI
      */
     Move decideMove(Board board);
+
+    /**
+     * Decide the next move on the board and fill in the statistics of the decision. By default, only the time
+     * of the decision is measured, so the strategies that search override it to report what they have done.
+     *
+     * @param board      state of the board
+     * @param statistics statistics of the decision to be filled in
+     * @return the next move played by the AI
+     * @requires board != null && statistics != null
+     */
+    default Move decideMove(Board board, SearchStatistics statistics) {
+        long start = System.nanoTime();
+        Move move = decideMove(board);
+        long elapsed = System.nanoTime() - start;
+        statistics.addPhaseTime(SearchPhase.SEARCH, elapsed);
+        statistics.setElapsedNanos(elapsed);
+        return move;
+    }
+
+    /**
+     * Decide the next move on the board within the limits and fill in the statistics of the decision.
+     * By default, the limits are ignored, so the strategies that search override it.
+     *
+     * @param board      state of the board
+     * @param limits     limits of the decision
+     * @param statistics statistics of the decision to be filled in
+     * @return the next move played by the AI
+     * @requires board != null && limits != null && statistics != null
+     */
+    default Move decideMove(Board board, SearchLimits limits, SearchStatistics statistics) {
+        return decideMove(board, statistics);
+    }
+
+    /**
+     * Decide the next move on the board, telling the listener about the best move found so far every time
+     * the search gets deeper. The decision may be cancelled by interrupting the deciding thread, in which case
+     * the best move found so far is returned. By default, the listener is told about the decided move only.
+     *
+     * @param board      state of the board
+     * @param limits     limits of the decision
+     * @param statistics statistics of the decision to be filled in
+     * @param listener   listener of the search iterations
+     * @return the next move played by the AI
+     * @requires board != null && limits != null && statistics != null && listener != null
+     */
+    default Move decideMove(Board board, SearchLimits limits, SearchStatistics statistics,
+                            SearchListener listener) {
+        Move move = decideMove(board, limits, statistics);
+        if (move != null) listener.onIteration(move, 0, statistics.getDepth());
+        return move;
+    }
+
+    /**
+     * Analyse the position and rank the best moves, from the best to the worst. By default, only the decided
+     * move is returned, so the strategies that score the moves override it.
+     *
+     * @param board state of the board
+     * @param count maximal number of the ranked moves
+     * @return ranked moves with their scores and principal variations
+     * @requires board != null && !board.isGameOver() && count > 0
+     */
+    default List<MoveAnalysis> analyze(Board board, int count) {
+        Move move = decideMove(board);
+        return List.of(new MoveAnalysis(move, 0, List.of(move)));
+    }
 }
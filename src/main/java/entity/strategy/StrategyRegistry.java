@@ -0,0 +1,85 @@
+package entity.strategy;
+
+import entity.strategy.evaluator.NetworkEvaluator;
+import entity.strategy.search.ProofNumberSearch;
+import entity.strategy.search.TranspositionTable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the strategies that can be chosen by name, e.g. by the benchmarks that compare them.
+ * Each call creates a new strategy, so every thread can have its own. The search strategies get their own
+ * transposition tables and no move cache, so their decisions do not depend on what the others have searched.
+ *
+ * @author Aliaksei Kouzel
+ */
+public final class StrategyRegistry {
+    private static final int TABLE_CAPACITY = 1 << 18;
+    private static final long SEARCH_TIME_LIMIT = 60_000;
+    private static final Map<String, Supplier<Strategy>> FACTORIES = new TreeMap<>();
+
+    static {
+        register("naive", NaiveStrategy::new);
+        register("expert", ExpertStrategy::new);
+        for (int depth = 1; depth <= 4; depth++) {
+            int searchDepth = depth;
+            register("search-" + depth, () -> new SearchStrategy(new NetworkEvaluator(), searchDepth,
+                    SEARCH_TIME_LIMIT, null, null, new TranspositionTable(TABLE_CAPACITY)));
+        }
+        register("search-proof", () -> new SearchStrategy(new NetworkEvaluator(), 3, SEARCH_TIME_LIMIT,
+                new ProofNumberSearch(SearchStrategy.ORACLE_BUDGET, SearchStrategy.ORACLE_CAPACITY), null,
+                new TranspositionTable(TABLE_CAPACITY)));
+    }
+
+    private StrategyRegistry() {
+    }
+
+    /**
+     * Register a strategy under the name, replacing the strategy that has been registered under it before.
+     *
+     * @param name    strategy name
+     * @param factory factory that creates a new strategy on every call
+     * @requires name != null && factory != null
+     */
+    public static synchronized void register(String name, Supplier<Strategy> factory) {
+        FACTORIES.put(name, factory);
+    }
+
+    /**
+     * Create a new strategy.
+     *
+     * @param name name of the registered strategy
+     * @return new strategy
+     * @throws IllegalArgumentException if no strategy has been registered under the name
+     */
+    public static synchronized Strategy create(String name) {
+        return getFactory(name).get();
+    }
+
+    /**
+     * Get the factory of the strategy.
+     *
+     * @param name name of the registered strategy
+     * @return factory that creates a new strategy on every call
+     * @throws IllegalArgumentException if no strategy has been registered under the name
+     */
+    public static synchronized Supplier<Strategy> getFactory(String name) {
+        Supplier<Strategy> factory = FACTORIES.get(name);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown strategy '" + name + "', available: " + getNames());
+        }
+        return factory;
+    }
+
+    /**
+     * Get the names of the registered strategies in the alphabetical order.
+     *
+     * @return strategy names
+     */
+    public static synchronized List<String> getNames() {
+        return List.copyOf(FACTORIES.keySet());
+    }
+}
@@ -0,0 +1,297 @@
+package entity.strategy.distributed;
+
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.strategy.SearchLimits;
+import entity.strategy.SearchPhase;
+import entity.strategy.SearchStatistics;
+import entity.strategy.Strategy;
+import entity.strategy.search.WinDetector;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This pentago strategy splits the search among the worker processes, which may run on other machines.
+ * Each move is a separate job: the worker searches the position after the move one move shallower,
+ * and the coordinator picks the move with the best score. The decided moves (e.g. an immediate win)
+ * are handled by the coordinator itself.
+ * <p>
+ * The workers take the jobs from a common queue, so the faster workers take more of them. Once the queue
+ * is empty, the idle workers repeat the jobs that the slower workers are still busy with, and the first
+ * result wins. A job of a worker that disconnects goes back to the queue.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class DistributedStrategy implements Strategy {
+    private static final int NO_SCORE = Integer.MIN_VALUE;
+    private static final long GRACE_MILLIS = 200;
+    private final List<InetSocketAddress> addresses;
+    private final List<WorkerConnection> connections = new ArrayList<>();
+    private final ExecutorService executor;
+    private final SearchLimits limits;
+
+    /**
+     * Create a distributed strategy. The workers are connected on the first decision.
+     *
+     * @param addresses addresses of the workers
+     * @param depth     search depth in moves
+     * @param timeLimit time limit of a single decision in milliseconds
+     * @requires addresses != null && depth > 1 && timeLimit > 0
+     */
+    public DistributedStrategy(List<InetSocketAddress> addresses, int depth, long timeLimit) {
+        this.addresses = List.copyOf(addresses);
+        this.limits = new SearchLimits(depth, timeLimit, SearchLimits.NO_NODE_LIMIT);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "distributed-strategy");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getName() {
+        return "distributed-strategy";
+    }
+
+    /**
+     * Decide the next move by searching the moves on the workers.
+     *
+     * @param board state of the board
+     * @return the next move made by the AI player
+     * @requires board != null && !board.isGameOver()
+     */
+    @Override
+    public Move decideMove(Board board) {
+        return decideMove(board, new SearchStatistics());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Move decideMove(Board board, SearchStatistics statistics) {
+        return decideMove(board, limits, statistics);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The time limit covers the whole decision, so the jobs that have not been finished in time are left out.
+     * If no job has been finished at all, the best of the decided moves or a random move is played.
+     */
+    @Override
+    public Move decideMove(Board board, SearchLimits limits, SearchStatistics statistics) {
+        long start = System.nanoTime();
+        long deadline = System.currentTimeMillis() + limits.getTimeLimit();
+        BitBoard root = BitBoard.of(board);
+        Marble turn = root.getTurn();
+        try {
+            int winningMove = WinDetector.findWinningMove(root, turn);
+            if (winningMove != -1) {
+                statistics.setDepth(1);
+                return root.toMove(winningMove);
+            }
+
+            int[] moves = new int[BitBoard.MOVES];
+            int count = root.getMoves(moves);
+            var decision = new Decision(Math.max(1, limits.getDepth() - 1), deadline);
+            int bestMove = -1;
+            int bestScore = NO_SCORE;
+            for (int i = 0; i < count; i++) {
+                BitBoard child = root.play(moves[i]);
+                Marble winner = child.getWinner();
+                if (winner == Marble.EMPTY && !child.isFull()) {
+                    decision.add(new Job(moves[i], child));
+                    continue;
+                }
+                int score = winner == Marble.EMPTY ? 0 : winner == turn ? Integer.MAX_VALUE : -Integer.MAX_VALUE;
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = moves[i];
+                }
+            }
+
+            decision.run(acquireConnections());
+            for (Job job : decision.jobs) {
+                if (job.score != NO_SCORE && -job.score > bestScore) {
+                    bestScore = -job.score;
+                    bestMove = job.move;
+                }
+            }
+            statistics.addNodes(decision.nodes);
+            statistics.setDepth(decision.depth + 1);
+            statistics.addPhaseTime(SearchPhase.SEARCH, System.nanoTime() - start);
+            return bestMove == -1 ? board.getPossibleMove() : root.toMove(bestMove);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            statistics.setElapsedNanos(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Connect the workers that are not connected yet and take the connections that are free.
+     * The workers that cannot be reached are tried again in the next decision.
+     *
+     * @return connections for the decision
+     */
+    private synchronized List<WorkerConnection> acquireConnections() {
+        connections.removeIf(WorkerConnection::isClosed);
+        for (InetSocketAddress address : addresses) {
+            if (connections.stream().anyMatch(connection -> connection.getAddress().equals(address))) continue;
+            try {
+                connections.add(new WorkerConnection(address));
+            } catch (IOException ignored) { // the worker is not available
+            }
+        }
+
+        List<WorkerConnection> acquired = new ArrayList<>();
+        for (WorkerConnection connection : connections) {
+            if (connection.acquire()) acquired.add(connection);
+        }
+        return acquired;
+    }
+
+    /**
+     * Disconnect from the workers.
+     */
+    public synchronized void close() {
+        for (WorkerConnection connection : connections) connection.close();
+        connections.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Search of the position after a single move.
+     */
+    private static class Job {
+        private final int move;
+        private final BitBoard board;
+        private int score = NO_SCORE;
+        private int workers;
+        private boolean isDone;
+
+        private Job(int move, BitBoard board) {
+            this.move = move;
+            this.board = board;
+        }
+    }
+
+    /**
+     * Jobs of a single decision that are shared by the connections to the workers.
+     */
+    private class Decision {
+        private final List<Job> jobs = new ArrayList<>();
+        private final Deque<Job> queue = new ArrayDeque<>();
+        private final int depth;
+        private final long deadline;
+        private int finished;
+        private int active;
+        private long nodes;
+
+        private Decision(int depth, long deadline) {
+            this.depth = depth;
+            this.deadline = deadline;
+        }
+
+        private void add(Job job) {
+            jobs.add(job);
+            queue.add(job);
+        }
+
+        /**
+         * Run the jobs on the connections and wait until they are finished or the time is up.
+         *
+         * @param connections acquired connections
+         * @throws InterruptedException if the deciding thread has been interrupted
+         */
+        private synchronized void run(List<WorkerConnection> connections) throws InterruptedException {
+            active = connections.size();
+            for (WorkerConnection connection : connections) {
+                executor.execute(() -> work(connection));
+            }
+            long now = System.currentTimeMillis();
+            while (finished < jobs.size() && active > 0 && now < deadline + GRACE_MILLIS) {
+                wait(deadline + GRACE_MILLIS - now);
+                now = System.currentTimeMillis();
+            }
+            // the connections that are still busy stop after their current job
+            queue.clear();
+        }
+
+        /**
+         * Keep taking the jobs for the worker until there are none left.
+         *
+         * @param connection connection to the worker
+         */
+        private void work(WorkerConnection connection) {
+            try {
+                Job job;
+                while ((job = next()) != null) {
+                    long timeLimit = Math.max(1, deadline - System.currentTimeMillis());
+                    long[] result;
+                    try {
+                        result = connection.search(job.board, depth, timeLimit);
+                    } catch (IOException | RuntimeException e) {
+                        connection.close();
+                        fail(job);
+                        return;
+                    }
+                    complete(job, (int) result[0], (int) result[1], result[2]);
+                }
+            } finally {
+                connection.release();
+                leave();
+            }
+        }
+
+        /**
+         * Take the next job: a job from the queue or, once it is empty, a job that other workers are
+         * still busy with, the one with the fewest workers first.
+         *
+         * @return next job, null if there are none left
+         */
+        private synchronized Job next() {
+            if (finished == jobs.size() || System.currentTimeMillis() >= deadline) return null;
+            Job job = queue.poll();
+            if (job == null) {
+                for (Job candidate : jobs) {
+                    if (!candidate.isDone && (job == null || candidate.workers < job.workers)) job = candidate;
+                }
+            }
+            if (job != null) job.workers++;
+            return job;
+        }
+
+        private synchronized void complete(Job job, int score, int depth, long jobNodes) {
+            job.workers--;
+            // the positions visited by a worker count even if another worker has been faster
+            nodes += jobNodes;
+            if (job.isDone) return;
+            job.isDone = true;
+            // a search that has not finished a single iteration gives no score
+            if (depth > 0) job.score = score;
+            finished++;
+            notifyAll();
+        }
+
+        private synchronized void fail(Job job) {
+            job.workers--;
+            if (!job.isDone && job.workers == 0) queue.addFirst(job);
+        }
+
+        private synchronized void leave() {
+            active--;
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package entity.strategy.distributed;
+
+import entity.board.BitBoard;
+import entity.board.Marble;
+import entity.strategy.SearchLimits;
+import entity.strategy.SearchStatistics;
+import entity.strategy.SearchStrategy;
+import entity.strategy.evaluator.NetworkEvaluator;
+import entity.strategy.search.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Worker that searches the positions sent by the coordinators of the distributed strategy. Each coordinator
+ * connection is served by its own thread and search strategy, while all of them share the transposition table
+ * of the worker. The messages are single lines whose arguments are separated by '~':
+ * <p>
+ * SEARCH~{id}~{black}~{white}~{turn}~{depth}~{time limit} asks to search the position, where the marbles are
+ * given as the bit masks, the turn as 0 for the black player and 1 for the white one,
+ * and the time limit in milliseconds.
+ * <p>
+ * RESULT~{id}~{score}~{depth}~{nodes} answers with the score of the position for the player to move, the depth
+ * of the last finished iteration, which is 0 if no iteration has finished in time, and the number of the visited
+ * positions.
+ * <p>
+ * Usage: SearchWorker [port], the port is chosen by the system if omitted.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SearchWorker implements Runnable {
+    public static final String SEARCH = "SEARCH";
+    public static final String RESULT = "RESULT";
+    public static final String DELIMITER = "~";
+    private final ServerSocket server;
+
+    /**
+     * Create a worker that listens on the port.
+     *
+     * @param port port to listen on, 0 to let the system choose it
+     * @throws IOException if the port cannot be used
+     */
+    public SearchWorker(int port) throws IOException {
+        server = new ServerSocket(port);
+    }
+
+    public static void main(String[] args) throws IOException {
+        var worker = new SearchWorker(args.length > 0 ? Integer.parseInt(args[0]) : 0);
+        System.out.println("Worker listening on port " + worker.getPort());
+        worker.run();
+    }
+
+    /**
+     * Start accepting the coordinators in a separate daemon thread.
+     *
+     * @return the thread in which the worker has been started
+     */
+    public Thread start() {
+        var thread = new Thread(this, "search-worker-" + getPort());
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    @Override
+    public void run() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                var thread = new Thread(() -> serve(socket), "search-worker-connection");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Answer the search requests of a coordinator until it disconnects.
+     *
+     * @param socket coordinator connection
+     */
+    private void serve(Socket socket) {
+        var strategy = new SearchStrategy(new NetworkEvaluator(), SearchStrategy.MAX_DEPTH, 1000, null, null,
+                TranspositionTable.getShared());
+        try (socket;
+             var in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+             var out = new PrintWriter(socket.getOutputStream(), true)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] args = line.split(DELIMITER);
+                if (args.length != 7 || !args[0].equals(SEARCH)) continue;
+                var board = new BitBoard(Long.parseLong(args[2]), Long.parseLong(args[3]),
+                        args[4].equals("0") ? Marble.BLACK : Marble.WHITE);
+                var limits = new SearchLimits(Integer.parseInt(args[5]), Long.parseLong(args[6]),
+                        SearchLimits.NO_NODE_LIMIT);
+
+                int[] result = new int[2];
+                var statistics = new SearchStatistics();
+                strategy.decideMove(board.toBoard(), limits, statistics, (move, score, depth) -> {
+                    result[0] = score;
+                    result[1] = depth;
+                });
+                out.println(String.join(DELIMITER, RESULT, args[1], String.valueOf(result[0]),
+                        String.valueOf(result[1]), String.valueOf(statistics.getNodes())));
+            }
+        } catch (IOException | RuntimeException ignored) { // the coordinator has disconnected or misbehaved
+        }
+    }
+
+    /**
+     * Stop accepting new coordinators.
+     */
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            /* Should not be thrown */
+        }
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+}
@@ -0,0 +1,111 @@
+package entity.strategy.distributed;
+
+import entity.board.BitBoard;
+import entity.board.Marble;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection of the coordinator to a search worker. The connection is used by one decision thread at a time,
+ * which is why it has to be acquired first: a slow worker may still be busy with the previous decision.
+ *
+ * @author Aliaksei Kouzel
+ */
+class WorkerConnection {
+    private static final int CONNECT_TIMEOUT = 1000;
+    private final AtomicBoolean isBusy = new AtomicBoolean();
+    private final InetSocketAddress address;
+    private final Socket socket;
+    private final BufferedReader in;
+    private final PrintWriter out;
+    private long requests;
+
+    /**
+     * Connect to the worker.
+     *
+     * @param address worker address
+     * @throws IOException if the worker cannot be reached
+     */
+    WorkerConnection(InetSocketAddress address) throws IOException {
+        this.address = address;
+        socket = new Socket();
+        try {
+            socket.connect(address, CONNECT_TIMEOUT);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            out = new PrintWriter(socket.getOutputStream(), true);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Try to take the connection for a decision.
+     *
+     * @return true if the connection has been free
+     */
+    boolean acquire() {
+        return isBusy.compareAndSet(false, true);
+    }
+
+    /**
+     * Give the connection back after a decision.
+     */
+    void release() {
+        isBusy.set(false);
+    }
+
+    /**
+     * Ask the worker to search the position and wait for the result. The results of the earlier requests,
+     * which the coordinator has stopped waiting for, are skipped.
+     *
+     * @param board     position to search
+     * @param depth     search depth
+     * @param timeLimit time limit in milliseconds
+     * @return score of the position for the player to move, the depth of the last finished iteration
+     *         and the number of the visited positions
+     * @throws IOException if the worker has disconnected
+     */
+    long[] search(BitBoard board, int depth, long timeLimit) throws IOException {
+        String id = String.valueOf(++requests);
+        String turn = board.getTurn() == Marble.BLACK ? "0" : "1";
+        out.println(String.join(SearchWorker.DELIMITER, SearchWorker.SEARCH, id, String.valueOf(board.getBlack()),
+                String.valueOf(board.getWhite()), turn, String.valueOf(depth), String.valueOf(timeLimit)));
+        if (out.checkError()) throw new IOException("Worker has disconnected");
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] args = line.split(SearchWorker.DELIMITER);
+            if (args.length == 5 && args[0].equals(SearchWorker.RESULT) && args[1].equals(id)) {
+                return new long[]{Integer.parseInt(args[2]), Integer.parseInt(args[3]), Long.parseLong(args[4])};
+            }
+        }
+        throw new IOException("Worker has disconnected");
+    }
+
+    /**
+     * Close the connection. The worker notices it and stops serving the coordinator.
+     */
+    void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            /* Should not be thrown */
+        }
+    }
+
+    boolean isClosed() {
+        return socket.isClosed();
+    }
+
+    InetSocketAddress getAddress() {
+        return address;
+    }
+}
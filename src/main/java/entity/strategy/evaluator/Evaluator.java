@@ -0,0 +1,42 @@
+package entity.strategy.evaluator;
+
+import entity.board.BitBoard;
+
+/**
+ * Evaluator estimates how good a position is for the player whose turn it is. Evaluators that keep an internal
+ * state are notified about the moves played during the search, so that they can update this state incrementally
+ * instead of recomputing it for every position.
+ *
+ * @author Aliaksei Kouzel
+ */
+public interface Evaluator {
+    /**
+     * Evaluate the position from the perspective of the player whose turn it is.
+     *
+     * @param board state of the board
+     * @return positive score if the position is good for the current player, negative otherwise
+     */
+    int evaluate(BitBoard board);
+
+    /**
+     * Reset the evaluator to the root position of the search.
+     *
+     * @param board root position
+     */
+    default void reset(BitBoard board) {
+    }
+
+    /**
+     * Handle the next position that the search goes into.
+     *
+     * @param board position after the move
+     */
+    default void push(BitBoard board) {
+    }
+
+    /**
+     * Handle the search returning to the previous position.
+     */
+    default void pop() {
+    }
+}
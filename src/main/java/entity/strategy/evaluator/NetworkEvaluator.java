@@ -0,0 +1,204 @@
+package entity.strategy.evaluator;
+
+import entity.board.BitBoard;
+import entity.board.Marble;
+
+/**
+ * Evaluator that uses a small quantized network. The hidden layer values (the accumulator) are kept for every
+ * position on the search path and are updated only by the fields that have been changed by the move and the
+ * subboard rotation. The accumulator is recomputed from scratch only when that is cheaper than the update,
+ * e.g. after rotating a crowded subboard, or when the evaluated position is not on the search path.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class NetworkEvaluator implements Evaluator {
+    private static final int MAX_PLY = BitBoard.FIELDS + 1;
+    private final int hidden;
+    private final short[] featureWeights;
+    private final short[] biases;
+    private final byte[] outputWeights;
+    private final short[][] accumulators;
+    private final short[] scratch;
+    private final long[] blacks = new long[MAX_PLY];
+    private final long[] whites = new long[MAX_PLY];
+    private final boolean[] computed = new boolean[MAX_PLY];
+    private final int[] added = new int[NetworkWeights.FEATURES];
+    private final int[] removed = new int[NetworkWeights.FEATURES];
+    private int ply;
+
+    public NetworkEvaluator() {
+        this(NetworkWeights.createDefault());
+    }
+
+    public NetworkEvaluator(NetworkWeights weights) {
+        hidden = weights.getHidden();
+        featureWeights = weights.getFeatureWeights();
+        biases = weights.getBiases();
+        outputWeights = weights.getOutputWeights();
+        accumulators = new short[MAX_PLY][hidden];
+        scratch = new short[hidden];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset(BitBoard board) {
+        ply = 0;
+        blacks[0] = board.getBlack();
+        whites[0] = board.getWhite();
+        refresh(accumulators[0], blacks[0], whites[0]);
+        computed[0] = true;
+    }
+
+    /**
+     * Store the next position without updating its accumulator. The update is postponed until
+     * the position is evaluated, as most of the positions in the search are never evaluated.
+     *
+     * @param board position after the move
+     */
+    @Override
+    public void push(BitBoard board) {
+        ply++;
+        blacks[ply] = board.getBlack();
+        whites[ply] = board.getWhite();
+        computed[ply] = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void pop() {
+        ply--;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int evaluate(BitBoard board) {
+        short[] accumulator;
+        if (board.getBlack() == blacks[ply] && board.getWhite() == whites[ply]) {
+            accumulator = accumulators[ply];
+            if (!computed[ply]) update();
+        } else {
+            // the board is not on the search path
+            accumulator = scratch;
+            refresh(accumulator, board.getBlack(), board.getWhite());
+        }
+
+        int score = getOutput(accumulator);
+        return board.getTurn() == Marble.BLACK ? score : -score;
+    }
+
+    /**
+     * Bring the accumulator of the current position up to date, starting from the closest
+     * position on the search path whose accumulator is already computed.
+     */
+    private void update() {
+        int base = ply;
+        while (base > 0 && !computed[base]) base--;
+        if (!computed[base]) {
+            refresh(accumulators[base], blacks[base], whites[base]);
+            computed[base] = true;
+        }
+
+        for (int next = base + 1; next <= ply; next++) {
+            long removedBlack = blacks[next - 1] & ~blacks[next];
+            long removedWhite = whites[next - 1] & ~whites[next];
+            long addedBlack = blacks[next] & ~blacks[next - 1];
+            long addedWhite = whites[next] & ~whites[next - 1];
+            int changes = Long.bitCount(removedBlack | removedWhite) + Long.bitCount(addedBlack | addedWhite);
+
+            short[] accumulator = accumulators[next];
+            if (changes > Long.bitCount(blacks[next] | whites[next])) {
+                refresh(accumulator, blacks[next], whites[next]);
+            } else {
+                System.arraycopy(accumulators[next - 1], 0, accumulator, 0, hidden);
+                int addedCount = collectFeatures(added, addedBlack, addedWhite);
+                int removedCount = collectFeatures(removed, removedBlack, removedWhite);
+                apply(accumulator, addedCount, removedCount);
+            }
+            computed[next] = true;
+        }
+    }
+
+    /**
+     * Compute the accumulator from scratch.
+     *
+     * @param accumulator accumulator that is being computed
+     * @param black       black marbles
+     * @param white       white marbles
+     */
+    private void refresh(short[] accumulator, long black, long white) {
+        System.arraycopy(biases, 0, accumulator, 0, hidden);
+        int count = collectFeatures(added, black, white);
+        apply(accumulator, count, 0);
+    }
+
+    /**
+     * Write the input features of the marbles into the array.
+     *
+     * @param features array of at least {@link NetworkWeights#FEATURES} elements
+     * @param black    black marbles
+     * @param white    white marbles
+     * @return number of written features
+     */
+    private static int collectFeatures(int[] features, long black, long white) {
+        int count = 0;
+        for (int color = 0; color < 2; color++) {
+            long mask = color == 0 ? black : white;
+            while (mask != 0) {
+                features[count++] = NetworkWeights.getFeature(color, Long.numberOfTrailingZeros(mask));
+                mask &= mask - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Add the weights of the added features and subtract the weights of the removed ones. A rotation moves
+     * as many marbles in as it moves out, so the features are mostly processed in pairs, which passes over
+     * the accumulator only once for both of them.
+     *
+     * @param accumulator  accumulator that is being updated
+     * @param addedCount   number of added features
+     * @param removedCount number of removed features
+     */
+    private void apply(short[] accumulator, int addedCount, int removedCount) {
+        int pairs = Math.min(addedCount, removedCount);
+        for (int p = 0; p < pairs; p++) {
+            int addOffset = added[p] * hidden;
+            int removeOffset = removed[p] * hidden;
+            for (int i = 0; i < hidden; i++) {
+                accumulator[i] += featureWeights[addOffset + i] - featureWeights[removeOffset + i];
+            }
+        }
+        for (int p = pairs; p < addedCount; p++) {
+            int offset = added[p] * hidden;
+            for (int i = 0; i < hidden; i++) accumulator[i] += featureWeights[offset + i];
+        }
+        for (int p = pairs; p < removedCount; p++) {
+            int offset = removed[p] * hidden;
+            for (int i = 0; i < hidden; i++) accumulator[i] -= featureWeights[offset + i];
+        }
+    }
+
+    /**
+     * Compute the network output from the accumulator from the perspective of the black player.
+     *
+     * @param accumulator hidden layer values
+     * @return black player score
+     */
+    private int getOutput(short[] accumulator) {
+        int sum = 0;
+        for (int i = 0; i < hidden; i++) {
+            int activation = accumulator[i];
+            activation = activation < 0 ? 0 : activation;
+            activation = activation > NetworkWeights.ACTIVATION_LIMIT ? NetworkWeights.ACTIVATION_LIMIT : activation;
+            sum += activation * outputWeights[i];
+        }
+        return sum / NetworkWeights.ACTIVATION_LIMIT;
+    }
+}
@@ -0,0 +1,134 @@
+package entity.strategy.evaluator;
+
+import entity.board.BitBoard;
+
+import java.io.*;
+
+/**
+ * Quantized weights of the evaluation network. The network has 72 input features (a marble of either
+ * color on each of the 36 fields), one hidden layer with 16-bit weights and a clipped activation, and
+ * a single output with 8-bit weights.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class NetworkWeights {
+    public static final int FEATURES = 2 * BitBoard.FIELDS;
+    public static final int ACTIVATION_LIMIT = 127;
+    private static final int MAGIC = 0x504E4E31; // "PNN1"
+    private static final int[] THRESHOLD_WEIGHTS = new int[]{1, 5, 20};
+    private final int hidden;
+    private final short[] featureWeights;
+    private final short[] biases;
+    private final byte[] outputWeights;
+
+    public NetworkWeights(int hidden, short[] featureWeights, short[] biases, byte[] outputWeights) {
+        if (featureWeights.length != FEATURES * hidden || biases.length != hidden || outputWeights.length != hidden) {
+            throw new IllegalArgumentException("Weights do not match the network size");
+        }
+        this.hidden = hidden;
+        this.featureWeights = featureWeights;
+        this.biases = biases;
+        this.outputWeights = outputWeights;
+    }
+
+    /**
+     * Create the default weights. Every hidden neuron watches one of the 32 winning streaks for one of
+     * the players, and activates when the player has at least 2, 3 or 4 marbles in it while the opponent
+     * has none. The output layer then sums these activations, so that longer streaks weigh more.
+     *
+     * @return default network weights
+     */
+    public static NetworkWeights createDefault() {
+        int thresholds = THRESHOLD_WEIGHTS.length;
+        int hidden = BitBoard.LINES.length * 2 * thresholds;
+        var featureWeights = new short[FEATURES * hidden];
+        var biases = new short[hidden];
+        var outputWeights = new byte[hidden];
+
+        int neuron = 0;
+        for (long line : BitBoard.LINES) {
+            for (int color = 0; color < 2; color++) {
+                for (int threshold = 0; threshold < thresholds; threshold++) {
+                    for (int field = 0; field < BitBoard.FIELDS; field++) {
+                        if ((line >>> field & 1) == 0) continue;
+                        int ownFeature = getFeature(color, field);
+                        int opponentFeature = getFeature(1 - color, field);
+                        featureWeights[ownFeature * hidden + neuron] = ACTIVATION_LIMIT;
+                        featureWeights[opponentFeature * hidden + neuron] = -5 * ACTIVATION_LIMIT;
+                    }
+                    // the neuron is active once there are (threshold + 2) marbles in the streak
+                    biases[neuron] = (short) (-ACTIVATION_LIMIT * (threshold + 1));
+                    int weight = THRESHOLD_WEIGHTS[threshold];
+                    outputWeights[neuron] = (byte) (color == 0 ? weight : -weight);
+                    neuron++;
+                }
+            }
+        }
+        return new NetworkWeights(hidden, featureWeights, biases, outputWeights);
+    }
+
+    /**
+     * Get the index of the input feature that represents a marble on the field.
+     *
+     * @param color 0 for black, 1 for white
+     * @param field field index
+     * @return feature index
+     */
+    public static int getFeature(int color, int field) {
+        return color * BitBoard.FIELDS + field;
+    }
+
+    /**
+     * Read the weights that have been written by {@link #write(OutputStream)}.
+     *
+     * @param in input stream
+     * @return network weights
+     * @throws IOException in case the stream is not readable or has a wrong format
+     */
+    public static NetworkWeights read(InputStream in) throws IOException {
+        var data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) throw new IOException("Unknown network format");
+        int hidden = data.readInt();
+        if (hidden <= 0) throw new IOException("Invalid network size");
+
+        var featureWeights = new short[FEATURES * hidden];
+        var biases = new short[hidden];
+        var outputWeights = new byte[hidden];
+        for (int i = 0; i < featureWeights.length; i++) featureWeights[i] = data.readShort();
+        for (int i = 0; i < hidden; i++) biases[i] = data.readShort();
+        data.readFully(outputWeights);
+        return new NetworkWeights(hidden, featureWeights, biases, outputWeights);
+    }
+
+    /**
+     * Write the weights to the output stream.
+     *
+     * @param out output stream
+     * @throws IOException in case the stream is not writable
+     */
+    public void write(OutputStream out) throws IOException {
+        var data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(hidden);
+        for (short weight : featureWeights) data.writeShort(weight);
+        for (short bias : biases) data.writeShort(bias);
+        data.write(outputWeights);
+        data.flush();
+    }
+
+    public int getHidden() {
+        return hidden;
+    }
+
+    public short[] getFeatureWeights() {
+        return featureWeights;
+    }
+
+    public short[] getBiases() {
+        return biases;
+    }
+
+    public byte[] getOutputWeights() {
+        return outputWeights;
+    }
+}
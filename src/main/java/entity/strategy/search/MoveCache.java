@@ -0,0 +1,207 @@
+package entity.strategy.search;
+
+import entity.board.BitBoard;
+import entity.board.Symmetry;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the best moves that are found by the search strategies. The server may run many AI players at once,
+ * and their games often pass through the same positions, so a single cache is shared by the whole JVM.
+ * Positions are stored in their canonical form, so the symmetric positions share the same entry.
+ * <p>
+ * Entries are kept in buckets of four. A full bucket evicts its entries with the CLOCK policy: every slot
+ * has a reference bit that is set on a hit, and the clock hand of the bucket skips (and clears) the slots that
+ * have been referenced since its last pass. Just like in the {@link TranspositionTable}, each slot stores
+ * the key xor-ed with the data, so neither lookups nor stores take locks. The hit and miss counters are
+ * striped, so they do not make the threads contend either.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class MoveCache {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final MoveCache SHARED = new MoveCache(DEFAULT_CAPACITY);
+    private static final int WAYS = 4;
+    private static final long VALID = 1L << 63;
+    private final long[] keys;
+    private final long[] data;
+    private final byte[] referenced;
+    private final byte[] hands;
+    private final int bits;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a cache that holds at least the given number of entries.
+     *
+     * @param capacity minimal number of entries
+     * @requires capacity > 0
+     */
+    public MoveCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(WAYS, capacity - 1)) << 1;
+        keys = new long[size];
+        data = new long[size];
+        referenced = new byte[size];
+        hands = new byte[size / WAYS];
+        bits = Integer.numberOfTrailingZeros(size);
+    }
+
+    /**
+     * Get the cache that is shared by all strategies of the JVM.
+     *
+     * @return shared cache
+     */
+    public static MoveCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Find the cached result of the position.
+     *
+     * @param board state of the board
+     * @return entry data with the move of the given position, 0 if there is no entry
+     * @requires board != null
+     */
+    public long probe(BitBoard board) {
+        int symmetry = Symmetry.getCanonical(board);
+        long key = Symmetry.apply(board, symmetry).getKey();
+        int bucket = getBucket(key);
+        for (int slot = bucket; slot < bucket + WAYS; slot++) {
+            long entry = data[slot];
+            if ((keys[slot] ^ entry) == key && entry != 0) {
+                // avoid writing to the shared memory when the bit is already set
+                if (referenced[slot] == 0) referenced[slot] = 1;
+                hits.increment();
+                int move = Symmetry.applyToMove(getMove(entry), Symmetry.inverse(symmetry));
+                return pack(move, getScore(entry), getDepth(entry));
+            }
+        }
+        misses.increment();
+        return 0;
+    }
+
+    /**
+     * Store the search result of the position. A deeper result of the same position is never replaced
+     * with a shallower one.
+     *
+     * @param board state of the board
+     * @param move  best move
+     * @param score position score for the current player
+     * @param depth search depth
+     * @requires board != null && move >= 0 && move < BitBoard.MOVES
+     */
+    public void store(BitBoard board, int move, int score, int depth) {
+        int symmetry = Symmetry.getCanonical(board);
+        long key = Symmetry.apply(board, symmetry).getKey();
+        long entry = pack(Symmetry.applyToMove(move, symmetry), score, depth);
+        int bucket = getBucket(key);
+
+        int target = -1;
+        for (int slot = bucket; slot < bucket + WAYS; slot++) {
+            long current = data[slot];
+            if ((keys[slot] ^ current) == key && current != 0) {
+                if (getDepth(current) > depth) return;
+                target = slot;
+                break;
+            }
+            if (current == 0 && target == -1) target = slot;
+        }
+        if (target == -1) target = evict(bucket);
+
+        referenced[target] = 0;
+        keys[target] = key ^ entry;
+        data[target] = entry;
+    }
+
+    /**
+     * Move the clock hand of the bucket to the first slot that has not been referenced since the last pass.
+     *
+     * @param bucket index of the first slot of the bucket
+     * @return slot index to be replaced
+     */
+    private int evict(int bucket) {
+        int hand = hands[bucket / WAYS];
+        while (referenced[bucket + hand] != 0) {
+            referenced[bucket + hand] = 0;
+            hand = (hand + 1) % WAYS;
+        }
+        hands[bucket / WAYS] = (byte) ((hand + 1) % WAYS);
+        evictions.increment();
+        return bucket + hand;
+    }
+
+    /**
+     * Remove all entries from the cache and reset the statistics.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+        Arrays.fill(referenced, (byte) 0);
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the share of the lookups that have found an entry.
+     *
+     * @return hit rate from 0 to 1, 0 if there were no lookups
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Get the number of slots in the cache.
+     *
+     * @return cache capacity
+     */
+    public int getCapacity() {
+        return data.length;
+    }
+
+    /**
+     * Get the index of the first slot of the bucket that the key belongs to.
+     *
+     * @param key position key
+     * @return slot index
+     */
+    private int getBucket(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - bits)) & -WAYS;
+    }
+
+    private static long pack(int move, int score, int depth) {
+        return VALID
+                | (long) (depth & 0xFF) << 42
+                | (long) ((move + 1) & 0x3FF) << 32
+                | (score & 0xFFFFFFFFL);
+    }
+
+    public static int getMove(long entry) {
+        return (int) (entry >>> 32 & 0x3FF) - 1;
+    }
+
+    public static int getScore(long entry) {
+        return (int) entry;
+    }
+
+    public static int getDepth(long entry) {
+        return (int) (entry >>> 42 & 0xFF);
+    }
+}
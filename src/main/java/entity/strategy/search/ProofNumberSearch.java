@@ -0,0 +1,308 @@
+package entity.strategy.search;
+
+import entity.board.BitBoard;
+import entity.board.Marble;
+
+import java.util.Arrays;
+
+/**
+ * Depth-first proof-number search (df-pn) that tries to prove that the current player can force a win.
+ * The proof number of a position is the number of positions that still have to be proven to prove it,
+ * and the disproof number is the number of positions that have to be disproven. The search always goes
+ * into the most promising position and only leaves it when its numbers exceed the given thresholds.
+ * <p>
+ * The numbers are kept in a bounded table. When the table is full, the entries that took the least
+ * work to compute are replaced first. A draw counts as a failure to win.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class ProofNumberSearch {
+    public static final int INFINITY = 1 << 30;
+    private static final int WAYS = 4;
+    private static final int NONE = 0;
+    private static final int WIN = 1;
+    private static final int NO_WIN = 2;
+    private final int nodeBudget;
+    private final long[] keys;
+    private final int[] proofNumbers;
+    private final int[] disproofNumbers;
+    private final int[] bestMoves;
+    private final long[] work;
+    private final int bits;
+    private final int[][] moves = new int[BitBoard.FIELDS + 1][BitBoard.MOVES];
+    private final BitBoard[][] children = new BitBoard[BitBoard.FIELDS + 1][BitBoard.MOVES];
+    private final int[][] outcomes = new int[BitBoard.FIELDS + 1][BitBoard.MOVES];
+    private Marble attacker;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+
+    /**
+     * Create a proof-number search.
+     *
+     * @param nodeBudget    maximal number of expanded positions of a single proof
+     * @param tableCapacity minimal number of positions kept in the table
+     * @requires nodeBudget > 0 && tableCapacity > 0
+     */
+    public ProofNumberSearch(int nodeBudget, int tableCapacity) {
+        this.nodeBudget = nodeBudget;
+        int size = Integer.highestOneBit(Math.max(WAYS, tableCapacity - 1)) << 1;
+        keys = new long[size];
+        proofNumbers = new int[size];
+        disproofNumbers = new int[size];
+        bestMoves = new int[size];
+        work = new long[size];
+        bits = Integer.numberOfTrailingZeros(size);
+    }
+
+    /**
+     * Try to prove that the current player can force a win.
+     *
+     * @param board state of the board
+     * @return proof result
+     * @requires board != null
+     */
+    public ProofResult prove(BitBoard board) {
+        return prove(board, nodeBudget, Long.MAX_VALUE);
+    }
+
+    /**
+     * Try to prove that the current player can force a win within the limits of the caller,
+     * which never raise the node budget of the proof.
+     *
+     * @param board     state of the board
+     * @param nodeLimit maximal number of expanded positions
+     * @param deadline  time in milliseconds after which the proof stops
+     * @return proof result
+     * @requires board != null
+     */
+    public ProofResult prove(BitBoard board, long nodeLimit, long deadline) {
+        nodes = 0;
+        if (board.isGameOver()) return ProofResult.DISPROVEN;
+
+        attacker = board.getTurn();
+        this.nodeLimit = Math.min(nodeBudget, nodeLimit);
+        this.deadline = deadline;
+        search(board, 0, INFINITY, INFINITY);
+
+        int slot = find(getKey(board));
+        if (slot == -1) return ProofResult.UNKNOWN;
+        if (proofNumbers[slot] == 0) return ProofResult.PROVEN;
+        if (disproofNumbers[slot] == 0) return ProofResult.DISPROVEN;
+        return ProofResult.UNKNOWN;
+    }
+
+    /**
+     * Get the winning move of the position after it has been proven.
+     *
+     * @param board proven position
+     * @return encoded winning move, -1 if the position is not proven
+     */
+    public int getWinningMove(BitBoard board) {
+        attacker = board.getTurn();
+        int slot = find(getKey(board));
+        if (slot == -1 || proofNumbers[slot] != 0) return -1;
+        return bestMoves[slot];
+    }
+
+    /**
+     * Get the number of positions expanded during the last proof.
+     *
+     * @return number of expanded positions
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Remove all positions from the table.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(work, 0);
+    }
+
+    /**
+     * Expand the position until its proof or disproof number reaches the threshold.
+     *
+     * @param board          state of the board
+     * @param ply            distance from the root position
+     * @param proofLimit     proof number threshold
+     * @param disproofLimit  disproof number threshold
+     */
+    private void search(BitBoard board, int ply, int proofLimit, int disproofLimit) {
+        long startNodes = nodes++;
+        boolean attacking = board.getTurn() == attacker;
+        long key = getKey(board);
+
+        // an immediate win of either player decides the position without expanding it
+        int winningMove = WinDetector.findWinningMove(board, board.getTurn());
+        if (winningMove != -1) {
+            int proof = attacking ? 0 : INFINITY;
+            store(key, proof, INFINITY - proof, winningMove, nodes - startNodes);
+            return;
+        }
+
+        int[] plyMoves = moves[ply];
+        BitBoard[] plyChildren = children[ply];
+        int[] plyOutcomes = outcomes[ply];
+        int count = board.getMoves(plyMoves);
+        for (int i = 0; i < count; i++) {
+            BitBoard child = board.play(plyMoves[i]);
+            plyChildren[i] = child;
+            plyOutcomes[i] = getOutcome(child);
+
+            // a single winning move is enough for the attacker, and a single escape for the defender
+            boolean decisive = attacking ? plyOutcomes[i] == WIN : plyOutcomes[i] == NO_WIN;
+            if (decisive) {
+                int proof = attacking ? 0 : INFINITY;
+                store(key, proof, INFINITY - proof, plyMoves[i], nodes - startNodes);
+                return;
+            }
+        }
+
+        while (true) {
+            // the attacker needs to prove one child, the defender needs to disprove one child
+            int proof = attacking ? INFINITY : 0;
+            int disproof = attacking ? 0 : INFINITY;
+            int best = -1;
+            int bestValue = INFINITY;
+            int secondValue = INFINITY;
+            int bestProof = 0;
+            int bestDisproof = 0;
+            for (int i = 0; i < count; i++) {
+                int childProof;
+                int childDisproof;
+                if (plyOutcomes[i] == WIN) {
+                    childProof = 0;
+                    childDisproof = INFINITY;
+                } else if (plyOutcomes[i] == NO_WIN) {
+                    childProof = INFINITY;
+                    childDisproof = 0;
+                } else {
+                    int slot = find(getKey(plyChildren[i]));
+                    childProof = slot == -1 ? 1 : proofNumbers[slot];
+                    childDisproof = slot == -1 ? 1 : disproofNumbers[slot];
+                }
+
+                int value;
+                if (attacking) {
+                    proof = Math.min(proof, childProof);
+                    disproof = add(disproof, childDisproof);
+                    value = childProof;
+                } else {
+                    proof = add(proof, childProof);
+                    disproof = Math.min(disproof, childDisproof);
+                    value = childDisproof;
+                }
+
+                if (value < bestValue) {
+                    secondValue = bestValue;
+                    bestValue = value;
+                    best = i;
+                    bestProof = childProof;
+                    bestDisproof = childDisproof;
+                } else if (value < secondValue) {
+                    secondValue = value;
+                }
+            }
+
+            if (proof >= proofLimit || disproof >= disproofLimit || nodes >= nodeLimit
+                    || System.currentTimeMillis() > deadline) {
+                store(key, proof, disproof, best == -1 ? -1 : plyMoves[best], nodes - startNodes);
+                return;
+            }
+
+            // the chosen child is searched until it stops being the most promising one
+            int childProofLimit;
+            int childDisproofLimit;
+            if (attacking) {
+                childProofLimit = Math.min(proofLimit, add(secondValue, 1));
+                childDisproofLimit = add(disproofLimit - disproof, bestDisproof);
+            } else {
+                childProofLimit = add(proofLimit - proof, bestProof);
+                childDisproofLimit = Math.min(disproofLimit, add(secondValue, 1));
+            }
+            search(plyChildren[best], ply + 1, childProofLimit, childDisproofLimit);
+        }
+    }
+
+    /**
+     * Determine if the game is already decided after the move that led to the position.
+     *
+     * @param board position after the move
+     * @return WIN if the attacker has won, NO_WIN if the game is over otherwise, NONE if it continues
+     */
+    private int getOutcome(BitBoard board) {
+        Marble winner = board.getWinner();
+        if (winner == attacker) return WIN;
+        if (winner != Marble.EMPTY || board.isFull()) return NO_WIN;
+        return NONE;
+    }
+
+    /**
+     * Get the table key of the position. The numbers depend on which player tries to win,
+     * so the attacker is a part of the key.
+     *
+     * @param board state of the board
+     * @return table key
+     */
+    private long getKey(BitBoard board) {
+        // 0 is reserved for empty slots
+        return (board.getKey() << 1 | (attacker == Marble.WHITE ? 1 : 0)) + 1;
+    }
+
+    /**
+     * Find the slot of the position in the table.
+     *
+     * @param key table key
+     * @return slot index, -1 if the position is not in the table
+     */
+    private int find(long key) {
+        int bucket = getBucket(key);
+        for (int slot = bucket; slot < bucket + WAYS; slot++) {
+            if (keys[slot] == key) return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Store the numbers of the position. If the bucket is full, the entry with the least work is replaced.
+     *
+     * @param key      table key
+     * @param proof    proof number
+     * @param disproof disproof number
+     * @param move     most promising move
+     * @param effort   number of positions expanded to compute the numbers
+     */
+    private void store(long key, int proof, int disproof, int move, long effort) {
+        int bucket = getBucket(key);
+        int target = bucket;
+        for (int slot = bucket; slot < bucket + WAYS; slot++) {
+            if (keys[slot] == key || keys[slot] == 0) {
+                target = slot;
+                break;
+            }
+            if (work[slot] < work[target]) target = slot;
+        }
+
+        keys[target] = key;
+        proofNumbers[target] = proof;
+        disproofNumbers[target] = disproof;
+        bestMoves[target] = move;
+        work[target] = effort;
+    }
+
+    private int getBucket(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - bits)) & -WAYS;
+    }
+
+    /**
+     * Add the numbers without exceeding the infinity.
+     *
+     * @return saturated sum
+     */
+    private static int add(int a, int b) {
+        return (int) Math.min(INFINITY, (long) a + b);
+    }
+}
@@ -0,0 +1,23 @@
+package entity.strategy.search;
+
+/**
+ * Class that contains possible results of the proof-number search.
+ *
+ * @author Aliaksei Kouzel
+ */
+public enum ProofResult {
+    /**
+     * When the current player has a forced win.
+     */
+    PROVEN,
+
+    /**
+     * When the current player cannot force a win.
+     */
+    DISPROVEN,
+
+    /**
+     * When the search has run out of its node budget.
+     */
+    UNKNOWN
+}
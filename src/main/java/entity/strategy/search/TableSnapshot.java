@@ -0,0 +1,59 @@
+package entity.strategy.search;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Class that keeps the shared transposition table across restarts of the application. The snapshot file is
+ * given by the 'pentago.table.snapshot' system property; without it, nothing is loaded or saved.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class TableSnapshot {
+    public static final String FILE_PROPERTY = "pentago.table.snapshot";
+    public static final int MIN_DEPTH = 2;
+
+    /**
+     * Load the snapshot into the shared table if the snapshot file exists.
+     *
+     * @return number of the loaded entries
+     */
+    public static int restore() {
+        Path file = getFile();
+        if (file == null || !Files.exists(file)) return 0;
+        try {
+            long start = System.nanoTime();
+            int count = TranspositionTable.getShared().load(file);
+            System.out.printf("Loaded %d positions from '%s' in %.1f ms\n", count, file,
+                    (System.nanoTime() - start) / 1e6);
+            return count;
+        } catch (IOException e) {
+            System.out.printf("Failed to load '%s': %s\n", file, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Save the deep entries of the shared table to the snapshot file.
+     *
+     * @return number of the saved entries
+     */
+    public static int persist() {
+        Path file = getFile();
+        if (file == null) return 0;
+        try {
+            int count = TranspositionTable.getShared().save(file, MIN_DEPTH);
+            System.out.printf("Saved %d positions to '%s'\n", count, file);
+            return count;
+        } catch (IOException e) {
+            System.out.printf("Failed to save '%s': %s\n", file, e.getMessage());
+            return 0;
+        }
+    }
+
+    private static Path getFile() {
+        String file = System.getProperty(FILE_PROPERTY);
+        return file == null || file.isBlank() ? null : Path.of(file);
+    }
+}
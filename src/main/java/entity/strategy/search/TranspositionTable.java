@@ -0,0 +1,241 @@
+package entity.strategy.search;
+
+import exception.InvalidSnapshotException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Table that remembers the results of the positions that have already been searched. Entries are stored in
+ * buckets of two: the first slot keeps the deepest result, the second one always takes the latest result.
+ * <p>
+ * Each slot stores the data and the key xor-ed with the data, so the table can be shared by several threads
+ * without locks: an entry that has been partially overwritten by another thread simply does not match its key.
+ * <p>
+ * The deep entries can be saved to a snapshot file and loaded back after a restart, so the search does not have
+ * to learn them again. The snapshot starts with a header (magic number, format version, entry count, minimal
+ * depth and the CRC32 checksum of the entries) followed by the keys and the data of the entries.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+    public static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_MAGIC = 0x50545450;
+    private static final int HEADER_SIZE = 24;
+    private static final int ENTRY_SIZE = 16;
+    private static final int WRITE_BUFFER_ENTRIES = 4096;
+    private static final long VALID = 1L << 63;
+    private static TranspositionTable shared;
+    private final long[] keys;
+    private final long[] data;
+    private final int bits;
+
+    /**
+     * Create a table that holds at least the given number of entries.
+     *
+     * @param capacity minimal number of entries
+     * @requires capacity > 0
+     */
+    public TranspositionTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        keys = new long[size];
+        data = new long[size];
+        bits = Integer.numberOfTrailingZeros(size);
+    }
+
+    /**
+     * Get the table that is shared by the search strategies of the JVM.
+     *
+     * @return shared table
+     */
+    public static synchronized TranspositionTable getShared() {
+        if (shared == null) shared = new TranspositionTable(DEFAULT_CAPACITY);
+        return shared;
+    }
+
+    /**
+     * Find the entry of the position.
+     *
+     * @param key position key
+     * @return entry data, 0 if there is no entry
+     */
+    public long probe(long key) {
+        int bucket = getBucket(key);
+        for (int slot = bucket; slot < bucket + 2; slot++) {
+            long entry = data[slot];
+            if ((keys[slot] ^ entry) == key && entry != 0) return entry;
+        }
+        return 0;
+    }
+
+    /**
+     * Store the search result of the position.
+     *
+     * @param key   position key
+     * @param move  best move, -1 if there is none
+     * @param score position score
+     * @param depth search depth
+     * @param bound one of EXACT, LOWER_BOUND or UPPER_BOUND
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        long entry = pack(move, score, depth, bound);
+        int slot = getBucket(key);
+        long current = data[slot];
+        boolean sameKey = (keys[slot] ^ current) == key;
+        if (!sameKey && current != 0 && getDepth(current) > depth) slot++;
+        keys[slot] = key ^ entry;
+        data[slot] = entry;
+    }
+
+    /**
+     * Remove all entries from the table.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * Save the entries that are at least as deep as the given depth to the snapshot file. The snapshot is
+     * written to a temporary file first, which then replaces the file, so a crash never leaves half a snapshot.
+     * The table may be used by other threads in the meantime.
+     *
+     * @param file     snapshot file
+     * @param minDepth minimal depth of the saved entries
+     * @return number of the saved entries
+     * @throws IOException if the snapshot cannot be written
+     * @requires file != null
+     */
+    public int save(Path file, int minDepth) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            int count = 0;
+            try (var channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                var buffer = ByteBuffer.allocate(WRITE_BUFFER_ENTRIES * ENTRY_SIZE);
+                var checksum = new CRC32();
+                channel.position(HEADER_SIZE);
+                for (int slot = 0; slot < data.length; slot++) {
+                    long entry = data[slot];
+                    if (entry == 0 || getDepth(entry) < minDepth) continue;
+                    buffer.putLong(keys[slot] ^ entry).putLong(entry);
+                    count++;
+                    if (!buffer.hasRemaining()) writeEntries(channel, buffer, checksum);
+                }
+                writeEntries(channel, buffer, checksum);
+
+                buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(count).putInt(minDepth)
+                        .putLong(checksum.getValue()).flip();
+                channel.write(buffer, 0);
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return count;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Load the entries of the snapshot file into the table. The file is memory-mapped and checked
+     * before any entry is stored, so an invalid snapshot leaves the table as it was.
+     *
+     * @param file snapshot file
+     * @return number of the loaded entries
+     * @throws InvalidSnapshotException if the snapshot has another version or is corrupted
+     * @throws IOException              if the snapshot cannot be read
+     * @requires file != null
+     */
+    public int load(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) throw new InvalidSnapshotException("Snapshot is truncated");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != SNAPSHOT_MAGIC) throw new InvalidSnapshotException("File is not a snapshot");
+        int version = buffer.getInt();
+        if (version != SNAPSHOT_VERSION) throw new InvalidSnapshotException("Unsupported snapshot version " + version);
+        int count = buffer.getInt();
+        buffer.getInt(); // minimal depth
+        long expectedChecksum = buffer.getLong();
+        if (count < 0 || buffer.remaining() != (long) count * ENTRY_SIZE) {
+            throw new InvalidSnapshotException("Snapshot is truncated");
+        }
+
+        var checksum = new CRC32();
+        checksum.update(buffer.duplicate());
+        if (checksum.getValue() != expectedChecksum) throw new InvalidSnapshotException("Snapshot is corrupted");
+
+        for (int i = 0; i < count; i++) {
+            long key = buffer.getLong();
+            long entry = buffer.getLong();
+            store(key, getMove(entry), getScore(entry), getDepth(entry), getBound(entry));
+        }
+        return count;
+    }
+
+    /**
+     * Write the buffered entries to the snapshot and add them to the checksum.
+     */
+    private static void writeEntries(FileChannel channel, ByteBuffer buffer, CRC32 checksum) throws IOException {
+        buffer.flip();
+        checksum.update(buffer.duplicate());
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Get the number of slots in the table.
+     *
+     * @return table capacity
+     */
+    public int getCapacity() {
+        return data.length;
+    }
+
+    /**
+     * Get the index of the first slot of the bucket that the key belongs to.
+     *
+     * @param key position key
+     * @return slot index
+     */
+    private int getBucket(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - bits)) & ~1;
+    }
+
+    private static long pack(int move, int score, int depth, int bound) {
+        return VALID
+                | (long) bound << 50
+                | (long) (depth & 0xFF) << 42
+                | (long) ((move + 1) & 0x3FF) << 32
+                | (score & 0xFFFFFFFFL);
+    }
+
+    public static int getMove(long entry) {
+        return (int) (entry >>> 32 & 0x3FF) - 1;
+    }
+
+    public static int getScore(long entry) {
+        return (int) entry;
+    }
+
+    public static int getDepth(long entry) {
+        return (int) (entry >>> 42 & 0xFF);
+    }
+
+    public static int getBound(long entry) {
+        return (int) (entry >>> 50 & 3);
+    }
+}
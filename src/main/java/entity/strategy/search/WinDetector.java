@@ -0,0 +1,183 @@
+package entity.strategy.search;
+
+import entity.board.BitBoard;
+import entity.board.Marble;
+
+import static entity.board.Board.DIM;
+import static entity.board.Board.WINNING_STREAK;
+
+/**
+ * Class that finds the moves that win the game immediately without playing them. A move wins if the player
+ * has 4 marbles on a streak after the rotation, the opponent has none, and the marble is placed on the field
+ * that ends up on the last place of the streak.
+ * <p>
+ * For each rotation, the marbles are rotated first, and then all streaks of the same direction are checked
+ * at once: shifting a mask by the direction step puts the next field of every streak onto its first field.
+ * This way, the fields that are missing in the streaks are found with a few dozens of bit operations,
+ * and then rotated back to where the marble has to be placed.
+ * <p>
+ * The rotation may also complete a streak of the opponent. Then black wins the game, just like in
+ * {@link BitBoard#getWinner()}, so white cannot win with such a rotation. The marble that fills the board
+ * never wins, since a full board is a draw.
+ *
+ * @author Aliaksei Kouzel
+ */
+public final class WinDetector {
+    private static final long COMPLETE = Long.MIN_VALUE;
+    private static final long ROW_STARTS = buildStarts(0, 1);
+    private static final long COLUMN_STARTS = buildStarts(1, 0);
+    private static final long DIAGONAL_STARTS = buildStarts(1, 1);
+    private static final long ANTI_DIAGONAL_STARTS = buildStarts(1, -1);
+
+    private WinDetector() {
+    }
+
+    /**
+     * Write the winning moves of the player into the array. The player does not need to have the turn,
+     * so the threats of the opponent can be found as well.
+     *
+     * @param board  state of the board
+     * @param player color of the player that makes the move
+     * @param moves  array of at least {@link BitBoard#MOVES} elements
+     * @return number of written moves
+     * @requires board != null && player != Marble.EMPTY
+     */
+    public static int getWinningMoves(BitBoard board, Marble player, int[] moves) {
+        if (!canWin(board, player)) return 0;
+        int count = 0;
+        for (int rotation = 0; rotation < BitBoard.ROTATIONS; rotation++) {
+            for (long fields = getWinningFields(board, player, rotation); fields != 0; fields &= fields - 1) {
+                moves[count++] = BitBoard.encode(Long.numberOfTrailingZeros(fields), rotation);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Find a single winning move of the player.
+     *
+     * @param board  state of the board
+     * @param player color of the player that makes the move
+     * @return encoded winning move, -1 if there is none
+     * @requires board != null && player != Marble.EMPTY
+     */
+    public static int findWinningMove(BitBoard board, Marble player) {
+        if (!canWin(board, player)) return -1;
+        for (int rotation = 0; rotation < BitBoard.ROTATIONS; rotation++) {
+            long fields = getWinningFields(board, player, rotation);
+            if (fields != 0) return BitBoard.encode(Long.numberOfTrailingZeros(fields), rotation);
+        }
+        return -1;
+    }
+
+    /**
+     * Count the winning moves of the player. Moves that differ only in the rotation are counted separately.
+     *
+     * @param board  state of the board
+     * @param player color of the player that makes the move
+     * @return number of winning moves
+     * @requires board != null && player != Marble.EMPTY
+     */
+    public static int countWinningMoves(BitBoard board, Marble player) {
+        if (!canWin(board, player)) return 0;
+        int count = 0;
+        for (int rotation = 0; rotation < BitBoard.ROTATIONS; rotation++) {
+            count += Long.bitCount(getWinningFields(board, player, rotation));
+        }
+        return count;
+    }
+
+    /**
+     * Determine if the player has enough marbles to complete a streak with the next one,
+     * without filling the board.
+     */
+    private static boolean canWin(BitBoard board, Marble player) {
+        long own = player == Marble.BLACK ? board.getBlack() : board.getWhite();
+        return Long.bitCount(own) >= WINNING_STREAK - 1 && Long.bitCount(board.getEmpty()) > 1;
+    }
+
+    /**
+     * Get the fields where the player wins by placing a marble before the given rotation.
+     *
+     * @param board    state of the board
+     * @param player   color of the player that makes the move
+     * @param rotation rotation index
+     * @return mask of the winning fields
+     */
+    private static long getWinningFields(BitBoard board, Marble player, int rotation) {
+        long opponent = player == Marble.BLACK ? board.getWhite() : board.getBlack();
+        long rotatedOpponent = BitBoard.rotate(opponent, rotation);
+        long rotatedEmpty = BitBoard.rotate(board.getEmpty(), rotation);
+
+        // black wins if the rotation completes both streaks
+        if (player == Marble.WHITE && BitBoard.hasStreak(rotatedOpponent)) return 0;
+
+        long missing = getMissingFields(rotatedEmpty, rotatedOpponent, 1, ROW_STARTS)
+                | getMissingFields(rotatedEmpty, rotatedOpponent, DIM, COLUMN_STARTS)
+                | getMissingFields(rotatedEmpty, rotatedOpponent, DIM + 1, DIAGONAL_STARTS)
+                | getMissingFields(rotatedEmpty, rotatedOpponent, DIM - 1, ANTI_DIAGONAL_STARTS);
+
+        // the rotation alone completes the streak, so the marble can be placed anywhere
+        if ((missing & COMPLETE) != 0) return board.getEmpty();
+        // the opposite rotation brings the fields back
+        return BitBoard.rotate(missing, rotation ^ 1);
+    }
+
+    /**
+     * Find the streaks of the given direction that have no opponent marbles and at most one empty field.
+     * Each streak is represented by its first field, and the k-th field of every streak is found
+     * by shifting the mask by k steps.
+     *
+     * @param empty    empty fields after the rotation
+     * @param opponent opponent marbles after the rotation
+     * @param step     difference between the indexes of the neighbouring fields of a streak
+     * @param starts   first fields of the streaks of the direction
+     * @return empty fields of the streaks, with the highest bit set if some streak is already complete
+     */
+    private static long getMissingFields(long empty, long opponent, int step, long starts) {
+        long blocked = opponent | opponent >>> step | opponent >>> 2 * step
+                | opponent >>> 3 * step | opponent >>> 4 * step;
+        long empty0 = empty;
+        long empty1 = empty >>> step;
+        long empty2 = empty >>> 2 * step;
+        long empty3 = empty >>> 3 * step;
+        long empty4 = empty >>> 4 * step;
+
+        // count the empty fields up to two: "ones" has at least one, "twos" has at least two
+        long ones = empty0 | empty1;
+        long twos = empty0 & empty1;
+        twos |= ones & empty2;
+        ones |= empty2;
+        twos |= ones & empty3;
+        ones |= empty3;
+        twos |= ones & empty4;
+        ones |= empty4;
+
+        long streaks = starts & ~blocked & ~twos;
+        long missing = (streaks & empty0)
+                | (streaks & empty1) << step
+                | (streaks & empty2) << 2 * step
+                | (streaks & empty3) << 3 * step
+                | (streaks & empty4) << 4 * step;
+        return (streaks & ~ones) != 0 ? missing | COMPLETE : missing;
+    }
+
+    /**
+     * Build the mask of the first fields of all streaks that go in the given direction.
+     *
+     * @param rowStep row difference between the neighbouring fields
+     * @param colStep column difference between the neighbouring fields
+     * @return mask of the first fields
+     */
+    private static long buildStarts(int rowStep, int colStep) {
+        long starts = 0;
+        for (int row = 0; row < DIM; row++) {
+            for (int col = 0; col < DIM; col++) {
+                int endRow = row + rowStep * (WINNING_STREAK - 1);
+                int endCol = col + colStep * (WINNING_STREAK - 1);
+                if (endRow < DIM && endCol >= 0 && endCol < DIM) starts |= 1L << (row * DIM + col);
+            }
+        }
+        return starts;
+    }
+}
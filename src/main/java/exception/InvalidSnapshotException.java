@@ -0,0 +1,17 @@
+package exception;
+
+import java.io.IOException;
+
+/**
+ * Throws an exception if the snapshot file of the transposition table cannot be loaded.
+ * e.g. if it has been written by another version, or it has been truncated or corrupted.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class InvalidSnapshotException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidSnapshotException(String message) {
+        super(message);
+    }
+}
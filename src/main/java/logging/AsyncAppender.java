@@ -0,0 +1,193 @@
+package logging;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appender that writes the log events on its own thread, so that the logging threads never wait for the output
+ * or for each other. The events are stored in a ring buffer of preallocated slots: a logging thread claims
+ * the next slot, fills it in and publishes it, while the appender thread formats the published events in order
+ * and writes them as structured lines, e.g.
+ * <pre>
+ * time=2021-01-19T12:00:00.123Z level=DEBUG category=traffic thread=event-loop-0 message="in 'PING'"
+ * </pre>
+ * If the buffer is full, the event is dropped rather than waiting for the appender.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class AsyncAppender {
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private final Slot[] slots;
+    private final int mask;
+    private final PrintStream out;
+    private final Thread thread;
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final StringBuilder line = new StringBuilder();
+    private volatile long consumed;
+    private volatile boolean isParked;
+    private volatile boolean isRunning = true;
+
+    /**
+     * Create an appender and start its thread.
+     *
+     * @param capacity number of the events that may wait to be written, rounded up to a power of two
+     * @param out      stream to which the events are written
+     * @requires capacity > 0 && out != null
+     */
+    public AsyncAppender(int capacity, PrintStream out) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        slots = new Slot[size];
+        for (int i = 0; i < size; i++) slots[i] = new Slot();
+        mask = size - 1;
+        this.out = out;
+        thread = new Thread(this::run, "log-appender");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Hand over the event to the appender thread.
+     *
+     * @param level    level of the event
+     * @param category category of the event
+     * @param template message, in which each '{}' is replaced by the next argument
+     * @param first    first argument, may be null
+     * @param second   second argument, may be null
+     * @return true if the event has been accepted, false if the buffer is full
+     */
+    public boolean append(Level level, String category, String template, Object first, Object second) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length || !isRunning) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = slots[(int) sequence & mask];
+        slot.time = System.currentTimeMillis();
+        slot.level = level;
+        slot.category = category;
+        slot.thread = Thread.currentThread().getName();
+        slot.template = template;
+        slot.first = first;
+        slot.second = second;
+        slot.sequence = sequence;
+        if (isParked) LockSupport.unpark(thread);
+        return true;
+    }
+
+    /**
+     * Write the events that have been accepted so far and stop the appender thread.
+     */
+    public void close() {
+        isRunning = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Write the published events, waiting for more while the appender is running.
+     */
+    private void run() {
+        while (isRunning) {
+            if (drain()) continue;
+            isParked = true;
+            // an event may have been published before the flag has been seen
+            if (!isPublished()) LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            isParked = false;
+        }
+        // the events whose slots have been claimed before closing are still being published
+        long deadline = System.nanoTime() + MAX_PARK_NANOS;
+        while ((drain() || consumed < claimed.get()) && System.nanoTime() < deadline) Thread.onSpinWait();
+    }
+
+    /**
+     * Check whether the next event has been published.
+     */
+    private boolean isPublished() {
+        return slots[(int) consumed & mask].sequence == consumed;
+    }
+
+    /**
+     * Write the published events in order.
+     *
+     * @return true if any event has been written
+     */
+    private boolean drain() {
+        boolean isDrained = false;
+        while (isPublished()) {
+            Slot slot = slots[(int) consumed & mask];
+            out.println(format(slot));
+            slot.template = null;
+            slot.first = null;
+            slot.second = null;
+            consumed = consumed + 1;
+            isDrained = true;
+        }
+        if (isDrained) out.flush();
+        return isDrained;
+    }
+
+    /**
+     * Format the event as a line of key-value pairs.
+     */
+    private String format(Slot slot) {
+        line.setLength(0);
+        line.append("time=").append(Instant.ofEpochMilli(slot.time))
+                .append(" level=").append(slot.level)
+                .append(" category=").append(slot.category)
+                .append(" thread=").append(slot.thread)
+                .append(" message=\"");
+        int start = line.length();
+        Object[] args = {slot.first, slot.second};
+        int arg = 0;
+        String template = slot.template;
+        for (int i = 0; i < template.length(); i++) {
+            if (arg < args.length && template.startsWith("{}", i)) {
+                line.append(args[arg++]);
+                i++;
+            } else {
+                line.append(template.charAt(i));
+            }
+        }
+        for (int i = start; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.insert(i++, '\\');
+            } else if (c == '\n') {
+                line.replace(i, i + 1, "\\n");
+                i++;
+            }
+        }
+        return line.append('"').toString();
+    }
+
+    /**
+     * Slot of the ring buffer, reused by every event that falls on it.
+     */
+    private static class Slot {
+        private volatile long sequence = -1;
+        private long time;
+        private Level level;
+        private String category;
+        private String thread;
+        private String template;
+        private Object first;
+        private Object second;
+    }
+}
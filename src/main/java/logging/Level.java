@@ -0,0 +1,49 @@
+package logging;
+
+/**
+ * Class that contains the importance levels of the log events, from the least to the most important.
+ *
+ * @author Aliaksei Kouzel
+ */
+public enum Level {
+    /**
+     * When the event is only of interest while tracing the code, e.g. every message sent over the network.
+     */
+    TRACE,
+
+    /**
+     * When the event helps to find out what has happened, e.g. the messages of the protocol.
+     */
+    DEBUG,
+
+    /**
+     * When the event is part of the normal operation, e.g. a client has logged in.
+     */
+    INFO,
+
+    /**
+     * When something has gone wrong, but the application can go on, e.g. an invalid message.
+     */
+    WARN,
+
+    /**
+     * When something has gone wrong, and a part of the application cannot go on.
+     */
+    ERROR,
+
+    /**
+     * When no event is logged. It is only used as the level of a logger.
+     */
+    OFF;
+
+    /**
+     * Get the level by its name, e.g. 'debug'.
+     *
+     * @param name name of the level in any case
+     * @return level with the given name
+     * @throws IllegalArgumentException if there is no level with the given name
+     */
+    public static Level fromName(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
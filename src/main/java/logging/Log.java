@@ -0,0 +1,53 @@
+package logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the loggers, which share a single asynchronous appender writing to the standard output.
+ * The loggers are configured by the system properties, e.g.
+ * <pre>
+ * -Dpentago.log.level=info             least important level logged by every category
+ * -Dpentago.log.traffic.level=debug    least important level logged by the 'traffic' category
+ * -Dpentago.log.traffic.sample=100     log one of every 100 events of the 'traffic' category
+ * -Dpentago.log.buffer=8192            number of the events that may wait to be written
+ * </pre>
+ *
+ * @author Aliaksei Kouzel
+ */
+public final class Log {
+    public static final String PROPERTY = "pentago.log";
+    private static final int DEFAULT_BUFFER = 8192;
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+    private static final AsyncAppender APPENDER = new AsyncAppender(
+            Integer.getInteger(PROPERTY + ".buffer", DEFAULT_BUFFER), System.out);
+
+    static {
+        // write the events that are still waiting once the application exits
+        Runtime.getRuntime().addShutdownHook(new Thread(APPENDER::close, "log-shutdown"));
+    }
+
+    private Log() {
+    }
+
+    /**
+     * Get the logger of the category, configured by the system properties when it is first requested.
+     *
+     * @param category name of the category, e.g. 'traffic'
+     * @return logger of the category
+     * @throws IllegalArgumentException if the properties of the category are not valid
+     */
+    public static Logger getLogger(String category) {
+        return LOGGERS.computeIfAbsent(category, name -> {
+            String level = System.getProperty(PROPERTY + "." + name + ".level",
+                    System.getProperty(PROPERTY + ".level", Level.INFO.name()));
+            int sampleRate = Integer.getInteger(PROPERTY + "." + name + ".sample", 1);
+            if (sampleRate < 1) throw new IllegalArgumentException("Invalid sample rate: " + sampleRate);
+            return new Logger(name, Level.fromName(level), sampleRate, APPENDER);
+        });
+    }
+
+    public static AsyncAppender getAppender() {
+        return APPENDER;
+    }
+}
@@ -0,0 +1,109 @@
+package logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logger of a single category of events, e.g. the network traffic. The events are not written by the calling
+ * thread, but handed over to an asynchronous appender together with their arguments, which are only formatted
+ * once they are written. So, if the level of an event is disabled, logging it neither formats nor allocates
+ * anything, as long as the arguments already exist.
+ * <p>
+ * The events below the WARN level may be sampled, in which case only one of every few events is logged.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class Logger {
+    private final String category;
+    private final AsyncAppender appender;
+    private final AtomicLong events = new AtomicLong();
+    private volatile Level level;
+    private volatile int sampleRate;
+
+    /**
+     * Create a logger.
+     *
+     * @param category   name of the category, e.g. 'traffic'
+     * @param level      least important level that is logged
+     * @param sampleRate number of the events out of which one is logged, 1 to log all of them
+     * @param appender   appender that writes the events
+     * @requires category != null && level != null && sampleRate > 0 && appender != null
+     */
+    public Logger(String category, Level level, int sampleRate, AsyncAppender appender) {
+        this.category = category;
+        this.level = level;
+        this.sampleRate = sampleRate;
+        this.appender = appender;
+    }
+
+    /**
+     * Check whether the events of the level are logged, e.g. before computing an expensive argument.
+     *
+     * @param level level of the event
+     * @return true if the events of the level are logged
+     */
+    public boolean isEnabled(Level level) {
+        return level.compareTo(this.level) >= 0 && this.level != Level.OFF;
+    }
+
+    /**
+     * Log the event.
+     *
+     * @param level    level of the event
+     * @param template message, in which '{}' is replaced by the arguments
+     */
+    public void log(Level level, String template) {
+        if (isSampled(level)) appender.append(level, category, template, null, null);
+    }
+
+    /**
+     * Log the event with an argument.
+     *
+     * @param level    level of the event
+     * @param template message, in which '{}' is replaced by the argument
+     * @param arg      argument of the message
+     */
+    public void log(Level level, String template, Object arg) {
+        if (isSampled(level)) appender.append(level, category, template, arg, null);
+    }
+
+    /**
+     * Log the event with two arguments.
+     *
+     * @param level    level of the event
+     * @param template message, in which each '{}' is replaced by the next argument
+     * @param first    first argument of the message
+     * @param second   second argument of the message
+     */
+    public void log(Level level, String template, Object first, Object second) {
+        if (isSampled(level)) appender.append(level, category, template, first, second);
+    }
+
+    /**
+     * Check whether the event is logged, given its level and the sample rate.
+     */
+    private boolean isSampled(Level level) {
+        if (!isEnabled(level)) return false;
+        int rate = sampleRate;
+        return rate <= 1 || level.compareTo(Level.WARN) >= 0 || events.getAndIncrement() % rate == 0;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
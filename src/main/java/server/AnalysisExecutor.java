@@ -0,0 +1,135 @@
+package server;
+
+import entity.board.Board;
+import entity.strategy.Difficulty;
+import entity.strategy.MoveAnalysis;
+import entity.strategy.SearchLimits;
+import entity.strategy.SearchStatistics;
+import entity.strategy.SearchStrategy;
+import entity.strategy.StatisticsAggregator;
+import entity.strategy.evaluator.NetworkEvaluator;
+import entity.strategy.search.TranspositionTable;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor that analyses the positions of the clients on a few threads of its own, so that a long search
+ * holds neither the client handler nor a thread of the transport. Every worker has its own search strategy,
+ * while the workers share a transposition table. The analyses that do not fit into the bounded queue
+ * are rejected rather than delaying all of the others. The statistics of the analyses are added to
+ * the aggregator under the name 'analysis'.
+ * <p>
+ * The executor is configured by the system properties, e.g.
+ * <pre>
+ * -Dpentago.analysis.workers=2    threads that analyse the positions
+ * -Dpentago.analysis.queue=16     analyses waiting for a worker
+ * </pre>
+ *
+ * @author Aliaksei Kouzel
+ */
+public class AnalysisExecutor {
+    public static final String PROPERTY = "pentago.analysis";
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+    public static final String STATISTICS_NAME = "analysis";
+    private final TranspositionTable table = new TranspositionTable(TranspositionTable.DEFAULT_CAPACITY);
+    private final ThreadLocal<SearchStrategy> analysts = ThreadLocal.withInitial(this::createAnalyst);
+    private final ThreadPoolExecutor executor;
+    private final StatisticsAggregator aggregator;
+    private final LongAdder rejected = new LongAdder();
+
+    public AnalysisExecutor(int workers, int queueCapacity) {
+        this(workers, queueCapacity, StatisticsAggregator.getShared());
+    }
+
+    /**
+     * Create an analysis executor.
+     *
+     * @param workers       number of the threads that analyse the positions
+     * @param queueCapacity maximal number of the analyses waiting for a worker
+     * @param aggregator    aggregator of the analysis statistics, or null
+     * @requires workers > 0 && queueCapacity > 0
+     */
+    public AnalysisExecutor(int workers, int queueCapacity, StatisticsAggregator aggregator) {
+        this.aggregator = aggregator;
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    var thread = new Thread(runnable, "analysis");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Create an analysis executor configured by the 'pentago.analysis.workers' and 'pentago.analysis.queue'
+     * system properties. By default, it takes half of the processors.
+     *
+     * @return analysis executor
+     * @throws IllegalArgumentException if the properties are not valid
+     */
+    public static AnalysisExecutor fromProperties() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int workers = Integer.getInteger(PROPERTY + ".workers", Math.max(1, processors / 2));
+        int queueCapacity = Integer.getInteger(PROPERTY + ".queue", DEFAULT_QUEUE_CAPACITY);
+        if (workers <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid analysis workers or queue: " + workers + ", " + queueCapacity);
+        }
+        return new AnalysisExecutor(workers, queueCapacity);
+    }
+
+    /**
+     * Create the strategy of a worker, which searches within the medium difficulty limits.
+     *
+     * @return search strategy
+     */
+    private SearchStrategy createAnalyst() {
+        SearchLimits limits = Difficulty.MEDIUM.getLimits();
+        return new SearchStrategy(new NetworkEvaluator(), limits.getDepth(), limits.getTimeLimit(), null, null,
+                table);
+    }
+
+    /**
+     * Rank the best moves on the board on a worker. The board must not be changed until the analysis is done.
+     *
+     * @param board state of the board
+     * @param count maximal number of the ranked moves
+     * @return future of the ranked moves, failed with RejectedExecutionException if the queue is full
+     * @requires board != null && !board.isGameOver() && count > 0
+     */
+    public CompletableFuture<List<MoveAnalysis>> submit(Board board, int count) {
+        var future = new CompletableFuture<List<MoveAnalysis>>();
+        try {
+            executor.execute(() -> {
+                try {
+                    var statistics = new SearchStatistics();
+                    List<MoveAnalysis> analyses = analysts.get().analyze(board, count,
+                            Difficulty.MEDIUM.getLimits(), statistics);
+                    if (aggregator != null) aggregator.record(STATISTICS_NAME, statistics);
+                    future.complete(analyses);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Stop the workers, interrupting the running analyses and dropping the waiting ones.
+     */
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,27 @@
+package server;
+
+/**
+ * Connection of the server to a client, over which the client handler sends its messages.
+ * The messages are whole lines of the protocol, without the line separator.
+ *
+ * @author Aliaksei Kouzel
+ */
+public interface Connection {
+    /**
+     * Send a message to the client. It may be called by several threads at once.
+     *
+     * @param message message according to the protocol
+     */
+    void send(String message);
+
+    /**
+     * Close the connection.
+     */
+    void close();
+
+    /**
+     * Close the connection once the messages sent so far have been written, e.g. after telling
+     * the client why it is being disconnected.
+     */
+    void shutdown();
+}
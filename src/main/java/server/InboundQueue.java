@@ -0,0 +1,139 @@
+package server;
+
+import logging.Level;
+import logging.Log;
+import logging.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queue of the tasks that handle the received messages of a connection. The tasks are run one at a time
+ * in the order in which they have been offered, on the threads of a shared executor, which is only taken
+ * while there are tasks to run. A task that fails is logged, so that it does not stop the tasks after it.
+ * <p>
+ * Once the queue is closed, the tasks offered before are still run, followed by the last task of the queue
+ * (e.g. handling the disconnect), after which no task is run anymore.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class InboundQueue {
+    public static final int DEFAULT_CAPACITY = 256;
+    private static final Logger LOG = Log.getLogger("transport");
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean isScheduled = new AtomicBoolean();
+    private final AtomicBoolean isClosed = new AtomicBoolean();
+    private final Executor executor;
+    private final int capacity;
+    private boolean isFinished;
+
+    /**
+     * Create an inbound queue.
+     *
+     * @param executor shared executor that runs the tasks
+     * @param capacity maximal number of the tasks waiting to be run
+     * @requires executor != null && capacity > 0
+     */
+    public InboundQueue(Executor executor, int capacity) {
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Queue a task, unless the queue is full or closed.
+     *
+     * @param task task that handles a received message
+     * @return true if the task has been queued, false if it has been dropped
+     */
+    public boolean offer(Runnable task) {
+        if (isClosed.get()) return false;
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        tasks.add(task);
+        schedule();
+        return true;
+    }
+
+    /**
+     * Close the queue, so that the last task is run after the tasks that have been queued so far.
+     * Only the last task of the first call is run.
+     *
+     * @param last task that is run after all others
+     */
+    public void close(Runnable last) {
+        if (!isClosed.compareAndSet(false, true)) return;
+        // the last task does not count towards the capacity, so it is never dropped
+        tasks.add(new LastTask(last));
+        schedule();
+    }
+
+    /**
+     * Schedule running the tasks on the shared executor, unless it is already scheduled.
+     * Once the executor has been shut down, the tasks are dropped.
+     */
+    private void schedule() {
+        if (!isScheduled.compareAndSet(false, true)) return;
+        try {
+            executor.execute(this::runTasks);
+        } catch (RejectedExecutionException e) {
+            tasks.clear();
+            isScheduled.set(false);
+        }
+    }
+
+    /**
+     * Run the queued tasks until there are none left. The tasks that have been offered while the queue
+     * was being closed end up after the last task, so they are dropped.
+     */
+    private void runTasks() {
+        try {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                boolean isLast = task instanceof LastTask;
+                if (!isLast) size.decrementAndGet();
+                if (isFinished) continue;
+                isFinished = isLast;
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    LOG.log(Level.ERROR, "Failed to handle a message: {}", e);
+                }
+            }
+        } finally {
+            isScheduled.set(false);
+            // a task may have been offered after the queue has been emptied
+            if (!tasks.isEmpty()) schedule();
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isClosed() {
+        return isClosed.get();
+    }
+
+    /**
+     * Task that is run after all others.
+     */
+    private static class LastTask implements Runnable {
+        private final Runnable task;
+
+        private LastTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
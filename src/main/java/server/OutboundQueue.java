@@ -0,0 +1,111 @@
+package server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded queue of the messages that are waiting to be written to a connection. Any thread may add the messages
+ * without waiting for the connection, while a single drainer at a time takes them out in batches and writes each
+ * batch at once. If the queue is full, the message is handled by the slow consumer policy of the connection.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class OutboundQueue {
+    public static final int DEFAULT_CAPACITY = 1024;
+    private final Queue<byte[]> messages = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean isDraining = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+
+    /**
+     * Create an outbound queue.
+     *
+     * @param capacity maximal number of the waiting messages
+     * @param policy   what to do with the messages that do not fit
+     * @requires capacity > 0 && policy != null
+     */
+    public OutboundQueue(int capacity, SlowConsumerPolicy policy) {
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    /**
+     * Add the message as a line of UTF-8 bytes.
+     *
+     * @param message message according to the protocol
+     * @return true if the message has been added, false if the queue is full
+     */
+    public boolean offer(String message) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        messages.add((message + "\n").getBytes(StandardCharsets.UTF_8));
+        return true;
+    }
+
+    /**
+     * Take the waiting messages into the batch, until the batch holds at least the given number of bytes.
+     *
+     * @param batch    list that receives the messages
+     * @param maxBytes number of the bytes after which the batch is complete
+     * @return number of the bytes taken
+     */
+    public int drainTo(List<byte[]> batch, int maxBytes) {
+        int bytes = 0;
+        byte[] message;
+        while (bytes < maxBytes && (message = messages.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(message);
+            bytes += message.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Become the drainer of the queue, unless there is one already.
+     *
+     * @return true if the caller has to drain the queue
+     */
+    public boolean startDraining() {
+        return isDraining.compareAndSet(false, true);
+    }
+
+    /**
+     * Stop draining the queue once it is empty.
+     *
+     * @return true if messages have been added meanwhile, so the caller has to go on draining
+     */
+    public boolean stopDraining() {
+        isDraining.set(false);
+        return !messages.isEmpty() && isDraining.compareAndSet(false, true);
+    }
+
+    /**
+     * Remove all waiting messages, e.g. once the connection has been closed.
+     */
+    public void clear() {
+        byte[] message;
+        while ((message = messages.poll()) != null) size.decrementAndGet();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public SlowConsumerPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
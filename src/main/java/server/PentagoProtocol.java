@@ -16,6 +16,7 @@ import static java.util.Map.entry;
  * @author Aliaksei Kouzel
  */
 public class PentagoProtocol implements ServerProtocol {
+    public final static int MAX_ANALYSIS_MOVES = 10;
     public final static Map<String, MessageType> MESSAGE_TYPES = Map.ofEntries(
             entry("HELLO", MessageType.INIT),
             entry("LOGIN", MessageType.LOGIN),
@@ -23,6 +24,7 @@ public class PentagoProtocol implements ServerProtocol {
             entry("LIST", MessageType.LIST_USERS),
             entry("QUEUE", MessageType.JOIN_QUEUE),
             entry("MOVE", MessageType.MAKE_MOVE),
+            entry("ANALYSIS", MessageType.ANALYSIS),
             entry("NEWGAME", MessageType.NEW_GAME),
             entry("GAMEOVER", MessageType.GAME_OVER),
             entry("PING", MessageType.PING),
@@ -92,6 +94,9 @@ public class PentagoProtocol implements ServerProtocol {
             case MAKE_MOVE:
                 processMoveMessage(args, data);
                 return data;
+            case ANALYSIS:
+                processAnalysisMessage(args, data, toServer);
+                return data;
             case GAME_OVER:
                 processGameOverMessage(args, data);
                 return data;
@@ -113,6 +118,15 @@ public class PentagoProtocol implements ServerProtocol {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MessageType typeOf(String message) {
+        int end = message.indexOf(getDelimiter());
+        return MESSAGE_TYPES.get(end == -1 ? message : message.substring(0, end));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -204,6 +218,39 @@ public class PentagoProtocol implements ServerProtocol {
         data.put("rotation", rotation);
     }
 
+    /**
+     * Process an analysis message carrying either the maximal number of the ranked moves
+     * or the ranked moves themselves, each as the field position, the subboard rotation and the score.
+     *
+     * @param args     message args
+     * @param data     message data
+     * @param toServer true if the message is sent to the server
+     */
+    private void processAnalysisMessage(String[] args, Map<String, Object> data, boolean toServer) {
+        if (toServer) {
+            if (args.length != 2) throw new IllegalArgumentException();
+            int count = Integer.parseInt(args[1]);
+            if (count < 1 || count > MAX_ANALYSIS_MOVES) throw new IllegalArgumentException("Illegal move count");
+            data.put("count", count);
+        } else {
+            if ((args.length - 1) % 3 != 0) throw new IllegalArgumentException();
+            int count = (args.length - 1) / 3;
+            var positions = new int[count];
+            var rotations = new int[count];
+            var scores = new int[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = Integer.parseInt(args[3 * i + 1]);
+                rotations[i] = Integer.parseInt(args[3 * i + 2]);
+                scores[i] = Integer.parseInt(args[3 * i + 3]);
+                if (positions[i] < 0 || positions[i] > 35) throw new InvalidMoveException("Invalid position");
+                if (rotations[i] < 0 || rotations[i] > 7) throw new InvalidMoveException("Invalid rotation");
+            }
+            data.put("positions", positions);
+            data.put("rotations", rotations);
+            data.put("scores", scores);
+        }
+    }
+
     /**
      * Process a game over message carrying the game result and optionally the player that
      * is being referred (e.g. in case of player disconnection or victory).
@@ -3,14 +3,27 @@ package server;
 import client.ClientHandler;
 import client.PentagoClientHandler;
 import entity.Expansion;
+import entity.board.Board;
 import entity.player.Player;
+import entity.session.EventSession;
 import entity.session.GameSession;
 import entity.session.PentagoSession;
+import entity.strategy.MoveAnalysis;
+import server.admission.AdmissionControl;
+import server.admission.RateLimits;
+import server.heartbeat.HeartbeatMonitor;
+import server.matchmaking.Matchmaker;
+import server.matchmaking.PairingPolicy;
 
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Network server that allows its clients to play pentago games with each other.
@@ -19,16 +32,42 @@ import java.util.*;
  */
 public class PentagoServer implements NetworkServer {
     public static final Set<Expansion> EXPANSIONS = Set.of();
-    private final List<ClientHandler> playQueue = new LinkedList<>();
-    private final List<ClientHandler> clients = new LinkedList<>();
-    private final List<GameSession> sessions = new LinkedList<>();
+    private final Matchmaker<ClientHandler> matchmaker =
+            new Matchmaker<>(PairingPolicy.fromProperty(), (first, second) -> startSession(first, second));
+    private final Set<ClientHandler> clients = ConcurrentHashMap.newKeySet();
+    private final UserRegistry users = new UserRegistry();
+    private final SessionIndex sessions = new SessionIndex();
+    private final HeartbeatMonitor heartbeats = HeartbeatMonitor.fromProperties();
+    private final AdmissionControl admission = AdmissionControl.fromProperty();
+    private final RateLimits rateLimits = RateLimits.fromProperties();
     private final ServerProtocol protocol = new PentagoProtocol();
+    private final AnalysisExecutor analyses = AnalysisExecutor.fromProperties();
     private final String description;
+    private final ServerMode mode;
+    private final ThreadFactory threadFactory;
+    private final ExecutorService sessionExecutor;
     private ServerSocket server;
     private Thread serverThread;
+    private SelectorTransport transport;
 
     public PentagoServer(String description) {
+        this(description, ServerMode.BLOCKING);
+    }
+
+    public PentagoServer(String description, ServerMode mode) {
         this.description = description;
+        this.mode = mode;
+        if (mode == ServerMode.VIRTUAL && !VirtualThreads.isSupported()) {
+            System.out.println("Virtual threads are not supported, using regular threads...");
+        }
+        threadFactory = mode == ServerMode.VIRTUAL ? VirtualThreads.getFactory() : Thread::new;
+        // without a thread per connection, the sessions do not get their own threads either
+        sessionExecutor = mode != ServerMode.SELECTOR ? null
+                : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                    var thread = new Thread(runnable, "session-events");
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     @Override
@@ -36,9 +75,11 @@ public class PentagoServer implements NetworkServer {
         while (true) {
             try {
                 Socket client = server.accept();
-                ClientHandler clientHandler = new PentagoClientHandler(client, this);
-                new Thread(clientHandler).start();
-                clients.add(clientHandler);
+                var clientHandler = new PentagoClientHandler(client, this);
+                // admitted and added before its thread starts, so that it cannot leave before it is added
+                clientHandler.admit();
+                addClient(clientHandler);
+                threadFactory.newThread(clientHandler).start();
             } catch (IOException e) {
                 break;
             }
@@ -51,9 +92,17 @@ public class PentagoServer implements NetworkServer {
     @Override
     public boolean start(int port) {
         try {
-            server = new ServerSocket(port);
-            serverThread = new Thread(this);
-            serverThread.start();
+            if (mode == ServerMode.SELECTOR) {
+                int processors = Runtime.getRuntime().availableProcessors();
+                transport = new SelectorTransport(this, Math.max(1, processors / 2), processors * 2);
+                transport.start(port);
+            } else {
+                server = new ServerSocket(port);
+                serverThread = new Thread(this);
+                serverThread.start();
+            }
+            matchmaker.start();
+            heartbeats.start();
             System.out.printf("Starting server on port %d...\n", getPort());
             return true;
         } catch (IOException e) {
@@ -71,10 +120,19 @@ public class PentagoServer implements NetworkServer {
     @Override
     public void stop() {
         try {
-            sessions.forEach(GameSession::close);
-            clients.forEach(ClientHandler::close);
-            server.close();
-            serverThread.join();
+            matchmaker.close();
+            heartbeats.close();
+            analyses.close();
+            sessions.getSessions().forEach(GameSession::close);
+            // the closed clients leave the server meanwhile
+            new ArrayList<>(clients).forEach(ClientHandler::close);
+            if (transport != null) {
+                transport.stop();
+                sessionExecutor.shutdown();
+            } else {
+                server.close();
+                serverThread.join();
+            }
         } catch (InterruptedException | IOException ignored) {
         } finally {
             System.out.println("Closing server...");
@@ -97,53 +155,73 @@ public class PentagoServer implements NetworkServer {
 
     /**
      * Join a client into the queue to play a pentago game. If the client is already in the queue, he/she
-     * leaves the queue instead. Also, the pentago session starts if the queue contains more than two clients.
+     * leaves the queue instead. The clients in the queue are paired by the matchmaker on its own thread,
+     * which then starts their pentago sessions.
      *
      * @param client client that wants to join/leave the queue to play a pentago game.
      */
-    public synchronized void joinQueue(ClientHandler client) {
-        if (playQueue.contains(client)) {
-            // leave the queue
-            playQueue.remove(client);
-        } else {
-            // join the queue
-            playQueue.add(client);
-
-            // start session if enough players
-            if (playQueue.size() >= 2) {
-                ClientHandler p1 = playQueue.get(0);
-                ClientHandler p2 = playQueue.get(1);
-                startSession(p1, p2);
-
-                // leave the queue
-                playQueue.remove(p1);
-                playQueue.remove(p2);
-            }
-        }
+    public void joinQueue(ClientHandler client) {
+        matchmaker.toggle(client);
     }
 
     /**
-     * Start a pentago session with provided clients. If one of the clients could not join the session,
-     * the session is not being started and clients remain in the queue.
+     * Start a pentago session with the clients paired by the matchmaker. A client may have left the server
+     * before the matchmaker has got its request to leave the queue, in which case the session is not being
+     * started and the client that is still online returns to the queue. The same happens to both clients
+     * if one of them could not join the session.
      *
-     * @param clients clients that are joining the session
+     * @param paired clients that are joining the session
      * @return true if the pentago session is successfully started
      */
-    private synchronized boolean startSession(ClientHandler... clients) {
-        GameSession session = new PentagoSession();
+    private synchronized boolean startSession(ClientHandler... paired) {
+        // the clients leave under the same monitor, so the online ones cannot leave meanwhile
+        if (!clients.containsAll(List.of(paired))) {
+            requeue(paired);
+            return false;
+        }
+
+        GameSession session = sessionExecutor != null ? new EventSession(sessionExecutor)
+                : new PentagoSession(threadFactory);
 
         // ask clients to join the session
-        for (ClientHandler client : clients) {
-            boolean isJoined = client.joinSession(session);
-            if (!isJoined) return false;
+        var players = new Player[paired.length];
+        for (int i = 0; i < paired.length; i++) {
+            boolean isJoined = paired[i].joinSession(session);
+            if (!isJoined) {
+                for (int j = 0; j < i; j++) paired[j].leaveSession();
+                requeue(paired);
+                return false;
+            }
+            players[i] = paired[i].getPlayer();
         }
 
-        // if everybody is joined start the session
+        // if everybody is joined start the session, which leaves the index once it is closed
+        sessions.add(session, players);
         session.start();
-        sessions.add(session);
         return true;
     }
 
+    /**
+     * Return the paired clients that are still online to the queue.
+     *
+     * @param paired clients whose session has not been started
+     */
+    private void requeue(ClientHandler... paired) {
+        for (ClientHandler client : paired) {
+            if (clients.contains(client)) matchmaker.join(client);
+        }
+    }
+
+    /**
+     * Add a client that has connected to the server.
+     *
+     * @param client connected client
+     */
+    public void addClient(ClientHandler client) {
+        clients.add(client);
+        heartbeats.watch(client);
+    }
+
     /**
      * Handle a client leaving the server.
      *
@@ -151,29 +229,59 @@ public class PentagoServer implements NetworkServer {
      */
     public synchronized void leave(ClientHandler client) {
         Player player = client.getPlayer();
-        for (GameSession session : sessions) {
-            if (session.isRunning() && session.hasPlayer(player)) {
-                session.disconnect(player);
-            }
+        GameSession session = sessions.get(player);
+        if (session != null && session.isRunning()) {
+            session.disconnect(player);
         }
         clients.remove(client);
-        playQueue.remove(client);
+        heartbeats.unwatch(client);
+        users.release(client.getUsername(), client);
+        matchmaker.leave(client);
     }
 
     /**
-     * Get an array of clients currently logged into the server.
+     * Claim the username for a client that logs in, unless another client uses it already.
+     *
+     * @param username username of the client
+     * @param client   client that logs in
+     * @return true if the client can log in with the username
+     */
+    public boolean claimUsername(String username, ClientHandler client) {
+        return users.claim(username, client);
+    }
+
+    /**
+     * Get an array of clients currently logged into the server, in the order of logging in.
+     * The array is shared by all callers, so it must not be modified.
      *
      * @return an array of clients currently logged into the server
      */
-    public synchronized String[] getOnlineUsers() {
-        List<String> usernames = new ArrayList<>();
-        for (ClientHandler client : clients) {
-            String username = client.getUsername();
-            if (username != null) {
-                usernames.add(username);
-            }
-        }
-        return usernames.toArray(new String[0]);
+    public String[] getOnlineUsers() {
+        return users.getUsernames();
+    }
+
+    public Matchmaker<ClientHandler> getMatchmaker() {
+        return matchmaker;
+    }
+
+    public AdmissionControl getAdmission() {
+        return admission;
+    }
+
+    public RateLimits getRateLimits() {
+        return rateLimits;
+    }
+
+    public HeartbeatMonitor getHeartbeats() {
+        return heartbeats;
+    }
+
+    public SessionIndex getSessions() {
+        return sessions;
+    }
+
+    public UserRegistry getUsers() {
+        return users;
     }
 
     /**
@@ -188,10 +296,23 @@ public class PentagoServer implements NetworkServer {
             if (session.isRunning()) {
                 session.disconnect(player);
             }
-            sessions.remove(session);
+            sessions.remove(session, player);
         }
     }
 
+    /**
+     * Rank the best moves on the board. The analyses are made by the analysis executor of the server,
+     * so the caller does not wait for the search, and are rejected if too many of them are waiting.
+     *
+     * @param board state of the board, which must not be changed until the analysis is done
+     * @param count maximal number of the ranked moves
+     * @return future of the ranked moves, failed with RejectedExecutionException if the server is busy
+     * @requires board != null && !board.isGameOver() && count > 0
+     */
+    public CompletableFuture<List<MoveAnalysis>> analyze(Board board, int count) {
+        return analyses.submit(board, count);
+    }
+
     /**
      * Get a server description.
      *
@@ -206,7 +327,11 @@ public class PentagoServer implements NetworkServer {
      */
     @Override
     public int getPort() {
-        return server.getLocalPort();
+        return transport != null ? transport.getPort() : server.getLocalPort();
+    }
+
+    public ServerMode getMode() {
+        return mode;
     }
 
     /**
@@ -0,0 +1,352 @@
+package server;
+
+import client.PentagoClientHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking transport of the server, in which a few event loop threads serve all connections.
+ * Each event loop waits for its connections on a selector, reads whatever has arrived and splits it into
+ * lines, and writes the queued messages once the connection can take them. Only the incomplete line of
+ * a connection is kept between the reads, so an idle connection costs little more than its channel.
+ * <p>
+ * The messages are handled by a separate pool of threads, since handling a message may take a while
+ * (e.g. waiting for the lock of the server), but the messages of each connection are still handled one at a time,
+ * in the order in which they have arrived, and the disconnect of the client is always handled last.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SelectorTransport {
+    public static final int MAX_LINE_LENGTH = 64 * 1024;
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private final PentagoServer server;
+    private final EventLoop[] loops;
+    private final ExecutorService handlers;
+    private final AtomicInteger connections = new AtomicInteger();
+    private ServerSocketChannel channel;
+    private int nextLoop;
+
+    /**
+     * Create a transport.
+     *
+     * @param server         server whose clients are served
+     * @param loopCount      number of the event loop threads
+     * @param handlerThreads number of the threads that handle the messages
+     * @requires server != null && loopCount > 0 && handlerThreads > 0
+     */
+    public SelectorTransport(PentagoServer server, int loopCount, int handlerThreads) {
+        this.server = server;
+        loops = new EventLoop[loopCount];
+        handlers = Executors.newFixedThreadPool(handlerThreads, runnable -> {
+            var thread = new Thread(runnable, "message-handler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start accepting the connections on the port.
+     *
+     * @param port server port, 0 for any free port
+     * @throws IOException if the port cannot be used
+     */
+    public void start(int port) throws IOException {
+        channel = ServerSocketChannel.open();
+        try {
+            channel.bind(new InetSocketAddress(port));
+            channel.configureBlocking(false);
+            for (int i = 0; i < loops.length; i++) loops[i] = new EventLoop(i);
+        } catch (IOException | RuntimeException e) {
+            for (EventLoop loop : loops) {
+                if (loop != null) loop.selector.close();
+            }
+            channel.close();
+            throw e;
+        }
+        // the first loop also accepts the connections
+        channel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        for (EventLoop loop : loops) loop.thread.start();
+    }
+
+    /**
+     * Stop accepting the connections and close all of them.
+     */
+    public void stop() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        for (EventLoop loop : loops) loop.close();
+        handlers.shutdownNow();
+    }
+
+    public int getPort() {
+        return channel.socket().getLocalPort();
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * Accept the pending connections and give them to the event loops in turns.
+     */
+    private void accept() throws IOException {
+        SocketChannel client;
+        while ((client = channel.accept()) != null) {
+            client.configureBlocking(false);
+            client.socket().setTcpNoDelay(true);
+            EventLoop loop = loops[nextLoop];
+            nextLoop = (nextLoop + 1) % loops.length;
+            SocketChannel accepted = client;
+            loop.execute(() -> loop.register(accepted));
+        }
+    }
+
+    /**
+     * Thread that serves its connections through a selector.
+     */
+    private class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private volatile boolean isRunning = true;
+
+        private EventLoop(int index) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this, "event-loop-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (isRunning) {
+                    selector.select();
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) task.run();
+
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        if (!key.isValid()) continue;
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        var connection = (NioConnection) key.attachment();
+                        if (key.isReadable()) connection.read(buffer);
+                        if (key.isValid() && key.isWritable()) connection.flush();
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException | ClosedSelectorException ignored) { // the transport has been stopped
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof NioConnection) ((NioConnection) key.attachment()).close();
+                }
+            }
+        }
+
+        /**
+         * Run the task in the event loop thread.
+         *
+         * @param task task that uses the selector or the channels of the loop
+         */
+        private void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        /**
+         * Start serving the accepted connection.
+         *
+         * @param client channel of the connection
+         */
+        private void register(SocketChannel client) {
+            try {
+                var connection = new NioConnection(client, this);
+                connection.key = client.register(selector, SelectionKey.OP_READ, connection);
+                connection.handler = new PentagoClientHandler(connection, server);
+                connection.handler.admit();
+                connections.incrementAndGet();
+                server.addClient(connection.handler);
+            } catch (IOException e) {
+                try {
+                    client.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+        private void close() {
+            isRunning = false;
+            selector.wakeup();
+            try {
+                thread.join();
+                selector.close();
+            } catch (InterruptedException | IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Connection served by an event loop. The messages are queued by any thread and written by the loop,
+     * which gathers all messages queued meanwhile into a single write.
+     */
+    private class NioConnection implements Connection {
+        private final SocketChannel channel;
+        private final EventLoop loop;
+        private final OutboundQueue outbound = new OutboundQueue(OutboundQueue.DEFAULT_CAPACITY,
+                SlowConsumerPolicy.DISCONNECT);
+        private final List<byte[]> batch = new ArrayList<>();
+        private final InboundQueue inbound = new InboundQueue(handlers, InboundQueue.DEFAULT_CAPACITY);
+        private final AtomicBoolean isClosed = new AtomicBoolean();
+        private volatile boolean isClosing;
+        private SelectionKey key;
+        private PentagoClientHandler handler;
+        private ByteArrayOutputStream partialLine;
+        private ByteBuffer[] pending;
+
+        private NioConnection(SocketChannel channel, EventLoop loop) {
+            this.channel = channel;
+            this.loop = loop;
+        }
+
+        /**
+         * Read whatever has arrived and hand over the complete lines to the client handler.
+         *
+         * @param buffer read buffer shared by the connections of the loop
+         */
+        private void read(ByteBuffer buffer) {
+            try {
+                int read;
+                while ((read = channel.read(buffer.clear())) > 0) {
+                    buffer.flip();
+                    int start = 0;
+                    for (int i = 0; i < read; i++) {
+                        if (buffer.get(i) != '\n') continue;
+                        receive(buffer.array(), start, i);
+                        if (isClosed.get()) return;
+                        start = i + 1;
+                    }
+                    if (start < read) {
+                        if (partialLine == null) partialLine = new ByteArrayOutputStream();
+                        partialLine.write(buffer.array(), start, read - start);
+                        if (partialLine.size() > MAX_LINE_LENGTH) {
+                            close();
+                            return;
+                        }
+                    }
+                }
+                if (read == -1) close();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        /**
+         * Complete the line with the given bytes and hand it over to the client handler. The connection
+         * is closed if the client sends the messages faster than they are handled.
+         */
+        private void receive(byte[] bytes, int start, int end) {
+            String line;
+            if (partialLine == null) {
+                line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+            } else {
+                partialLine.write(bytes, start, end - start);
+                line = partialLine.toString(StandardCharsets.UTF_8);
+                partialLine = null;
+            }
+            if (line.endsWith("\r")) line = line.substring(0, line.length() - 1);
+            String message = line;
+            if (!inbound.offer(() -> handler.receive(message))) close();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void send(String message) {
+            if (isClosed.get()) return;
+            if (!outbound.offer(message)) {
+                if (outbound.getPolicy() == SlowConsumerPolicy.DISCONNECT) close();
+                return;
+            }
+            if (outbound.startDraining()) loop.execute(this::flush);
+        }
+
+        /**
+         * Write the queued messages in batches until the connection cannot take more, in which case
+         * the rest of the batch is kept and the loop is asked to tell when it can.
+         */
+        private void flush() {
+            try {
+                do {
+                    while (pending != null || outbound.drainTo(batch, BUFFER_SIZE) > 0) {
+                        if (pending == null) {
+                            pending = new ByteBuffer[batch.size()];
+                            for (int i = 0; i < pending.length; i++) pending[i] = ByteBuffer.wrap(batch.get(i));
+                            batch.clear();
+                        }
+                        channel.write(pending);
+                        if (pending[pending.length - 1].hasRemaining()) {
+                            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                            return;
+                        }
+                        pending = null;
+                    }
+                    // a message may have been queued after the queue has been emptied
+                } while (outbound.stopDraining());
+                if (isClosing) {
+                    close();
+                    return;
+                }
+                key.interestOps(SelectionKey.OP_READ);
+            } catch (IOException | RuntimeException e) {
+                close();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void shutdown() {
+            isClosing = true;
+            if (outbound.startDraining()) loop.execute(this::flush);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void close() {
+            if (!isClosed.compareAndSet(false, true)) return;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            outbound.clear();
+            pending = null;
+            connections.decrementAndGet();
+            if (handler != null) inbound.close(handler::onDisconnect);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package server;
 
+import entity.strategy.StatisticsAggregator;
+import entity.strategy.search.TableSnapshot;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -13,7 +16,8 @@ import java.io.PrintWriter;
  */
 public class ServerApplication {
     public static void main(String[] args) throws IOException {
-        NetworkServer server = new PentagoServer("Pentago server");
+        NetworkServer server = new PentagoServer("Pentago server", ServerMode.fromProperty());
+        TableSnapshot.restore();
         var in = new BufferedReader(new InputStreamReader(System.in));
 
         while (true) {
@@ -33,8 +37,12 @@ public class ServerApplication {
                         case "ping":
                             server.ping();
                             break;
+                        case "stats":
+                            System.out.println(StatisticsAggregator.getShared());
+                            break;
                         case "quit":
                             server.stop();
+                            TableSnapshot.persist();
                             System.exit(0);
                         default:
                             System.out.println("Invalid operation");
@@ -52,6 +60,7 @@ public class ServerApplication {
     public static String getHint() {
         return "Usage: <operation> [...]\n\n" +
                 "ping           check the connection with currently online users\n" +
+                "stats          show the statistics of the analyses made on the server\n" +
                 "quit           stop the server\n\n" +
                 "Use 'help' for available options";
     }
@@ -0,0 +1,37 @@
+package server;
+
+/**
+ * Class that contains the ways in which the server handles its connections.
+ *
+ * @author Aliaksei Kouzel
+ */
+public enum ServerMode {
+    /**
+     * When every connection has its own thread that waits for the client messages.
+     */
+    BLOCKING,
+
+    /**
+     * When every connection and every game session has its own virtual thread (Java 21 or later).
+     */
+    VIRTUAL,
+
+    /**
+     * When a few event loop threads wait for the messages of all connections at once,
+     * and the game sessions play the received moves on a shared pool of threads.
+     */
+    SELECTOR;
+
+    public static final String PROPERTY = "pentago.server.mode";
+
+    /**
+     * Get the mode given by the 'pentago.server.mode' system property, e.g. 'selector'.
+     *
+     * @return server mode, BLOCKING if the property is not set
+     * @throws IllegalArgumentException if the property is not a valid mode
+     */
+    public static ServerMode fromProperty() {
+        String mode = System.getProperty(PROPERTY);
+        return mode == null || mode.isBlank() ? BLOCKING : valueOf(mode.trim().toUpperCase());
+    }
+}
@@ -31,6 +31,14 @@ public interface ServerProtocol {
      */
     Map<String, Object> process(String message, boolean toServer);
 
+    /**
+     * Get the type of a message without processing its args, e.g. to reject it cheaply.
+     *
+     * @param message message value
+     * @return message type, null if the type is unknown
+     */
+    MessageType typeOf(String message);
+
     /**
      * Get a string value of a server expansion.
      *
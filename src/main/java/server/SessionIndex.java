@@ -0,0 +1,131 @@
+package server;
+
+import entity.board.Board;
+import entity.board.Move;
+import entity.board.observer.BoardObserver;
+import entity.player.Player;
+import entity.session.GameSession;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Index of the active game sessions by their players. A session is removed from the index as soon as it is
+ * closed (e.g. the game is over or a player has disconnected), so the index only grows with the number of
+ * the games being played, not with the number of the games played since the server has started.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SessionIndex {
+    private final Map<Player, GameSession> sessionsByPlayer = new ConcurrentHashMap<>();
+    private final Set<GameSession> sessions = ConcurrentHashMap.newKeySet();
+    private final LongAdder reaped = new LongAdder();
+
+    /**
+     * Add the session with its players to the index. It must be added before it is started,
+     * so that it cannot be closed before it is watched.
+     *
+     * @param session session that is about to start
+     * @param players players of the session
+     * @requires session != null && players != null
+     */
+    public void add(GameSession session, Player... players) {
+        sessions.add(session);
+        for (Player player : players) {
+            sessionsByPlayer.put(player, session);
+        }
+        session.addObserver(new Reaper(session, players));
+    }
+
+    /**
+     * Get the active session of the player.
+     *
+     * @param player player of the session, may be null
+     * @return active session, null if the player is not playing
+     */
+    public GameSession get(Player player) {
+        return player == null ? null : sessionsByPlayer.get(player);
+    }
+
+    /**
+     * Remove the session with its players from the index.
+     *
+     * @param session removed session
+     * @param players players of the session
+     */
+    public void remove(GameSession session, Player... players) {
+        if (!sessions.remove(session)) return;
+        for (Player player : players) {
+            sessionsByPlayer.remove(player, session);
+        }
+        reaped.increment();
+    }
+
+    /**
+     * Get the active sessions.
+     *
+     * @return unmodifiable view of the active sessions
+     */
+    public Collection<GameSession> getSessions() {
+        return Collections.unmodifiableSet(sessions);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public int getPlayers() {
+        return sessionsByPlayer.size();
+    }
+
+    public long getReaped() {
+        return reaped.sum();
+    }
+
+    /**
+     * Observer that removes the session from the index once it is closed.
+     */
+    private class Reaper implements BoardObserver {
+        private final GameSession session;
+        private final Player[] players;
+
+        private Reaper(GameSession session, Player[] players) {
+            this.session = session;
+            this.players = players;
+        }
+
+        @Override
+        public void onClose() {
+            remove(session, players);
+        }
+
+        @Override
+        public void onMove(Move move) {
+        }
+
+        @Override
+        public void onWinner(String player) {
+        }
+
+        @Override
+        public void onDisconnect(String player) {
+        }
+
+        @Override
+        public void onDraw() {
+        }
+
+        @Override
+        public void onStart(String... players) {
+        }
+
+        @Override
+        public Board getBoardCopy() {
+            return null;
+        }
+    }
+}
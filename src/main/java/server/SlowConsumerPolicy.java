@@ -0,0 +1,19 @@
+package server;
+
+/**
+ * Class that contains the ways in which a connection handles a client that does not read its messages
+ * as fast as they are sent, i.e. when the outbound queue of the connection is full.
+ *
+ * @author Aliaksei Kouzel
+ */
+public enum SlowConsumerPolicy {
+    /**
+     * When the messages that do not fit into the queue are dropped, e.g. for a client that only watches.
+     */
+    DROP,
+
+    /**
+     * When the client is disconnected, e.g. for a player whose game cannot go on without the messages.
+     */
+    DISCONNECT
+}
@@ -0,0 +1,128 @@
+package server;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Blocking connection over a socket, whose messages are read by a thread of the client handler.
+ * The messages are not written by the thread that sends them (e.g. a session thread), but queued and written
+ * by a shared writer thread, which writes all messages that have been queued meanwhile at once.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SocketConnection implements Connection {
+    private static final int BATCH_SIZE = 16 * 1024;
+    private static final ExecutorService WRITERS = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "socket-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Socket socket;
+    private final BufferedReader in;
+    private final OutputStream out;
+    private final OutboundQueue outbound;
+    private volatile boolean isClosing;
+
+    public SocketConnection(Socket socket) throws IOException {
+        this(socket, OutboundQueue.DEFAULT_CAPACITY, SlowConsumerPolicy.DISCONNECT);
+    }
+
+    /**
+     * Create a connection over the socket.
+     *
+     * @param socket   connected socket
+     * @param capacity maximal number of the messages waiting to be written
+     * @param policy   what to do once the client does not keep up with the messages
+     * @throws IOException if the socket streams cannot be opened
+     */
+    public SocketConnection(Socket socket, int capacity, SlowConsumerPolicy policy) throws IOException {
+        this.socket = socket;
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new BufferedOutputStream(socket.getOutputStream(), BATCH_SIZE);
+        outbound = new OutboundQueue(capacity, policy);
+    }
+
+    /**
+     * Wait for the next message of the client.
+     *
+     * @return message, null if the client has disconnected
+     * @throws IOException if the connection has failed
+     */
+    public String readLine() throws IOException {
+        return in.readLine();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The message is only queued, so the caller never waits for the client.
+     */
+    @Override
+    public void send(String message) {
+        if (socket.isClosed()) return;
+        if (!outbound.offer(message)) {
+            if (outbound.getPolicy() == SlowConsumerPolicy.DISCONNECT) close();
+            return;
+        }
+        if (outbound.startDraining()) WRITERS.execute(this::flush);
+    }
+
+    /**
+     * Write the queued messages in batches, flushing the socket once per batch.
+     */
+    private void flush() {
+        List<byte[]> batch = new ArrayList<>();
+        try {
+            do {
+                while (outbound.drainTo(batch, BATCH_SIZE) > 0) {
+                    for (byte[] message : batch) out.write(message);
+                    out.flush();
+                    batch.clear();
+                }
+            } while (outbound.stopDraining());
+            if (isClosing) close();
+        } catch (IOException e) {
+            close();
+            outbound.stopDraining();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        isClosing = true;
+        if (outbound.startDraining()) WRITERS.execute(this::flush);
+    }
+
+    public OutboundQueue getOutbound() {
+        return outbound;
+    }
+
+    public boolean isClosed() {
+        return socket.isClosed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            /* Should not be thrown */
+        }
+        outbound.clear();
+    }
+}
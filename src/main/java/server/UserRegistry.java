@@ -0,0 +1,103 @@
+package server;
+
+import client.ClientHandler;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registry of the clients logged into the server by their usernames. A username is claimed atomically,
+ * so two clients cannot log in with the same one, and it is looked up without walking all clients.
+ * <p>
+ * The usernames are also kept in an array in the order of logging in, which is copied on every login and
+ * logout under a lock. The array is never modified once it has been published, so the clients can list
+ * and look up the users without taking any lock.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class UserRegistry {
+    private final Map<String, ClientHandler> users = new ConcurrentHashMap<>();
+    private final Lock snapshotLock = new ReentrantLock();
+    private volatile String[] snapshot = new String[0];
+
+    /**
+     * Claim the username for the client, unless it is claimed already.
+     *
+     * @param username claimed username
+     * @param client   client that logs in with the username
+     * @return true if the username has been claimed by the client
+     * @requires username != null && client != null
+     */
+    public boolean claim(String username, ClientHandler client) {
+        snapshotLock.lock();
+        try {
+            if (users.putIfAbsent(username, client) != null) return false;
+            String[] usernames = Arrays.copyOf(snapshot, snapshot.length + 1);
+            usernames[snapshot.length] = username;
+            snapshot = usernames;
+            return true;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Release the username if it is claimed by the client, e.g. when the client leaves the server.
+     *
+     * @param username released username, null if the client has not logged in
+     * @param client   client that has claimed the username
+     * @return true if the username has been released
+     */
+    public boolean release(String username, ClientHandler client) {
+        if (username == null) return false;
+        snapshotLock.lock();
+        try {
+            if (!users.remove(username, client)) return false;
+            String[] usernames = new String[snapshot.length - 1];
+            int i = 0;
+            for (String user : snapshot) {
+                if (!user.equals(username)) usernames[i++] = user;
+            }
+            snapshot = usernames;
+            return true;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Get the client that has claimed the username.
+     *
+     * @param username username of the client
+     * @return client, null if nobody has claimed the username
+     */
+    public ClientHandler get(String username) {
+        return users.get(username);
+    }
+
+    /**
+     * Determine if the username has been claimed.
+     *
+     * @param username checked username
+     * @return true if the username has been claimed
+     */
+    public boolean contains(String username) {
+        return users.containsKey(username);
+    }
+
+    /**
+     * Get the usernames in the order of logging in. The returned array is shared, so it must not be modified.
+     *
+     * @return claimed usernames
+     */
+    public String[] getUsernames() {
+        return snapshot;
+    }
+
+    public int size() {
+        return users.size();
+    }
+}
@@ -0,0 +1,51 @@
+package server;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Class that creates virtual threads if the running Java supports them (Java 21 or later). The server is still
+ * compiled for Java 11, so the virtual threads are looked up at runtime, and the regular threads are created
+ * on the older versions instead.
+ *
+ * @author Aliaksei Kouzel
+ */
+public final class VirtualThreads {
+    private static final ThreadFactory FACTORY = createFactory();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Determine if the running Java supports the virtual threads.
+     *
+     * @return true if the created threads are virtual
+     */
+    public static boolean isSupported() {
+        return FACTORY != null;
+    }
+
+    /**
+     * Get the factory of the virtual threads, or of the regular threads if they are not supported.
+     *
+     * @return thread factory
+     */
+    public static ThreadFactory getFactory() {
+        return FACTORY != null ? FACTORY : Thread::new;
+    }
+
+    /**
+     * Create the factory with Thread.ofVirtual().factory().
+     *
+     * @return factory of the virtual threads, null if they are not supported
+     */
+    private static ThreadFactory createFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            // the builder itself is not public, so its method is called through the public interface
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package server.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cap on the number of the clients that the server serves at once. A client is admitted once its connection
+ * has been accepted, and released once it has left, so that the clients above the cap are told that the server
+ * is full rather than slowing down the games of everybody else.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class AdmissionControl {
+    public static final String PROPERTY = "pentago.server.max-clients";
+    public static final int DEFAULT_MAX_CLIENTS = 10_000;
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int maxClients;
+
+    /**
+     * Create an admission control.
+     *
+     * @param maxClients maximal number of the clients served at once
+     * @requires maxClients > 0
+     */
+    public AdmissionControl(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Create an admission control whose cap is given by the 'pentago.server.max-clients' system property.
+     *
+     * @return admission control
+     * @throws IllegalArgumentException if the property is not a valid cap
+     */
+    public static AdmissionControl fromProperty() {
+        int maxClients = Integer.getInteger(PROPERTY, DEFAULT_MAX_CLIENTS);
+        if (maxClients <= 0) throw new IllegalArgumentException("Invalid maximal number of clients: " + maxClients);
+        return new AdmissionControl(maxClients);
+    }
+
+    /**
+     * Admit a client, unless the server is full.
+     *
+     * @return true if the client has been admitted, and has to be released once it leaves
+     */
+    public boolean tryAdmit() {
+        while (true) {
+            int current = admitted.get();
+            if (current >= maxClients) {
+                rejected.increment();
+                return false;
+            }
+            if (admitted.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    /**
+     * Release an admitted client that has left.
+     */
+    public void release() {
+        admitted.decrementAndGet();
+    }
+
+    public int getAdmitted() {
+        return admitted.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+}
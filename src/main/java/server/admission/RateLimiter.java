@@ -0,0 +1,49 @@
+package server.admission;
+
+import entity.MessageType;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate limiter of a single connection, with a token bucket for every limited message type. It is checked
+ * before the message is handled, so that a flooding client is turned away without taking any lock.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class RateLimiter {
+    private final TokenBucket[] buckets = new TokenBucket[MessageType.values().length];
+    private final TokenBucket invalidBucket;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Create a rate limiter whose buckets are full.
+     *
+     * @param limits limits of the message types
+     * @requires limits != null
+     */
+    public RateLimiter(RateLimits limits) {
+        for (MessageType type : MessageType.values()) {
+            RateLimits.Limit limit = limits.getLimit(type);
+            if (limit != null) buckets[type.ordinal()] = limit.newBucket();
+        }
+        RateLimits.Limit invalidLimit = limits.getInvalidLimit();
+        invalidBucket = invalidLimit == null ? null : invalidLimit.newBucket();
+    }
+
+    /**
+     * Check whether a message of the type is allowed now, taking a token from its bucket.
+     *
+     * @param type message type, null if the message is not valid
+     * @return true if the message is allowed
+     */
+    public boolean tryAcquire(MessageType type) {
+        TokenBucket bucket = type == null ? invalidBucket : buckets[type.ordinal()];
+        if (bucket == null || bucket.tryAcquire()) return true;
+        rejected.increment();
+        return false;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,152 @@
+package server.admission;
+
+import entity.MessageType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Limits on how often a client may send the messages of each type, shared by all connections of the server.
+ * Each limit is a rate per second and a burst, i.e. the number of the messages allowed at once. The messages
+ * that the client is not supposed to send (e.g. unknown or server-only ones) share a limit of their own,
+ * while the messages without a limit (e.g. 'quit') are always allowed.
+ * <p>
+ * The limits can be changed by the system properties, e.g.
+ * <pre>
+ * -Dpentago.ratelimit.list_users=2/10     2 'list' messages per second, up to 10 at once
+ * -Dpentago.ratelimit.invalid=5/10        messages of unknown types
+ * </pre>
+ *
+ * @author Aliaksei Kouzel
+ */
+public class RateLimits {
+    public static final String PROPERTY = "pentago.ratelimit";
+    private static final String INVALID = "invalid";
+    private final Map<MessageType, Limit> limits = new EnumMap<>(MessageType.class);
+    private Limit invalidLimit = new Limit(5, 10);
+
+    /**
+     * Create the default limits, which allow a human to play without noticing them.
+     */
+    public RateLimits() {
+        limits.put(MessageType.INIT, new Limit(1, 3));
+        limits.put(MessageType.LOGIN, new Limit(2, 10));
+        limits.put(MessageType.LIST_USERS, new Limit(2, 10));
+        limits.put(MessageType.JOIN_QUEUE, new Limit(2, 10));
+        limits.put(MessageType.MAKE_MOVE, new Limit(10, 20));
+        limits.put(MessageType.ANALYSIS, new Limit(1, 5));
+        limits.put(MessageType.PING, new Limit(2, 5));
+        limits.put(MessageType.PONG, new Limit(2, 5));
+        limits.put(MessageType.ERROR, new Limit(5, 10));
+    }
+
+    /**
+     * Create the default limits, changed by the 'pentago.ratelimit.{type}' system properties, where the type
+     * is the name of the message type in lower case or 'invalid', and the value is 'rate/burst' or 'none'.
+     *
+     * @return rate limits
+     * @throws IllegalArgumentException if a property is not a valid limit
+     */
+    public static RateLimits fromProperties() {
+        var rateLimits = new RateLimits();
+        for (MessageType type : MessageType.values()) {
+            String value = System.getProperty(PROPERTY + "." + type.name().toLowerCase());
+            if (value != null) rateLimits.setLimit(type, Limit.parse(value));
+        }
+        String invalid = System.getProperty(PROPERTY + "." + INVALID);
+        if (invalid != null) rateLimits.setInvalidLimit(Limit.parse(invalid));
+        return rateLimits;
+    }
+
+    /**
+     * Change the limit of the messages of the type. It only applies to the connections made afterwards.
+     *
+     * @param type  message type
+     * @param limit limit of the messages, null to allow all of them
+     */
+    public void setLimit(MessageType type, Limit limit) {
+        if (limit == null) {
+            limits.remove(type);
+        } else {
+            limits.put(type, limit);
+        }
+    }
+
+    /**
+     * Get the limit of the messages of the type.
+     *
+     * @param type message type
+     * @return limit of the messages, null if all of them are allowed
+     */
+    public Limit getLimit(MessageType type) {
+        return limits.get(type);
+    }
+
+    /**
+     * Change the limit of the messages that the client is not supposed to send. It only applies
+     * to the connections made afterwards.
+     *
+     * @param limit limit of the messages, null to allow all of them
+     */
+    public void setInvalidLimit(Limit limit) {
+        invalidLimit = limit;
+    }
+
+    public Limit getInvalidLimit() {
+        return invalidLimit;
+    }
+
+    /**
+     * Limit of the messages of a type, i.e. the rate at which they are allowed and their burst.
+     */
+    public static class Limit {
+        private final double rate;
+        private final int burst;
+
+        /**
+         * Create a limit.
+         *
+         * @param rate  number of the messages allowed per second
+         * @param burst number of the messages allowed at once
+         * @requires rate > 0 && burst > 0
+         */
+        public Limit(double rate, int burst) {
+            this.rate = rate;
+            this.burst = burst;
+        }
+
+        /**
+         * Parse a limit written as 'rate/burst', e.g. '2/10', or 'none'.
+         *
+         * @param value written limit
+         * @return parsed limit, null if the value is 'none'
+         * @throws IllegalArgumentException if the value is not a valid limit
+         */
+        public static Limit parse(String value) {
+            if (value.trim().equalsIgnoreCase("none")) return null;
+            String[] parts = value.trim().split("/");
+            if (parts.length != 2) throw new IllegalArgumentException("Invalid rate limit: " + value);
+            double rate = Double.parseDouble(parts[0]);
+            int burst = Integer.parseInt(parts[1]);
+            if (!(rate > 0) || burst <= 0) throw new IllegalArgumentException("Invalid rate limit: " + value);
+            return new Limit(rate, burst);
+        }
+
+        /**
+         * Create a full bucket with the limit.
+         *
+         * @return token bucket
+         */
+        public TokenBucket newBucket() {
+            return new TokenBucket(rate, burst);
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+    }
+}
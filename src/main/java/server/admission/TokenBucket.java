@@ -0,0 +1,67 @@
+package server.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, which is refilled at a constant rate up to its capacity. Rather than the number of
+ * the tokens, it keeps the time at which the bucket would be full again (i.e. the generic cell rate algorithm),
+ * so that taking a token is a single compare-and-set, and an idle bucket takes no updates to refill.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class TokenBucket {
+    private final long refillNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullTime = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Create a bucket that is full.
+     *
+     * @param rate     number of the tokens added per second
+     * @param capacity maximal number of the tokens, i.e. the number of the requests allowed at once
+     * @requires rate > 0 && capacity > 0
+     */
+    public TokenBucket(double rate, int capacity) {
+        refillNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+        capacityNanos = refillNanos * capacity;
+    }
+
+    /**
+     * Take a token, if there is one.
+     *
+     * @return true if the token has been taken
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Take a token at the given time, if there is one.
+     *
+     * @param now current time, as given by System.nanoTime()
+     * @return true if the token has been taken
+     */
+    public boolean tryAcquire(long now) {
+        while (true) {
+            long current = fullTime.get();
+            // a bucket that has been full for a while is just full
+            long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long next = base + refillNanos;
+            if (next - now > capacityNanos) return false;
+            if (fullTime.compareAndSet(current, next)) return true;
+        }
+    }
+
+    /**
+     * Get the number of the tokens at the given time.
+     *
+     * @param now current time, as given by System.nanoTime()
+     * @return number of the whole tokens in the bucket
+     */
+    public int getTokens(long now) {
+        long current = fullTime.get();
+        long empty = current == Long.MIN_VALUE || current - now < 0 ? 0 : current - now;
+        return (int) ((capacityNanos - empty) / refillNanos);
+    }
+}
@@ -0,0 +1,150 @@
+package server.heartbeat;
+
+import client.ClientHandler;
+import entity.MessageType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Heartbeat of a single connection. It is either waiting to send the next ping or waiting for the pong
+ * of the last one, and keeps exactly one timeout on the timer wheel for whichever comes next. If the pong
+ * does not arrive before its deadline, the connection is closed.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class Heartbeat {
+    private final ClientHandler client;
+    private final HeartbeatMonitor monitor;
+    private final RttStatistics rtt = new RttStatistics();
+    private final Lock lock = new ReentrantLock();
+    private TimerWheel.Timeout timeout;
+    private long pingSent;
+    private boolean isManual;
+    private boolean isClosed;
+
+    /**
+     * Create a heartbeat.
+     *
+     * @param client  client whose connection is checked
+     * @param monitor monitor that schedules the heartbeat
+     * @requires client != null && monitor != null
+     */
+    Heartbeat(ClientHandler client, HeartbeatMonitor monitor) {
+        this.client = client;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Send the next ping after the interval, if the heartbeats are enabled.
+     *
+     * @param delay delay of the ping in nanoseconds
+     */
+    void schedulePing(long delay) {
+        lock.lock();
+        try {
+            if (isClosed || !monitor.isEnabled()) return;
+            if (timeout != null) timeout.cancel();
+            timeout = monitor.getTimer().schedule(() -> ping(false), Math.max(0, delay), TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Send a ping and wait for its pong until the deadline, unless a ping is already waiting for its pong.
+     *
+     * @param isManual true if the ping has been requested by the operator of the server
+     * @return true if the ping has been sent
+     */
+    boolean ping(boolean isManual) {
+        lock.lock();
+        try {
+            if (isClosed || pingSent != 0) return false;
+            if (timeout != null) timeout.cancel();
+            pingSent = System.nanoTime();
+            this.isManual = isManual;
+            timeout = monitor.isEnabled()
+                    ? monitor.getTimer().schedule(this::expire, monitor.getTimeoutNanos(), TimeUnit.NANOSECONDS)
+                    : null;
+        } finally {
+            lock.unlock();
+        }
+        client.sendMessage(MessageType.PING);
+        return true;
+    }
+
+    /**
+     * Record the round-trip time of the last ping, and schedule the next one.
+     *
+     * @return round-trip time in nanoseconds if the ping has been requested by the operator, -1 otherwise
+     */
+    long onPong() {
+        long elapsed;
+        boolean wasManual;
+        lock.lock();
+        try {
+            if (pingSent == 0) return -1;
+            elapsed = System.nanoTime() - pingSent;
+            wasManual = isManual;
+            pingSent = 0;
+            rtt.record(elapsed);
+            if (timeout != null) timeout.cancel();
+            timeout = null;
+        } finally {
+            lock.unlock();
+        }
+        // the pings are sent once per interval, however long their pongs take
+        schedulePing(monitor.getIntervalNanos() - elapsed);
+        return wasManual ? elapsed : -1;
+    }
+
+    /**
+     * Close the connection if the pong of the last ping has not arrived.
+     */
+    private void expire() {
+        lock.lock();
+        try {
+            if (isClosed || pingSent == 0) return;
+            isClosed = true;
+            timeout = null;
+        } finally {
+            lock.unlock();
+        }
+        monitor.onExpired();
+        client.close();
+    }
+
+    /**
+     * Stop the heartbeat, e.g. once the client has left the server.
+     */
+    void close() {
+        lock.lock();
+        try {
+            isClosed = true;
+            if (timeout != null) timeout.cancel();
+            timeout = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check whether a ping is waiting for its pong.
+     *
+     * @return true if a ping has been sent, but its pong has not arrived
+     */
+    public boolean isWaiting() {
+        lock.lock();
+        try {
+            return pingSent != 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RttStatistics getRtt() {
+        return rtt;
+    }
+}
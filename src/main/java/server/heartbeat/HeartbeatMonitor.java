@@ -0,0 +1,174 @@
+package server.heartbeat;
+
+import client.ClientHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monitor that checks the connections of the server by sending them pings once per interval. A connection
+ * that does not respond with a pong before the timeout is closed, after which its client leaves the server as
+ * it would after disconnecting. All heartbeats share a single timer wheel, so that the pings and their deadlines
+ * of many connections cost neither a thread nor a scan of all connections.
+ * <p>
+ * The heartbeats are configured by the system properties, e.g.
+ * <pre>
+ * -Dpentago.heartbeat.interval=15000   milliseconds between the pings, 0 to only send them manually
+ * -Dpentago.heartbeat.timeout=10000    milliseconds in which the pong has to arrive
+ * </pre>
+ *
+ * @author Aliaksei Kouzel
+ */
+public class HeartbeatMonitor {
+    public static final String PROPERTY = "pentago.heartbeat";
+    public static final long DEFAULT_INTERVAL = 15_000;
+    public static final long DEFAULT_TIMEOUT = 10_000;
+    private static final long TICK_MILLIS = 100;
+    private static final int BUCKET_COUNT = 512;
+    private final TimerWheel timer = new TimerWheel(TICK_MILLIS, TimeUnit.MILLISECONDS, BUCKET_COUNT);
+    private final Map<ClientHandler, Heartbeat> heartbeats = new ConcurrentHashMap<>();
+    private final LongAdder expired = new LongAdder();
+    private volatile long intervalNanos;
+    private volatile long timeoutNanos;
+
+    /**
+     * Create a heartbeat monitor.
+     *
+     * @param interval time between the pings, 0 to disable the heartbeats
+     * @param timeout  time in which the pong has to arrive
+     * @param unit     unit of the times
+     * @requires interval >= 0 && timeout > 0
+     */
+    public HeartbeatMonitor(long interval, long timeout, TimeUnit unit) {
+        configure(interval, timeout, unit);
+    }
+
+    /**
+     * Create a heartbeat monitor configured by the 'pentago.heartbeat.interval' and 'pentago.heartbeat.timeout'
+     * system properties in milliseconds.
+     *
+     * @return heartbeat monitor
+     * @throws IllegalArgumentException if the properties are not valid
+     */
+    public static HeartbeatMonitor fromProperties() {
+        long interval = Long.getLong(PROPERTY + ".interval", DEFAULT_INTERVAL);
+        long timeout = Long.getLong(PROPERTY + ".timeout", DEFAULT_TIMEOUT);
+        if (interval < 0 || timeout <= 0) {
+            throw new IllegalArgumentException("Invalid heartbeat interval or timeout: " + interval + ", " + timeout);
+        }
+        return new HeartbeatMonitor(interval, timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Change the times of the heartbeats. The connections that are already watched take the new interval
+     * after their next pong.
+     *
+     * @param interval time between the pings, 0 to disable the heartbeats
+     * @param timeout  time in which the pong has to arrive
+     * @param unit     unit of the times
+     * @requires interval >= 0 && timeout > 0
+     */
+    public void configure(long interval, long timeout, TimeUnit unit) {
+        intervalNanos = unit.toNanos(interval);
+        timeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * Start the timer of the heartbeats.
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * Stop the timer of the heartbeats, after which no connection is closed by the monitor.
+     */
+    public void close() {
+        timer.close();
+    }
+
+    /**
+     * Start checking the connection of the client.
+     *
+     * @param client connected client
+     */
+    public void watch(ClientHandler client) {
+        var heartbeat = new Heartbeat(client, this);
+        if (heartbeats.putIfAbsent(client, heartbeat) == null) heartbeat.schedulePing(intervalNanos);
+    }
+
+    /**
+     * Stop checking the connection of the client.
+     *
+     * @param client client that has left the server
+     */
+    public void unwatch(ClientHandler client) {
+        Heartbeat heartbeat = heartbeats.remove(client);
+        if (heartbeat != null) heartbeat.close();
+    }
+
+    /**
+     * Send a ping to the client right away, e.g. when requested by the operator of the server.
+     *
+     * @param client watched client
+     * @return true if the ping has been sent, false if the last ping is still waiting for its pong
+     */
+    public boolean ping(ClientHandler client) {
+        Heartbeat heartbeat = heartbeats.get(client);
+        return heartbeat != null && heartbeat.ping(true);
+    }
+
+    /**
+     * Handle a pong sent by the client.
+     *
+     * @param client watched client
+     * @return round-trip time in nanoseconds if the ping has been sent by {@link #ping(ClientHandler)}, -1 otherwise
+     */
+    public long onPong(ClientHandler client) {
+        Heartbeat heartbeat = heartbeats.get(client);
+        return heartbeat == null ? -1 : heartbeat.onPong();
+    }
+
+    /**
+     * Get the heartbeat of the client.
+     *
+     * @param client watched client
+     * @return heartbeat of the client, null if it is not watched
+     */
+    public Heartbeat get(ClientHandler client) {
+        return heartbeats.get(client);
+    }
+
+    /**
+     * Count a connection that has been closed for not responding in time.
+     */
+    void onExpired() {
+        expired.increment();
+    }
+
+    boolean isEnabled() {
+        return intervalNanos > 0;
+    }
+
+    TimerWheel getTimer() {
+        return timer;
+    }
+
+    long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    public int getWatched() {
+        return heartbeats.size();
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+}
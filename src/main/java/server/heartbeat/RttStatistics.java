@@ -0,0 +1,92 @@
+package server.heartbeat;
+
+/**
+ * Round-trip times of a connection, measured from sending a ping until receiving its pong. Besides the extremes,
+ * it keeps the smoothed round-trip time and its variation in the same way as TCP does, i.e. as moving averages
+ * with the weights of 1/8 and 1/4. The times are recorded by one thread at a time, but may be read by any thread.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class RttStatistics {
+    private volatile long count;
+    private volatile long last;
+    private volatile long min = Long.MAX_VALUE;
+    private volatile long max;
+    private volatile double smoothed;
+    private volatile double variation;
+
+    /**
+     * Record a round-trip time.
+     *
+     * @param nanos round-trip time in nanoseconds
+     * @requires nanos >= 0
+     */
+    public void record(long nanos) {
+        if (count == 0) {
+            smoothed = nanos;
+            variation = nanos / 2.0;
+        } else {
+            variation = 0.75 * variation + 0.25 * Math.abs(smoothed - nanos);
+            smoothed = 0.875 * smoothed + 0.125 * nanos;
+        }
+        last = nanos;
+        min = Math.min(min, nanos);
+        max = Math.max(max, nanos);
+        count = count + 1;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the last round-trip time.
+     *
+     * @return round-trip time in milliseconds, 0 if none has been recorded
+     */
+    public double getLast() {
+        return last / 1e6;
+    }
+
+    /**
+     * Get the shortest round-trip time.
+     *
+     * @return round-trip time in milliseconds, 0 if none has been recorded
+     */
+    public double getMin() {
+        return count == 0 ? 0 : min / 1e6;
+    }
+
+    /**
+     * Get the longest round-trip time.
+     *
+     * @return round-trip time in milliseconds, 0 if none has been recorded
+     */
+    public double getMax() {
+        return max / 1e6;
+    }
+
+    /**
+     * Get the smoothed round-trip time, in which the recent times weigh more.
+     *
+     * @return round-trip time in milliseconds, 0 if none has been recorded
+     */
+    public double getSmoothed() {
+        return smoothed / 1e6;
+    }
+
+    /**
+     * Get the smoothed deviation of the round-trip times from the smoothed round-trip time.
+     *
+     * @return deviation in milliseconds, 0 if none has been recorded
+     */
+    public double getVariation() {
+        return variation / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rtt: last %.2f ms, min %.2f ms, max %.2f ms, smoothed %.2f ms +/- %.2f ms (%d pings)",
+                getLast(), getMin(), getMax(), getSmoothed(), getVariation(), count);
+    }
+}
@@ -0,0 +1,251 @@
+package server.heartbeat;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel that runs the scheduled tasks on its own thread. The time is divided into ticks, and every
+ * timeout is put into the bucket of the tick in which it expires, modulo the number of the buckets. On every tick,
+ * the thread only visits a single bucket, so scheduling and cancelling take constant time however many timeouts
+ * are pending, at the cost of running the tasks up to a tick late.
+ * <p>
+ * The timeouts are scheduled and cancelled through lock-free queues, and the buckets are only touched by the
+ * timer thread. The tasks are run by the timer thread as well, so they must not take long (e.g. sending a message).
+ *
+ * @author Aliaksei Kouzel
+ */
+public class TimerWheel {
+    private final Bucket[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder expired = new LongAdder();
+    private final long startTime = System.nanoTime();
+    private volatile boolean isRunning;
+    private Thread thread;
+
+    /**
+     * Create a timer wheel.
+     *
+     * @param tick        duration of a tick
+     * @param unit        unit of the tick duration
+     * @param bucketCount number of the buckets, rounded up to a power of two
+     * @requires tick > 0 && bucketCount > 0
+     */
+    public TimerWheel(long tick, TimeUnit unit, int bucketCount) {
+        int size = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) buckets[i] = new Bucket();
+        mask = size - 1;
+        tickNanos = unit.toNanos(tick);
+    }
+
+    /**
+     * Start the timer thread.
+     */
+    public synchronized void start() {
+        if (isRunning) return;
+        isRunning = true;
+        thread = new Thread(this::run, "timer-wheel");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop the timer thread. The pending timeouts never expire.
+     */
+    public synchronized void close() {
+        if (!isRunning) return;
+        isRunning = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedule the task to run once the delay has passed.
+     *
+     * @param task  task that is run by the timer thread
+     * @param delay delay of the task
+     * @param unit  unit of the delay
+     * @return timeout that can be cancelled
+     * @requires task != null && delay >= 0
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        var timeout = new Timeout(task, System.nanoTime() - startTime + unit.toNanos(delay));
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Get the number of the timeouts that have neither expired nor been cancelled.
+     *
+     * @return number of the pending timeouts
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    /**
+     * Expire the timeouts of every tick until the timer is closed.
+     */
+    private void run() {
+        long tick = 0;
+        while (isRunning) {
+            long tickEnd = (tick + 1) * tickNanos;
+            long now;
+            while ((now = System.nanoTime() - startTime) < tickEnd && isRunning) {
+                LockSupport.parkNanos(this, tickEnd - now);
+            }
+            removeCancelled();
+            addScheduled(tick);
+            expire(buckets[(int) tick & mask], tickEnd);
+            tick++;
+        }
+    }
+
+    /**
+     * Remove the cancelled timeouts from their buckets.
+     */
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) timeout.bucket.remove(timeout);
+        }
+    }
+
+    /**
+     * Put the newly scheduled timeouts into the buckets of their ticks. The timeouts that should have
+     * expired already are put into the bucket of the current tick.
+     *
+     * @param tick current tick
+     */
+    private void addScheduled(long tick) {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state.get() != Timeout.PENDING) continue;
+            long expiryTick = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.rounds = (expiryTick - tick) / buckets.length;
+            buckets[(int) expiryTick & mask].add(timeout);
+        }
+    }
+
+    /**
+     * Run the tasks of the timeouts in the bucket that expire before the end of the tick, and count
+     * down the rounds of the rest of them.
+     *
+     * @param bucket  bucket of the current tick
+     * @param tickEnd end of the current tick
+     */
+    private void expire(Bucket bucket, long tickEnd) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.rounds <= 0 && timeout.deadline <= tickEnd) {
+                bucket.remove(timeout);
+                if (timeout.state.compareAndSet(Timeout.PENDING, Timeout.EXPIRED)) {
+                    pending.decrementAndGet();
+                    expired.increment();
+                    try {
+                        timeout.task.run();
+                    } catch (RuntimeException e) {
+                        System.out.println("Failed to run a timer task: " + e);
+                    }
+                }
+            } else {
+                timeout.rounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Task scheduled on the timer wheel.
+     */
+    public class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private final Runnable task;
+        private final long deadline;
+        private long rounds;
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the timeout, so that its task is never run.
+         *
+         * @return true if the timeout has been cancelled, false if it has expired or been cancelled before
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) return false;
+            pending.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts that expire in the same tick of some round.
+     */
+    private static class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.previous = tail;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.previous == null) {
+                head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package server.matchmaking;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Policy that pairs the clients in the order of joining the queue, regardless of their ratings.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class FifoPolicy implements PairingPolicy {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> void pair(List<Ticket<T>> waiting, long now, BiConsumer<Ticket<T>, Ticket<T>> pairs) {
+        for (int i = 0; i + 1 < waiting.size(); i += 2) {
+            pairs.accept(waiting.get(i), waiting.get(i + 1));
+        }
+    }
+}
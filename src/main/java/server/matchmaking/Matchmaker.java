@@ -0,0 +1,233 @@
+package server.matchmaking;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * Matchmaking queue that pairs the waiting clients on its own thread. The clients join and leave the queue
+ * through a lock-free queue of requests, so they never wait for the matchmaking. The thread takes all requests
+ * that have arrived since its last round, pairs the waiting clients by the policy and reports every pair.
+ * <p>
+ * The waiting clients are only touched by the matchmaking thread, so they need no locks, and joining
+ * or leaving takes constant time. The policy also runs a few times a second while nothing arrives,
+ * since it may pair the clients differently the longer they wait.
+ *
+ * @param <T> type of the clients
+ * @author Aliaksei Kouzel
+ */
+public class Matchmaker<T> {
+    public static final int DEFAULT_RATING = 1500;
+    private static final long ROUND_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private final Queue<Request<T>> requests = new ConcurrentLinkedQueue<>();
+    private final Map<T, Ticket<T>> waiting = new LinkedHashMap<>();
+    private final WaitHistogram waitTimes = new WaitHistogram();
+    private final LongAdder matches = new LongAdder();
+    private final PairingPolicy policy;
+    private final BiConsumer<T, T> onMatch;
+    private volatile int waitingCount;
+    private volatile boolean isRunning;
+    private volatile Thread thread;
+
+    /**
+     * Create a matchmaker.
+     *
+     * @param policy  policy that pairs the waiting clients
+     * @param onMatch consumer of the paired clients, called by the matchmaking thread
+     * @requires policy != null && onMatch != null
+     */
+    public Matchmaker(PairingPolicy policy, BiConsumer<T, T> onMatch) {
+        this.policy = policy;
+        this.onMatch = onMatch;
+    }
+
+    /**
+     * Start the matchmaking thread.
+     */
+    public synchronized void start() {
+        if (isRunning) return;
+        isRunning = true;
+        thread = new Thread(this::run, "matchmaker");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop the matchmaking thread. The waiting clients stay unpaired.
+     */
+    public synchronized void close() {
+        if (!isRunning) return;
+        isRunning = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Join the client with the default rating into the queue.
+     *
+     * @param client joining client
+     */
+    public void join(T client) {
+        join(client, DEFAULT_RATING);
+    }
+
+    /**
+     * Join the client into the queue, unless it is already waiting.
+     *
+     * @param client joining client
+     * @param rating rating of the client
+     */
+    public void join(T client, int rating) {
+        submit(new Request<>(RequestType.JOIN, client, rating));
+    }
+
+    /**
+     * Remove the client from the queue, if it is waiting.
+     *
+     * @param client leaving client
+     */
+    public void leave(T client) {
+        submit(new Request<>(RequestType.LEAVE, client, DEFAULT_RATING));
+    }
+
+    /**
+     * Remove the client from the queue if it is waiting, otherwise join it with the default rating.
+     *
+     * @param client joining or leaving client
+     */
+    public void toggle(T client) {
+        submit(new Request<>(RequestType.TOGGLE, client, DEFAULT_RATING));
+    }
+
+    /**
+     * Add the request and wake up the matchmaking thread.
+     *
+     * @param request join or leave request
+     */
+    private void submit(Request<T> request) {
+        requests.add(request);
+        if (thread != null) LockSupport.unpark(thread);
+    }
+
+    /**
+     * Run the rounds of matchmaking until the matchmaker is closed.
+     */
+    private void run() {
+        while (isRunning) {
+            applyRequests();
+            if (waiting.size() >= 2) match();
+            waitingCount = waiting.size();
+            if (requests.isEmpty()) LockSupport.parkNanos(this, ROUND_NANOS);
+        }
+    }
+
+    /**
+     * Apply the requests that have arrived since the last round.
+     */
+    private void applyRequests() {
+        Request<T> request;
+        while ((request = requests.poll()) != null) {
+            T client = request.client;
+            boolean isWaiting = waiting.containsKey(client);
+            if (request.type == RequestType.LEAVE || request.type == RequestType.TOGGLE && isWaiting) {
+                waiting.remove(client);
+            } else if (!isWaiting) {
+                waiting.put(client, new Ticket<>(client, request.rating, request.time));
+            }
+        }
+    }
+
+    /**
+     * Pair the waiting clients by the policy and report the pairs.
+     */
+    private void match() {
+        long now = System.nanoTime();
+        List<Ticket<T>> pairs = new ArrayList<>();
+        policy.pair(new ArrayList<>(waiting.values()), now, (first, second) -> {
+            if (first == second || !waiting.containsKey(first.getClient())
+                    || !waiting.containsKey(second.getClient())) {
+                throw new IllegalStateException("Ticket has been paired twice");
+            }
+            waiting.remove(first.getClient());
+            waiting.remove(second.getClient());
+            pairs.add(first);
+            pairs.add(second);
+        });
+        waitingCount = waiting.size();
+
+        for (int i = 0; i < pairs.size(); i += 2) {
+            waitTimes.record(pairs.get(i).getWaitNanos(now));
+            waitTimes.record(pairs.get(i + 1).getWaitNanos(now));
+            matches.increment();
+            try {
+                onMatch.accept(pairs.get(i).getClient(), pairs.get(i + 1).getClient());
+            } catch (RuntimeException e) {
+                System.out.println("Failed to start a match: " + e);
+            }
+        }
+    }
+
+    /**
+     * Get the number of the waiting clients as of the last round.
+     *
+     * @return number of the waiting clients
+     */
+    public int getWaiting() {
+        return waitingCount;
+    }
+
+    public long getMatches() {
+        return matches.sum();
+    }
+
+    public WaitHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /**
+     * Types of the requests to the matchmaker.
+     */
+    private enum RequestType {
+        /**
+         * When the client joins the queue.
+         */
+        JOIN,
+
+        /**
+         * When the client leaves the queue.
+         */
+        LEAVE,
+
+        /**
+         * When the client leaves the queue if it is waiting, and joins it otherwise.
+         */
+        TOGGLE
+    }
+
+    /**
+     * Request of a client to join or leave the queue.
+     */
+    private static class Request<T> {
+        private final RequestType type;
+        private final T client;
+        private final int rating;
+        private final long time = System.nanoTime();
+
+        private Request(RequestType type, T client, int rating) {
+            this.type = type;
+            this.client = client;
+            this.rating = rating;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package server.matchmaking;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Policy that decides which of the waiting clients play with each other.
+ *
+ * @author Aliaksei Kouzel
+ */
+public interface PairingPolicy {
+    String PROPERTY = "pentago.matchmaking.policy";
+
+    /**
+     * Pair the waiting clients. A ticket may be paired at most once, and the tickets that are not paired
+     * keep waiting until the next call.
+     *
+     * @param waiting tickets of the waiting clients in the order of joining the queue
+     * @param now     current time, as given by System.nanoTime()
+     * @param pairs   consumer of the paired tickets
+     * @param <T>     type of the clients
+     */
+    <T> void pair(List<Ticket<T>> waiting, long now, BiConsumer<Ticket<T>, Ticket<T>> pairs);
+
+    /**
+     * Get the policy given by the 'pentago.matchmaking.policy' system property, i.e. 'fifo' or 'rating-window'.
+     *
+     * @return pairing policy, FIFO if the property is not set
+     * @throws IllegalArgumentException if the property is not a valid policy
+     */
+    static PairingPolicy fromProperty() {
+        String policy = System.getProperty(PROPERTY, "fifo").trim();
+        switch (policy) {
+            case "fifo":
+                return new FifoPolicy();
+            case "rating-window":
+                return new RatingWindowPolicy();
+            default:
+                throw new IllegalArgumentException("Unknown pairing policy: " + policy);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package server.matchmaking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Policy that pairs the clients with close ratings. Every client accepts the opponents whose ratings differ
+ * by at most its window, which widens the longer the client waits, so nobody waits forever for a close match.
+ * <p>
+ * The clients are sorted by their ratings and the neighbours are paired if the difference fits the window
+ * of either of them, which takes O(n log n) time for n waiting clients.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class RatingWindowPolicy implements PairingPolicy {
+    public static final int DEFAULT_INITIAL_WINDOW = 50;
+    public static final int DEFAULT_WIDENING = 50;
+    public static final int DEFAULT_MAX_WINDOW = 400;
+    private final int initialWindow;
+    private final int widening;
+    private final int maxWindow;
+
+    public RatingWindowPolicy() {
+        this(DEFAULT_INITIAL_WINDOW, DEFAULT_WIDENING, DEFAULT_MAX_WINDOW);
+    }
+
+    /**
+     * Create a rating window policy.
+     *
+     * @param initialWindow maximal rating difference right after joining the queue
+     * @param widening      widening of the window per second of waiting
+     * @param maxWindow     maximal rating difference after any waiting
+     * @requires 0 <= initialWindow && initialWindow <= maxWindow && widening >= 0
+     */
+    public RatingWindowPolicy(int initialWindow, int widening, int maxWindow) {
+        this.initialWindow = initialWindow;
+        this.widening = widening;
+        this.maxWindow = maxWindow;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> void pair(List<Ticket<T>> waiting, long now, BiConsumer<Ticket<T>, Ticket<T>> pairs) {
+        List<Ticket<T>> sorted = new ArrayList<>(waiting);
+        sorted.sort(Comparator.comparingInt(Ticket::getRating));
+        int i = 0;
+        while (i + 1 < sorted.size()) {
+            Ticket<T> first = sorted.get(i);
+            Ticket<T> second = sorted.get(i + 1);
+            int difference = second.getRating() - first.getRating();
+            if (difference <= Math.max(getWindow(first, now), getWindow(second, now))) {
+                pairs.accept(first, second);
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Get the maximal rating difference that the client accepts.
+     *
+     * @param ticket ticket of the client
+     * @param now    current time, as given by System.nanoTime()
+     * @return rating window of the client
+     */
+    public int getWindow(Ticket<?> ticket, long now) {
+        double seconds = ticket.getWaitNanos(now) / 1e9;
+        return (int) Math.min(maxWindow, initialWindow + widening * seconds);
+    }
+}
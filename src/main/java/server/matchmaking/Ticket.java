@@ -0,0 +1,49 @@
+package server.matchmaking;
+
+/**
+ * Ticket of a client waiting in the matchmaking queue.
+ *
+ * @param <T> type of the clients
+ * @author Aliaksei Kouzel
+ */
+public class Ticket<T> {
+    private final T client;
+    private final int rating;
+    private final long joinTime;
+
+    /**
+     * Create a ticket.
+     *
+     * @param client   waiting client
+     * @param rating   rating of the client
+     * @param joinTime time of joining the queue, as given by System.nanoTime()
+     * @requires client != null
+     */
+    public Ticket(T client, int rating, long joinTime) {
+        this.client = client;
+        this.rating = rating;
+        this.joinTime = joinTime;
+    }
+
+    /**
+     * Get how long the client has been waiting.
+     *
+     * @param now current time, as given by System.nanoTime()
+     * @return waiting time in nanoseconds
+     */
+    public long getWaitNanos(long now) {
+        return now - joinTime;
+    }
+
+    public T getClient() {
+        return client;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public long getJoinTime() {
+        return joinTime;
+    }
+}
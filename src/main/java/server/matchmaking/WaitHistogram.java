@@ -0,0 +1,97 @@
+package server.matchmaking;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of the waiting times, whose percentiles are accurate within about 6%. The times are counted
+ * in buckets that double in width with every power of two, each split into 16 sub-buckets,
+ * so the histogram takes the same memory however many times it records.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class WaitHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a waiting time.
+     *
+     * @param nanos waiting time in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(getBucket(micros));
+        count.increment();
+        max.accumulate(micros);
+    }
+
+    /**
+     * Get the waiting time below which the given share of the recorded times lies.
+     *
+     * @param percentile share of the recorded times in percent, e.g. 99
+     * @return upper bound of the waiting time in milliseconds, 0 if nothing has been recorded
+     * @requires 0 <= percentile && percentile <= 100
+     */
+    public double getPercentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) return Math.min(getUpperBound(bucket), max.get()) / 1000.0;
+        }
+        return max.get() / 1000.0;
+    }
+
+    /**
+     * Get the bucket of the time.
+     *
+     * @param micros waiting time in microseconds
+     * @return bucket index
+     */
+    private static int getBucket(long micros) {
+        if (micros < SUB_BUCKETS) return (int) micros;
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Get the largest time that falls into the bucket.
+     *
+     * @param bucket bucket index
+     * @return waiting time in microseconds
+     */
+    private static long getUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the longest recorded waiting time.
+     *
+     * @return waiting time in milliseconds
+     */
+    public double getMax() {
+        return max.get() / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d waits, p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms",
+                getCount(), getPercentile(50), getPercentile(90), getPercentile(99), getMax());
+    }
+}
@@ -0,0 +1,182 @@
+import entity.MessageType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import server.PentagoServer;
+import server.ServerMode;
+import server.admission.RateLimiter;
+import server.admission.RateLimits;
+import server.admission.TokenBucket;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests protecting the server from too many clients and too many messages.
+ * e.g. refilling the token buckets, limiting the messages of a client, turning away the clients of a full server, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class AdmissionTest {
+
+    /**
+     * Test that the bucket allows a burst of its capacity, and then one token per refill period.
+     */
+    @Test
+    void acquireTokensGivenRate() {
+        var bucket = new TokenBucket(10, 3);
+        long now = System.nanoTime();
+        assertEquals(3, bucket.getTokens(now));
+        for (int i = 0; i < 3; i++) assertTrue(bucket.tryAcquire(now));
+        assertFalse(bucket.tryAcquire(now));
+        assertEquals(0, bucket.getTokens(now));
+
+        long later = now + TimeUnit.MILLISECONDS.toNanos(100);
+        assertTrue(bucket.tryAcquire(later));
+        assertFalse(bucket.tryAcquire(later));
+        long muchLater = now + TimeUnit.SECONDS.toNanos(10);
+        assertEquals(3, bucket.getTokens(muchLater));
+    }
+
+    /**
+     * Test that the threads taking the tokens at once never take more than the capacity.
+     */
+    @Test
+    void acquireTokensGivenConcurrentThreads() throws InterruptedException {
+        var bucket = new TokenBucket(0.001, 1000);
+        long now = System.nanoTime();
+        var acquired = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            var thread = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (bucket.tryAcquire(now)) acquired.incrementAndGet();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(1000, acquired.get());
+    }
+
+    /**
+     * Test that the limiter only limits the types that have a limit, and counts the rejected messages.
+     */
+    @Test
+    void limitMessagesByType() {
+        var limits = new RateLimits();
+        limits.setLimit(MessageType.LIST_USERS, RateLimits.Limit.parse("0.001/2"));
+        limits.setLimit(MessageType.JOIN_QUEUE, RateLimits.Limit.parse("none"));
+        var limiter = new RateLimiter(limits);
+
+        assertTrue(limiter.tryAcquire(MessageType.LIST_USERS));
+        assertTrue(limiter.tryAcquire(MessageType.LIST_USERS));
+        assertFalse(limiter.tryAcquire(MessageType.LIST_USERS));
+        for (int i = 0; i < 100; i++) assertTrue(limiter.tryAcquire(MessageType.JOIN_QUEUE));
+        assertTrue(limiter.tryAcquire(MessageType.PING));
+        assertEquals(1, limiter.getRejected());
+        assertThrows(IllegalArgumentException.class, () -> RateLimits.Limit.parse("2"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimits.Limit.parse("0/10"));
+    }
+
+    /**
+     * Test that the messages above the limit are answered with an error, while the client stays connected.
+     */
+    @Test
+    @Timeout(10)
+    void rejectMessagesAboveLimit() throws IOException {
+        var server = new PentagoServer("Test server", ServerMode.SELECTOR);
+        server.getRateLimits().setLimit(MessageType.LIST_USERS, new RateLimits.Limit(0.001, 5));
+        assertTrue(server.start(0));
+        try (var client = new RawClient(server.getPort())) {
+            client.send("HELLO~Flooder");
+            client.await("HELLO");
+            client.send("LOGIN~Flooder");
+            client.await("LOGIN");
+            for (int i = 0; i < 20; i++) client.send("LIST");
+
+            int lists = 0;
+            int errors = 0;
+            while (lists + errors < 20) {
+                String line = client.await("");
+                if (line.startsWith("LIST")) lists++;
+                if (line.equals("ERROR~Too many requests")) errors++;
+            }
+            assertEquals(5, lists);
+            assertEquals(15, errors);
+            client.send("PING");
+            assertEquals("PONG", client.await("PONG"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Test that the clients above the cap are told that the server is full and disconnected,
+     * and that the server admits a client again once another one has left.
+     */
+    @Test
+    @Timeout(10)
+    void rejectClientsGivenFullServer() throws IOException, InterruptedException {
+        var server = new PentagoServer("Test server", ServerMode.BLOCKING);
+        server.getAdmission().setMaxClients(2);
+        assertTrue(server.start(0));
+        try (var first = new RawClient(server.getPort());
+             var second = new RawClient(server.getPort());
+             var third = new RawClient(server.getPort())) {
+            first.send("HELLO~First");
+            assertTrue(first.await("HELLO").startsWith("HELLO~Test server"));
+            second.send("HELLO~Second");
+            second.await("HELLO");
+            third.send("HELLO~Third");
+            assertEquals("ERROR~Server is full, try again later", third.await("ERROR"));
+            assertThrows(IOException.class, () -> third.await("HELLO"));
+            assertEquals(1, server.getAdmission().getRejected());
+
+            first.close();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (server.getAdmission().getAdmitted() > 1 && System.nanoTime() < deadline) Thread.sleep(10);
+            try (var fourth = new RawClient(server.getPort())) {
+                fourth.send("HELLO~Fourth");
+                fourth.await("HELLO");
+                assertEquals(2, server.getAdmission().getAdmitted());
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Test that the connections count against the cap as soon as they are accepted, so that the connections
+     * that do not say anything fill the server too, in both blocking and selector modes.
+     */
+    @Test
+    @Timeout(20)
+    void rejectClientsGivenSilentConnections() throws IOException, InterruptedException {
+        for (ServerMode mode : List.of(ServerMode.BLOCKING, ServerMode.SELECTOR)) {
+            var server = new PentagoServer("Test server", mode);
+            server.getAdmission().setMaxClients(2);
+            assertTrue(server.start(0));
+            try (var first = new RawClient(server.getPort());
+                 var second = new RawClient(server.getPort())) {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (server.getAdmission().getAdmitted() < 2 && System.nanoTime() < deadline) Thread.sleep(10);
+                assertEquals(2, server.getAdmission().getAdmitted());
+
+                try (var third = new RawClient(server.getPort())) {
+                    third.send("HELLO~Third");
+                    assertEquals("ERROR~Server is full, try again later", third.await("ERROR"));
+                }
+                assertEquals(1, server.getAdmission().getRejected());
+            } finally {
+                server.stop();
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the bit board implementation against the regular board.
+ * e.g. playing moves, detecting winners, generating moves, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class BitBoardTest {
+    private static final long SEED = 42;
+
+    /**
+     * Test that the bit board follows the regular board during random games.
+     */
+    @Test
+    void followBoardGivenRandomGames() {
+        var random = new Random(SEED);
+        for (int game = 0; game < 200; game++) {
+            var board = new Board();
+            var bitBoard = new BitBoard();
+            while (!board.isGameOver()) {
+                Move move = board.getPossibleMove();
+                int rotation = random.nextInt(8);
+                board.playMove(new Move(move.getPosition(), rotation, board.getTurn()));
+                bitBoard = bitBoard.play(move.getPosition(), rotation);
+
+                assertEquals(BitBoard.of(board), bitBoard);
+                assertEquals(board.isWinner(Marble.BLACK), BitBoard.hasStreak(bitBoard.getBlack()));
+                assertEquals(board.isWinner(Marble.WHITE), BitBoard.hasStreak(bitBoard.getWhite()));
+                assertEquals(board.isGameOver(), bitBoard.isGameOver());
+            }
+        }
+    }
+
+    /**
+     * Test rotating the top left subboard clockwise given predefined fields.
+     */
+    @Test
+    void rotateTopLeftClockwise() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 7, 14);
+        board.setFields(Marble.WHITE, 1, 8);
+        BitBoard bitBoard = BitBoard.of(board);
+
+        long black = BitBoard.rotate(bitBoard.getBlack(), 1);
+        long white = BitBoard.rotate(bitBoard.getWhite(), 1);
+        assertEquals(1L << 2 | 1L << 7 | 1L << 12, black);
+        assertEquals(1L << 8 | 1L << 13, white);
+    }
+
+    /**
+     * Test that a full board is a draw even if a player has a streak, like in the pentago session.
+     */
+    @Test
+    void noWinnerGivenFullBoardWithStreak() {
+        long black = 0b011111L;
+        var board = new BitBoard(black, BitBoard.FULL & ~black, Marble.BLACK);
+        assertTrue(BitBoard.hasStreak(board.getBlack()));
+        assertTrue(BitBoard.hasStreak(board.getWhite()));
+        assertTrue(board.isFull());
+        assertEquals(Marble.EMPTY, board.getWinner());
+        assertTrue(board.isGameOver());
+    }
+
+    /**
+     * Test that the winning streak is found after turning the bottom right subboard.
+     */
+    @Test
+    void winInDescendingDiagonalAfterTurningSubboard() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 7, 14, 28, 33);
+        BitBoard bitBoard = BitBoard.of(board);
+        assertEquals(Marble.EMPTY, bitBoard.getWinner());
+
+        long rotated = BitBoard.rotate(bitBoard.getBlack(), 7);
+        assertTrue(BitBoard.hasStreak(rotated));
+    }
+
+    /**
+     * Test that the generated moves lead to every possible position exactly as playing all 288 moves does.
+     */
+    @Test
+    void generateMovesGivenRandomPositions() {
+        var random = new Random(SEED);
+        int[] moves = new int[BitBoard.MOVES];
+        BitBoard board = new BitBoard();
+        while (!board.isGameOver()) {
+            int count = board.getMoves(moves);
+            Set<BitBoard> generated = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                generated.add(board.play(moves[i]));
+            }
+
+            Set<BitBoard> expected = new HashSet<>();
+            for (long empty = board.getEmpty(); empty != 0; empty &= empty - 1) {
+                for (int rotation = 0; rotation < BitBoard.ROTATIONS; rotation++) {
+                    expected.add(board.play(Long.numberOfTrailingZeros(empty), rotation));
+                }
+            }
+            assertEquals(expected, generated);
+            board = board.play(moves[random.nextInt(count)]);
+        }
+    }
+
+    /**
+     * Test that an empty board generates a single rotation for every empty subboard.
+     */
+    @Test
+    void generateMovesGivenEmptyBoard() {
+        int[] moves = new int[BitBoard.MOVES];
+        int count = new BitBoard().getMoves(moves);
+        // 3 empty subboards with a single rotation, and 2 rotations of the subboard with the marble
+        // unless the marble is placed in its center
+        assertEquals(32 * 5 + 4 * 4, count);
+    }
+
+    /**
+     * Test that different positions have different keys.
+     */
+    @Test
+    void differentKeysGivenDifferentPositions() {
+        var board = new BitBoard(1L, 2L, Marble.BLACK);
+        assertNotEquals(board.getKey(), new BitBoard(2L, 1L, Marble.BLACK).getKey());
+        assertNotEquals(board.getKey(), new BitBoard(1L, 2L, Marble.WHITE).getKey());
+        assertNotEquals(board.getKey(), new BitBoard(1L, 4L, Marble.BLACK).getKey());
+        assertEquals(board.getKey(), new BitBoard(1L, 2L, Marble.BLACK).getKey());
+    }
+}
@@ -0,0 +1,207 @@
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.player.AIPlayer;
+import entity.player.BufferedPlayer;
+import entity.strategy.ComputeGovernor;
+import entity.strategy.Difficulty;
+import entity.strategy.SearchLimits;
+import entity.strategy.SearchStatistics;
+import entity.strategy.SearchStrategy;
+import entity.strategy.Strategy;
+import entity.strategy.evaluator.NetworkEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests running the decisions of the AI players under the compute governor.
+ * e.g. keeping the node budget, putting the humans first, making the decisions shallower under load, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class ComputeGovernorTest {
+
+    /**
+     * Test that the search stops after visiting about as many positions as the node limit allows.
+     */
+    @Test
+    void stopSearchGivenNodeLimit() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 14);
+        board.setFields(Marble.WHITE, 7, 21);
+
+        var statistics = new SearchStatistics();
+        var limits = new SearchLimits(4, 60_000, 5_000);
+        Move move = new SearchStrategy(new NetworkEvaluator(), 4, 60_000).decideMove(board, limits, statistics);
+
+        assertTrue(board.isValidMove(move));
+        assertTrue(statistics.getNodes() <= 5_000 + 1024);
+        assertTrue(statistics.getDepth() < 4);
+    }
+
+    /**
+     * Test that the proof of a forced win takes its nodes from the node limit of the decision.
+     */
+    @Test
+    void stopProofGivenNodeLimit() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 14, 21);
+        board.setFields(Marble.WHITE, 7, 28, 35);
+
+        var statistics = new SearchStatistics();
+        Move move = new SearchStrategy().decideMove(board, new SearchLimits(3, 60_000, 500), statistics);
+
+        assertTrue(board.isValidMove(move));
+        assertTrue(statistics.getNodes() <= 500 + 1024);
+    }
+
+    /**
+     * Test that the decisions with a human waiting are made before the earlier decisions of the bot games.
+     */
+    @Test
+    void decideHumanGamesFirst() throws ExecutionException, InterruptedException {
+        var governor = new ComputeGovernor(1);
+        var release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        var board = new Board();
+
+        FutureTask<Move> blocking = governor.submit(new RecordingStrategy("blocking", order, release), board,
+                Difficulty.EASY.getLimits(), false, new SearchStatistics());
+        FutureTask<Move> bot = governor.submit(new RecordingStrategy("bot", order, null), board,
+                Difficulty.EASY.getLimits(), false, new SearchStatistics());
+        FutureTask<Move> human = governor.submit(new RecordingStrategy("human", order, null), board,
+                Difficulty.EASY.getLimits(), true, new SearchStatistics());
+        release.countDown();
+
+        blocking.get();
+        bot.get();
+        human.get();
+        assertEquals(List.of("blocking", "human", "bot"), order);
+        governor.shutdown();
+    }
+
+    /**
+     * Test that the decisions are made shallower when more of them wait than the governor has threads.
+     */
+    @Test
+    void reduceDepthGivenSaturatedPool() throws ExecutionException, InterruptedException {
+        var governor = new ComputeGovernor(1);
+        var release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        var board = new Board();
+        var strategy = new RecordingStrategy("bot", order, null);
+
+        governor.submit(new RecordingStrategy("blocking", order, release), board,
+                Difficulty.HARD.getLimits(), false, new SearchStatistics());
+        FutureTask<Move> first = governor.submit(strategy, board, Difficulty.HARD.getLimits(), false,
+                new SearchStatistics());
+        FutureTask<Move> second = governor.submit(strategy, board, Difficulty.HARD.getLimits(), false,
+                new SearchStatistics());
+        FutureTask<Move> third = governor.submit(strategy, board, Difficulty.HARD.getLimits(), false,
+                new SearchStatistics());
+        release.countDown();
+        first.get();
+        second.get();
+        third.get();
+
+        // the first decision still had two others waiting behind it, the last one had none
+        assertEquals(List.of(1, 2, 3), strategy.depths);
+        assertTrue(governor.getReducedDecisions() >= 2);
+        governor.shutdown();
+    }
+
+    /**
+     * Test that interrupting the thread that waits for a decision stops the search of the decision,
+     * so that the next decision gets the thread of the pool.
+     */
+    @Test
+    void freeThreadGivenInterruptedDecision() throws ExecutionException, InterruptedException, TimeoutException {
+        var governor = new ComputeGovernor(1);
+        var board = new Board();
+        var limits = new SearchLimits(SearchStrategy.MAX_DEPTH, 600_000, SearchLimits.NO_NODE_LIMIT);
+        var strategy = new SearchStrategy(new NetworkEvaluator(), SearchStrategy.MAX_DEPTH, 600_000);
+        var waiting = new Thread(() -> {
+            try {
+                governor.decide(strategy, board, limits, false, new SearchStatistics());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiting.start();
+        while (governor.getDecisions() == 0) Thread.sleep(10);
+        waiting.interrupt();
+        waiting.join();
+
+        FutureTask<Move> next = governor.submit(new RecordingStrategy("next", new CopyOnWriteArrayList<>(), null),
+                board, Difficulty.EASY.getLimits(), false, new SearchStatistics());
+        assertTrue(board.isValidMove(next.get(10, TimeUnit.SECONDS)));
+        governor.shutdown();
+    }
+
+    /**
+     * Test that the AI player knows that a human is waiting, either as its opponent or watching it, and stops deciding after the governor is shut down.
+     */
+    @Test
+    void decideNothingGivenShutdownGovernor() {
+        var governor = new ComputeGovernor(1);
+        var player = new AIPlayer(new SearchStrategy(), null, Difficulty.EASY, governor);
+        assertFalse(player.isHumanWaiting());
+        player.setOpponent(new BufferedPlayer("human"));
+        assertTrue(player.isHumanWaiting());
+        var watched = new AIPlayer(new SearchStrategy(), null, Difficulty.EASY, governor);
+        watched.setHumanWatching(true);
+        assertTrue(watched.isHumanWaiting());
+
+        var board = new Board();
+        assertTrue(board.isValidMove(player.decideMove(board)));
+        governor.shutdown();
+        assertNull(player.decideMove(board));
+    }
+
+    /**
+     * Strategy that records the order of its decisions and their depth limits.
+     */
+    private static class RecordingStrategy implements Strategy {
+        private final String name;
+        private final List<String> order;
+        private final CountDownLatch release;
+        private final List<Integer> depths = new CopyOnWriteArrayList<>();
+
+        private RecordingStrategy(String name, List<String> order, CountDownLatch release) {
+            this.name = name;
+            this.order = order;
+            this.release = release;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Move decideMove(Board board) {
+            return board.getPossibleMove();
+        }
+
+        @Override
+        public Move decideMove(Board board, SearchLimits limits, SearchStatistics statistics) {
+            try {
+                if (release != null) release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            order.add(name);
+            depths.add(limits.getDepth());
+            return decideMove(board);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.strategy.SearchStatistics;
+import entity.strategy.distributed.DistributedStrategy;
+import entity.strategy.distributed.SearchWorker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests splitting the search among the worker processes.
+ * e.g. deciding with local workers, repeating the jobs of a slow worker, deciding with worker processes, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class DistributedStrategyTest {
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void close() throws Exception {
+        for (AutoCloseable resource : resources) resource.close();
+    }
+
+    /**
+     * Test that the strategy plays the immediate win and decides a valid move with the workers.
+     */
+    @Test
+    void decideGivenLocalWorkers() throws IOException {
+        var strategy = createStrategy(List.of(startWorker(), startWorker()), 3000);
+        var winning = new Board();
+        winning.setFields(Marble.BLACK, 0, 1, 2, 3);
+        winning.setFields(Marble.WHITE, 12, 13, 14);
+        Move move = strategy.decideMove(winning);
+        winning.playMove(move);
+        assertTrue(winning.isWinner(Marble.BLACK));
+
+        var board = new Board();
+        board.setFields(Marble.BLACK, 7, 14);
+        board.setFields(Marble.WHITE, 21, 28);
+        var statistics = new SearchStatistics();
+        move = strategy.decideMove(board, statistics);
+        assertTrue(board.isValidMove(move));
+        assertEquals(3, statistics.getDepth());
+        // the workers report the positions they have visited, which are many more than the jobs
+        assertTrue(statistics.getNodes() > BitBoard.MOVES);
+    }
+
+    /**
+     * Test that the jobs of a worker that does not reply are repeated by the other worker,
+     * and that an unreachable worker is skipped.
+     */
+    @Test
+    void decideGivenSlowAndUnreachableWorkers() throws IOException {
+        var silent = new ServerSocket(0);
+        resources.add(silent);
+        var thread = new Thread(() -> {
+            List<Socket> sockets = new ArrayList<>();
+            try {
+                while (true) sockets.add(silent.accept());
+            } catch (IOException ignored) { // the test is over
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+
+        var unused = new ServerSocket(0);
+        int unreachable = unused.getLocalPort();
+        unused.close();
+
+        var strategy = createStrategy(List.of(silent.getLocalPort(), unreachable, startWorker()), 5000);
+        var board = new Board();
+        board.setFields(Marble.BLACK, 7, 14);
+        board.setFields(Marble.WHITE, 21, 28);
+        long start = System.currentTimeMillis();
+        Move move = strategy.decideMove(board);
+        assertTrue(board.isValidMove(move));
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    /**
+     * Test that the strategy decides a move with the workers running in separate JVMs.
+     */
+    @Test
+    void decideGivenWorkerProcesses() throws IOException {
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            var process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"), SearchWorker.class.getName(), "0")
+                    .redirectErrorStream(true).start();
+            resources.add(process::destroy);
+            String line = new BufferedReader(new InputStreamReader(process.getInputStream())).readLine();
+            assertNotNull(line);
+            ports.add(Integer.parseInt(line.substring(line.lastIndexOf(' ') + 1)));
+        }
+
+        var strategy = createStrategy(ports, 5000);
+        var board = new Board();
+        board.setFields(Marble.WHITE, 18, 19, 20, 21);
+        board.setFields(Marble.BLACK, 0, 7, 14);
+        Move move = strategy.decideMove(board);
+        board.playMove(move);
+        assertFalse(board.isGameOver());
+    }
+
+    private int startWorker() throws IOException {
+        var worker = new SearchWorker(0);
+        worker.start();
+        resources.add(worker::close);
+        return worker.getPort();
+    }
+
+    private DistributedStrategy createStrategy(List<Integer> ports, long timeLimit) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int port : ports) addresses.add(new InetSocketAddress("localhost", port));
+        var strategy = new DistributedStrategy(addresses, 3, timeLimit);
+        resources.add(strategy::close);
+        return strategy;
+    }
+}
@@ -0,0 +1,157 @@
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.board.observer.BoardObserver;
+import entity.player.AIPlayer;
+import entity.player.BufferedPlayer;
+import entity.session.EventSession;
+import entity.strategy.ExpertStrategy;
+import entity.strategy.NaiveStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the sessions that play the received moves as events on a shared executor.
+ * e.g. playing a game between AI players, playing many games on a few threads, disconnecting, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class EventSessionTest {
+
+    /**
+     * Test playing a whole game between AI players on a single thread.
+     */
+    @Test
+    void playGameGivenAIPlayers() throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        var session = new EventSession(executor, new AIPlayer(new NaiveStrategy()), new AIPlayer(new ExpertStrategy()));
+        var observer = new CountingObserver();
+        session.addObserver(observer);
+        assertNull(session.start());
+
+        session.getClosed().get(10, TimeUnit.SECONDS);
+        assertFalse(session.isRunning());
+        assertEquals(1, observer.starts.get());
+        assertTrue(observer.moves.get() >= 9);
+        assertEquals(1, observer.results.get());
+        assertEquals(1, observer.closes.get());
+        executor.shutdown();
+    }
+
+    /**
+     * Test that many sessions wait for their moves without taking the threads, and play them once they arrive.
+     */
+    @Test
+    void playManySessionsOnFewThreads() throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        var observer = new CountingObserver();
+        List<EventSession> sessions = new ArrayList<>();
+        List<BufferedPlayer> blackPlayers = new ArrayList<>();
+        List<BufferedPlayer> whitePlayers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            var black = new BufferedPlayer("Black" + i);
+            var white = new BufferedPlayer("White" + i);
+            var session = new EventSession(executor, black, white);
+            session.addObserver(observer);
+            session.start();
+            sessions.add(session);
+            blackPlayers.add(black);
+            whitePlayers.add(white);
+        }
+
+        // an invalid move is skipped and the player is asked again
+        for (BufferedPlayer black : blackPlayers) black.storeMove(new Move(-1, 0, Marble.BLACK));
+        for (BufferedPlayer black : blackPlayers) black.storeMove(new Move(0, 0, Marble.BLACK));
+        for (BufferedPlayer white : whitePlayers) white.storeMove(new Move(1, 0, Marble.WHITE));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (observer.moves.get() < 2000 && System.nanoTime() < deadline) Thread.sleep(10);
+        for (int i = 0; i < sessions.size(); i++) {
+            sessions.get(i).disconnect(blackPlayers.get(i));
+            sessions.get(i).getClosed().get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1000, observer.starts.get());
+        assertEquals(2000, observer.moves.get());
+        assertEquals(1000, observer.disconnects.get());
+        assertEquals(1000, observer.closes.get());
+        executor.shutdown();
+    }
+
+    /**
+     * Test that closing the session ignores the later moves.
+     */
+    @Test
+    void ignoreMovesGivenClosedSession() throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        var black = new BufferedPlayer("Black");
+        var session = new EventSession(executor, black, new BufferedPlayer("White"));
+        var observer = new CountingObserver();
+        session.addObserver(observer);
+        session.start();
+        session.close();
+        black.storeMove(new Move(0, 0, Marble.BLACK));
+
+        session.getClosed().get(10, TimeUnit.SECONDS);
+        executor.submit(() -> { }).get();
+        assertFalse(session.isRunning());
+        assertEquals(0, observer.moves.get());
+        assertEquals(1, observer.closes.get());
+        executor.shutdown();
+    }
+
+    /**
+     * Observer that counts the events of the sessions.
+     */
+    private static class CountingObserver implements BoardObserver {
+        private final AtomicInteger starts = new AtomicInteger();
+        private final AtomicInteger moves = new AtomicInteger();
+        private final AtomicInteger results = new AtomicInteger();
+        private final AtomicInteger disconnects = new AtomicInteger();
+        private final AtomicInteger closes = new AtomicInteger();
+
+        @Override
+        public void onMove(Move move) {
+            moves.incrementAndGet();
+        }
+
+        @Override
+        public void onWinner(String player) {
+            results.incrementAndGet();
+        }
+
+        @Override
+        public void onDisconnect(String player) {
+            disconnects.incrementAndGet();
+        }
+
+        @Override
+        public void onDraw() {
+            results.incrementAndGet();
+        }
+
+        @Override
+        public void onClose() {
+            closes.incrementAndGet();
+        }
+
+        @Override
+        public void onStart(String... players) {
+            starts.incrementAndGet();
+        }
+
+        @Override
+        public Board getBoardCopy() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import server.PentagoServer;
+import server.ServerMode;
+import server.heartbeat.RttStatistics;
+import server.heartbeat.TimerWheel;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests checking the connections of the server with automatic pings.
+ * e.g. expiring the timeouts of the timer wheel, closing a silent connection, measuring the round-trip times, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class HeartbeatTest {
+
+    /**
+     * Test that the timeouts expire no earlier than their deadlines and not much later, spanning several rounds
+     * of the wheel, and that the cancelled ones never do.
+     */
+    @Test
+    @Timeout(10)
+    void expireTimeoutsGivenWheel() throws InterruptedException {
+        var timer = new TimerWheel(10, TimeUnit.MILLISECONDS, 8);
+        int count = 10_000;
+        var delays = new long[count];
+        var expiryTimes = new AtomicLongArray(count);
+        List<TimerWheel.Timeout> timeouts = new ArrayList<>();
+        var random = new Random(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            delays[i] = TimeUnit.MILLISECONDS.toNanos(random.nextInt(300));
+            timeouts.add(timer.schedule(() -> expiryTimes.set(index, System.nanoTime()), delays[i],
+                    TimeUnit.NANOSECONDS));
+        }
+        for (int i = 0; i < count; i += 2) timeouts.get(i).cancel();
+        timer.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (timer.getPending() > 0 && System.nanoTime() < deadline) Thread.sleep(10);
+        timer.close();
+
+        assertEquals(0, timer.getPending());
+        assertEquals(count / 2, timer.getExpired());
+        for (int i = 0; i < count; i++) {
+            if (i % 2 == 0) {
+                assertEquals(0, expiryTimes.get(i));
+                assertTrue(timeouts.get(i).isCancelled());
+            } else {
+                long elapsed = expiryTimes.get(i) - start;
+                assertTrue(elapsed >= delays[i]);
+                assertTrue(elapsed < delays[i] + TimeUnit.MILLISECONDS.toNanos(250));
+                assertTrue(timeouts.get(i).isExpired());
+            }
+        }
+    }
+
+    /**
+     * Test that the blocking server closes a connection that does not respond to its pings.
+     */
+    @Test
+    @Timeout(10)
+    void closeSilentConnectionGivenBlockingServer() throws IOException, InterruptedException {
+        closeSilentConnection(ServerMode.BLOCKING);
+    }
+
+    /**
+     * Test that the selector server closes a connection that does not respond to its pings.
+     */
+    @Test
+    @Timeout(10)
+    void closeSilentConnectionGivenSelectorServer() throws IOException, InterruptedException {
+        closeSilentConnection(ServerMode.SELECTOR);
+    }
+
+    /**
+     * Test that the server keeps a responsive connection and measures its round-trip times.
+     */
+    @Test
+    @Timeout(10)
+    void measureRoundTripTimes() throws IOException, InterruptedException {
+        var server = new PentagoServer("Test server", ServerMode.SELECTOR);
+        server.getHeartbeats().configure(200, 2000, TimeUnit.MILLISECONDS);
+        assertTrue(server.start(0));
+        try (var client = new RawClient(server.getPort(), "Responsive")) {
+            for (int i = 0; i < 3; i++) {
+                client.await("PING");
+                client.send("PONG");
+            }
+            RttStatistics rtt = server.getHeartbeats().get(server.getUsers().get("Responsive")).getRtt();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (rtt.getCount() < 3 && System.nanoTime() < deadline) Thread.sleep(10);
+
+            assertEquals(3, rtt.getCount());
+            assertTrue(rtt.getMin() > 0 && rtt.getMin() <= rtt.getMax());
+            assertTrue(rtt.getSmoothed() >= rtt.getMin() && rtt.getSmoothed() <= rtt.getMax());
+            assertEquals(0, server.getHeartbeats().getExpired());
+            assertEquals(1, server.getOnlineUsers().length);
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Connect a client that ignores the pings, and check that the server closes its connection
+     * and forgets the client.
+     *
+     * @param mode server mode
+     */
+    private static void closeSilentConnection(ServerMode mode) throws IOException, InterruptedException {
+        var server = new PentagoServer("Test server", mode);
+        server.getHeartbeats().configure(100, 200, TimeUnit.MILLISECONDS);
+        assertTrue(server.start(0));
+        try (var client = new RawClient(server.getPort(), "Silent")) {
+            client.await("PING");
+            assertThrows(IOException.class, () -> client.await("PING"));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (server.getHeartbeats().getWatched() > 0 && System.nanoTime() < deadline) Thread.sleep(10);
+            assertEquals(1, server.getHeartbeats().getExpired());
+            assertEquals(0, server.getHeartbeats().getWatched());
+            assertEquals(0, server.getOnlineUsers().length);
+        } finally {
+            server.stop();
+        }
+    }
+}
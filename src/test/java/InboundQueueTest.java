@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+import server.InboundQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests queueing the messages that are received from the clients.
+ * e.g. handling them in order, going on after a failed message, handling the disconnect last, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class InboundQueueTest {
+
+    /**
+     * Test that the tasks are run in order on a single scheduled run, and that the queue refuses
+     * the tasks beyond its capacity.
+     */
+    @Test
+    void runTasksInOrderGivenCapacity() {
+        List<Runnable> scheduled = new ArrayList<>();
+        var queue = new InboundQueue(scheduled::add, 3);
+        List<Integer> handled = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int message = i;
+            assertTrue(queue.offer(() -> handled.add(message)));
+        }
+        assertFalse(queue.offer(() -> handled.add(3)));
+        assertEquals(1, scheduled.size());
+        assertEquals(3, queue.size());
+
+        scheduled.remove(0).run();
+        assertEquals(List.of(0, 1, 2), handled);
+        assertEquals(0, queue.size());
+        assertTrue(queue.offer(() -> handled.add(4)));
+        assertEquals(1, scheduled.size());
+    }
+
+    /**
+     * Test that a failed task does not stop the tasks after it, and that the last task runs
+     * after the tasks queued before closing, while the tasks queued afterwards are dropped.
+     */
+    @Test
+    void runLastTaskGivenFailedTask() {
+        List<Runnable> scheduled = new ArrayList<>();
+        var queue = new InboundQueue(scheduled::add, InboundQueue.DEFAULT_CAPACITY);
+        List<String> handled = new ArrayList<>();
+        queue.offer(() -> handled.add("first"));
+        queue.offer(() -> {
+            throw new IllegalStateException("Failed message");
+        });
+        queue.offer(() -> handled.add("second"));
+        queue.close(() -> handled.add("disconnect"));
+        queue.close(() -> handled.add("disconnect again"));
+        assertFalse(queue.offer(() -> handled.add("after close")));
+
+        scheduled.remove(0).run();
+        assertEquals(List.of("first", "second", "disconnect"), handled);
+        assertTrue(queue.isClosed());
+        assertTrue(scheduled.isEmpty());
+    }
+}
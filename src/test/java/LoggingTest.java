@@ -0,0 +1,109 @@
+import logging.AsyncAppender;
+import logging.Level;
+import logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests logging the events on a separate thread.
+ * e.g. filtering the events by their level, sampling them, dropping them once the buffer is full, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class LoggingTest {
+
+    /**
+     * Test that the events are written in order as structured lines, and that the disabled ones are not formatted.
+     */
+    @Test
+    void logEventsGivenLevel() {
+        var output = new ByteArrayOutputStream();
+        var appender = new AsyncAppender(16, new PrintStream(output, true, StandardCharsets.UTF_8));
+        var logger = new Logger("traffic", Level.INFO, 1, appender);
+        var formatted = new AtomicInteger();
+        Object argument = new Object() {
+            @Override
+            public String toString() {
+                formatted.incrementAndGet();
+                return "PING";
+            }
+        };
+
+        logger.log(Level.DEBUG, "in '{}'", argument);
+        logger.log(Level.INFO, "in '{}'", argument);
+        logger.log(Level.WARN, "{} \"{}\" {}", "a", "b");
+        appender.close();
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("time="));
+        String thread = " thread=" + Thread.currentThread().getName();
+        assertTrue(lines[0].endsWith("level=INFO category=traffic" + thread + " message=\"in 'PING'\""));
+        assertTrue(lines[1].endsWith("level=WARN category=traffic" + thread + " message=\"a \\\"b\\\" {}\""));
+        assertEquals(1, formatted.get());
+        assertFalse(logger.isEnabled(Level.DEBUG));
+        logger.setLevel(Level.OFF);
+        assertFalse(logger.isEnabled(Level.ERROR));
+    }
+
+    /**
+     * Test that only one of every few events is logged, except for the warnings.
+     */
+    @Test
+    void sampleEvents() {
+        var output = new ByteArrayOutputStream();
+        var appender = new AsyncAppender(1024, new PrintStream(output, true, StandardCharsets.UTF_8));
+        var logger = new Logger("traffic", Level.DEBUG, 10, appender);
+        for (int i = 0; i < 100; i++) logger.log(Level.DEBUG, "message {}", i);
+        for (int i = 0; i < 5; i++) logger.log(Level.WARN, "warning {}", i);
+        appender.close();
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals(15, lines.length);
+        assertTrue(lines[1].endsWith("message=\"message 10\""));
+        assertTrue(lines[14].endsWith("message=\"warning 4\""));
+    }
+
+    /**
+     * Test that the events are dropped rather than waited for when the output does not keep up.
+     */
+    @Test
+    @Timeout(10)
+    void dropEventsGivenFullBuffer() throws InterruptedException {
+        var isWriting = new CountDownLatch(1);
+        var canWrite = new CountDownLatch(1);
+        var written = new AtomicInteger();
+        var output = new OutputStream() {
+            @Override
+            public void write(int b) {
+                isWriting.countDown();
+                try {
+                    canWrite.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (b == '\n') written.incrementAndGet();
+            }
+        };
+        var appender = new AsyncAppender(4, new PrintStream(output, false, StandardCharsets.UTF_8));
+        var logger = new Logger("traffic", Level.DEBUG, 1, appender);
+        logger.log(Level.DEBUG, "first");
+        isWriting.await();
+        // the slot of the event being written is only freed once it has been written
+        for (int i = 0; i < 10; i++) logger.log(Level.DEBUG, "next");
+        canWrite.countDown();
+        appender.close();
+
+        assertEquals(7, appender.getDropped());
+        assertEquals(4, written.get());
+    }
+}
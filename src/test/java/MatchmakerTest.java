@@ -0,0 +1,117 @@
+import org.junit.jupiter.api.Test;
+import server.matchmaking.FifoPolicy;
+import server.matchmaking.Matchmaker;
+import server.matchmaking.RatingWindowPolicy;
+import server.matchmaking.Ticket;
+import server.matchmaking.WaitHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests pairing the clients that wait in the matchmaking queue.
+ * e.g. pairing in the order of joining, leaving the queue, pairing by the ratings, measuring the waiting times, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class MatchmakerTest {
+
+    /**
+     * Test that the FIFO policy pairs the clients in the order of joining, skipping those that have left.
+     */
+    @Test
+    void pairClientsInOrderOfJoining() throws InterruptedException {
+        List<String> pairs = Collections.synchronizedList(new ArrayList<>());
+        var matchmaker = new Matchmaker<String>(new FifoPolicy(), (first, second) -> pairs.add(first + "-" + second));
+        matchmaker.join("a");
+        matchmaker.toggle("b");
+        matchmaker.toggle("b");
+        matchmaker.join("c");
+        matchmaker.join("c");
+        matchmaker.join("d");
+        matchmaker.leave("d");
+        matchmaker.join("e");
+        // the requests made before starting are applied in the first round
+        matchmaker.start();
+        awaitMatches(matchmaker, 1);
+        matchmaker.close();
+
+        assertEquals(List.of("a-c"), pairs);
+        assertEquals(1, matchmaker.getWaiting());
+        assertEquals(2, matchmaker.getWaitTimes().getCount());
+        assertEquals(1, matchmaker.getMatches());
+    }
+
+    /**
+     * Test that many clients joining at once from several threads are all paired.
+     */
+    @Test
+    void pairClientsGivenConcurrentJoins() throws InterruptedException {
+        var matchmaker = new Matchmaker<Integer>(new FifoPolicy(), (first, second) -> {
+        });
+        matchmaker.start();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int offset = i * 5000;
+            var thread = new Thread(() -> {
+                for (int j = 0; j < 5000; j++) matchmaker.join(offset + j);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) thread.join();
+        awaitMatches(matchmaker, 10_000);
+        matchmaker.close();
+
+        assertEquals(10_000, matchmaker.getMatches());
+        assertEquals(0, matchmaker.getWaiting());
+    }
+
+    /**
+     * Test that the rating window policy pairs the close ratings, and widens the window while the clients wait.
+     */
+    @Test
+    void pairClientsGivenRatingWindow() {
+        var policy = new RatingWindowPolicy(50, 100, 300);
+        long now = System.nanoTime();
+        long secondsAgo = now - TimeUnit.SECONDS.toNanos(2);
+        List<Ticket<String>> waiting = List.of(new Ticket<>("a", 1000, now), new Ticket<>("b", 2000, now),
+                new Ticket<>("c", 1040, now), new Ticket<>("d", 1600, now), new Ticket<>("e", 1800, secondsAgo));
+        List<String> pairs = new ArrayList<>();
+        policy.pair(waiting, now, (first, second) -> pairs.add(first.getClient() + "-" + second.getClient()));
+
+        assertEquals(List.of("a-c", "d-e"), pairs);
+        assertEquals(50, policy.getWindow(waiting.get(0), now));
+        assertEquals(250, policy.getWindow(waiting.get(4), now));
+        assertEquals(300, policy.getWindow(waiting.get(4), now + TimeUnit.SECONDS.toNanos(60)));
+    }
+
+    /**
+     * Test that the percentiles of the waiting times are accurate within the width of their buckets.
+     */
+    @Test
+    void estimateWaitPercentiles() {
+        var histogram = new WaitHistogram();
+        assertEquals(0, histogram.getPercentile(50), 1e-9);
+        for (int i = 1; i <= 1000; i++) histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500, histogram.getPercentile(50), 500 * 0.07);
+        assertEquals(990, histogram.getPercentile(99), 990 * 0.07);
+        assertEquals(1000, histogram.getPercentile(100), 1e-9);
+        assertEquals(1, histogram.getPercentile(0), 0.07);
+        assertEquals(1000, histogram.getMax(), 1e-9);
+    }
+
+    /**
+     * Wait until the matchmaker has paired the given number of pairs.
+     */
+    private static void awaitMatches(Matchmaker<?> matchmaker, long matches) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (matchmaker.getMatches() < matches && System.nanoTime() < deadline) Thread.sleep(10);
+    }
+}
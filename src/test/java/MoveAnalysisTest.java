@@ -0,0 +1,187 @@
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.strategy.ExpertStrategy;
+import entity.strategy.MoveAnalysis;
+import entity.strategy.SearchLimits;
+import entity.strategy.SearchStatistics;
+import entity.strategy.SearchStrategy;
+import entity.strategy.StatisticsAggregator;
+import entity.strategy.evaluator.NetworkEvaluator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import server.AnalysisExecutor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests ranking the best moves of a position in a single search.
+ * e.g. matching the full ranking, putting the winning move first, following the principal variations, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class MoveAnalysisTest {
+    private static final long SEED = 42;
+
+    /**
+     * Test that the best moves have the same scores as the best moves of the ranking of all moves.
+     */
+    @Test
+    void rankLikeAllMovesGivenRandomGames() {
+        var random = new Random(SEED);
+        int[] moves = new int[BitBoard.MOVES];
+        for (int game = 0; game < 10; game++) {
+            BitBoard board = new BitBoard();
+            int plies = 4 + random.nextInt(12);
+            for (int ply = 0; ply < plies && !board.isGameOver(); ply++) {
+                board = board.play(moves[random.nextInt(board.getMoves(moves))]);
+            }
+            if (board.isGameOver()) continue;
+
+            List<MoveAnalysis> best = new SearchStrategy(new NetworkEvaluator(), 2, 60_000)
+                    .analyze(board.toBoard(), 3);
+            List<MoveAnalysis> all = new SearchStrategy(new NetworkEvaluator(), 2, 60_000)
+                    .analyze(board.toBoard(), BitBoard.MOVES);
+
+            assertEquals(3, best.size());
+            assertEquals(board.getMoves(moves), all.size());
+            for (int i = 0; i < best.size(); i++) {
+                assertEquals(all.get(i).getScore(), best.get(i).getScore());
+                if (i > 0) assertTrue(best.get(i - 1).getScore() >= best.get(i).getScore());
+            }
+        }
+    }
+
+    /**
+     * Test that the winning move is ranked first and its variation ends with it,
+     * while the variations of the other moves are valid moves of both players.
+     */
+    @Test
+    void rankWinFirstGivenFourInRow() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 1, 2, 3);
+        board.setFields(Marble.WHITE, 12, 13, 14);
+
+        List<MoveAnalysis> analyses = new SearchStrategy(new NetworkEvaluator(), 3, 60_000).analyze(board, 5);
+        MoveAnalysis win = analyses.get(0);
+        assertEquals(SearchStrategy.WIN_SCORE - 1, win.getScore());
+        assertEquals(List.of(win.getMove()), win.getVariation());
+
+        for (MoveAnalysis analysis : analyses) {
+            Board copy = board.deepCopy();
+            assertEquals(analysis.getMove(), analysis.getVariation().get(0));
+            for (Move move : analysis.getVariation()) {
+                assertTrue(copy.isValidMove(move));
+                copy.playMove(move);
+            }
+        }
+    }
+
+    /**
+     * Test that a copy of a board with white to move is analysed for white,
+     * so that the winning move of white is ranked first.
+     */
+    @Test
+    void rankWinFirstGivenWhiteToMove() {
+        var board = new Board();
+        board.setFields(Marble.WHITE, 0, 1, 2, 3);
+        board.setFields(Marble.BLACK, 12, 13, 14);
+        board.playMove(new Move(33, 7, Marble.BLACK));
+        assertEquals(Marble.WHITE, board.getTurn());
+
+        Board copy = board.deepCopy();
+        assertEquals(Marble.WHITE, copy.getTurn());
+        MoveAnalysis win = new SearchStrategy(new NetworkEvaluator(), 3, 60_000).analyze(copy, 3).get(0);
+        assertEquals(SearchStrategy.WIN_SCORE - 1, win.getScore());
+        assertEquals(Marble.WHITE, win.getMove().getMarble());
+        copy.playMove(win.getMove());
+        assertTrue(copy.isWinner(Marble.WHITE));
+    }
+
+    /**
+     * Test that the analysis still ranks distinct legal moves if its first iteration is stopped,
+     * either by the node limit or by interrupting the thread.
+     */
+    @Test
+    void rankLegalMovesGivenAbortedFirstIteration() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 7, 14, 21);
+        board.setFields(Marble.WHITE, 0, 30, 35);
+        var strategy = new SearchStrategy(new NetworkEvaluator(), 3, 60_000);
+
+        List<MoveAnalysis> limited = strategy.analyze(board, 5, new SearchLimits(3, 60_000, 1),
+                new SearchStatistics());
+        Thread.currentThread().interrupt();
+        List<MoveAnalysis> interrupted;
+        try {
+            interrupted = strategy.analyze(board, 5);
+        } finally {
+            Thread.interrupted();
+        }
+
+        for (List<MoveAnalysis> analyses : List.of(limited, interrupted)) {
+            assertEquals(5, analyses.size());
+            Set<Integer> moves = new HashSet<>();
+            for (MoveAnalysis analysis : analyses) {
+                Move move = analysis.getMove();
+                assertTrue(board.isValidMove(move));
+                assertTrue(moves.add(move.getPosition() * BitBoard.ROTATIONS + move.getRotation()));
+            }
+        }
+    }
+
+    /**
+     * Test that a strategy that does not score the moves gives its decided move only.
+     */
+    @Test
+    void analyzeDecidedMoveGivenExpertStrategy() {
+        var board = new Board();
+        List<MoveAnalysis> analyses = new ExpertStrategy().analyze(board, 3);
+        assertEquals(1, analyses.size());
+        assertTrue(board.isValidMove(analyses.get(0).getMove()));
+    }
+
+    /**
+     * Test that the executor analyses the positions on its own worker and records their statistics,
+     * and rejects the analyses that do not fit into its queue rather than making them wait.
+     */
+    @Test
+    @Timeout(30)
+    void rejectAnalysesGivenFullQueue() throws InterruptedException {
+        var aggregator = new StatisticsAggregator();
+        var executor = new AnalysisExecutor(1, 1, aggregator);
+        try {
+            var board = new Board();
+            List<CompletableFuture<List<MoveAnalysis>>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) futures.add(executor.submit(board, 3));
+
+            int done = 0;
+            for (CompletableFuture<List<MoveAnalysis>> future : futures) {
+                try {
+                    List<MoveAnalysis> analyses = future.get();
+                    assertEquals(3, analyses.size());
+                    assertTrue(board.isValidMove(analyses.get(0).getMove()));
+                    done++;
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof RejectedExecutionException);
+                }
+            }
+            assertTrue(done >= 1);
+            assertEquals(20 - done, executor.getRejected());
+            assertTrue(executor.getRejected() > 0);
+            assertEquals(done, aggregator.getDecisions(AnalysisExecutor.STATISTICS_NAME));
+        } finally {
+            executor.close();
+        }
+    }
+}
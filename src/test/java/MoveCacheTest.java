@@ -0,0 +1,160 @@
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Symmetry;
+import entity.strategy.search.MoveCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the shared move cache and the board symmetries it relies on.
+ * e.g. mapping moves, sharing entries between symmetric positions, evicting entries, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class MoveCacheTest {
+    private static final long SEED = 42;
+
+    /**
+     * Test that playing a move and then mapping the position is the same as mapping both and then playing.
+     */
+    @Test
+    void mapMovesGivenRandomGames() {
+        var random = new Random(SEED);
+        int[] moves = new int[BitBoard.MOVES];
+        for (int game = 0; game < 50; game++) {
+            BitBoard board = new BitBoard();
+            while (!board.isGameOver()) {
+                int count = board.getMoves(moves);
+                int move = moves[random.nextInt(count)];
+                for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+                    BitBoard mapped = Symmetry.apply(board, symmetry);
+                    assertEquals(Symmetry.apply(board.play(move), symmetry),
+                            mapped.play(Symmetry.applyToMove(move, symmetry)));
+                    assertEquals(board, Symmetry.apply(mapped, Symmetry.inverse(symmetry)));
+                }
+                board = board.play(move);
+            }
+        }
+    }
+
+    /**
+     * Test that a move stored for a position is found for its mirrored position, and it is mirrored too.
+     */
+    @Test
+    void shareEntryGivenMirroredPosition() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 1, 2);
+        board.setFields(Marble.WHITE, 7);
+        BitBoard original = BitBoard.of(board);
+        var cache = new MoveCache(64);
+
+        // place a marble on the top right subboard and rotate the top left subboard clockwise
+        int move = BitBoard.encode(3, 1);
+        cache.store(original, move, 42, 3);
+
+        // flip the columns left to right
+        BitBoard mirrored = Symmetry.apply(original, 4);
+        long entry = cache.probe(mirrored);
+        assertNotEquals(0, entry);
+        assertEquals(BitBoard.encode(2, 2), MoveCache.getMove(entry));
+        assertEquals(42, MoveCache.getScore(entry));
+        assertEquals(3, MoveCache.getDepth(entry));
+        assertEquals(1, cache.getHits());
+    }
+
+    /**
+     * Test that a deeper result is not replaced with a shallower one.
+     */
+    @Test
+    void keepDeeperEntry() {
+        var cache = new MoveCache(64);
+        var board = new BitBoard(1L, 2L, Marble.BLACK);
+        cache.store(board, 10, 5, 4);
+        cache.store(board, 20, 7, 2);
+        assertEquals(4, MoveCache.getDepth(cache.probe(board)));
+
+        cache.store(board, 20, 7, 5);
+        assertEquals(5, MoveCache.getDepth(cache.probe(board)));
+    }
+
+    /**
+     * Test that the referenced entries survive the eviction while the cache is full.
+     */
+    @Test
+    void keepReferencedEntriesGivenFullCache() {
+        var cache = new MoveCache(4);
+        List<BitBoard> boards = createPositions(64);
+        BitBoard kept = boards.get(0);
+        cache.store(kept, 0, 0, 1);
+        for (int i = 1; i < boards.size(); i++) {
+            assertNotEquals(0, cache.probe(kept));
+            cache.store(boards.get(i), 0, 0, 1);
+        }
+        assertNotEquals(0, cache.probe(kept));
+        assertTrue(cache.getEvictions() > 0);
+        assertEquals(0, cache.getMisses());
+    }
+
+    /**
+     * Test that the threads sharing the cache never read a move of another position.
+     */
+    @Test
+    void readOwnMovesGivenConcurrentThreads() throws InterruptedException {
+        var cache = new MoveCache(256);
+        List<BitBoard> boards = createPositions(2000);
+        List<Thread> threads = new ArrayList<>();
+        List<AssertionError> errors = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            var thread = new Thread(() -> {
+                for (int round = 0; round < 20; round++) {
+                    for (BitBoard board : boards) {
+                        // the stored move is derived from the position, so it can be checked on every hit
+                        int move = getMarker(board);
+                        cache.store(board, move, 0, 1);
+                        long entry = cache.probe(board);
+                        if (entry != 0 && MoveCache.getMove(entry) != move) {
+                            synchronized (errors) {
+                                errors.add(new AssertionError("wrong move of " + board));
+                            }
+                        }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.isEmpty());
+    }
+
+    /**
+     * Get a move that is the same for all symmetric positions after mapping them to the canonical form.
+     */
+    private static int getMarker(BitBoard board) {
+        int symmetry = Symmetry.getCanonical(board);
+        int canonicalMove = (int) (Math.floorMod(Symmetry.apply(board, symmetry).getKey(), BitBoard.MOVES));
+        return Symmetry.applyToMove(canonicalMove, Symmetry.inverse(symmetry));
+    }
+
+    private static List<BitBoard> createPositions(int count) {
+        var random = new Random(SEED);
+        int[] moves = new int[BitBoard.MOVES];
+        List<BitBoard> boards = new ArrayList<>();
+        while (boards.size() < count) {
+            BitBoard board = new BitBoard();
+            for (int ply = 0; ply < 8 && !board.isGameOver(); ply++) {
+                board = board.play(moves[random.nextInt(board.getMoves(moves))]);
+            }
+            if (!boards.contains(board)) boards.add(board);
+        }
+        return boards;
+    }
+}
@@ -0,0 +1,104 @@
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.strategy.SearchStrategy;
+import entity.strategy.evaluator.NetworkEvaluator;
+import entity.strategy.evaluator.NetworkWeights;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the network evaluator and its incremental updates.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class NetworkEvaluatorTest {
+    private NetworkEvaluator evaluator;
+
+    @BeforeEach
+    void setUp() {
+        evaluator = new NetworkEvaluator();
+    }
+
+    /**
+     * Test that the incrementally updated evaluation is equal to the evaluation computed from scratch.
+     */
+    @Test
+    void evaluateIncrementallyGivenRandomGames() {
+        var random = new Random(7);
+        int[] moves = new int[BitBoard.MOVES];
+        for (int game = 0; game < 100; game++) {
+            BitBoard board = new BitBoard();
+            evaluator.reset(board);
+            while (!board.isGameOver()) {
+                int count = board.getMoves(moves);
+                board = board.play(moves[random.nextInt(count)]);
+                evaluator.push(board);
+                assertEquals(new NetworkEvaluator().evaluate(board), evaluator.evaluate(board));
+            }
+        }
+    }
+
+    /**
+     * Test that the evaluation is the same after returning to the previous position.
+     */
+    @Test
+    void evaluateAfterPop() {
+        BitBoard board = new BitBoard().play(14, 0).play(15, 0);
+        evaluator.reset(board);
+        int score = evaluator.evaluate(board);
+
+        BitBoard child = board.play(20, 7);
+        evaluator.push(child);
+        evaluator.evaluate(child);
+        evaluator.pop();
+        assertEquals(score, evaluator.evaluate(board));
+    }
+
+    /**
+     * Test that the player with more marbles in a streak has a better evaluation.
+     */
+    @Test
+    void preferLongerStreak() {
+        var board = new BitBoard(0b1111L, 1L << 35, Marble.BLACK);
+        assertTrue(evaluator.evaluate(board) > 0);
+        assertTrue(evaluator.evaluate(new BitBoard(0b1111L, 1L << 35, Marble.WHITE)) < 0);
+    }
+
+    /**
+     * Test that written weights are read back unchanged.
+     *
+     * @throws IOException in case the weights could not be written or read
+     */
+    @Test
+    void readWrittenWeights() throws IOException {
+        var out = new ByteArrayOutputStream();
+        NetworkWeights.createDefault().write(out);
+        NetworkWeights weights = NetworkWeights.read(new ByteArrayInputStream(out.toByteArray()));
+
+        BitBoard board = new BitBoard().play(3, 2).play(21, 5).play(8, 1);
+        assertEquals(evaluator.evaluate(board), new NetworkEvaluator(weights).evaluate(board));
+    }
+
+    /**
+     * Test that the search strategy with the network evaluator finishes the streak of four marbles.
+     */
+    @Test
+    void searchStrategyWinsGivenFourInRow() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 1, 2, 3);
+        board.setFields(Marble.WHITE, 30, 31, 32);
+        Move move = new SearchStrategy().decideMove(board);
+
+        board.playMove(new Move(move.getPosition(), move.getRotation(), Marble.BLACK));
+        assertTrue(board.isWinner(Marble.BLACK));
+    }
+}
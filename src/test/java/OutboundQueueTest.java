@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import server.OutboundQueue;
+import server.SlowConsumerPolicy;
+import server.SocketConnection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests queueing the messages that are sent to the clients.
+ * e.g. bounding the queue, writing the messages in order, handling a client that does not read them, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class OutboundQueueTest {
+    private static final String LARGE_MESSAGE = "x".repeat(64 * 1024);
+
+    /**
+     * Test that the queue refuses the messages beyond its capacity, and gives out the rest in batches.
+     */
+    @Test
+    void drainMessagesInBatches() {
+        var queue = new OutboundQueue(3, SlowConsumerPolicy.DROP);
+        assertTrue(queue.offer("first"));
+        assertTrue(queue.offer("second"));
+        assertTrue(queue.offer("third"));
+        assertFalse(queue.offer("fourth"));
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.getDropped());
+
+        List<byte[]> batch = new ArrayList<>();
+        assertEquals(13, queue.drainTo(batch, 10));
+        assertEquals(2, batch.size());
+        assertEquals("second\n", new String(batch.get(1), StandardCharsets.UTF_8));
+        assertEquals(6, queue.drainTo(batch, 10));
+        assertEquals(0, queue.size());
+    }
+
+    /**
+     * Test that only one thread at a time drains the queue, and that it goes on if a message arrives meanwhile.
+     */
+    @Test
+    void drainQueueByOneThread() {
+        var queue = new OutboundQueue(OutboundQueue.DEFAULT_CAPACITY, SlowConsumerPolicy.DROP);
+        assertTrue(queue.startDraining());
+        assertFalse(queue.startDraining());
+        queue.offer("message");
+        assertTrue(queue.stopDraining());
+        queue.clear();
+        assertFalse(queue.stopDraining());
+        assertTrue(queue.startDraining());
+    }
+
+    /**
+     * Test that the messages arrive in the order in which they have been sent.
+     */
+    @Test
+    @Timeout(10)
+    void writeMessagesInOrder() throws IOException {
+        try (var server = new ServerSocket(0);
+             var client = new Socket("localhost", server.getLocalPort());
+             var accepted = server.accept()) {
+            var connection = new SocketConnection(accepted);
+            for (int i = 0; i < 1000; i++) connection.send("MESSAGE~" + i);
+
+            var in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+            for (int i = 0; i < 1000; i++) assertEquals("MESSAGE~" + i, in.readLine());
+            connection.close();
+        }
+    }
+
+    /**
+     * Test that a client that does not read its messages is disconnected without blocking the sender.
+     */
+    @Test
+    @Timeout(10)
+    void disconnectSlowConsumer() throws IOException, InterruptedException {
+        try (var server = new ServerSocket(0);
+             var client = new Socket("localhost", server.getLocalPort());
+             var accepted = server.accept()) {
+            var connection = new SocketConnection(accepted, 4, SlowConsumerPolicy.DISCONNECT);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!connection.isClosed() && System.nanoTime() < deadline) connection.send(LARGE_MESSAGE);
+
+            assertTrue(connection.isClosed());
+            assertEquals(1, connection.getOutbound().getDropped());
+        }
+    }
+
+    /**
+     * Test that the messages to a client that does not read them are dropped, while the client stays connected.
+     */
+    @Test
+    @Timeout(10)
+    void dropMessagesOfSlowConsumer() throws IOException {
+        try (var server = new ServerSocket(0);
+             var client = new Socket("localhost", server.getLocalPort());
+             var accepted = server.accept()) {
+            var connection = new SocketConnection(accepted, 4, SlowConsumerPolicy.DROP);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (connection.getOutbound().getDropped() < 10 && System.nanoTime() < deadline) {
+                connection.send(LARGE_MESSAGE);
+            }
+
+            assertFalse(connection.isClosed());
+            assertEquals(10, connection.getOutbound().getDropped());
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import benchmark.Perft;
+import benchmark.SuitePosition;
+import benchmark.SuiteRunner;
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests counting the positions reachable in the given number of moves (perft).
+ * e.g. counting the move sequences, matching the regular board, counting the distinct positions, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class PerftTest {
+    private final Perft perft = new Perft(new ForkJoinPool(2));
+
+    /**
+     * Test the number of the move sequences from the empty board, where no game is over yet.
+     */
+    @Test
+    void countMovesGivenEmptyBoard() {
+        var root = new BitBoard();
+        assertEquals(1, perft.count(root, 0));
+        assertEquals(288, perft.count(root, 1));
+        assertEquals(288 * 280, perft.count(root, 2));
+        assertEquals(288L * 280 * 272, perft.count(root, 3));
+        assertEquals(288 * 280, Perft.countReference(new Board(), Marble.BLACK, 2));
+    }
+
+    /**
+     * Test that the bit board matches the regular board on the tactical positions,
+     * where many games end after a move or two.
+     */
+    @Test
+    void matchReferenceGivenSuitePositions() throws IOException {
+        for (SuitePosition position : SuiteRunner.loadDefault()) {
+            BitBoard root = position.getBoard();
+            assertEquals(Perft.countReference(root.toBoard(), root.getTurn(), 2), perft.count(root, 2));
+            assertNull(perft.findMismatch(root, 2));
+        }
+    }
+
+    /**
+     * Test the number of the distinct positions from the empty board, with and without the symmetries.
+     */
+    @Test
+    void countDistinctPositionsGivenEmptyBoard() {
+        assertArrayEquals(new long[]{1, 36, 1260}, perft.countDistinct(new BitBoard(), 2, false));
+        assertArrayEquals(new long[]{1, 6, 165}, perft.countDistinct(new BitBoard(), 2, true));
+    }
+
+    /**
+     * Test that a game that is over is not continued.
+     */
+    @Test
+    void stopGivenGameOver() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 1, 2, 3, 4);
+        board.setFields(Marble.WHITE, 12, 13, 14, 15);
+        BitBoard root = BitBoard.of(board);
+        assertEquals(1, perft.count(root, 0));
+        assertEquals(0, perft.count(root, 1));
+        assertEquals(0, Perft.countReference(board, Marble.WHITE, 1));
+        assertArrayEquals(new long[]{1, 0}, perft.countDistinct(root, 1, false));
+    }
+}
@@ -0,0 +1,109 @@
+import benchmark.SuitePosition;
+import benchmark.SuiteResult;
+import benchmark.SuiteRunner;
+import entity.board.BitBoard;
+import entity.board.Move;
+import entity.strategy.ExpertStrategy;
+import entity.strategy.SearchLimits;
+import entity.strategy.StrategyRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the tactical suite and running the strategies against it.
+ * e.g. loading the suite, checking its best moves, measuring the solved positions, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class PositionSuiteTest {
+
+    /**
+     * Test that the suite is loaded with distinct positions, whose winning moves do win the game.
+     */
+    @Test
+    void loadDefaultSuite() throws IOException {
+        List<SuitePosition> suite = SuiteRunner.loadDefault();
+        assertEquals(30, suite.size());
+        assertEquals(suite.size(), suite.stream().map(SuitePosition::getId).collect(Collectors.toSet()).size());
+        assertEquals(suite.size(), new HashSet<>(suite.stream().map(SuitePosition::getBoard)
+                .collect(Collectors.toList())).size());
+
+        for (SuitePosition position : suite) {
+            BitBoard board = position.getBoard();
+            assertFalse(board.isGameOver());
+            assertFalse(position.getSolutions().isEmpty());
+            if (!position.getId().startsWith("win-1")) continue;
+            for (int move : position.getSolutions()) {
+                assertEquals(board.getTurn(), board.play(move).getWinner());
+            }
+        }
+    }
+
+    /**
+     * Test that a move solves the position if it gives the same position as a listed move,
+     * e.g. rotating the other empty quadrant.
+     */
+    @Test
+    void solveGivenEquivalentMoves() throws IOException {
+        Map<String, SuitePosition> suite = SuiteRunner.loadDefault().stream()
+                .collect(Collectors.toMap(SuitePosition::getId, position -> position));
+        SuitePosition win = suite.get("win-2-08");
+        assertTrue(win.isSolution(new Move(20, 0)));
+        assertTrue(win.isSolution(new Move(20, 1)));
+        assertFalse(win.isSolution(new Move(20, 2)));
+        SuitePosition defence = suite.get("defence-10");
+        assertTrue(defence.isSolution(new Move(4, 5)));
+        assertFalse(defence.isSolution(new Move(4, 2)));
+        assertFalse(defence.isSolution(new Move(5, 0)));
+    }
+
+    /**
+     * Test that the invalid suite lines are rejected, e.g. a solution on an occupied field.
+     */
+    @Test
+    void failParseGivenInvalidLines() {
+        String fields = "b".repeat(2) + ".".repeat(34);
+        assertNotNull(SuitePosition.parse("valid; " + fields + "; w; 2/0"));
+        assertThrows(IllegalArgumentException.class, () -> SuitePosition.parse("missing; " + fields + "; w"));
+        assertThrows(IllegalArgumentException.class, () -> SuitePosition.parse("short; bb..; w; 2/0"));
+        assertThrows(IllegalArgumentException.class, () -> SuitePosition.parse("occupied; " + fields + "; w; 1/0"));
+        assertThrows(IllegalArgumentException.class, () -> SuitePosition.parse("rotation; " + fields + "; w; 2/8"));
+    }
+
+    /**
+     * Test that the runner tells apart the strategies: the search solves every immediate win and defence
+     * in parallel, while the expert strategy solves the immediate wins only.
+     */
+    @Test
+    void runStrategiesAgainstSuite() throws IOException, InterruptedException {
+        List<SuitePosition> suite = SuiteRunner.loadDefault().stream()
+                .filter(position -> !position.getId().startsWith("win-2"))
+                .collect(Collectors.toList());
+        var limits = new SearchLimits(2, 10_000, SearchLimits.NO_NODE_LIMIT);
+
+        List<SuiteResult> results = new SuiteRunner(StrategyRegistry.getFactory("search-2"), limits, 4).run(suite);
+        assertEquals(suite.size(), results.size());
+        for (int i = 0; i < suite.size(); i++) {
+            SuiteResult result = results.get(i);
+            assertSame(suite.get(i), result.getPosition());
+            assertTrue(result.isSolved());
+            assertTrue(result.getNanosToSolution() <= result.getElapsedNanos());
+            assertTrue(result.getNodesToSolution() <= result.getNodes());
+        }
+        String json = SuiteRunner.toJson("search-2", limits, results);
+        assertTrue(json.contains("\"solved\": " + suite.size() + ","));
+
+        results = new SuiteRunner(ExpertStrategy::new, limits, 2).run(suite);
+        for (SuiteResult result : results) {
+            if (result.getPosition().getId().startsWith("win-1")) assertTrue(result.isSolved());
+        }
+        assertTrue(results.stream().anyMatch(result -> !result.isSolved()));
+    }
+}
@@ -0,0 +1,69 @@
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.strategy.search.ProofNumberSearch;
+import entity.strategy.search.ProofResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the proof-number search.
+ * e.g. proving forced wins, finding the winning move, running out of the budget, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class ProofNumberSearchTest {
+
+    /**
+     * Test that the win is proven and the winning move is found given four marbles in a row.
+     */
+    @Test
+    void proveWinGivenFourInRow() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 1, 2, 3);
+        board.setFields(Marble.WHITE, 12, 13, 14, 15);
+        BitBoard bitBoard = BitBoard.of(board);
+
+        var search = new ProofNumberSearch(10_000, 1 << 12);
+        assertEquals(ProofResult.PROVEN, search.prove(bitBoard));
+
+        int move = search.getWinningMove(bitBoard);
+        assertEquals(Marble.BLACK, bitBoard.play(move).getWinner());
+    }
+
+    /**
+     * Test that a finished game is disproven, as there are no moves left to make.
+     */
+    @Test
+    void disproveGivenFinishedGame() {
+        var board = new Board();
+        board.setFields(Marble.WHITE, 0, 1, 2, 3, 4);
+        var search = new ProofNumberSearch(10_000, 1 << 12);
+        assertEquals(ProofResult.DISPROVEN, search.prove(BitBoard.of(board)));
+    }
+
+    /**
+     * Test that the search gives up when it runs out of the budget on the empty board.
+     */
+    @Test
+    void unknownGivenSmallBudget() {
+        var search = new ProofNumberSearch(100, 1 << 12);
+        assertEquals(ProofResult.UNKNOWN, search.prove(new BitBoard()));
+        assertEquals(-1, search.getWinningMove(new BitBoard()));
+    }
+
+    /**
+     * Test that the limits of the caller cut the proof short, but never raise its budget.
+     */
+    @Test
+    void unknownGivenCallerLimits() {
+        var search = new ProofNumberSearch(1_000, 1 << 12);
+        assertEquals(ProofResult.UNKNOWN, search.prove(new BitBoard(), 100, Long.MAX_VALUE));
+        assertTrue(search.getNodes() <= 100);
+        assertEquals(ProofResult.UNKNOWN, search.prove(new BitBoard(), Long.MAX_VALUE, Long.MAX_VALUE));
+        assertTrue(search.getNodes() <= 1_000);
+        assertEquals(ProofResult.UNKNOWN, search.prove(new BitBoard(), Long.MAX_VALUE, 0));
+        assertEquals(1, search.getNodes());
+    }
+}
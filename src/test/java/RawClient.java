@@ -0,0 +1,70 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Client that speaks the protocol over a plain socket, so that the tests can send the messages exactly
+ * as they want and read the replies of the server line by line.
+ *
+ * @author Aliaksei Kouzel
+ */
+class RawClient implements AutoCloseable {
+    private final Socket socket;
+    private final BufferedReader in;
+    private final PrintWriter out;
+
+    /**
+     * Connect to the server without saying anything.
+     *
+     * @param port port of the server
+     * @throws IOException if the server cannot be reached
+     */
+    RawClient(int port) throws IOException {
+        socket = new Socket("localhost", port);
+        socket.setSoTimeout(10_000);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Connect to the server, say hello and log in.
+     *
+     * @param port     port of the server
+     * @param username name of the user
+     * @throws IOException if the server cannot be reached or disconnects before the login
+     */
+    RawClient(int port, String username) throws IOException {
+        this(port);
+        send("HELLO~Raw client");
+        await("HELLO");
+        send("LOGIN~" + username);
+        await("LOGIN");
+    }
+
+    void send(String message) {
+        out.println(message);
+    }
+
+    /**
+     * Read the lines until one of them starts with the type, skipping the others.
+     *
+     * @param type message type, or an empty string to read the next line
+     * @return line that starts with the type
+     * @throws IOException if the connection is closed or the server does not reply in time
+     */
+    String await(String type) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.startsWith(type)) return line;
+        }
+        throw new IOException("Connection closed while waiting for " + type);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
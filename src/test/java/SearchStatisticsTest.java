@@ -0,0 +1,83 @@
+import entity.board.Board;
+import entity.board.Marble;
+import entity.player.AIPlayer;
+import entity.strategy.ExpertStrategy;
+import entity.strategy.SearchPhase;
+import entity.strategy.SearchStatistics;
+import entity.strategy.SearchStrategy;
+import entity.strategy.StatisticsAggregator;
+import entity.strategy.evaluator.NetworkEvaluator;
+import entity.strategy.search.MoveCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the statistics of the decisions made by the strategies.
+ * e.g. filling in the search statistics, keeping the last statistics of the AI player, aggregating them, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SearchStatisticsTest {
+
+    /**
+     * Test that the search strategy reports the visited positions, the depth and the table lookups.
+     */
+    @Test
+    void fillInStatisticsGivenSearch() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 14);
+        board.setFields(Marble.WHITE, 7, 21);
+
+        var statistics = new SearchStatistics();
+        new SearchStrategy(new NetworkEvaluator(), 2, 10_000).decideMove(board, statistics);
+
+        assertEquals(2, statistics.getDepth());
+        assertTrue(statistics.getNodes() > 0);
+        assertTrue(statistics.getTableProbes() > 0 && statistics.getTableHits() <= statistics.getTableProbes());
+        assertTrue(statistics.getBranchingFactor() > 1);
+        assertTrue(statistics.getPhaseNanos(SearchPhase.SEARCH) > 0);
+        assertTrue(statistics.getElapsedNanos() >= statistics.getPhaseNanos(SearchPhase.SEARCH));
+        assertEquals(0, statistics.getCacheProbes());
+    }
+
+    /**
+     * Test that a repeated decision is taken from the move cache and reported as a cache hit.
+     */
+    @Test
+    void reportCacheHitGivenRepeatedDecision() {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 14);
+        board.setFields(Marble.WHITE, 7, 21);
+        var strategy = new SearchStrategy(new NetworkEvaluator(), 2, 10_000, null, new MoveCache(1024));
+
+        var first = new SearchStatistics();
+        strategy.decideMove(board, first);
+        var second = new SearchStatistics();
+        strategy.decideMove(board, second);
+
+        assertEquals(0, first.getCacheHits());
+        assertEquals(1, second.getCacheHits());
+        assertEquals(1.0, second.getCacheHitRate());
+        assertEquals(0, second.getNodes());
+    }
+
+    /**
+     * Test that the AI player keeps the statistics of its last decision and adds them to the aggregator.
+     */
+    @Test
+    void aggregateStatisticsOfAIPlayer() {
+        var aggregator = new StatisticsAggregator();
+        var player = new AIPlayer(new ExpertStrategy(), aggregator);
+        assertNull(player.getLastStatistics());
+
+        var board = new Board();
+        player.decideMove(board);
+        player.decideMove(board);
+
+        assertNotNull(player.getLastStatistics());
+        assertTrue(player.getLastStatistics().getElapsedNanos() > 0);
+        assertEquals(2, aggregator.getDecisions(player.getUsername()));
+        assertTrue(aggregator.toString().startsWith(player.getUsername() + ": 2 decisions"));
+    }
+}
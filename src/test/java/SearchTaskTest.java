@@ -0,0 +1,116 @@
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.strategy.ExpertStrategy;
+import entity.strategy.SearchLimits;
+import entity.strategy.SearchStrategy;
+import entity.strategy.SearchTask;
+import entity.strategy.evaluator.NetworkEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the anytime search that streams its results.
+ * e.g. reporting every finished iteration, cancelling the search, running the strategies that do not search, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SearchTaskTest {
+
+    /**
+     * Test that the listener is told about every iteration and the last reported move is the result.
+     */
+    @Test
+    void reportEveryIteration() throws ExecutionException, InterruptedException {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 14);
+        board.setFields(Marble.WHITE, 7, 21);
+        List<Integer> depths = new CopyOnWriteArrayList<>();
+        List<Move> moves = new CopyOnWriteArrayList<>();
+
+        var strategy = new SearchStrategy(new NetworkEvaluator(), 3, 60_000);
+        SearchTask task = SearchTask.start(strategy, board, new SearchLimits(3, 60_000, SearchLimits.NO_NODE_LIMIT),
+                (move, score, depth) -> {
+                    moves.add(move);
+                    depths.add(depth);
+                });
+
+        Move result = task.get();
+        assertEquals(List.of(1, 2, 3), depths);
+        Move lastReported = moves.get(moves.size() - 1);
+        assertEquals(lastReported.getPosition(), result.getPosition());
+        assertEquals(lastReported.getRotation(), result.getRotation());
+        assertEquals(3, task.getStatistics().getDepth());
+    }
+
+    /**
+     * Test that the search of a board with white to move searches for white, so it finds the winning move of white.
+     */
+    @Test
+    void winGivenWhiteToMove() throws ExecutionException, InterruptedException {
+        var board = new Board();
+        board.setFields(Marble.WHITE, 0, 1, 2, 3);
+        board.setFields(Marble.BLACK, 12, 13, 14);
+        board.playMove(new Move(33, 7, Marble.BLACK));
+
+        var strategy = new SearchStrategy(new NetworkEvaluator(), 3, 60_000);
+        Move move = SearchTask.start(strategy, board, new SearchLimits(3, 60_000, SearchLimits.NO_NODE_LIMIT),
+                (bestMove, score, depth) -> { }).get();
+
+        assertEquals(Marble.WHITE, move.getMarble());
+        board.playMove(move);
+        assertTrue(board.isWinner(Marble.WHITE));
+    }
+
+    /**
+     * Test that a cancelled search stops quickly with a valid move and does not report anything afterwards.
+     */
+    @Test
+    void stopGivenCancelledSearch() throws ExecutionException, InterruptedException {
+        var board = new Board();
+        board.setFields(Marble.BLACK, 0, 14);
+        board.setFields(Marble.WHITE, 7, 21);
+        var firstIteration = new CountDownLatch(1);
+        var cancelled = new AtomicBoolean();
+        var reportedAfterCancel = new AtomicBoolean();
+
+        var strategy = new SearchStrategy(new NetworkEvaluator(), SearchStrategy.MAX_DEPTH, 600_000);
+        var limits = new SearchLimits(SearchStrategy.MAX_DEPTH, 600_000, SearchLimits.NO_NODE_LIMIT);
+        SearchTask task = SearchTask.start(strategy, board, limits, (move, score, depth) -> {
+            if (cancelled.get()) reportedAfterCancel.set(true);
+            firstIteration.countDown();
+        });
+
+        assertTrue(firstIteration.await(10, TimeUnit.SECONDS));
+        task.cancel();
+        cancelled.set(true);
+        Move move = task.getResult().completeOnTimeout(null, 10, TimeUnit.SECONDS).get();
+
+        assertTrue(task.isCancelled());
+        assertTrue(board.isValidMove(move));
+        assertTrue(task.getStatistics().getDepth() < SearchStrategy.MAX_DEPTH);
+        assertFalse(reportedAfterCancel.get());
+    }
+
+    /**
+     * Test that a strategy that does not search reports its decided move once.
+     */
+    @Test
+    void reportDecidedMoveGivenExpertStrategy() throws ExecutionException, InterruptedException {
+        var board = new Board();
+        List<Move> moves = new CopyOnWriteArrayList<>();
+        SearchTask task = SearchTask.start(new ExpertStrategy(), board, new SearchLimits(1, 1000, 1000),
+                (move, score, depth) -> moves.add(move));
+
+        Move move = task.get();
+        assertEquals(List.of(move), moves);
+    }
+}
@@ -0,0 +1,102 @@
+import client.PentagoClient;
+import entity.ClientState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.PentagoServer;
+import server.SelectorTransport;
+import server.ServerMode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the server whose connections are served by the event loops.
+ * e.g. logging in the clients, splitting the received bytes into messages, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SelectorServerTest {
+    private PentagoServer server;
+    private InetAddress host;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new PentagoServer("Test server", ServerMode.SELECTOR);
+        assertTrue(server.start(0));
+        host = InetAddress.getByName("localhost");
+    }
+
+    /**
+     * Test logging several clients to the server. The server is not stopped, since the clients exit once
+     * they are disconnected.
+     */
+    @Test
+    void loginClients() {
+        for (int i = 0; i < 4; i++) {
+            var client = new PentagoClient("Test client");
+            assertTrue(client.connect(host, server.getPort()));
+            client.login("Test" + i);
+            assertEquals(ClientState.LOGGED_IN, client.getState());
+        }
+        assertEquals(4, server.getOnlineUsers().length);
+    }
+
+    /**
+     * Test that the messages are answered in order, whether they are split among the writes or sent together.
+     */
+    @Test
+    void handleMessagesGivenSplitWrites() throws IOException {
+        try (var socket = new Socket(host, server.getPort())) {
+            var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream out = socket.getOutputStream();
+            write(out, "HEL");
+            write(out, "LO~Raw client\r");
+            write(out, "\nPING\n\nPI");
+            write(out, "NG\n");
+
+            assertTrue(in.readLine().startsWith("HELLO~Test server"));
+            assertEquals("PONG", in.readLine());
+            assertEquals("PONG", in.readLine());
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Test that the connection is closed if the client sends a line that is too long.
+     */
+    @Test
+    void closeGivenTooLongLine() throws IOException {
+        try (var socket = new Socket(host, server.getPort())) {
+            var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream out = socket.getOutputStream();
+            try {
+                write(out, "a".repeat(SelectorTransport.MAX_LINE_LENGTH + 1));
+            } catch (IOException ignored) { // the server may have closed the connection already
+            }
+            assertNull(in.readLine());
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Write the text and send it at once.
+     */
+    private static void write(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
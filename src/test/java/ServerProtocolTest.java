@@ -9,6 +9,7 @@ import server.ServerProtocol;
 
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -208,6 +209,25 @@ public class ServerProtocolTest {
         assertEquals("Vlad", users[1]);
     }
 
+    /**
+     * Test processing the 'analysis' message sent by the client asking for the ranked moves
+     * and by the server carrying them.
+     */
+    @Test
+    void processAnalysisMessage() {
+        Map<String, Object> request = protocol.process("ANALYSIS~3", true);
+        assertEquals(MessageType.ANALYSIS, request.get("type"));
+        assertEquals(3, request.get("count"));
+
+        Map<String, Object> reply = protocol.process("ANALYSIS~14~1~250~21~6~-40", false);
+        assertArrayEquals(new int[]{14, 21}, (int[]) reply.get("positions"));
+        assertArrayEquals(new int[]{1, 6}, (int[]) reply.get("rotations"));
+        assertArrayEquals(new int[]{250, -40}, (int[]) reply.get("scores"));
+
+        assertThrows(IllegalArgumentException.class, () -> protocol.process("ANALYSIS~0", true));
+        assertThrows(IllegalArgumentException.class, () -> protocol.process("ANALYSIS~14~1", false));
+    }
+
     /**
      * Test failing to process the message by providing the invalid message type.
      */
@@ -0,0 +1,115 @@
+import client.PentagoClientHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import server.Connection;
+import server.PentagoServer;
+import server.ServerMode;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests that the server keeps no trace of the finished games over many of them.
+ * e.g. reaping the sessions after a player disconnects, in both the blocking and the selector mode,
+ * not starting the sessions of the departed players, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SessionSoakTest {
+    private static final int GAMES = 100;
+
+    /**
+     * Test that the sessions of the blocking server are reaped after their players disconnect.
+     */
+    @Test
+    void reapSessionsGivenBlockingServer() throws IOException, InterruptedException {
+        playAndDisconnect(ServerMode.BLOCKING);
+    }
+
+    /**
+     * Test that the sessions of the selector server are reaped after their players disconnect.
+     */
+    @Test
+    void reapSessionsGivenSelectorServer() throws IOException, InterruptedException {
+        playAndDisconnect(ServerMode.SELECTOR);
+    }
+
+    /**
+     * Test that a client paired with a client that has already left the server does not start a session,
+     * but returns to the queue and is paired with the next client.
+     */
+    @Test
+    @Timeout(10)
+    void requeueClientGivenDepartedPartner() throws IOException, InterruptedException {
+        var server = new PentagoServer("Test server", ServerMode.BLOCKING);
+        assertTrue(server.start(0));
+        try (var first = new RawClient(server.getPort(), "First");
+             var second = new RawClient(server.getPort(), "Second")) {
+            // the client has left the server before the matchmaker has got its request to leave the queue
+            server.getMatchmaker().join(new PentagoClientHandler(new Connection() {
+                @Override
+                public void send(String message) {
+                }
+
+                @Override
+                public void close() {
+                }
+
+                @Override
+                public void shutdown() {
+                }
+            }, server));
+            first.send("QUEUE");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (server.getMatchmaker().getMatches() < 1 && System.nanoTime() < deadline) Thread.sleep(10);
+            assertEquals(0, server.getSessions().size());
+
+            second.send("QUEUE");
+            assertEquals("NEWGAME~First~Second", first.await("NEWGAME"));
+            assertEquals(1, server.getSessions().size());
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Start many games on the server, in each of which a player disconnects, and check that the server
+     * forgets the sessions and the players.
+     *
+     * @param mode server mode
+     */
+    private static void playAndDisconnect(ServerMode mode) throws IOException, InterruptedException {
+        var server = new PentagoServer("Test server", mode);
+        assertTrue(server.start(0));
+        try {
+            for (int game = 0; game < GAMES; game++) {
+                try (var first = new RawClient(server.getPort(), "First" + game);
+                     var second = new RawClient(server.getPort(), "Second" + game)) {
+                    first.send("QUEUE");
+                    second.send("QUEUE");
+                    first.await("NEWGAME");
+                    second.await("NEWGAME");
+                    assertTrue(server.getSessions().size() <= 1);
+
+                    first.close();
+                    assertTrue(second.await("GAMEOVER").startsWith("GAMEOVER~DISCONNECT"));
+                }
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ((server.getSessions().size() > 0 || server.getOnlineUsers().length > 0)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, server.getSessions().size());
+            assertEquals(0, server.getSessions().getPlayers());
+            assertEquals(GAMES, server.getSessions().getReaped());
+            assertEquals(0, server.getOnlineUsers().length);
+            assertEquals(0, server.getUsers().size());
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+import benchmark.MatchScore;
+import benchmark.Sprt;
+import benchmark.SprtResult;
+import benchmark.SprtRunner;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the sequential probability ratio test of a candidate strategy against a baseline.
+ * e.g. accepting either of the hypotheses, stopping early, running out of games, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class SprtTest {
+
+    /**
+     * Test that the log-likelihood ratio grows with the score and decides the test once it leaves the bounds.
+     */
+    @Test
+    void testGivenScores() {
+        var sprt = new Sprt(0, 20, 0.05, 0.05);
+        assertEquals(Math.log(0.05 / 0.95), sprt.getLowerBound(), 1e-9);
+        assertEquals(-sprt.getLowerBound(), sprt.getUpperBound(), 1e-9);
+        assertEquals(0, sprt.getLogLikelihoodRatio(new MatchScore()), 1e-9);
+
+        var stronger = createScore(600, 100, 300);
+        var weaker = createScore(300, 100, 600);
+        var equal = createScore(900, 200, 900);
+        assertTrue(sprt.getLogLikelihoodRatio(stronger) > sprt.getUpperBound());
+        assertTrue(sprt.getLogLikelihoodRatio(weaker) < sprt.getLowerBound());
+        assertEquals(SprtResult.PASSED, sprt.test(stronger));
+        assertEquals(SprtResult.FAILED, sprt.test(weaker));
+        assertEquals(SprtResult.FAILED, sprt.test(equal));
+        assertEquals(SprtResult.INCONCLUSIVE, sprt.test(createScore(3, 1, 2)));
+    }
+
+    /**
+     * Test that the runner stops as soon as the stronger candidate passes or the weaker one fails.
+     */
+    @Test
+    void stopGivenConclusiveGames() throws InterruptedException {
+        var sprt = new Sprt(0, 50, 0.05, 0.05);
+        var runner = new SprtRunner("expert", "search-1", sprt, 1000, 2, 1);
+        assertEquals(SprtResult.PASSED, runner.run());
+        assertTrue(runner.getScore().getGames() < 100);
+
+        runner = new SprtRunner("search-1", "expert", sprt, 1000, 2, 1);
+        assertEquals(SprtResult.FAILED, runner.run());
+        assertTrue(runner.getScore().getGames() < 100);
+    }
+
+    /**
+     * Test that the runner gives up once the maximal number of games has been played.
+     */
+    @Test
+    void giveUpGivenTooFewGames() throws InterruptedException {
+        var runner = new SprtRunner("expert", "expert", new Sprt(-10, 10, 0.05, 0.05), 4, 2, 1);
+        assertEquals(SprtResult.INCONCLUSIVE, runner.run());
+        assertEquals(4, runner.getScore().getGames());
+    }
+
+    private static MatchScore createScore(int wins, int draws, int losses) {
+        var score = new MatchScore();
+        for (int i = 0; i < wins; i++) score.add(1);
+        for (int i = 0; i < draws; i++) score.add(0.5);
+        for (int i = 0; i < losses; i++) score.add(0);
+        return score;
+    }
+}
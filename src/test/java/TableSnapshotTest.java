@@ -0,0 +1,129 @@
+import entity.board.BitBoard;
+import entity.strategy.search.TranspositionTable;
+import exception.InvalidSnapshotException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests saving the transposition table to a snapshot file and loading it back.
+ * e.g. keeping the deep entries, rejecting the corrupted and foreign snapshots, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class TableSnapshotTest {
+    private static final long SEED = 42;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("table", ".snapshot");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Test that the loaded table has the same deep entries as the saved one, but not the shallow ones.
+     */
+    @Test
+    void loadDeepEntriesGivenSavedTable() throws IOException {
+        var table = new TranspositionTable(1 << 12);
+        long[] keys = fillTable(table, 1000);
+
+        int saved = table.save(file, 2);
+        var loaded = new TranspositionTable(1 << 12);
+        assertEquals(saved, loaded.load(file));
+
+        int deep = 0;
+        for (long key : Arrays.stream(keys).distinct().toArray()) {
+            long entry = table.probe(key);
+            if (entry == 0) continue;
+            if (TranspositionTable.getDepth(entry) >= 2) {
+                assertEquals(entry, loaded.probe(key));
+                deep++;
+            } else {
+                assertEquals(0, loaded.probe(key));
+            }
+        }
+        assertEquals(deep, saved);
+    }
+
+    /**
+     * Test that a corrupted snapshot is rejected and leaves the table empty.
+     */
+    @Test
+    void rejectCorruptedSnapshot() throws IOException {
+        var table = new TranspositionTable(1 << 12);
+        long[] keys = fillTable(table, 100);
+        table.save(file, 0);
+
+        try (var snapshot = new RandomAccessFile(file.toFile(), "rw")) {
+            snapshot.seek(snapshot.length() - 3);
+            int value = snapshot.read();
+            snapshot.seek(snapshot.length() - 3);
+            snapshot.write(value ^ 1);
+        }
+
+        var loaded = new TranspositionTable(1 << 12);
+        assertThrows(InvalidSnapshotException.class, () -> loaded.load(file));
+        for (long key : keys) assertEquals(0, loaded.probe(key));
+    }
+
+    /**
+     * Test that a snapshot of another version and a truncated snapshot are rejected.
+     */
+    @Test
+    void rejectForeignAndTruncatedSnapshots() throws IOException {
+        var table = new TranspositionTable(1 << 12);
+        fillTable(table, 100);
+        table.save(file, 0);
+
+        try (var snapshot = new RandomAccessFile(file.toFile(), "rw")) {
+            snapshot.seek(4);
+            snapshot.writeInt(TranspositionTable.SNAPSHOT_VERSION + 1);
+        }
+        assertThrows(InvalidSnapshotException.class, () -> new TranspositionTable(16).load(file));
+
+        table.save(file, 0);
+        try (var snapshot = new RandomAccessFile(file.toFile(), "rw")) {
+            snapshot.setLength(snapshot.length() - 8);
+        }
+        assertThrows(InvalidSnapshotException.class, () -> new TranspositionTable(16).load(file));
+    }
+
+    /**
+     * Store the entries of random positions with random depths.
+     *
+     * @param table table to fill
+     * @param count number of the entries
+     * @return keys of the positions
+     */
+    private static long[] fillTable(TranspositionTable table, int count) {
+        var random = new Random(SEED);
+        int[] moves = new int[BitBoard.MOVES];
+        long[] keys = new long[count];
+        BitBoard board = new BitBoard();
+        for (int i = 0; i < count; i++) {
+            if (board.isGameOver()) board = new BitBoard();
+            int moveCount = board.getMoves(moves);
+            int move = moves[random.nextInt(moveCount)];
+            keys[i] = board.getKey();
+            table.store(keys[i], move, random.nextInt(2001) - 1000, random.nextInt(5),
+                    TranspositionTable.EXACT);
+            board = board.play(move);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,96 @@
+import benchmark.MatchScore;
+import benchmark.SelfPlay;
+import benchmark.Tournament;
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.strategy.ExpertStrategy;
+import entity.strategy.Strategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests playing the tournaments among the strategies.
+ * e.g. estimating the Elo differences, playing both colours, playing a gauntlet, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class TournamentTest {
+
+    /**
+     * Test that the Elo difference follows the score and lies within its confidence interval.
+     */
+    @Test
+    void estimateEloGivenScores() {
+        var score = new MatchScore();
+        for (int i = 0; i < 6; i++) score.add(1);
+        score.add(0.5);
+        score.add(0.5);
+        score.add(0);
+        score.add(0);
+
+        assertEquals(0.7, score.getScore(), 1e-9);
+        assertEquals(147, score.getElo(), 1);
+        assertTrue(score.getEloLower() < score.getElo() && score.getElo() < score.getEloUpper());
+        assertEquals(-score.getElo(), score.reverse().getElo(), 1e-9);
+        assertEquals(0, new MatchScore().getElo(), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY, MatchScore.toElo(1));
+    }
+
+    /**
+     * Test that every pairing of the round robin plays each opening with both colours,
+     * and that the stronger strategy scores more.
+     */
+    @Test
+    void playRoundRobin() throws InterruptedException {
+        List<BitBoard> openings = SelfPlay.createOpenings(3, Tournament.OPENING_PLIES, 1);
+        var tournament = new Tournament(List.of("naive", "expert", "search-1"), false, openings, 2);
+        tournament.run();
+
+        assertEquals(3 * openings.size() * 2, tournament.getGames());
+        MatchScore score = tournament.getScore("expert", "search-1");
+        assertEquals(openings.size() * 2, score.getGames());
+        assertEquals(score.getWins(), tournament.getScore("search-1", "expert").getLosses());
+        assertTrue(tournament.getTotalScore("search-1").getScore() > tournament.getTotalScore("naive").getScore());
+        assertTrue(tournament.getGamesPerSecond() > 0);
+    }
+
+    /**
+     * Test that the gauntlet only plays the games of the first strategy.
+     */
+    @Test
+    void playGauntlet() throws InterruptedException {
+        List<BitBoard> openings = SelfPlay.createOpenings(2, Tournament.OPENING_PLIES, 1);
+        var tournament = new Tournament(List.of("expert", "naive", "search-1"), true, openings, 2);
+        tournament.run();
+
+        assertEquals(2 * openings.size() * 2, tournament.getGames());
+        assertEquals(0, tournament.getScore("naive", "search-1").getGames());
+        assertEquals(openings.size() * 4, tournament.getTotalScore("expert").getGames());
+    }
+
+    /**
+     * Test that a strategy that plays an invalid move loses the game.
+     */
+    @Test
+    void loseGivenInvalidMove() {
+        Strategy cheating = new Strategy() {
+            @Override
+            public String getName() {
+                return "cheating-strategy";
+            }
+
+            @Override
+            public Move decideMove(Board board) {
+                return new Move(0, 0, board.getTurn());
+            }
+        };
+        BitBoard opening = new BitBoard().play(0, 0);
+        assertEquals(Marble.WHITE, SelfPlay.play(cheating, new ExpertStrategy(), new BitBoard()));
+        assertEquals(Marble.BLACK, SelfPlay.play(new ExpertStrategy(), cheating, opening));
+    }
+}
@@ -0,0 +1,109 @@
+import client.ClientHandler;
+import client.PentagoClientHandler;
+import org.junit.jupiter.api.Test;
+import server.Connection;
+import server.PentagoServer;
+import server.UserRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the registry of the logged in users.
+ * e.g. claiming and releasing the usernames, listing them, claiming the same username at once, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class UserRegistryTest {
+    private static final PentagoServer SERVER = new PentagoServer("Test server");
+
+    /**
+     * Test that a username can only be claimed once, and only released by the client that has claimed it.
+     */
+    @Test
+    void claimAndReleaseUsernames() {
+        var registry = new UserRegistry();
+        ClientHandler first = createClient();
+        ClientHandler second = createClient();
+        assertTrue(registry.claim("Alice", first));
+        assertTrue(registry.claim("Bob", second));
+        assertFalse(registry.claim("Alice", second));
+        assertArrayEquals(new String[]{"Alice", "Bob"}, registry.getUsernames());
+        assertSame(first, registry.get("Alice"));
+
+        assertFalse(registry.release("Alice", second));
+        assertFalse(registry.release(null, second));
+        assertTrue(registry.release("Alice", first));
+        assertFalse(registry.contains("Alice"));
+        assertArrayEquals(new String[]{"Bob"}, registry.getUsernames());
+        assertEquals(1, registry.size());
+        assertTrue(registry.claim("Alice", second));
+    }
+
+    /**
+     * Test that the listed usernames are not changed by the later logins.
+     */
+    @Test
+    void keepSnapshotGivenLaterLogin() {
+        var registry = new UserRegistry();
+        registry.claim("Alice", createClient());
+        String[] snapshot = registry.getUsernames();
+        registry.claim("Bob", createClient());
+        assertArrayEquals(new String[]{"Alice"}, snapshot);
+        assertEquals(2, registry.getUsernames().length);
+    }
+
+    /**
+     * Test that only one of the clients claiming the same username at once gets it.
+     */
+    @Test
+    void claimUsernameGivenConcurrentLogins() throws InterruptedException {
+        var registry = new UserRegistry();
+        var claims = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ClientHandler client = createClient();
+            var thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 100; j++) {
+                    if (registry.claim("User" + j, client)) claims.incrementAndGet();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(100, claims.get());
+        assertEquals(100, registry.getUsernames().length);
+    }
+
+    /**
+     * Create a client handler that is not connected to anybody.
+     */
+    private static ClientHandler createClient() {
+        return new PentagoClientHandler(new Connection() {
+            @Override
+            public void send(String message) {
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        }, SERVER);
+    }
+}
@@ -0,0 +1,77 @@
+import client.PentagoClient;
+import entity.ClientState;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.player.BufferedPlayer;
+import org.junit.jupiter.api.Test;
+import server.PentagoServer;
+import server.ServerMode;
+import server.VirtualThreads;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests the server whose connections and sessions run on virtual threads.
+ * e.g. logging in the clients, waiting for the buffered moves, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class VirtualServerTest {
+
+    /**
+     * Test logging several clients to the server, which falls back to the regular threads
+     * if the virtual threads are not supported.
+     */
+    @Test
+    void loginClients() throws UnknownHostException {
+        var server = new PentagoServer("Test server", ServerMode.VIRTUAL);
+        assertTrue(server.start(0));
+        InetAddress host = InetAddress.getByName("localhost");
+        for (int i = 0; i < 3; i++) {
+            var client = new PentagoClient("Test client");
+            assertTrue(client.connect(host, server.getPort()));
+            client.login("Test" + i);
+            assertEquals(ClientState.LOGGED_IN, client.getState());
+        }
+        assertEquals(3, server.getOnlineUsers().length);
+    }
+
+    /**
+     * Test that the created threads are virtual if and only if they are supported.
+     */
+    @Test
+    void createThreads() throws ReflectiveOperationException {
+        Thread thread = VirtualThreads.getFactory().newThread(() -> {
+        });
+        boolean isVirtual = false;
+        try {
+            isVirtual = (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException ignored) { // before Java 19
+        }
+        assertEquals(VirtualThreads.isSupported(), isVirtual);
+    }
+
+    /**
+     * Test that the player waiting for its move gets the move stored by another thread.
+     */
+    @Test
+    void decideBufferedMove() throws InterruptedException, ExecutionException, TimeoutException {
+        var player = new BufferedPlayer("Test");
+        var board = new Board();
+        var decision = CompletableFuture.supplyAsync(() -> player.decideMove(board));
+        Thread.sleep(50);
+        assertFalse(decision.isDone());
+
+        var move = new Move(3, 4, Marble.BLACK);
+        player.storeMove(move);
+        assertEquals(move, decision.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,111 @@
+import entity.board.BitBoard;
+import entity.board.Board;
+import entity.board.Marble;
+import entity.board.Move;
+import entity.strategy.ExpertStrategy;
+import entity.strategy.search.WinDetector;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class that tests finding the winning moves without playing them.
+ * e.g. comparing with playing all moves, winning by the rotation, blocking the opponent, etc.
+ *
+ * @author Aliaksei Kouzel
+ */
+public class WinDetectorTest {
+    private static final long SEED = 42;
+
+    /**
+     * Test that the found winning moves are exactly the moves that win when played, for both players.
+     */
+    @Test
+    void findAllWinningMovesGivenRandomGames() {
+        var random = new Random(SEED);
+        int[] moves = new int[BitBoard.MOVES];
+        int[] winningMoves = new int[BitBoard.MOVES];
+        for (int game = 0; game < 200; game++) {
+            BitBoard board = new BitBoard();
+            while (!board.isGameOver()) {
+                for (Marble player : new Marble[]{Marble.BLACK, Marble.WHITE}) {
+                    var position = new BitBoard(board.getBlack(), board.getWhite(), player);
+                    Set<Integer> expected = new HashSet<>();
+                    for (long empty = position.getEmpty(); empty != 0; empty &= empty - 1) {
+                        for (int rotation = 0; rotation < BitBoard.ROTATIONS; rotation++) {
+                            int move = BitBoard.encode(Long.numberOfTrailingZeros(empty), rotation);
+                            if (position.play(move).getWinner() == player) expected.add(move);
+                        }
+                    }
+
+                    int count = WinDetector.getWinningMoves(position, player, winningMoves);
+                    Set<Integer> found = new HashSet<>();
+                    for (int i = 0; i < count; i++) {
+                        found.add(winningMoves[i]);
+                    }
+                    assertEquals(expected, found);
+                    assertEquals(count, WinDetector.countWinningMoves(position, player));
+                }
+                board = board.play(moves[random.nextInt(board.getMoves(moves))]);
+            }
+        }
+    }
+
+    /**
+     * Test that the marble that fills the board does not win, since a full board is a draw.
+     */
+    @Test
+    void noWinGivenLastEmptyField() {
+        long black = 0b001111L;
+        var board = new BitBoard(black, BitBoard.FULL & ~black & ~(1L << 4), Marble.BLACK);
+        assertEquals(Marble.EMPTY, board.play(BitBoard.encode(4, 7)).getWinner());
+        assertEquals(-1, WinDetector.findWinningMove(board, Marble.BLACK));
+        assertEquals(0, WinDetector.countWinningMoves(board, Marble.BLACK));
+    }
+
+    /**
+     * Test that white cannot win with the rotation that completes the streak of black as well.
+     */
+    @Test
+    void noWinGivenBothStreaksAfterRotation() {
+        var board = new Board();
+        // rotating the top right subboard clockwise completes the first row of black and the second row of white
+        board.setFields(Marble.BLACK, 0, 1, 2, 9, 15);
+        board.setFields(Marble.WHITE, 6, 7, 8, 16);
+        BitBoard position = BitBoard.of(board);
+        var bitBoard = new BitBoard(position.getBlack(), position.getWhite(), Marble.WHITE);
+        assertEquals(Marble.BLACK, bitBoard.play(BitBoard.encode(10, 3)).getWinner());
+
+        int[] moves = new int[BitBoard.MOVES];
+        int count = WinDetector.getWinningMoves(bitBoard, Marble.WHITE, moves);
+        for (int i = 0; i < count; i++) {
+            assertNotEquals(3, BitBoard.getRotation(moves[i]));
+        }
+        assertTrue(WinDetector.countWinningMoves(bitBoard, Marble.BLACK) > 0);
+    }
+
+    /**
+     * Test that the expert strategy takes the field of the opponent's winning move.
+     */
+    @Test
+    void expertBlocksOpponentGivenFourInRow() {
+        var board = new Board();
+        board.setFields(Marble.WHITE, 18, 19, 20, 21);
+        board.setFields(Marble.BLACK, 0, 7);
+        Move move = new ExpertStrategy().decideMove(board);
+
+        var bitBoard = BitBoard.of(board);
+        var opponentTurn = new BitBoard(bitBoard.getBlack(), bitBoard.getWhite(), Marble.WHITE);
+        int[] moves = new int[BitBoard.MOVES];
+        int count = WinDetector.getWinningMoves(opponentTurn, Marble.WHITE, moves);
+        boolean blocking = false;
+        for (int i = 0; i < count; i++) {
+            if (BitBoard.getPosition(moves[i]) == move.getPosition()) blocking = true;
+        }
+        assertTrue(blocking);
+    }
+}